@@ -50,6 +50,22 @@ public class ColtAlgorithmFactory implements RuntimePerformanceFactory {
         return new ColtBenchmarkMatrix((DenseDoubleMatrix2D)matrix);
     }
 
+    @Override
+    public BenchmarkMatrix wrapArray2D(double[][] data) {
+        return wrap(new DenseDoubleMatrix2D(data));
+    }
+
+    @Override
+    public BenchmarkMatrix identity(int size) {
+        return wrap(DoubleFactory2D.dense.identity(size));
+    }
+
+    @Override
+    public BenchmarkMatrix copy(BenchmarkMatrix m) {
+        DenseDoubleMatrix2D A = m.getOriginal();
+        return wrap(A.copy());
+    }
+
     @Override
     public MatrixProcessorInterface chol() {
         return new Chol();
@@ -486,11 +502,7 @@ public class ColtAlgorithmFactory implements RuntimePerformanceFactory {
     {
         DenseDoubleMatrix2D mat = new DenseDoubleMatrix2D(orig.numRows,orig.numCols);
 
-        for( int i = 0; i < orig.numRows; i++ ) {
-            for( int j = 0; j < orig.numCols; j++ ) {
-                mat.set(i,j,orig.get(i,j));
-            }
-        }
+        new ColtBenchmarkMatrix(mat).setRowMajor(orig.data);
 
         return mat;
     }
@@ -502,11 +514,7 @@ public class ColtAlgorithmFactory implements RuntimePerformanceFactory {
 
         RowMajorMatrix mat = new RowMajorMatrix(orig.rows(),orig.columns());
 
-        for( int i = 0; i < mat.numRows; i++ ) {
-            for( int j = 0; j < mat.numCols; j++ ) {
-                mat.set(i,j,orig.get(i,j));
-            }
-        }
+        new ColtBenchmarkMatrix(orig).getRowMajor(mat.data);
 
         return mat;
     }
@@ -58,4 +58,36 @@ public class ColtBenchmarkMatrix implements BenchmarkMatrix {
     public <T> T getOriginal() {
         return (T)mat;
     }
+
+    @Override
+    public void getRows(int row0, int row1, double[] data) {
+        checkRows(row0,row1);
+        int numCols = mat.columns();
+        int index = 0;
+        for (int row = row0; row < row1; row++) {
+            for (int col = 0; col < numCols; col++) {
+                data[index++] = mat.getQuick(row,col);
+            }
+        }
+    }
+
+    @Override
+    public void setRows(int row0, int row1, double[] data) {
+        checkRows(row0,row1);
+        int numCols = mat.columns();
+        int index = 0;
+        for (int row = row0; row < row1; row++) {
+            for (int col = 0; col < numCols; col++) {
+                mat.setQuick(row,col,data[index++]);
+            }
+        }
+    }
+
+    /**
+     * The quick accessors don't check bounds so it's done once here instead of for every element
+     */
+    private void checkRows(int row0, int row1) {
+        if( row0 < 0 || row1 > mat.rows() || row0 > row1 )
+            throw new IndexOutOfBoundsException("rows "+row0+" to "+row1+" in a matrix with "+mat.rows()+" rows");
+    }
 }
@@ -20,7 +20,9 @@
 package jmatbench.commonsmath;
 
 import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.ComplexPerformanceFactory;
 import jmbench.interfaces.DetectedException;
+import jmbench.interfaces.LatencyRecorder;
 import jmbench.interfaces.MatrixProcessorInterface;
 import jmbench.interfaces.RuntimePerformanceFactory;
 import jmbench.matrix.RowMajorMatrix;
@@ -45,6 +47,22 @@ public class CommonsMathAlgorithmFactory implements RuntimePerformanceFactory {
         return new CommonsMathBenchmarkMatrix( (RealMatrix)matrix );
     }
 
+    @Override
+    public BenchmarkMatrix wrapArray2D(double[][] data) {
+        return wrap(MatrixUtils.createRealMatrix(data));
+    }
+
+    @Override
+    public BenchmarkMatrix identity(int size) {
+        return wrap(MatrixUtils.createRealIdentityMatrix(size));
+    }
+
+    @Override
+    public BenchmarkMatrix copy(BenchmarkMatrix m) {
+        RealMatrix A = m.getOriginal();
+        return wrap(A.copy());
+    }
+
     @Override
     public MatrixProcessorInterface chol() {
         return new Chol();
@@ -76,6 +94,27 @@ public class CommonsMathAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            RealMatrix matA = inputs[0].getOriginal();
+
+            RealMatrix L = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                try {
+                    CholeskyDecomposition chol = new CholeskyDecomposition(matA);
+                    L = chol.getL();
+                } catch( NonSymmetricMatrixException e ) {
+                    throw new DetectedException(e);
+                } catch( NonPositiveDefiniteMatrixException e ) {
+                    throw new DetectedException(e);
+                }
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -109,6 +148,25 @@ public class CommonsMathAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            RealMatrix matA = inputs[0].getOriginal();
+
+            RealMatrix L = null;
+            RealMatrix U = null;
+            RealMatrix P = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                LUDecomposition LU = new LUDecomposition(matA);
+                L = LU.getL();
+                U = LU.getU();
+                P = LU.getP();
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -143,6 +201,26 @@ public class CommonsMathAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            RealMatrix matA = inputs[0].getOriginal();
+
+            RealMatrix U = null;
+            RealMatrix S = null;
+            RealMatrix V = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                SingularValueDecomposition svd = new SingularValueDecomposition(matA);
+                // need to call this functions so that it performs the full decomposition
+                U = svd.getU();
+                S = svd.getS();
+                V = svd.getV();
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -180,6 +258,30 @@ public class CommonsMathAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            RealMatrix matA = inputs[0].getOriginal();
+
+            RealMatrix V = null;
+            RealMatrix D = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                try {
+                    EigenDecomposition eig = new EigenDecomposition(matA);
+                    // need to do this so that it computes the complete eigen vector
+                    V = eig.getV();
+                    D = eig.getD();
+                } catch( MaxCountExceededException e ) {
+                    throw new DetectedException(e);
+                } catch( MathArithmeticException e ) {
+                    throw new DetectedException(e);
+                }
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -212,6 +314,25 @@ public class CommonsMathAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            RealMatrix matA = inputs[0].getOriginal();
+
+            RealMatrix Q = null;
+            RealMatrix R = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                QRDecomposition decomp = new QRDecomposition(matA);
+
+                Q = decomp.getQ();
+                R = decomp.getR();
+
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -235,6 +356,21 @@ public class CommonsMathAlgorithmFactory implements RuntimePerformanceFactory {
 
             return System.nanoTime()-prev;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            RealMatrix matA = inputs[0].getOriginal();
+
+            // LU decompose is a bit of a mess because of all the depreciated stuff everywhere
+            // I believe this is the way the designers want you to do it
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                LUDecomposition lu = new LUDecomposition(matA);
+                lu.getDeterminant();
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -267,6 +403,27 @@ public class CommonsMathAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            RealMatrix matA = inputs[0].getOriginal();
+
+            RealMatrix result = null;
+
+            // LU decompose is a bit of a mess because of all the depreciated stuff everywhere
+            // I believe this is the way the designers want you to do it
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                try {
+                    LUDecomposition lu = new LUDecomposition(matA);
+                    result = lu.getSolver().getInverse();
+                } catch( SingularMatrixException e ) {
+                    throw new DetectedException(e);
+                }
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -301,6 +458,29 @@ public class CommonsMathAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            RealMatrix matA = inputs[0].getOriginal();
+
+            RealMatrix result = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                try {
+                    CholeskyDecomposition chol = new CholeskyDecomposition(matA);
+                    result = chol.getSolver().getInverse();
+                } catch( NonSymmetricMatrixException e ) {
+                    throw new DetectedException(e);
+                } catch( NonPositiveDefiniteMatrixException e ) {
+                    throw new DetectedException(e);
+                } catch( SingularMatrixException e ) {
+                    throw new DetectedException(e);
+                }
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -327,6 +507,21 @@ public class CommonsMathAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            RealMatrix matA = inputs[0].getOriginal();
+            RealMatrix matB = inputs[1].getOriginal();
+
+            RealMatrix result = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                result = matA.add(matB);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -353,6 +548,21 @@ public class CommonsMathAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            RealMatrix matA = inputs[0].getOriginal();
+            RealMatrix matB = inputs[1].getOriginal();
+
+            RealMatrix result = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                result = matA.multiply(matB);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -379,6 +589,21 @@ public class CommonsMathAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            RealMatrix matA = inputs[0].getOriginal();
+            RealMatrix matB = inputs[1].getOriginal();
+
+            RealMatrix result = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                result = matA.multiply(matB.transpose());
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -404,6 +629,20 @@ public class CommonsMathAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            RealMatrix matA = inputs[0].getOriginal();
+
+            RealMatrix result = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                result = matA.scalarMultiply(BenchmarkConstants.SCALE);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -436,6 +675,22 @@ public class CommonsMathAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            RealMatrix matA = inputs[0].getOriginal();
+            RealMatrix matB = inputs[1].getOriginal();
+
+            RealMatrix result = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                LUDecomposition lu = new LUDecomposition(matA);
+                result = lu.getSolver().solve(matB);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     public static class SolveOver implements MatrixProcessorInterface {
@@ -457,6 +712,22 @@ public class CommonsMathAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            RealMatrix matA = inputs[0].getOriginal();
+            RealMatrix matB = inputs[1].getOriginal();
+
+            RealMatrix result = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                QRDecomposition qr = new QRDecomposition(matA);
+                result = qr.getSolver().solve(matB);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -482,6 +753,25 @@ public class CommonsMathAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            RealMatrix matA = inputs[0].getOriginal();
+
+            RealMatrix result = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                result = matA.transpose();
+                recorder.record(System.nanoTime()-start);
+            }
+        }
+    }
+
+    @Override
+    public ComplexPerformanceFactory complex() {
+        return new CommonsMathComplexFactory();
     }
 
     @Override
@@ -556,11 +846,7 @@ public class CommonsMathAlgorithmFactory implements RuntimePerformanceFactory {
 
         RowMajorMatrix ret = new RowMajorMatrix(orig.getRowDimension(),orig.getColumnDimension());
 
-        for( int i = 0; i < ret.numRows; i++ ) {
-            for( int j = 0; j < ret.numCols; j++ ) {
-                ret.set(i,j, orig.getEntry(i,j));
-            }
-        }
+        new CommonsMathBenchmarkMatrix(orig).getRowMajor(ret.data);
 
         return ret;
     }
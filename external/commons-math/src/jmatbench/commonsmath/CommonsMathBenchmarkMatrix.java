@@ -58,4 +58,23 @@ public class CommonsMathBenchmarkMatrix implements BenchmarkMatrix  {
     public <T> T getOriginal() {
         return (T)mat;
     }
+
+    @Override
+    public void getRows(int row0, int row1, double[] data) {
+        int numCols = mat.getColumnDimension();
+        for (int row = row0; row < row1; row++) {
+            System.arraycopy(mat.getRow(row),0,data,(row-row0)*numCols,numCols);
+        }
+    }
+
+    @Override
+    public void setRows(int row0, int row1, double[] data) {
+        int numCols = mat.getColumnDimension();
+        // setRow() copies the array so it can be reused
+        double[] values = new double[numCols];
+        for (int row = row0; row < row1; row++) {
+            System.arraycopy(data,(row-row0)*numCols,values,0,numCols);
+            mat.setRow(row,values);
+        }
+    }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmatbench.commonsmath;
+
+import jmbench.interfaces.ComplexBenchmarkMatrix;
+import org.apache.commons.math3.complex.Complex;
+import org.apache.commons.math3.linear.FieldMatrix;
+
+
+/**
+ * @author Peter Abeles
+ */
+public class CommonsMathComplexBenchmarkMatrix implements ComplexBenchmarkMatrix {
+
+    private FieldMatrix<Complex> mat;
+
+    public CommonsMathComplexBenchmarkMatrix(FieldMatrix<Complex> mat) {
+        this.mat = mat;
+    }
+
+    @Override
+    public double getReal(int row, int col) {
+        return mat.getEntry(row,col).getReal();
+    }
+
+    @Override
+    public double getImag(int row, int col) {
+        return mat.getEntry(row,col).getImaginary();
+    }
+
+    @Override
+    public void set(int row, int col, double real, double imag) {
+        mat.setEntry(row,col,new Complex(real,imag));
+    }
+
+    @Override
+    public int numRows() {
+        return mat.getRowDimension();
+    }
+
+    @Override
+    public int numCols() {
+        return mat.getColumnDimension();
+    }
+
+    @Override
+    public <T> T getOriginal() {
+        return (T)mat;
+    }
+}
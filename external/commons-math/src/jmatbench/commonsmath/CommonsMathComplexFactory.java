@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmatbench.commonsmath;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.ComplexBenchmarkMatrix;
+import jmbench.interfaces.ComplexPerformanceFactory;
+import jmbench.interfaces.DetectedException;
+import jmbench.interfaces.MatrixProcessorInterface;
+import org.apache.commons.math3.complex.Complex;
+import org.apache.commons.math3.complex.ComplexField;
+import org.apache.commons.math3.linear.Array2DRowFieldMatrix;
+import org.apache.commons.math3.linear.FieldLUDecomposition;
+import org.apache.commons.math3.linear.FieldMatrix;
+import org.apache.commons.math3.linear.SingularMatrixException;
+
+
+/**
+ * <p>
+ * Complex operations using commons-math's generic {@link FieldMatrix} with {@link Complex} elements.  The only
+ * decomposition it has for field matrices is LU, which is also used to invert and solve.  Since a field has no
+ * notion of magnitude, it pivots on the first non-zero element instead of the largest.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CommonsMathComplexFactory implements ComplexPerformanceFactory {
+
+    @Override
+    public ComplexBenchmarkMatrix create(int numRows, int numCols) {
+        return new CommonsMathComplexBenchmarkMatrix(
+                new Array2DRowFieldMatrix<Complex>(ComplexField.getInstance(),numRows,numCols));
+    }
+
+    @Override
+    public MatrixProcessorInterface mult() {
+        return new Mult();
+    }
+
+    public static class Mult implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FieldMatrix<Complex> matA = inputs[0].getOriginal();
+            FieldMatrix<Complex> matB = inputs[1].getOriginal();
+
+            FieldMatrix<Complex> result = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                result = matA.multiply(matB);
+            }
+
+            long elapsedTime = System.nanoTime()-prev;
+            if( outputs != null ) {
+                outputs[0] = new CommonsMathComplexBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface add() {
+        return new Add();
+    }
+
+    public static class Add implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FieldMatrix<Complex> matA = inputs[0].getOriginal();
+            FieldMatrix<Complex> matB = inputs[1].getOriginal();
+
+            FieldMatrix<Complex> result = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                result = matA.add(matB);
+            }
+
+            long elapsedTime = System.nanoTime()-prev;
+            if( outputs != null ) {
+                outputs[0] = new CommonsMathComplexBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface invert() {
+        return new Inv();
+    }
+
+    public static class Inv implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FieldMatrix<Complex> matA = inputs[0].getOriginal();
+
+            FieldMatrix<Complex> result = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                try {
+                    FieldLUDecomposition<Complex> lu = new FieldLUDecomposition<Complex>(matA);
+                    result = lu.getSolver().getInverse();
+                } catch( SingularMatrixException e ) {
+                    throw new DetectedException(e);
+                }
+            }
+
+            long elapsedTime = System.nanoTime()-prev;
+            if( outputs != null ) {
+                outputs[0] = new CommonsMathComplexBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface solve() {
+        return new Solve();
+    }
+
+    public static class Solve implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FieldMatrix<Complex> matA = inputs[0].getOriginal();
+            FieldMatrix<Complex> matB = inputs[1].getOriginal();
+
+            FieldMatrix<Complex> result = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                try {
+                    FieldLUDecomposition<Complex> lu = new FieldLUDecomposition<Complex>(matA);
+                    result = lu.getSolver().solve(matB);
+                } catch( SingularMatrixException e ) {
+                    throw new DetectedException(e);
+                }
+            }
+
+            long elapsedTime = System.nanoTime()-prev;
+            if( outputs != null ) {
+                outputs[0] = new CommonsMathComplexBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface lu() {
+        return new LU();
+    }
+
+    public static class LU implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FieldMatrix<Complex> matA = inputs[0].getOriginal();
+
+            FieldMatrix<Complex> L = null;
+            FieldMatrix<Complex> U = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                FieldLUDecomposition<Complex> lu = new FieldLUDecomposition<Complex>(matA);
+                L = lu.getL();
+                U = lu.getU();
+            }
+
+            long elapsedTime = System.nanoTime()-prev;
+            if( outputs != null ) {
+                outputs[0] = new CommonsMathComplexBenchmarkMatrix(L);
+                outputs[1] = new CommonsMathComplexBenchmarkMatrix(U);
+            }
+            return elapsedTime;
+        }
+    }
+}
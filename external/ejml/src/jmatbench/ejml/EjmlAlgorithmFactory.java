@@ -20,9 +20,13 @@
 package jmatbench.ejml;
 
 import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.ComplexPerformanceFactory;
 import jmbench.interfaces.DetectedException;
+import jmbench.interfaces.FloatPerformanceFactory;
+import jmbench.interfaces.LatencyRecorder;
 import jmbench.interfaces.MatrixProcessorInterface;
 import jmbench.interfaces.RuntimePerformanceFactory;
+import jmbench.interfaces.SparsePerformanceFactory;
 import jmbench.matrix.RowMajorMatrix;
 import jmbench.tools.BenchmarkConstants;
 import org.ejml.EjmlVersion;
@@ -54,6 +58,22 @@ public class EjmlAlgorithmFactory implements RuntimePerformanceFactory {
         return wrap(A);
     }
 
+    @Override
+    public BenchmarkMatrix wrapRowMajor(int numRows, int numCols, double[] data) {
+        return wrap(DMatrixRMaj.wrap(numRows,numCols,data));
+    }
+
+    @Override
+    public BenchmarkMatrix identity(int size) {
+        return wrap(CommonOps_DDRM.identity(size));
+    }
+
+    @Override
+    public BenchmarkMatrix copy(BenchmarkMatrix m) {
+        DMatrixRMaj A = m.getOriginal();
+        return wrap(A.copy());
+    }
+
     @Override
     public MatrixProcessorInterface chol() {
         return new Chol();
@@ -83,6 +103,25 @@ public class EjmlAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DMatrixRMaj matA = inputs[0].getOriginal();
+
+            CholeskyDecomposition_F64<DMatrixRMaj> chol = DecompositionFactory_DDRM.chol(matA.numRows, true);
+
+            DMatrixRMaj L = new DMatrixRMaj(matA.numRows,matA.numCols);
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                if( !DecompositionFactory_DDRM.decomposeSafe(chol,matA) ) {
+                    throw new DetectedException("Decomposition failed");
+                }
+                chol.getT(L);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -120,6 +159,29 @@ public class EjmlAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DMatrixRMaj matA = inputs[0].getOriginal();
+
+            LUDecomposition_F64<DMatrixRMaj> lu = DecompositionFactory_DDRM.lu(matA.numRows,matA.numCols);
+
+            DMatrixRMaj L = new DMatrixRMaj(matA.numRows,matA.numCols);
+            DMatrixRMaj U = new DMatrixRMaj(matA.numRows,matA.numCols);
+            DMatrixRMaj P = new DMatrixRMaj(matA.numRows,matA.numCols);
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                if( !DecompositionFactory_DDRM.decomposeSafe(lu,matA) )
+                    throw new DetectedException("Decomposition failed");
+
+                lu.getLower(L);
+                lu.getUpper(U);
+                lu.getRowPivot(P);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -156,6 +218,28 @@ public class EjmlAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DMatrixRMaj matA = inputs[0].getOriginal();
+
+            SingularValueDecomposition_F64<DMatrixRMaj> svd = DecompositionFactory_DDRM.svd(matA.numRows,matA.numCols,true,true,false);
+
+            DMatrixRMaj U = null;
+            DMatrixRMaj S = null;
+            DMatrixRMaj V = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                if( !DecompositionFactory_DDRM.decomposeSafe(svd,matA) )
+                    throw new DetectedException("Decomposition failed");
+                U = svd.getU(null, false);
+                S = svd.getW(S);
+                V = svd.getV(null, false);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -187,6 +271,24 @@ public class EjmlAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DMatrixRMaj matA = inputs[0].getOriginal();
+
+            EigenDecomposition_F64<DMatrixRMaj> eig = DecompositionFactory_DDRM.eig(matA.numCols, true, true);
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                if( !DecompositionFactory_DDRM.decomposeSafe(eig,matA) )
+                    throw new DetectedException("Decomposition failed");
+                // this isn't necessary since eigenvalues and eigenvectors are always computed
+                eig.getEigenvalue(0);
+                eig.getEigenVector(0);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -220,6 +322,26 @@ public class EjmlAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DMatrixRMaj matA = inputs[0].getOriginal();
+
+            QRDecomposition<DMatrixRMaj> qr = DecompositionFactory_DDRM.qr(matA.numRows,matA.numCols);
+            DMatrixRMaj Q = null;
+            DMatrixRMaj R = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                if( !DecompositionFactory_DDRM.decomposeSafe(qr,matA) )
+                    throw new DetectedException("Decomposition failed");
+
+                Q = qr.getQ(null,true);
+                R = qr.getR(null,true);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -240,6 +362,18 @@ public class EjmlAlgorithmFactory implements RuntimePerformanceFactory {
 
             return System.nanoTime() - prev;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DMatrixRMaj matA = inputs[0].getOriginal();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                CommonOps_DDRM.det(matA);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -267,6 +401,21 @@ public class EjmlAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DMatrixRMaj matA = inputs[0].getOriginal();
+
+            DMatrixRMaj result = new DMatrixRMaj(matA.numRows,matA.numCols);
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                if( !CommonOps_DDRM.invert(matA,result) )
+                    throw new DetectedException("Inversion failed");
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -294,6 +443,21 @@ public class EjmlAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DMatrixRMaj matA = inputs[0].getOriginal();
+
+            DMatrixRMaj result = new DMatrixRMaj(matA.numRows,matA.numCols);
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                if( !CovarianceOps_DDRM.invert(matA,result) )
+                    throw new RuntimeException("Inversion failed");
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -321,6 +485,21 @@ public class EjmlAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DMatrixRMaj matA = inputs[0].getOriginal();
+            DMatrixRMaj matB = inputs[1].getOriginal();
+
+            DMatrixRMaj result = new DMatrixRMaj(matA);
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                CommonOps_DDRM.add(matA,matB,result);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -348,6 +527,21 @@ public class EjmlAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DMatrixRMaj matA = inputs[0].getOriginal();
+            DMatrixRMaj matB = inputs[1].getOriginal();
+
+            DMatrixRMaj result = new DMatrixRMaj(matA.numRows,matB.numCols);
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                CommonOps_DDRM.mult(matA,matB,result);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -375,6 +569,21 @@ public class EjmlAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DMatrixRMaj matA = inputs[0].getOriginal();
+            DMatrixRMaj matB = inputs[1].getOriginal();
+
+            DMatrixRMaj result = new DMatrixRMaj(matA.numCols,matB.numCols);
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                CommonOps_DDRM.multTransB(matA,matB,result);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -401,6 +610,20 @@ public class EjmlAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DMatrixRMaj matA = inputs[0].getOriginal();
+
+            DMatrixRMaj result = new DMatrixRMaj(matA.numRows,matA.numCols);
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                CommonOps_DDRM.scale(BenchmarkConstants.SCALE,matA,result);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -434,6 +657,28 @@ public class EjmlAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DMatrixRMaj matA = inputs[0].getOriginal();
+            DMatrixRMaj matB = inputs[1].getOriginal();
+
+            DMatrixRMaj result = new DMatrixRMaj(matA.numCols,matB.numCols);
+
+            LinearSolverDense<DMatrixRMaj> solver = LinearSolverFactory_DDRM.linear(matA.numRows);
+            // make sure the input is not modified
+            solver = new LinearSolverSafe<>(solver);
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                if( !solver.setA(matA) )
+                    throw new DetectedException("Bad A");
+
+                solver.solve(matB,result);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -469,6 +714,29 @@ public class EjmlAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DMatrixRMaj matA = inputs[0].getOriginal();
+            DMatrixRMaj matB = inputs[1].getOriginal();
+
+            DMatrixRMaj result = new DMatrixRMaj(matA.numCols,matB.numCols);
+
+            LinearSolverDense<DMatrixRMaj> solver = LinearSolverFactory_DDRM.leastSquares(matA.numRows,matA.numCols);
+
+            // make sure the input is not modified
+            solver = new LinearSolverSafe<>(solver);
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                if( !solver.setA(matA) )
+                    throw new DetectedException("Bad A");
+
+                solver.solve(matB,result);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -495,6 +763,60 @@ public class EjmlAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DMatrixRMaj matA = inputs[0].getOriginal();
+
+            DMatrixRMaj result = new DMatrixRMaj(matA.numCols,matA.numRows);
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                CommonOps_DDRM.transpose(matA,result);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface batchMult() {
+        return new EjmlBatchOps.Mult();
+    }
+
+    @Override
+    public MatrixProcessorInterface batchInvert() {
+        return new EjmlBatchOps.Invert();
+    }
+
+    @Override
+    public MatrixProcessorInterface batchSolve() {
+        return new EjmlBatchOps.Solve();
+    }
+
+    @Override
+    public MatrixProcessorInterface batchDet() {
+        return new EjmlBatchOps.Det();
+    }
+
+    @Override
+    public MatrixProcessorInterface batchChol() {
+        return new EjmlBatchOps.Chol();
+    }
+
+    @Override
+    public SparsePerformanceFactory sparse() {
+        return new EjmlSparseFactory();
+    }
+
+    @Override
+    public FloatPerformanceFactory float32() {
+        return new EjmlFloatFactory();
+    }
+
+    @Override
+    public ComplexPerformanceFactory complex() {
+        return new EjmlComplexFactory();
     }
 
     @Override
@@ -0,0 +1,590 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmatbench.ejml;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.DetectedException;
+import jmbench.interfaces.MatrixProcessorInterface;
+import jmbench.tools.runtime.generator.BatchGenerator;
+import org.ejml.data.*;
+import org.ejml.dense.fixed.*;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.ejml.dense.row.factory.LinearSolverFactory_DDRM;
+import org.ejml.interfaces.decomposition.CholeskyDecomposition_F64;
+import org.ejml.interfaces.decomposition.LUDecomposition_F64;
+import org.ejml.interfaces.linsol.LinearSolverDense;
+
+
+/**
+ * <p>
+ * Operations on batches of small matrices, see {@link jmbench.interfaces.RuntimePerformanceFactory#batchMult()}.
+ * Before the timer is started the inputs are converted into EJML's fixed size matrices, e.g. {@link DMatrix3x3},
+ * which are then processed by the unrolled functions in {@link CommonOps_DDF3} and its siblings.  Sizes and
+ * operations which don't have a fixed size implementation, e.g. inverting a 6x6 matrix, use
+ * {@link DMatrixRMaj} and a solver or decomposition which is declared once.
+ * </p>
+ *
+ * <p>
+ * Fixed size matrices don't have a linear solver, so solve inverts the matrix and multiplies by the inverse,
+ * which is what EJML recommends for these sizes.  Cholesky is done in place, so the input is first copied
+ * into the output.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class EjmlBatchOps {
+
+    /**
+     * Converts the inputs into fixed size matrices and keeps track of which set of inputs is next
+     */
+    public static abstract class FixedBatch implements MatrixProcessorInterface {
+        // number of inputs for each operation
+        int inputsPerSet;
+        // shape of the output.  1 if it has a single row or column, otherwise it's the size of the input matrix
+        int outputRows, outputCols;
+
+        // inputs which were converted. They are only converted again if a different array is passed in
+        BenchmarkMatrix[] converted;
+        // number of sets of inputs and the size of each matrix
+        int count, size;
+        // index of the next set of inputs which is processed
+        int next;
+
+        // inputs as fixed size matrices, [input][set].  null if there's no fixed size type
+        DMatrixFixed[][] fixed;
+        // the original inputs, [input][set]
+        DMatrixRMaj[][] dense;
+        // output for each set
+        DMatrixFixed[] fixedOut;
+        DMatrixRMaj[] denseOut;
+
+        // sum of scalar results, so that the JIT can't skip their computation
+        public double total;
+
+        protected FixedBatch( int inputsPerSet , int outputRows , int outputCols ) {
+            this.inputsPerSet = inputsPerSet;
+            this.outputRows = outputRows;
+            this.outputCols = outputCols;
+        }
+
+        protected void prepare( BenchmarkMatrix[] inputs ) {
+            if( inputs == converted )
+                return;
+            converted = inputs;
+            next = 0;
+            count = BatchGenerator.numSets(inputs,inputsPerSet);
+            size = inputs[0].numRows();
+
+            fixed = new DMatrixFixed[inputsPerSet][count];
+            dense = new DMatrixRMaj[inputsPerSet][count];
+            for (int set = 0; set < count; set++) {
+                for (int k = 0; k < inputsPerSet; k++) {
+                    DMatrixRMaj m = inputs[set*inputsPerSet+k].getOriginal();
+                    dense[k][set] = m;
+                    fixed[k][set] = toFixed(m);
+                }
+            }
+
+            int rows = outputRows == 1 ? 1 : size;
+            int cols = outputCols == 1 ? 1 : size;
+            fixedOut = new DMatrixFixed[count];
+            denseOut = new DMatrixRMaj[count];
+            for (int set = 0; set < count; set++) {
+                fixedOut[set] = createFixed(rows,cols);
+                denseOut[set] = new DMatrixRMaj(rows,cols);
+            }
+        }
+
+        /**
+         * Saves where the next call should start and returns the index of the last set processed
+         */
+        protected int finish( int j ) {
+            next = j;
+            return j == 0 ? count-1 : j-1;
+        }
+
+        /**
+         * Output for the specified set as a dense matrix
+         */
+        protected DMatrixRMaj output( int set ) {
+            DMatrixFixed f = fixedOut[set];
+            if( f == null || !usedFixed() )
+                return denseOut[set];
+            DMatrixRMaj out = new DMatrixRMaj(f.getNumRows(),f.getNumCols());
+            for (int row = 0; row < out.numRows; row++) {
+                for (int col = 0; col < out.numCols; col++) {
+                    out.set(row,col,f.get(row,col));
+                }
+            }
+            return out;
+        }
+
+        /**
+         * True if the fixed size code was used for the current size
+         */
+        protected abstract boolean usedFixed();
+    }
+
+    /**
+     * Creates a fixed size matrix with the specified shape.  Column vectors use the vector types.
+     *
+     * @return the matrix or null if there's no fixed size type for it
+     */
+    public static DMatrixFixed createFixed( int rows , int cols ) {
+        if( cols == 1 ) {
+            switch( rows ) {
+                case 2: return new DMatrix2();
+                case 3: return new DMatrix3();
+                case 4: return new DMatrix4();
+                case 5: return new DMatrix5();
+                case 6: return new DMatrix6();
+                default: return null;
+            }
+        } else if( rows == cols ) {
+            switch( rows ) {
+                case 2: return new DMatrix2x2();
+                case 3: return new DMatrix3x3();
+                case 4: return new DMatrix4x4();
+                case 5: return new DMatrix5x5();
+                case 6: return new DMatrix6x6();
+                default: return null;
+            }
+        }
+        return null;
+    }
+
+    private static DMatrixFixed toFixed( DMatrixRMaj m ) {
+        DMatrixFixed f = createFixed(m.numRows,m.numCols);
+        if( f == null )
+            return null;
+        for (int row = 0; row < m.numRows; row++) {
+            for (int col = 0; col < m.numCols; col++) {
+                f.set(row,col,m.get(row,col));
+            }
+        }
+        return f;
+    }
+
+    /**
+     * c[i] = a[i]*b[i]
+     */
+    public static class Mult extends FixedBatch {
+
+        public Mult() {
+            super(2,0,0);
+        }
+
+        @Override
+        protected boolean usedFixed() {
+            return size >= 2 && size <= 6;
+        }
+
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            prepare(inputs);
+            DMatrixFixed[] a = fixed[0];
+            DMatrixFixed[] b = fixed[1];
+            DMatrixFixed[] c = fixedOut;
+            DMatrixRMaj[] denseA = dense[0];
+            DMatrixRMaj[] denseB = dense[1];
+            DMatrixRMaj[] denseC = denseOut;
+
+            long prev = System.nanoTime();
+
+            int j = next;
+            switch( size ) {
+                case 2:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        CommonOps_DDF2.mult((DMatrix2x2)a[j],(DMatrix2x2)b[j],(DMatrix2x2)c[j]);
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+                case 3:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        CommonOps_DDF3.mult((DMatrix3x3)a[j],(DMatrix3x3)b[j],(DMatrix3x3)c[j]);
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+                case 4:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        CommonOps_DDF4.mult((DMatrix4x4)a[j],(DMatrix4x4)b[j],(DMatrix4x4)c[j]);
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+                case 5:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        CommonOps_DDF5.mult((DMatrix5x5)a[j],(DMatrix5x5)b[j],(DMatrix5x5)c[j]);
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+                case 6:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        CommonOps_DDF6.mult((DMatrix6x6)a[j],(DMatrix6x6)b[j],(DMatrix6x6)c[j]);
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+                default:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        CommonOps_DDRM.mult(denseA[j],denseB[j],denseC[j]);
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            int last = finish(j);
+            if( outputs != null ) {
+                outputs[0] = new EjmlBenchmarkMatrix(output(last));
+            }
+            return elapsedTime;
+        }
+    }
+
+    /**
+     * c[i] = inv(a[i])
+     */
+    public static class Invert extends FixedBatch {
+
+        public Invert() {
+            super(1,0,0);
+        }
+
+        @Override
+        protected boolean usedFixed() {
+            return size >= 2 && size <= 5;
+        }
+
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            prepare(inputs);
+            DMatrixFixed[] a = fixed[0];
+            DMatrixFixed[] c = fixedOut;
+            DMatrixRMaj[] denseA = dense[0];
+            DMatrixRMaj[] denseC = denseOut;
+            LinearSolverDense<DMatrixRMaj> solver = LinearSolverFactory_DDRM.lu(size);
+
+            long prev = System.nanoTime();
+
+            int j = next;
+            switch( size ) {
+                case 2:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        if( !CommonOps_DDF2.invert((DMatrix2x2)a[j],(DMatrix2x2)c[j]) )
+                            throw new DetectedException("Invert failed");
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+                case 3:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        if( !CommonOps_DDF3.invert((DMatrix3x3)a[j],(DMatrix3x3)c[j]) )
+                            throw new DetectedException("Invert failed");
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+                case 4:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        if( !CommonOps_DDF4.invert((DMatrix4x4)a[j],(DMatrix4x4)c[j]) )
+                            throw new DetectedException("Invert failed");
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+                case 5:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        if( !CommonOps_DDF5.invert((DMatrix5x5)a[j],(DMatrix5x5)c[j]) )
+                            throw new DetectedException("Invert failed");
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+                default:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        if( !solver.setA(denseA[j]) )
+                            throw new DetectedException("Invert failed");
+                        solver.invert(denseC[j]);
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            int last = finish(j);
+            if( outputs != null ) {
+                outputs[0] = new EjmlBenchmarkMatrix(output(last));
+            }
+            return elapsedTime;
+        }
+    }
+
+    /**
+     * Solves a[i]*c[i] = b[i] using the inverse
+     */
+    public static class Solve extends FixedBatch {
+        // storage for the inverse
+        DMatrixFixed inverse;
+
+        public Solve() {
+            super(2,0,1);
+        }
+
+        @Override
+        protected void prepare( BenchmarkMatrix[] inputs ) {
+            super.prepare(inputs);
+            if( inverse == null || inverse.getNumRows() != size )
+                inverse = createFixed(size,size);
+        }
+
+        @Override
+        protected boolean usedFixed() {
+            return size >= 2 && size <= 5;
+        }
+
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            prepare(inputs);
+            DMatrixFixed[] a = fixed[0];
+            DMatrixFixed[] b = fixed[1];
+            DMatrixFixed[] c = fixedOut;
+            DMatrixRMaj[] denseA = dense[0];
+            DMatrixRMaj[] denseB = dense[1];
+            DMatrixRMaj[] denseC = denseOut;
+            LinearSolverDense<DMatrixRMaj> solver = LinearSolverFactory_DDRM.lu(size);
+
+            long prev = System.nanoTime();
+
+            int j = next;
+            switch( size ) {
+                case 2:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        if( !CommonOps_DDF2.invert((DMatrix2x2)a[j],(DMatrix2x2)inverse) )
+                            throw new DetectedException("Solve failed");
+                        CommonOps_DDF2.mult((DMatrix2x2)inverse,(DMatrix2)b[j],(DMatrix2)c[j]);
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+                case 3:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        if( !CommonOps_DDF3.invert((DMatrix3x3)a[j],(DMatrix3x3)inverse) )
+                            throw new DetectedException("Solve failed");
+                        CommonOps_DDF3.mult((DMatrix3x3)inverse,(DMatrix3)b[j],(DMatrix3)c[j]);
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+                case 4:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        if( !CommonOps_DDF4.invert((DMatrix4x4)a[j],(DMatrix4x4)inverse) )
+                            throw new DetectedException("Solve failed");
+                        CommonOps_DDF4.mult((DMatrix4x4)inverse,(DMatrix4)b[j],(DMatrix4)c[j]);
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+                case 5:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        if( !CommonOps_DDF5.invert((DMatrix5x5)a[j],(DMatrix5x5)inverse) )
+                            throw new DetectedException("Solve failed");
+                        CommonOps_DDF5.mult((DMatrix5x5)inverse,(DMatrix5)b[j],(DMatrix5)c[j]);
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+                default:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        if( !solver.setA(denseA[j]) )
+                            throw new DetectedException("Solve failed");
+                        solver.solve(denseB[j],denseC[j]);
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            int last = finish(j);
+            if( outputs != null ) {
+                outputs[0] = new EjmlBenchmarkMatrix(output(last));
+            }
+            return elapsedTime;
+        }
+    }
+
+    /**
+     * Determinant of a[i]
+     */
+    public static class Det extends FixedBatch {
+
+        public Det() {
+            super(1,1,1);
+        }
+
+        @Override
+        protected boolean usedFixed() {
+            return size >= 2 && size <= 5;
+        }
+
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            prepare(inputs);
+            DMatrixFixed[] a = fixed[0];
+            DMatrixRMaj[] denseA = dense[0];
+            LUDecomposition_F64<DMatrixRMaj> lu = DecompositionFactory_DDRM.lu(size,size);
+            double total = 0;
+
+            long prev = System.nanoTime();
+
+            int j = next;
+            switch( size ) {
+                case 2:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        total += CommonOps_DDF2.det((DMatrix2x2)a[j]);
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+                case 3:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        total += CommonOps_DDF3.det((DMatrix3x3)a[j]);
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+                case 4:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        total += CommonOps_DDF4.det((DMatrix4x4)a[j]);
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+                case 5:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        total += CommonOps_DDF5.det((DMatrix5x5)a[j]);
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+                default:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        lu.decompose(denseA[j]);
+                        total += lu.computeDeterminant().real;
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            finish(j);
+            this.total = total;
+            return elapsedTime;
+        }
+    }
+
+    /**
+     * Lower triangular Cholesky decomposition of a[i]
+     */
+    public static class Chol extends FixedBatch {
+
+        public Chol() {
+            super(1,0,0);
+        }
+
+        @Override
+        protected boolean usedFixed() {
+            return size >= 2 && size <= 6;
+        }
+
+        /**
+         * The fixed size decomposition leaves the upper triangle untouched, so it's zeroed here
+         */
+        @Override
+        protected DMatrixRMaj output( int set ) {
+            DMatrixRMaj L = super.output(set);
+            for (int row = 0; row < L.numRows; row++) {
+                for (int col = row+1; col < L.numCols; col++) {
+                    L.set(row,col,0);
+                }
+            }
+            return L;
+        }
+
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            prepare(inputs);
+            DMatrixFixed[] a = fixed[0];
+            DMatrixFixed[] c = fixedOut;
+            DMatrixRMaj[] denseA = dense[0];
+            DMatrixRMaj[] denseC = denseOut;
+            CholeskyDecomposition_F64<DMatrixRMaj> chol = DecompositionFactory_DDRM.chol(size,true);
+
+            long prev = System.nanoTime();
+
+            int j = next;
+            switch( size ) {
+                case 2:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        c[j].setTo(a[j]);
+                        if( !CommonOps_DDF2.cholL((DMatrix2x2)c[j]) )
+                            throw new DetectedException("Decomposition failed");
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+                case 3:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        c[j].setTo(a[j]);
+                        if( !CommonOps_DDF3.cholL((DMatrix3x3)c[j]) )
+                            throw new DetectedException("Decomposition failed");
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+                case 4:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        c[j].setTo(a[j]);
+                        if( !CommonOps_DDF4.cholL((DMatrix4x4)c[j]) )
+                            throw new DetectedException("Decomposition failed");
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+                case 5:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        c[j].setTo(a[j]);
+                        if( !CommonOps_DDF5.cholL((DMatrix5x5)c[j]) )
+                            throw new DetectedException("Decomposition failed");
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+                case 6:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        c[j].setTo(a[j]);
+                        if( !CommonOps_DDF6.cholL((DMatrix6x6)c[j]) )
+                            throw new DetectedException("Decomposition failed");
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+                default:
+                    for( long i = 0; i < numTrials; i++ ) {
+                        if( !DecompositionFactory_DDRM.decomposeSafe(chol,denseA[j]) )
+                            throw new DetectedException("Decomposition failed");
+                        chol.getT(denseC[j]);
+                        if( ++j == count ) j = 0;
+                    }
+                    break;
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            int last = finish(j);
+            if( outputs != null ) {
+                outputs[0] = new EjmlBenchmarkMatrix(output(last));
+            }
+            return elapsedTime;
+        }
+    }
+}
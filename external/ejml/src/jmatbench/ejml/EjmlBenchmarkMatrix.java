@@ -71,4 +71,14 @@ public class EjmlBenchmarkMatrix implements BenchmarkMatrix {
     public Object getOriginal() {
         return mat;
     }
+
+    @Override
+    public void getRows(int row0, int row1, double[] data) {
+        System.arraycopy(mat.data,row0*mat.numCols,data,0,(row1-row0)*mat.numCols);
+    }
+
+    @Override
+    public void setRows(int row0, int row1, double[] data) {
+        System.arraycopy(data,0,mat.data,row0*mat.numCols,(row1-row0)*mat.numCols);
+    }
 }
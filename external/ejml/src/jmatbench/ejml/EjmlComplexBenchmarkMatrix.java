@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmatbench.ejml;
+
+import jmbench.interfaces.ComplexBenchmarkMatrix;
+import org.ejml.data.ZMatrixRMaj;
+
+
+/**
+ * Wrapper around EJML's complex dense row-major matrices
+ *
+ * @author Peter Abeles
+ */
+public class EjmlComplexBenchmarkMatrix implements ComplexBenchmarkMatrix {
+
+    ZMatrixRMaj mat;
+
+    public EjmlComplexBenchmarkMatrix(ZMatrixRMaj mat) {
+        this.mat = mat;
+    }
+
+    @Override
+    public double getReal(int row, int col) {
+        return mat.getReal(row,col);
+    }
+
+    @Override
+    public double getImag(int row, int col) {
+        return mat.getImag(row,col);
+    }
+
+    @Override
+    public void set(int row, int col, double real, double imag) {
+        mat.set(row,col,real,imag);
+    }
+
+    @Override
+    public int numRows() {
+        return mat.numRows;
+    }
+
+    @Override
+    public int numCols() {
+        return mat.numCols;
+    }
+
+    @Override
+    public Object getOriginal() {
+        return mat;
+    }
+
+    @Override
+    public void setComplexRows(int row0, int row1, double[] data) {
+        int offset = row0*mat.numCols*2;
+        System.arraycopy(data,0,mat.data,offset,(row1-row0)*mat.numCols*2);
+    }
+}
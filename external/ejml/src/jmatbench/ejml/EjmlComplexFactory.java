@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmatbench.ejml;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.ComplexBenchmarkMatrix;
+import jmbench.interfaces.ComplexPerformanceFactory;
+import jmbench.interfaces.DetectedException;
+import jmbench.interfaces.MatrixProcessorInterface;
+import org.ejml.LinearSolverSafe;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.dense.row.CommonOps_ZDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_ZDRM;
+import org.ejml.dense.row.factory.LinearSolverFactory_ZDRM;
+import org.ejml.interfaces.decomposition.LUDecomposition_F64;
+import org.ejml.interfaces.decomposition.QRDecomposition;
+import org.ejml.interfaces.linsol.LinearSolverDense;
+
+
+/**
+ * Complex operations using EJML's ZDRM matrices.  EJML doesn't have a complex SVD or eigenvalue decomposition.
+ *
+ * @author Peter Abeles
+ */
+public class EjmlComplexFactory implements ComplexPerformanceFactory {
+
+    @Override
+    public ComplexBenchmarkMatrix create(int numRows, int numCols) {
+        return new EjmlComplexBenchmarkMatrix(new ZMatrixRMaj(numRows,numCols));
+    }
+
+    @Override
+    public MatrixProcessorInterface mult() {
+        return new Mult();
+    }
+
+    public static class Mult implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            ZMatrixRMaj matA = inputs[0].getOriginal();
+            ZMatrixRMaj matB = inputs[1].getOriginal();
+
+            ZMatrixRMaj result = new ZMatrixRMaj(matA.numRows,matB.numCols);
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                CommonOps_ZDRM.mult(matA,matB,result);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlComplexBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface add() {
+        return new Add();
+    }
+
+    public static class Add implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            ZMatrixRMaj matA = inputs[0].getOriginal();
+            ZMatrixRMaj matB = inputs[1].getOriginal();
+
+            ZMatrixRMaj result = new ZMatrixRMaj(matA.numRows,matA.numCols);
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                CommonOps_ZDRM.add(matA,matB,result);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlComplexBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface invert() {
+        return new Inv();
+    }
+
+    public static class Inv implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            ZMatrixRMaj matA = inputs[0].getOriginal();
+
+            ZMatrixRMaj result = new ZMatrixRMaj(matA.numRows,matA.numCols);
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                if( !CommonOps_ZDRM.invert(matA,result) )
+                    throw new DetectedException("Inversion failed");
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlComplexBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface solve() {
+        return new Solve();
+    }
+
+    public static class Solve implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            ZMatrixRMaj matA = inputs[0].getOriginal();
+            ZMatrixRMaj matB = inputs[1].getOriginal();
+
+            ZMatrixRMaj x = new ZMatrixRMaj(matA.numCols,matB.numCols);
+
+            LinearSolverDense<ZMatrixRMaj> solver = LinearSolverFactory_ZDRM.lu(matA.numRows);
+            solver = new LinearSolverSafe<ZMatrixRMaj>(solver);
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                if( !solver.setA(matA) )
+                    throw new DetectedException("Solver failed");
+
+                solver.solve(matB,x);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlComplexBenchmarkMatrix(x);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface lu() {
+        return new LU();
+    }
+
+    public static class LU implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            ZMatrixRMaj matA = inputs[0].getOriginal();
+
+            LUDecomposition_F64<ZMatrixRMaj> lu = DecompositionFactory_ZDRM.lu(matA.numRows,matA.numCols);
+
+            ZMatrixRMaj L = new ZMatrixRMaj(matA.numRows,matA.numCols);
+            ZMatrixRMaj U = new ZMatrixRMaj(matA.numRows,matA.numCols);
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                if( !DecompositionFactory_ZDRM.decomposeSafe(lu,matA) )
+                    throw new DetectedException("Decomposition failed");
+
+                lu.getLower(L);
+                lu.getUpper(U);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlComplexBenchmarkMatrix(L);
+                outputs[1] = new EjmlComplexBenchmarkMatrix(U);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface qr() {
+        return new QR();
+    }
+
+    public static class QR implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            ZMatrixRMaj matA = inputs[0].getOriginal();
+
+            QRDecomposition<ZMatrixRMaj> qr = DecompositionFactory_ZDRM.qr(matA.numRows,matA.numCols);
+
+            ZMatrixRMaj Q = new ZMatrixRMaj(matA.numRows,matA.numRows);
+            ZMatrixRMaj R = new ZMatrixRMaj(matA.numRows,matA.numCols);
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                if( !DecompositionFactory_ZDRM.decomposeSafe(qr,matA) )
+                    throw new DetectedException("Decomposition failed");
+
+                qr.getQ(Q,false);
+                qr.getR(R,false);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlComplexBenchmarkMatrix(Q);
+                outputs[1] = new EjmlComplexBenchmarkMatrix(R);
+            }
+            return elapsedTime;
+        }
+    }
+}
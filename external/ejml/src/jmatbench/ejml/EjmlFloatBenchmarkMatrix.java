@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmatbench.ejml;
+
+import jmbench.interfaces.FloatBenchmarkMatrix;
+import org.ejml.data.FMatrixRMaj;
+
+
+/**
+ * Wrapper around EJML's single precision dense row-major matrices
+ *
+ * @author Peter Abeles
+ */
+public class EjmlFloatBenchmarkMatrix implements FloatBenchmarkMatrix {
+
+    FMatrixRMaj mat;
+
+    public EjmlFloatBenchmarkMatrix(FMatrixRMaj mat) {
+        this.mat = mat;
+    }
+
+    @Override
+    public float getFloat(int row, int col) {
+        return mat.get(row,col);
+    }
+
+    @Override
+    public void setFloat(int row, int col, float value) {
+        mat.set(row,col,value);
+    }
+
+    @Override
+    public int numRows() {
+        return mat.numRows;
+    }
+
+    @Override
+    public int numCols() {
+        return mat.numCols;
+    }
+
+    @Override
+    public Object getOriginal() {
+        return mat;
+    }
+
+    @Override
+    public void getRows(int row0, int row1, double[] data) {
+        int offset = row0*mat.numCols;
+        int length = (row1-row0)*mat.numCols;
+        for (int i = 0; i < length; i++) {
+            data[i] = mat.data[offset+i];
+        }
+    }
+
+    @Override
+    public void setRows(int row0, int row1, double[] data) {
+        int offset = row0*mat.numCols;
+        int length = (row1-row0)*mat.numCols;
+        for (int i = 0; i < length; i++) {
+            mat.data[offset+i] = (float)data[i];
+        }
+    }
+}
@@ -0,0 +1,509 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmatbench.ejml;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.DetectedException;
+import jmbench.interfaces.FloatPerformanceFactory;
+import jmbench.interfaces.MatrixProcessorInterface;
+import jmbench.tools.BenchmarkConstants;
+import org.ejml.LinearSolverSafe;
+import org.ejml.data.FMatrixRMaj;
+import org.ejml.dense.row.CommonOps_FDRM;
+import org.ejml.dense.row.CovarianceOps_FDRM;
+import org.ejml.dense.row.EigenOps_FDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_FDRM;
+import org.ejml.dense.row.factory.LinearSolverFactory_FDRM;
+import org.ejml.interfaces.decomposition.*;
+import org.ejml.interfaces.linsol.LinearSolverDense;
+
+
+/**
+ * Single precision operations using EJML's FDRM matrices.  The same algorithms are used as in
+ * {@link EjmlAlgorithmFactory} so the difference is only from the precision.
+ *
+ * @author Peter Abeles
+ */
+public class EjmlFloatFactory implements FloatPerformanceFactory {
+
+    @Override
+    public BenchmarkMatrix wrap(Object matrix) {
+        return new EjmlFloatBenchmarkMatrix((FMatrixRMaj)matrix);
+    }
+
+    @Override
+    public BenchmarkMatrix create(int numRows, int numCols) {
+        return wrap(new FMatrixRMaj(numRows,numCols));
+    }
+
+    @Override
+    public BenchmarkMatrix identity(int size) {
+        return wrap(CommonOps_FDRM.identity(size));
+    }
+
+    @Override
+    public BenchmarkMatrix copy(BenchmarkMatrix m) {
+        FMatrixRMaj A = m.getOriginal();
+        return wrap(A.copy());
+    }
+
+    @Override
+    public MatrixProcessorInterface chol() {
+        return new Chol();
+    }
+
+    public static class Chol implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FMatrixRMaj matA = inputs[0].getOriginal();
+
+            CholeskyDecomposition_F32<FMatrixRMaj> chol = DecompositionFactory_FDRM.chol(matA.numRows, true);
+
+            FMatrixRMaj L = new FMatrixRMaj(matA.numRows,matA.numCols);
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                if( !DecompositionFactory_FDRM.decomposeSafe(chol,matA) ) {
+                    throw new DetectedException("Decomposition failed");
+                }
+                chol.getT(L);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlFloatBenchmarkMatrix(L);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface lu() {
+        return new LU();
+    }
+
+    public static class LU implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FMatrixRMaj matA = inputs[0].getOriginal();
+
+            LUDecomposition_F32<FMatrixRMaj> lu = DecompositionFactory_FDRM.lu(matA.numRows,matA.numCols);
+
+            FMatrixRMaj L = new FMatrixRMaj(matA.numRows,matA.numCols);
+            FMatrixRMaj U = new FMatrixRMaj(matA.numRows,matA.numCols);
+            FMatrixRMaj P = new FMatrixRMaj(matA.numRows,matA.numCols);
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                if( !DecompositionFactory_FDRM.decomposeSafe(lu,matA) )
+                    throw new DetectedException("Decomposition failed");
+
+                lu.getLower(L);
+                lu.getUpper(U);
+                lu.getRowPivot(P);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlFloatBenchmarkMatrix(L);
+                outputs[1] = new EjmlFloatBenchmarkMatrix(U);
+                outputs[2] = new EjmlFloatBenchmarkMatrix(P);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface svd() {
+        return new SVD();
+    }
+
+    public static class SVD implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FMatrixRMaj matA = inputs[0].getOriginal();
+
+            SingularValueDecomposition_F32<FMatrixRMaj> svd = DecompositionFactory_FDRM.svd(matA.numRows,matA.numCols,true,true,false);
+
+            FMatrixRMaj U = null;
+            FMatrixRMaj S = null;
+            FMatrixRMaj V = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                if( !DecompositionFactory_FDRM.decomposeSafe(svd,matA) )
+                    throw new DetectedException("Decomposition failed");
+                U = svd.getU(null, false);
+                S = svd.getW(S);
+                V = svd.getV(null, false);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlFloatBenchmarkMatrix(U);
+                outputs[1] = new EjmlFloatBenchmarkMatrix(S);
+                outputs[2] = new EjmlFloatBenchmarkMatrix(V);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface eigSymm() {
+        return new MyEig();
+    }
+
+    public static class MyEig implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FMatrixRMaj matA = inputs[0].getOriginal();
+
+            EigenDecomposition_F32<FMatrixRMaj> eig = DecompositionFactory_FDRM.eig(matA.numCols, true, true);
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                if( !DecompositionFactory_FDRM.decomposeSafe(eig,matA) )
+                    throw new DetectedException("Decomposition failed");
+                // this isn't necessary since eigenvalues and eigenvectors are always computed
+                eig.getEigenvalue(0);
+                eig.getEigenVector(0);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlFloatBenchmarkMatrix(EigenOps_FDRM.createMatrixD(eig));
+                outputs[1] = new EjmlFloatBenchmarkMatrix(EigenOps_FDRM.createMatrixV(eig));
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface qr() {
+        return new QR();
+    }
+
+    public static class QR implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FMatrixRMaj matA = inputs[0].getOriginal();
+
+            QRDecomposition<FMatrixRMaj> qr = DecompositionFactory_FDRM.qr(matA.numRows,matA.numCols);
+            FMatrixRMaj Q = null;
+            FMatrixRMaj R = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                if( !DecompositionFactory_FDRM.decomposeSafe(qr,matA) )
+                    throw new DetectedException("Decomposition failed");
+
+                Q = qr.getQ(null,true);
+                R = qr.getR(null,true);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlFloatBenchmarkMatrix(Q);
+                outputs[1] = new EjmlFloatBenchmarkMatrix(R);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface det() {
+        return new Det();
+    }
+
+    public static class Det implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FMatrixRMaj matA = inputs[0].getOriginal();
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                CommonOps_FDRM.det(matA);
+            }
+
+            return System.nanoTime() - prev;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface invert() {
+        return new Inv();
+    }
+
+    public static class Inv implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FMatrixRMaj matA = inputs[0].getOriginal();
+
+            FMatrixRMaj result = new FMatrixRMaj(matA.numRows,matA.numCols);
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                if( !CommonOps_FDRM.invert(matA,result) )
+                    throw new DetectedException("Inversion failed");
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlFloatBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface invertSymmPosDef() {
+        return new InvSymmPosDef();
+    }
+
+    public static class InvSymmPosDef implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FMatrixRMaj matA = inputs[0].getOriginal();
+
+            FMatrixRMaj result = new FMatrixRMaj(matA.numRows,matA.numCols);
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                if( !CovarianceOps_FDRM.invert(matA,result) )
+                    throw new RuntimeException("Inversion failed");
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlFloatBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface add() {
+        return new Add();
+    }
+
+    public static class Add implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FMatrixRMaj matA = inputs[0].getOriginal();
+            FMatrixRMaj matB = inputs[1].getOriginal();
+
+            FMatrixRMaj result = new FMatrixRMaj(matA);
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                CommonOps_FDRM.add(matA,matB,result);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlFloatBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface mult() {
+        return new Mult();
+    }
+
+    public static class Mult implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FMatrixRMaj matA = inputs[0].getOriginal();
+            FMatrixRMaj matB = inputs[1].getOriginal();
+
+            FMatrixRMaj result = new FMatrixRMaj(matA.numRows,matB.numCols);
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                CommonOps_FDRM.mult(matA,matB,result);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlFloatBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface multTransB() {
+        return new MulTranB();
+    }
+
+    public static class MulTranB implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FMatrixRMaj matA = inputs[0].getOriginal();
+            FMatrixRMaj matB = inputs[1].getOriginal();
+
+            FMatrixRMaj result = new FMatrixRMaj(matA.numCols,matB.numCols);
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                CommonOps_FDRM.multTransB(matA,matB,result);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlFloatBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface scale() {
+        return new Scale();
+    }
+
+    public static class Scale implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FMatrixRMaj matA = inputs[0].getOriginal();
+
+            FMatrixRMaj result = new FMatrixRMaj(matA.numRows,matA.numCols);
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                CommonOps_FDRM.scale((float)BenchmarkConstants.SCALE,matA,result);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlFloatBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface solveExact() {
+        return new SolveExact();
+    }
+    public static class SolveExact implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FMatrixRMaj matA = inputs[0].getOriginal();
+            FMatrixRMaj matB = inputs[1].getOriginal();
+
+            FMatrixRMaj result = new FMatrixRMaj(matA.numCols,matB.numCols);
+
+            LinearSolverDense<FMatrixRMaj> solver = LinearSolverFactory_FDRM.linear(matA.numRows);
+            // make sure the input is not modified
+            solver = new LinearSolverSafe<>(solver);
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                if( !solver.setA(matA) )
+                    throw new DetectedException("Bad A");
+
+                solver.solve(matB,result);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlFloatBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface solveOver() {
+        return new SolveOver();
+    }
+
+    public static class SolveOver implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FMatrixRMaj matA = inputs[0].getOriginal();
+            FMatrixRMaj matB = inputs[1].getOriginal();
+
+            FMatrixRMaj result = new FMatrixRMaj(matA.numCols,matB.numCols);
+
+            LinearSolverDense<FMatrixRMaj> solver = LinearSolverFactory_FDRM.leastSquares(matA.numRows,matA.numCols);
+
+            // make sure the input is not modified
+            solver = new LinearSolverSafe<>(solver);
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                if( !solver.setA(matA) )
+                    throw new DetectedException("Bad A");
+
+                solver.solve(matB,result);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlFloatBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface transpose() {
+        return new Transpose();
+    }
+
+    public static class Transpose implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FMatrixRMaj matA = inputs[0].getOriginal();
+
+            FMatrixRMaj result = new FMatrixRMaj(matA.numCols,matA.numRows);
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                CommonOps_FDRM.transpose(matA,result);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlFloatBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+}
@@ -47,6 +47,17 @@ public class EjmlSimpleAlgorithmFactory implements RuntimePerformanceFactory {
         return new EjmlSimpleBenchmarkMatrix((SimpleMatrix)matrix);
     }
 
+    @Override
+    public BenchmarkMatrix identity(int size) {
+        return wrap(SimpleMatrix.identity(size));
+    }
+
+    @Override
+    public BenchmarkMatrix copy(BenchmarkMatrix m) {
+        SimpleMatrix A = m.getOriginal();
+        return wrap(A.copy());
+    }
+
     @Override
     public MatrixProcessorInterface chol() {
         return null;
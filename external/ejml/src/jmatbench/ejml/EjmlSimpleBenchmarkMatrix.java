@@ -68,4 +68,16 @@ public class EjmlSimpleBenchmarkMatrix implements BenchmarkMatrix {
     public <T> T getOriginal() {
         return (T)mat;
     }
+
+    @Override
+    public void getRows(int row0, int row1, double[] data) {
+        DMatrixRMaj m = mat.getDDRM();
+        System.arraycopy(m.data,row0*m.numCols,data,0,(row1-row0)*m.numCols);
+    }
+
+    @Override
+    public void setRows(int row0, int row1, double[] data) {
+        DMatrixRMaj m = mat.getDDRM();
+        System.arraycopy(data,0,m.data,row0*m.numCols,(row1-row0)*m.numCols);
+    }
 }
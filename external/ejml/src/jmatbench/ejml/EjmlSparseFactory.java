@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmatbench.ejml;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.DetectedException;
+import jmbench.interfaces.MatrixProcessorInterface;
+import jmbench.interfaces.SparsePerformanceFactory;
+import jmbench.matrix.CsrMatrix;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.interfaces.linsol.LinearSolverSparse;
+import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.factory.LinearSolverFactory_DSCC;
+
+import java.util.Arrays;
+
+
+/**
+ * <p>
+ * Sparse operations using EJML's compressed sparse column (CSC) matrices.  Work arrays are declared once outside
+ * of the timing loop, which is how EJML is intended to be used.  Solvers don't reorder the matrix to reduce
+ * fill-in since EJML only provides random and no reordering.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class EjmlSparseFactory implements SparsePerformanceFactory {
+
+    @Override
+    public BenchmarkMatrix convertToLib(CsrMatrix input) {
+        // CSR arrays of the transpose are the CSC arrays of the original
+        CsrMatrix t = input.transpose();
+
+        DMatrixSparseCSC A = new DMatrixSparseCSC(input.numRows,input.numCols,0);
+        A.col_idx = t.rowPtr;
+        A.nz_rows = t.colIdx;
+        A.nz_values = t.values;
+        A.nz_length = t.getNonZeros();
+        A.indicesSorted = true;
+
+        return new EjmlSparseBenchmarkMatrix(A);
+    }
+
+    @Override
+    public CsrMatrix convertToCsr(BenchmarkMatrix input) {
+        DMatrixSparseCSC A = input.getOriginal();
+        if( !A.indicesSorted ) {
+            A = A.copy();
+            A.sortIndices(null);
+        }
+
+        CsrMatrix t = new CsrMatrix();
+        t.numRows = A.numCols;
+        t.numCols = A.numRows;
+        t.rowPtr = Arrays.copyOf(A.col_idx,A.numCols+1);
+        t.colIdx = Arrays.copyOf(A.nz_rows,A.nz_length);
+        t.values = Arrays.copyOf(A.nz_values,A.nz_length);
+
+        return t.transpose();
+    }
+
+    @Override
+    public MatrixProcessorInterface multVector() {
+        return new MultVector();
+    }
+
+    public static class MultVector implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            DMatrixSparseCSC A = inputs[0].getOriginal();
+            DMatrixRMaj x = inputs[1].getOriginal();
+
+            DMatrixRMaj y = new DMatrixRMaj(A.numRows,1);
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                CommonOps_DSCC.mult(A,x,y);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlBenchmarkMatrix(y);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface mult() {
+        return new Mult();
+    }
+
+    public static class Mult implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            DMatrixSparseCSC A = inputs[0].getOriginal();
+            DMatrixSparseCSC B = inputs[1].getOriginal();
+
+            DMatrixSparseCSC C = new DMatrixSparseCSC(A.numRows,B.numCols,0);
+            IGrowArray gw = new IGrowArray();
+            DGrowArray gx = new DGrowArray();
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                CommonOps_DSCC.mult(A,B,C,gw,gx);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlSparseBenchmarkMatrix(C);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface solveCholesky() {
+        return new Solve() {
+            @Override
+            LinearSolverSparse<DMatrixSparseCSC, DMatrixRMaj> createSolver() {
+                return LinearSolverFactory_DSCC.cholesky(FillReducing.NONE);
+            }
+        };
+    }
+
+    @Override
+    public MatrixProcessorInterface solveLU() {
+        return new Solve() {
+            @Override
+            LinearSolverSparse<DMatrixSparseCSC, DMatrixRMaj> createSolver() {
+                return LinearSolverFactory_DSCC.lu(FillReducing.NONE);
+            }
+        };
+    }
+
+    @Override
+    public MatrixProcessorInterface solveQR() {
+        return new Solve() {
+            @Override
+            LinearSolverSparse<DMatrixSparseCSC, DMatrixRMaj> createSolver() {
+                return LinearSolverFactory_DSCC.qr(FillReducing.NONE);
+            }
+        };
+    }
+
+    /**
+     * Decomposes A and solves for x each trial.  The structure isn't locked so the symbolic analysis is
+     * repeated each time, like it would be for a new matrix.
+     */
+    public static abstract class Solve implements MatrixProcessorInterface {
+        abstract LinearSolverSparse<DMatrixSparseCSC, DMatrixRMaj> createSolver();
+
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            DMatrixSparseCSC A = inputs[0].getOriginal();
+            DMatrixRMaj b = inputs[1].getOriginal();
+
+            LinearSolverSparse<DMatrixSparseCSC, DMatrixRMaj> solver = createSolver();
+
+            // inputs can't be modified so copies are used if the solver would modify them
+            DMatrixSparseCSC workA = solver.modifiesA() ? A.copy() : A;
+            DMatrixRMaj workB = solver.modifiesB() ? b.copy() : b;
+            DMatrixRMaj x = new DMatrixRMaj(A.numCols,1);
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                if( workA != A )
+                    workA.setTo(A);
+                if( workB != b )
+                    workB.setTo(b);
+                if( !solver.setA(workA) )
+                    throw new DetectedException("Decomposition failed");
+                solver.solve(workB,x);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlBenchmarkMatrix(x);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface transpose() {
+        return new Transpose();
+    }
+
+    public static class Transpose implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            DMatrixSparseCSC A = inputs[0].getOriginal();
+
+            DMatrixSparseCSC At = new DMatrixSparseCSC(A.numCols,A.numRows,A.nz_length);
+            IGrowArray gw = new IGrowArray();
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                CommonOps_DSCC.transpose(A,At,gw);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new EjmlSparseBenchmarkMatrix(At);
+            }
+            return elapsedTime;
+        }
+    }
+}
@@ -41,6 +41,22 @@ public class HipparchusAlgorithmFactory implements RuntimePerformanceFactory {
         return new HipparchusBenchmarkMatrix((RealMatrix) matrix);
     }
 
+    @Override
+    public BenchmarkMatrix wrapArray2D(double[][] data) {
+        return wrap(MatrixUtils.createRealMatrix(data));
+    }
+
+    @Override
+    public BenchmarkMatrix identity(int size) {
+        return wrap(MatrixUtils.createRealIdentityMatrix(size));
+    }
+
+    @Override
+    public BenchmarkMatrix copy(BenchmarkMatrix m) {
+        RealMatrix A = m.getOriginal();
+        return wrap(A.copy());
+    }
+
     @Override
     public MatrixProcessorInterface chol() {
         return new Chol();
@@ -529,11 +545,7 @@ public class HipparchusAlgorithmFactory implements RuntimePerformanceFactory {
 
         RowMajorMatrix ret = new RowMajorMatrix(orig.getRowDimension(), orig.getColumnDimension());
 
-        for (int i = 0; i < ret.numRows; i++) {
-            for (int j = 0; j < ret.numCols; j++) {
-                ret.set(i, j, orig.getEntry(i, j));
-            }
-        }
+        new HipparchusBenchmarkMatrix(orig).getRowMajor(ret.data);
 
         return ret;
     }
@@ -45,6 +45,22 @@ public class JamaAlgorithmFactory implements RuntimePerformanceFactory {
         return new JamaBenchmarkMatrix((Matrix)matrix);
     }
 
+    @Override
+    public BenchmarkMatrix wrapArray2D(double[][] data) {
+        return wrap(new Matrix(data));
+    }
+
+    @Override
+    public BenchmarkMatrix identity(int size) {
+        return wrap(Matrix.identity(size,size));
+    }
+
+    @Override
+    public BenchmarkMatrix copy(BenchmarkMatrix m) {
+        Matrix A = m.getOriginal();
+        return wrap(A.copy());
+    }
+
     @Override
     public MatrixProcessorInterface chol() {
         return new Chol();
@@ -452,6 +468,31 @@ public class JamaAlgorithmFactory implements RuntimePerformanceFactory {
         }
     }
 
+    @Override
+    public MatrixProcessorInterface batchMult() {
+        return new JamaBatchOps.Mult();
+    }
+
+    @Override
+    public MatrixProcessorInterface batchInvert() {
+        return new JamaBatchOps.Invert();
+    }
+
+    @Override
+    public MatrixProcessorInterface batchSolve() {
+        return new JamaBatchOps.Solve();
+    }
+
+    @Override
+    public MatrixProcessorInterface batchDet() {
+        return new JamaBatchOps.Det();
+    }
+
+    @Override
+    public MatrixProcessorInterface batchChol() {
+        return new JamaBatchOps.Chol();
+    }
+
     @Override
     public BenchmarkMatrix convertToLib(RowMajorMatrix input) {
         return new JamaBenchmarkMatrix(convertToJama(input));
@@ -482,11 +523,7 @@ public class JamaAlgorithmFactory implements RuntimePerformanceFactory {
     {
         Matrix ret = new Matrix(orig.getNumRows(),orig.getNumCols());
 
-        for( int i = 0; i < orig.numRows; i++ ) {
-            for( int j = 0; j < orig.numCols; j++ ) {
-                ret.set(i,j,orig.get(i,j));
-            }
-        }
+        new JamaBenchmarkMatrix(ret).setRowMajor(orig.data);
 
         return ret;
     }
@@ -498,11 +535,7 @@ public class JamaAlgorithmFactory implements RuntimePerformanceFactory {
 
         RowMajorMatrix ret = new RowMajorMatrix(orig.getRowDimension(),orig.getColumnDimension());
 
-        for( int i = 0; i < ret.numRows; i++ ) {
-            for( int j = 0; j < ret.numCols; j++ ) {
-                ret.set(i,j,orig.get(i,j));
-            }
-        }
+        new JamaBenchmarkMatrix(orig).getRowMajor(ret.data);
 
         return ret;
     }
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmatbench.jama;
+
+import Jama.CholeskyDecomposition;
+import Jama.Matrix;
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.DetectedException;
+import jmbench.interfaces.MatrixProcessorInterface;
+import jmbench.tools.runtime.generator.BatchGenerator;
+
+
+/**
+ * Operations on batches of small matrices, see {@link jmbench.interfaces.RuntimePerformanceFactory#batchMult()}.
+ * Jama has no code which is specialized for small matrices, so these use the same functions as the regular
+ * operations and a new matrix is created for each result.
+ *
+ * @author Peter Abeles
+ */
+public class JamaBatchOps {
+
+    /**
+     * Extracts the matrices in the batch and keeps track of which set of inputs is next
+     */
+    public static abstract class Batch implements MatrixProcessorInterface {
+        // number of inputs for each operation
+        int inputsPerSet;
+
+        // inputs which were extracted. They are only extracted again if a different array is passed in
+        BenchmarkMatrix[] extracted;
+        // number of sets of inputs
+        int count;
+        // index of the next set of inputs which is processed
+        int next;
+        // the inputs, [input][set]
+        Matrix[][] matrices;
+
+        // sum of scalar results, so that the JIT can't skip their computation
+        public double total;
+
+        protected Batch( int inputsPerSet ) {
+            this.inputsPerSet = inputsPerSet;
+        }
+
+        protected void prepare( BenchmarkMatrix[] inputs ) {
+            if( inputs == extracted )
+                return;
+            extracted = inputs;
+            next = 0;
+            count = BatchGenerator.numSets(inputs,inputsPerSet);
+
+            matrices = new Matrix[inputsPerSet][count];
+            for (int set = 0; set < count; set++) {
+                for (int k = 0; k < inputsPerSet; k++) {
+                    matrices[k][set] = inputs[set*inputsPerSet+k].getOriginal();
+                }
+            }
+        }
+    }
+
+    /**
+     * c[i] = a[i]*b[i]
+     */
+    public static class Mult extends Batch {
+        public Mult() {
+            super(2);
+        }
+
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            prepare(inputs);
+            Matrix[] a = matrices[0];
+            Matrix[] b = matrices[1];
+
+            Matrix result = null;
+
+            long prev = System.nanoTime();
+
+            int j = next;
+            for( long i = 0; i < numTrials; i++ ) {
+                result = a[j].times(b[j]);
+                if( ++j == count ) j = 0;
+            }
+
+            long elapsed = System.nanoTime()-prev;
+            next = j;
+            if( outputs != null ) {
+                outputs[0] = new JamaBenchmarkMatrix(result);
+            }
+            return elapsed;
+        }
+    }
+
+    /**
+     * c[i] = inv(a[i])
+     */
+    public static class Invert extends Batch {
+        public Invert() {
+            super(1);
+        }
+
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            prepare(inputs);
+            Matrix[] a = matrices[0];
+
+            Matrix result = null;
+
+            long prev = System.nanoTime();
+
+            int j = next;
+            for( long i = 0; i < numTrials; i++ ) {
+                result = a[j].inverse();
+                if( ++j == count ) j = 0;
+            }
+
+            long elapsed = System.nanoTime()-prev;
+            next = j;
+            if( outputs != null ) {
+                outputs[0] = new JamaBenchmarkMatrix(result);
+            }
+            return elapsed;
+        }
+    }
+
+    /**
+     * Solves a[i]*c[i] = b[i]
+     */
+    public static class Solve extends Batch {
+        public Solve() {
+            super(2);
+        }
+
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            prepare(inputs);
+            Matrix[] a = matrices[0];
+            Matrix[] b = matrices[1];
+
+            Matrix result = null;
+
+            long prev = System.nanoTime();
+
+            int j = next;
+            for( long i = 0; i < numTrials; i++ ) {
+                result = a[j].solve(b[j]);
+                if( ++j == count ) j = 0;
+            }
+
+            long elapsed = System.nanoTime()-prev;
+            next = j;
+            if( outputs != null ) {
+                outputs[0] = new JamaBenchmarkMatrix(result);
+            }
+            return elapsed;
+        }
+    }
+
+    /**
+     * Determinant of a[i]
+     */
+    public static class Det extends Batch {
+        public Det() {
+            super(1);
+        }
+
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            prepare(inputs);
+            Matrix[] a = matrices[0];
+
+            double total = 0;
+
+            long prev = System.nanoTime();
+
+            int j = next;
+            for( long i = 0; i < numTrials; i++ ) {
+                total += a[j].det();
+                if( ++j == count ) j = 0;
+            }
+
+            long elapsed = System.nanoTime()-prev;
+            next = j;
+            this.total = total;
+            return elapsed;
+        }
+    }
+
+    /**
+     * Lower triangular Cholesky decomposition of a[i]
+     */
+    public static class Chol extends Batch {
+        public Chol() {
+            super(1);
+        }
+
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            prepare(inputs);
+            Matrix[] a = matrices[0];
+
+            Matrix L = null;
+
+            long prev = System.nanoTime();
+
+            int j = next;
+            for( long i = 0; i < numTrials; i++ ) {
+                CholeskyDecomposition chol = a[j].chol();
+                if( !chol.isSPD() ) {
+                    throw new DetectedException("Is not SPD");
+                }
+                L = chol.getL();
+                if( ++j == count ) j = 0;
+            }
+
+            long elapsed = System.nanoTime()-prev;
+            next = j;
+            if( outputs != null ) {
+                outputs[0] = new JamaBenchmarkMatrix(L);
+            }
+            return elapsed;
+        }
+    }
+}
@@ -58,4 +58,22 @@ public class JamaBenchmarkMatrix implements BenchmarkMatrix  {
     public <T> T getOriginal() {
         return (T)mat;
     }
+
+    @Override
+    public void getRows(int row0, int row1, double[] data) {
+        double[][] array = mat.getArray();
+        int numCols = mat.getColumnDimension();
+        for (int row = row0; row < row1; row++) {
+            System.arraycopy(array[row],0,data,(row-row0)*numCols,numCols);
+        }
+    }
+
+    @Override
+    public void setRows(int row0, int row1, double[] data) {
+        double[][] array = mat.getArray();
+        int numCols = mat.getColumnDimension();
+        for (int row = row0; row < row1; row++) {
+            System.arraycopy(data,(row-row0)*numCols,array[row],0,numCols);
+        }
+    }
 }
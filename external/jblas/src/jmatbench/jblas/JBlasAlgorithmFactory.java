@@ -20,6 +20,8 @@
 package jmatbench.jblas;
 
 import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.ComplexPerformanceFactory;
+import jmbench.interfaces.FloatPerformanceFactory;
 import jmbench.interfaces.MatrixProcessorInterface;
 import jmbench.interfaces.RuntimePerformanceFactory;
 import jmbench.matrix.RowMajorMatrix;
@@ -42,6 +44,22 @@ public class JBlasAlgorithmFactory implements RuntimePerformanceFactory {
         return new JBlasBenchmarkMatrix((DoubleMatrix)matrix);
     }
 
+    @Override
+    public BenchmarkMatrix wrapArray2D(double[][] data) {
+        return wrap(new DoubleMatrix(data));
+    }
+
+    @Override
+    public BenchmarkMatrix identity(int size) {
+        return wrap(DoubleMatrix.eye(size));
+    }
+
+    @Override
+    public BenchmarkMatrix copy(BenchmarkMatrix m) {
+        DoubleMatrix A = m.getOriginal();
+        return wrap(A.dup());
+    }
+
     @Override
     public MatrixProcessorInterface chol() {
         return new Chol();
@@ -422,6 +440,16 @@ public class JBlasAlgorithmFactory implements RuntimePerformanceFactory {
         }
     }
 
+    @Override
+    public FloatPerformanceFactory float32() {
+        return new JBlasFloatFactory();
+    }
+
+    @Override
+    public ComplexPerformanceFactory complex() {
+        return new JBlasComplexFactory();
+    }
+
     @Override
     public BenchmarkMatrix convertToLib(RowMajorMatrix input) {
         return new JBlasBenchmarkMatrix(convertToJBlas(input));
@@ -452,11 +480,7 @@ public class JBlasAlgorithmFactory implements RuntimePerformanceFactory {
     {
         DoubleMatrix ret = new DoubleMatrix(orig.getNumRows(),orig.getNumCols());
 
-        for( int i = 0; i < orig.numRows; i++ ) {
-            for( int j = 0; j < orig.numCols; j++ ) {
-                ret.put(i,j,orig.get(i,j)) ;
-            }
-        }
+        new JBlasBenchmarkMatrix(ret).setRowMajor(orig.data);
 
         return ret;
     }
@@ -468,11 +492,7 @@ public class JBlasAlgorithmFactory implements RuntimePerformanceFactory {
 
         RowMajorMatrix ret = new RowMajorMatrix(orig.getRows(),orig.getColumns());
 
-        for( int i = 0; i < ret.numRows; i++ ) {
-            for( int j = 0; j < ret.numCols; j++ ) {
-                ret.set(i,j,orig.get(i,j));
-            }
-        }
+        new JBlasBenchmarkMatrix(orig).getRowMajor(ret.data);
 
         return ret;
     }
@@ -58,4 +58,29 @@ public class JBlasBenchmarkMatrix implements BenchmarkMatrix {
     public <T> T getOriginal() {
         return (T)mat;
     }
+
+    @Override
+    public void getRows(int row0, int row1, double[] data) {
+        // jblas is column-major
+        int numRows = mat.rows;
+        int numCols = mat.columns;
+        for (int col = 0; col < numCols; col++) {
+            int index = col*numRows;
+            for (int row = row0; row < row1; row++) {
+                data[(row-row0)*numCols+col] = mat.data[index+row];
+            }
+        }
+    }
+
+    @Override
+    public void setRows(int row0, int row1, double[] data) {
+        int numRows = mat.rows;
+        int numCols = mat.columns;
+        for (int col = 0; col < numCols; col++) {
+            int index = col*numRows;
+            for (int row = row0; row < row1; row++) {
+                mat.data[index+row] = data[(row-row0)*numCols+col];
+            }
+        }
+    }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmatbench.jblas;
+
+import jmbench.interfaces.ComplexBenchmarkMatrix;
+import org.jblas.ComplexDoubleMatrix;
+
+
+/**
+ * @author Peter Abeles
+ */
+public class JBlasComplexBenchmarkMatrix implements ComplexBenchmarkMatrix {
+
+    ComplexDoubleMatrix mat;
+
+    public JBlasComplexBenchmarkMatrix(ComplexDoubleMatrix mat) {
+        this.mat = mat;
+    }
+
+    @Override
+    public double getReal(int row, int col) {
+        return mat.get(row,col).real();
+    }
+
+    @Override
+    public double getImag(int row, int col) {
+        return mat.get(row,col).imag();
+    }
+
+    @Override
+    public void set(int row, int col, double real, double imag) {
+        mat.put(row,col,real,imag);
+    }
+
+    @Override
+    public int numRows() {
+        return mat.getRows();
+    }
+
+    @Override
+    public int numCols() {
+        return mat.getColumns();
+    }
+
+    @Override
+    public <T> T getOriginal() {
+        return (T)mat;
+    }
+}
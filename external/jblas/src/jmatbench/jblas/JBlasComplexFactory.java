@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmatbench.jblas;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.ComplexBenchmarkMatrix;
+import jmbench.interfaces.ComplexPerformanceFactory;
+import jmbench.interfaces.MatrixProcessorInterface;
+import org.jblas.ComplexDoubleMatrix;
+import org.jblas.Singular;
+
+
+/**
+ * Complex operations using jBLAS's {@link ComplexDoubleMatrix}.  jBLAS doesn't expose complex versions of its
+ * solvers or of any decomposition other than SVD.
+ *
+ * @author Peter Abeles
+ */
+public class JBlasComplexFactory implements ComplexPerformanceFactory {
+
+    @Override
+    public ComplexBenchmarkMatrix create(int numRows, int numCols) {
+        return new JBlasComplexBenchmarkMatrix(new ComplexDoubleMatrix(numRows,numCols));
+    }
+
+    @Override
+    public MatrixProcessorInterface mult() {
+        return new Mult();
+    }
+
+    public static class Mult implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            ComplexDoubleMatrix matA = inputs[0].getOriginal();
+            ComplexDoubleMatrix matB = inputs[1].getOriginal();
+
+            long prev = System.nanoTime();
+
+            ComplexDoubleMatrix result = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                result = matA.mmul(matB);
+            }
+
+            long elapsed = System.nanoTime()-prev;
+            if( outputs != null ) {
+                outputs[0] = new JBlasComplexBenchmarkMatrix(result);
+            }
+            return elapsed;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface add() {
+        return new Add();
+    }
+
+    public static class Add implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            ComplexDoubleMatrix matA = inputs[0].getOriginal();
+            ComplexDoubleMatrix matB = inputs[1].getOriginal();
+
+            ComplexDoubleMatrix result = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                result = matA.add(matB);
+            }
+
+            long elapsed = System.nanoTime()-prev;
+            if( outputs != null ) {
+                outputs[0] = new JBlasComplexBenchmarkMatrix(result);
+            }
+            return elapsed;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface svd() {
+        return new MySvd();
+    }
+
+    public static class MySvd implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            ComplexDoubleMatrix matA = inputs[0].getOriginal();
+
+            ComplexDoubleMatrix U = null;
+            ComplexDoubleMatrix S = null;
+            ComplexDoubleMatrix V = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                ComplexDoubleMatrix[] evd = Singular.fullSVD(matA);
+                U = evd[0];
+                S = evd[1];
+                V = evd[2];
+            }
+
+            long elapsed = System.nanoTime()-prev;
+
+            if( outputs != null ) {
+                // S is a vector, need to convert into a matrix
+                ComplexDoubleMatrix SM = new ComplexDoubleMatrix(U.getColumns(), V.getColumns());
+                for (int i = 0; i < S.rows; i++)
+                    SM.put(i, i, S.get(i));
+
+                outputs[0] = new JBlasComplexBenchmarkMatrix(U);
+                outputs[1] = new JBlasComplexBenchmarkMatrix(SM);
+                outputs[2] = new JBlasComplexBenchmarkMatrix(V);
+            }
+            return elapsed;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmatbench.jblas;
+
+import jmbench.interfaces.FloatBenchmarkMatrix;
+import org.jblas.FloatMatrix;
+
+
+/**
+ * Wrapper around jblas's single precision matrices
+ *
+ * @author Peter Abeles
+ */
+public class JBlasFloatBenchmarkMatrix implements FloatBenchmarkMatrix {
+
+    FloatMatrix mat;
+
+    public JBlasFloatBenchmarkMatrix(FloatMatrix mat) {
+        this.mat = mat;
+    }
+
+    @Override
+    public float getFloat(int row, int col) {
+        return mat.get(row,col);
+    }
+
+    @Override
+    public void setFloat(int row, int col, float value) {
+        mat.put(row,col,value);
+    }
+
+    @Override
+    public int numRows() {
+        return mat.getRows();
+    }
+
+    @Override
+    public int numCols() {
+        return mat.getColumns();
+    }
+
+    @Override
+    public <T> T getOriginal() {
+        return (T)mat;
+    }
+
+    @Override
+    public void getRows(int row0, int row1, double[] data) {
+        // jblas is column-major
+        int numRows = mat.rows;
+        int numCols = mat.columns;
+        for (int col = 0; col < numCols; col++) {
+            int index = col*numRows;
+            for (int row = row0; row < row1; row++) {
+                data[(row-row0)*numCols+col] = mat.data[index+row];
+            }
+        }
+    }
+
+    @Override
+    public void setRows(int row0, int row1, double[] data) {
+        int numRows = mat.rows;
+        int numCols = mat.columns;
+        for (int col = 0; col < numCols; col++) {
+            int index = col*numRows;
+            for (int row = row0; row < row1; row++) {
+                mat.data[index+row] = (float)data[(row-row0)*numCols+col];
+            }
+        }
+    }
+}
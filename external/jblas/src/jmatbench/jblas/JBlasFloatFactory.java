@@ -0,0 +1,427 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmatbench.jblas;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.FloatPerformanceFactory;
+import jmbench.interfaces.MatrixProcessorInterface;
+import jmbench.tools.BenchmarkConstants;
+import org.jblas.*;
+
+
+/**
+ * Single precision operations using jblas's FloatMatrix.  The same functions are called as in
+ * {@link JBlasAlgorithmFactory}, which are the single precision LAPACK and BLAS routines.
+ *
+ * @author Peter Abeles
+ */
+public class JBlasFloatFactory implements FloatPerformanceFactory {
+
+    @Override
+    public BenchmarkMatrix create(int numRows, int numCols) {
+        return wrap(new FloatMatrix(numRows,numCols));
+    }
+
+    @Override
+    public BenchmarkMatrix wrap(Object matrix) {
+        return new JBlasFloatBenchmarkMatrix((FloatMatrix)matrix);
+    }
+
+    @Override
+    public BenchmarkMatrix identity(int size) {
+        return wrap(FloatMatrix.eye(size));
+    }
+
+    @Override
+    public BenchmarkMatrix copy(BenchmarkMatrix m) {
+        FloatMatrix A = m.getOriginal();
+        return wrap(A.dup());
+    }
+
+    @Override
+    public MatrixProcessorInterface chol() {
+        return new Chol();
+    }
+
+    public static class Chol implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FloatMatrix matA = inputs[0].getOriginal();
+
+            FloatMatrix U = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                U = Decompose.cholesky(matA);
+            }
+
+            long elapsed = System.nanoTime()-prev;
+            if( outputs != null ) {
+                outputs[0] = new JBlasFloatBenchmarkMatrix(U.transpose());
+            }
+            return elapsed;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface lu() {
+        return new LU();
+    }
+
+    public static class LU implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FloatMatrix matA = inputs[0].getOriginal();
+
+            FloatMatrix L = null;
+            FloatMatrix U = null;
+            FloatMatrix P = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                Decompose.LUDecomposition<FloatMatrix> lu = Decompose.lu(matA);
+                L = lu.l;
+                U = lu.u;
+                P = lu.p;
+            }
+
+            long elapsed = System.nanoTime()-prev;
+            if( outputs != null ) {
+                outputs[0] = new JBlasFloatBenchmarkMatrix(L);
+                outputs[1] = new JBlasFloatBenchmarkMatrix(U);
+                outputs[2] = new JBlasFloatBenchmarkMatrix(P.transpose());
+            }
+            return elapsed;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface svd() {
+        return new MySvd();
+    }
+
+    public static class MySvd implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FloatMatrix matA = inputs[0].getOriginal();
+
+            FloatMatrix U = null;
+            FloatMatrix S = null;
+            FloatMatrix Vt = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                FloatMatrix[] evd = Singular.fullSVD(matA);
+                U = evd[0];
+                S = evd[1];
+                Vt = evd[2];
+            }
+
+            long elapsed = System.nanoTime()-prev;
+
+            if( outputs != null ) {
+                // S is a vector, need to convert into a matrix
+                FloatMatrix SM = new FloatMatrix(U.getColumns(), Vt.getRows());
+                for (int i = 0; i < S.rows; i++)
+                    SM.put(i, i, S.get(i));
+
+                outputs[0] = new JBlasFloatBenchmarkMatrix(U);
+                outputs[1] = new JBlasFloatBenchmarkMatrix(SM);
+                outputs[2] = new JBlasFloatBenchmarkMatrix(Vt);
+            }
+            return elapsed;
+        }
+    }
+
+
+    @Override
+    public MatrixProcessorInterface eigSymm() {
+        return new MyEig();
+    }
+
+    public static class MyEig implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FloatMatrix matA = inputs[0].getOriginal();
+
+            FloatMatrix D = null;
+            FloatMatrix V = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                FloatMatrix[] evd = Eigen.symmetricEigenvectors(matA);
+                D = evd[1];
+                V = evd[0];
+            }
+
+            long elapsed = System.nanoTime()-prev;
+            if( outputs != null ) {
+                outputs[0] = new JBlasFloatBenchmarkMatrix(D);
+                outputs[1] = new JBlasFloatBenchmarkMatrix(V);
+            }
+            return elapsed;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface invert() {
+        return new Inv();
+    }
+
+    public static class Inv implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FloatMatrix matA = inputs[0].getOriginal();
+
+            FloatMatrix I = FloatMatrix.eye(matA.getRows());
+            FloatMatrix result = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                result = Solve.solve(matA,I);
+            }
+
+            long elapsed = System.nanoTime()-prev;
+            if( outputs != null ) {
+                outputs[0] = new JBlasFloatBenchmarkMatrix(result);
+            }
+            return elapsed;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface invertSymmPosDef() {
+        return new InvSymmPosDef();
+    }
+
+    public static class InvSymmPosDef implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FloatMatrix matA = inputs[0].getOriginal();
+
+            FloatMatrix I = FloatMatrix.eye(matA.getRows());
+            FloatMatrix result = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                result = Solve.solvePositive(matA,I);
+            }
+
+            long elapsed = System.nanoTime()-prev;
+            if( outputs != null ) {
+                outputs[0] = new JBlasFloatBenchmarkMatrix(result);
+            }
+            return elapsed;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface add() {
+        return new Add();
+    }
+
+    public static class Add implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FloatMatrix matA = inputs[0].getOriginal();
+            FloatMatrix matB = inputs[1].getOriginal();
+
+            FloatMatrix result = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                result = matA.add(matB);
+            }
+
+            long elapsed = System.nanoTime()-prev;
+            if( outputs != null ) {
+                outputs[0] = new JBlasFloatBenchmarkMatrix(result);
+            }
+            return elapsed;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface mult() {
+        return new Mult();
+    }
+
+    public static class Mult implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FloatMatrix matA = inputs[0].getOriginal();
+            FloatMatrix matB = inputs[1].getOriginal();
+
+            long prev = System.nanoTime();
+
+            FloatMatrix result = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                result = matA.mmul(matB);
+            }
+
+            long elapsed = System.nanoTime()-prev;
+            if( outputs != null ) {
+                outputs[0] = new JBlasFloatBenchmarkMatrix(result);
+            }
+            return elapsed;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface multTransB() {
+        return new MulTranB();
+    }
+
+    public static class MulTranB implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FloatMatrix matA = inputs[0].getOriginal();
+            FloatMatrix matB = inputs[1].getOriginal();
+
+            FloatMatrix result = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                result = matA.mmul(matB.transpose());
+            }
+
+            long elapsed = System.nanoTime()-prev;
+            if( outputs != null ) {
+                outputs[0] = new JBlasFloatBenchmarkMatrix(result);
+            }
+            return elapsed;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface scale() {
+        return new Scale();
+    }
+
+    public static class Scale implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FloatMatrix matA = inputs[0].getOriginal();
+
+            FloatMatrix result = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                result = matA.mul((float)BenchmarkConstants.SCALE);
+            }
+
+            long elapsed = System.nanoTime()-prev;
+            if( outputs != null ) {
+                outputs[0] = new JBlasFloatBenchmarkMatrix(result);
+            }
+            return elapsed;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface solveExact() {
+        return new MySolve();
+    }
+
+    public static class MySolve implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FloatMatrix matA = inputs[0].getOriginal();
+            FloatMatrix matB = inputs[1].getOriginal();
+
+            FloatMatrix result = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                result = Solve.solve(matA,matB);
+            }
+
+            long elapsed = System.nanoTime()-prev;
+            if( outputs != null ) {
+                outputs[0] = new JBlasFloatBenchmarkMatrix(result);
+            }
+            return elapsed;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface solveOver() {
+        return new SolveLeastSquares();
+    }
+
+    public static class SolveLeastSquares implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FloatMatrix matA = inputs[0].getOriginal();
+            FloatMatrix matB = inputs[1].getOriginal();
+
+            FloatMatrix result = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                result = Solve.solveLeastSquares(matA,matB);
+            }
+
+            long elapsed = System.nanoTime()-prev;
+            if( outputs != null ) {
+                outputs[0] = new JBlasFloatBenchmarkMatrix(result);
+            }
+            return elapsed;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface transpose() {
+        return new Transpose();
+    }
+
+    public static class Transpose implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            FloatMatrix matA = inputs[0].getOriginal();
+
+            FloatMatrix result = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                result = matA.transpose();
+            }
+
+            long elapsed = System.nanoTime()-prev;
+            if( outputs != null ) {
+                outputs[0] = new JBlasFloatBenchmarkMatrix(result);
+            }
+            return elapsed;
+        }
+    }
+}
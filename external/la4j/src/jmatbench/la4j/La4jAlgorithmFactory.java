@@ -22,6 +22,7 @@ package jmatbench.la4j;
 import jmbench.interfaces.BenchmarkMatrix;
 import jmbench.interfaces.MatrixProcessorInterface;
 import jmbench.interfaces.RuntimePerformanceFactory;
+import jmbench.interfaces.SparsePerformanceFactory;
 import jmbench.matrix.RowMajorMatrix;
 import jmbench.tools.BenchmarkConstants;
 import org.la4j.LinearAlgebra;
@@ -426,6 +427,27 @@ public class La4jAlgorithmFactory implements RuntimePerformanceFactory {
         return new La4jBenchmarkMatrix((Matrix)matrix);
     }
 
+    @Override
+    public BenchmarkMatrix wrapArray2D(double[][] data) {
+        return wrap(Basic2DMatrix.from2DArray(data));
+    }
+
+    @Override
+    public BenchmarkMatrix identity(int size) {
+        return wrap(Basic2DMatrix.identity(size));
+    }
+
+    @Override
+    public BenchmarkMatrix copy(BenchmarkMatrix m) {
+        Matrix A = m.getOriginal();
+        return wrap(A.copy());
+    }
+
+    @Override
+    public SparsePerformanceFactory sparse() {
+        return new La4jSparseFactory();
+    }
+
     @Override
     public BenchmarkMatrix convertToLib(RowMajorMatrix input) {
         return new La4jBenchmarkMatrix(ejmlToLa4j(input));
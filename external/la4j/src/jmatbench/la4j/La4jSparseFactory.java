@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmatbench.la4j;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.MatrixProcessorInterface;
+import jmbench.interfaces.SparsePerformanceFactory;
+import jmbench.matrix.CsrMatrix;
+import org.la4j.Matrix;
+import org.la4j.Vector;
+import org.la4j.iterator.MatrixIterator;
+import org.la4j.matrix.SparseMatrix;
+import org.la4j.matrix.sparse.CRSMatrix;
+
+import java.util.Arrays;
+
+
+/**
+ * <p>
+ * Sparse operations using la4j's compressed row storage (CRS) matrices.  la4j's linear solvers work element by
+ * element on any matrix, without taking advantage of it being sparse, so solving isn't supported.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class La4jSparseFactory implements SparsePerformanceFactory {
+
+    @Override
+    public BenchmarkMatrix convertToLib(CsrMatrix input) {
+        int nonZeros = input.getNonZeros();
+        CRSMatrix A = new CRSMatrix(input.numRows,input.numCols,nonZeros,
+                Arrays.copyOf(input.values,nonZeros),
+                Arrays.copyOf(input.colIdx,nonZeros),
+                input.rowPtr.clone());
+        return new La4jBenchmarkMatrix(A);
+    }
+
+    @Override
+    public CsrMatrix convertToCsr(BenchmarkMatrix input) {
+        Matrix m = input.getOriginal();
+
+        int capacity = m instanceof SparseMatrix ? ((SparseMatrix)m).cardinality() : m.rows()*m.columns();
+        int rows[] = new int[capacity], cols[] = new int[capacity];
+        double values[] = new double[capacity];
+        int length = 0;
+
+        MatrixIterator it = m instanceof SparseMatrix ? ((SparseMatrix)m).nonZeroIterator() : m.iterator();
+        while( it.hasNext() ) {
+            double value = it.next();
+            if( value == 0 )
+                continue;
+            rows[length] = it.rowIndex();
+            cols[length] = it.columnIndex();
+            values[length++] = value;
+        }
+        return CsrMatrix.fromTriplets(m.rows(),m.columns(),rows,cols,values,length);
+    }
+
+    @Override
+    public MatrixProcessorInterface multVector() {
+        return new MultVector();
+    }
+
+    public static class MultVector implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            Matrix A = inputs[0].getOriginal();
+            Vector x = La4jBenchmarkMatrix.toVector(inputs[1].getOriginal());
+
+            Vector y = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                y = A.multiply(x);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new La4jBenchmarkMatrix(La4jBenchmarkMatrix.toMatrix(y));
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface mult() {
+        return new Mult();
+    }
+
+    public static class Mult implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            Matrix A = inputs[0].getOriginal();
+            Matrix B = inputs[1].getOriginal();
+
+            Matrix C = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                C = A.multiply(B);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new La4jBenchmarkMatrix(C);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface transpose() {
+        return new Transpose();
+    }
+
+    public static class Transpose implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            Matrix A = inputs[0].getOriginal();
+
+            Matrix At = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                At = A.transpose();
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new La4jBenchmarkMatrix(At);
+            }
+            return elapsedTime;
+        }
+    }
+}
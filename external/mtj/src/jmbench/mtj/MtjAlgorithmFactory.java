@@ -24,8 +24,10 @@ import com.github.fommil.netlib.BLAS;
 import com.github.fommil.netlib.LAPACK;
 import jmbench.interfaces.BenchmarkMatrix;
 import jmbench.interfaces.DetectedException;
+import jmbench.interfaces.LatencyRecorder;
 import jmbench.interfaces.MatrixProcessorInterface;
 import jmbench.interfaces.RuntimePerformanceFactory;
+import jmbench.interfaces.SparsePerformanceFactory;
 import jmbench.matrix.RowMajorBenchmarkMatrix;
 import jmbench.matrix.RowMajorMatrix;
 import jmbench.matrix.RowMajorOps;
@@ -62,6 +64,22 @@ public class MtjAlgorithmFactory implements RuntimePerformanceFactory {
         return new MtjBenchmarkMatrix((DenseMatrix)matrix);
     }
 
+    @Override
+    public BenchmarkMatrix wrapArray2D(double[][] data) {
+        return wrap(new DenseMatrix(data));
+    }
+
+    @Override
+    public BenchmarkMatrix identity(int size) {
+        return wrap(Matrices.identity(size));
+    }
+
+    @Override
+    public BenchmarkMatrix copy(BenchmarkMatrix m) {
+        DenseMatrix A = m.getOriginal();
+        return wrap(A.copy());
+    }
+
     @Override
     public MatrixProcessorInterface chol() {
         return new Chol();
@@ -95,6 +113,29 @@ public class MtjAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DenseMatrix matA = inputs[0].getOriginal();
+
+            DenseCholesky cholesky = new DenseCholesky(matA.numRows(),false);
+            LowerSPDDenseMatrix uspd = new LowerSPDDenseMatrix(matA);
+
+            LowerTriangDenseMatrix L = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                // the input matrix is over written
+                uspd.set(matA);
+                if( !cholesky.factor(uspd).isSPD() ) {
+                    throw new DetectedException("Is not SPD");
+                }
+
+                L = cholesky.getL();
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -138,6 +179,31 @@ public class MtjAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DenseMatrix matA = inputs[0].getOriginal();
+
+            DenseLU lu = new DenseLU(matA.numRows(),matA.numColumns());
+            DenseMatrix tmp = new DenseMatrix(matA);
+
+            LowerTriangDenseMatrix L = null;
+            UpperTriangDenseMatrix U = null;
+            int pivots[] = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                // the input matrix is over written
+                tmp.set(matA);
+                lu.factor(tmp);
+
+                L = lu.getL();
+                U = lu.getU();
+                pivots = lu.getPivots();
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -183,6 +249,34 @@ public class MtjAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DenseMatrix matA = inputs[0].getOriginal();
+
+            no.uib.cipr.matrix.SVD svd = new no.uib.cipr.matrix.SVD(matA.numRows(),matA.numColumns());
+            DenseMatrix tmp = new DenseMatrix(matA);
+
+            DenseMatrix U = null;
+            double[] S = null;
+            DenseMatrix Vt = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                try {
+                    // the input matrix is over written
+                    tmp.set(matA);
+                    SVD s = svd.factor(tmp);
+                    U = s.getU();
+                    S = s.getS();
+                    Vt = s.getVt();
+                } catch (NotConvergedException e) {
+                    throw new RuntimeException(e);
+                }
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -218,6 +312,28 @@ public class MtjAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DenseMatrix matA = inputs[0].getOriginal();
+
+            DenseMatrix V = null;
+            double []D = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                try {
+                    // the input matrix is over written
+                    SymmDenseEVD e = SymmDenseEVD.factorize(matA);
+                    V = e.getEigenvectors();
+                    D = e.getEigenvalues();
+                } catch (NotConvergedException e) {
+                    throw new RuntimeException(e);
+                }
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -254,6 +370,29 @@ public class MtjAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DenseMatrix matA = inputs[0].getOriginal();
+
+            no.uib.cipr.matrix.QR qr = new no.uib.cipr.matrix.QR(matA.numRows(),matA.numColumns());
+            DenseMatrix tmp = new DenseMatrix(matA);
+
+            DenseMatrix Q = null;
+            UpperTriangDenseMatrix R = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                // the input matrix is over written
+                tmp.set(matA);
+                qr.factor(tmp);
+
+                Q = qr.getQ();
+                R = qr.getR();
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -286,6 +425,21 @@ public class MtjAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DenseMatrix matA = inputs[0].getOriginal();
+
+            DenseMatrix I = Matrices.identity(matA.numColumns());
+            DenseMatrix inv = new DenseMatrix(matA.numColumns(),matA.numColumns());
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                matA.solve(I,inv);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -321,6 +475,29 @@ public class MtjAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DenseMatrix matA = inputs[0].getOriginal();
+
+            DenseCholesky cholesky = new DenseCholesky(matA.numRows(),false);
+            LowerSPDDenseMatrix uspd = new LowerSPDDenseMatrix(matA);
+
+            DenseMatrix result = null;
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                // the input matrix is over written
+                uspd.set(matA);
+                if( !cholesky.factor(uspd).isSPD() ) {
+                    throw new RuntimeException("Is not SPD");
+                }
+
+                result = cholesky.solve(Matrices.identity(matA.numColumns()));
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -350,6 +527,23 @@ public class MtjAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DenseMatrix matA = inputs[0].getOriginal();
+            DenseMatrix matB = inputs[1].getOriginal();
+
+            DenseMatrix result = new DenseMatrix(matA.numRows(),matB.numColumns());
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                // in-place operator
+                result.set(matA);
+                result.add(matB);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -377,6 +571,21 @@ public class MtjAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DenseMatrix matA = inputs[0].getOriginal();
+            DenseMatrix matB = inputs[1].getOriginal();
+
+            DenseMatrix result = new DenseMatrix(matA.numRows(),matB.numColumns());
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                matA.mult(matB,result);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -404,6 +613,21 @@ public class MtjAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DenseMatrix matA = inputs[0].getOriginal();
+            DenseMatrix matB = inputs[1].getOriginal();
+
+            DenseMatrix result = new DenseMatrix(matA.numColumns(),matB.numColumns());
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                matA.transBmult(matB,result);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -432,6 +656,22 @@ public class MtjAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DenseMatrix matA = inputs[0].getOriginal();
+
+            DenseMatrix mod = new DenseMatrix(matA.numRows(),matA.numColumns());
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                // in-place operator
+                mod.set(matA);
+                mod.scale(BenchmarkConstants.SCALE);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -464,6 +704,21 @@ public class MtjAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DenseMatrix matA = inputs[0].getOriginal();
+            DenseMatrix matB = inputs[1].getOriginal();
+
+            DenseMatrix result = new DenseMatrix(matA.numColumns(),matB.numColumns());
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                matA.solve(matB,result);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
     }
 
     @Override
@@ -489,6 +744,24 @@ public class MtjAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        @Override
+        public void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                   LatencyRecorder recorder) {
+            DenseMatrix matA = inputs[0].getOriginal();
+            DenseMatrix result = new DenseMatrix(matA.numColumns(),matA.numRows());
+
+            for( long i = 0; i < numTrials; i++ ) {
+                long start = System.nanoTime();
+                matA.transpose(result);
+                recorder.record(System.nanoTime()-start);
+            }
+        }
+    }
+
+    @Override
+    public SparsePerformanceFactory sparse() {
+        return new MtjSparseFactory();
     }
 
     @Override
@@ -545,11 +818,7 @@ public class MtjAlgorithmFactory implements RuntimePerformanceFactory {
 
         RowMajorMatrix ret = new RowMajorMatrix(orig.numRows(),orig.numColumns());
 
-        for( int i = 0; i < ret.numRows; i++ ) {
-            for( int j = 0; j < ret.numCols; j++ ) {
-                ret.set(i,j,orig.get(i,j));
-            }
-        }
+        new MtjBenchmarkMatrix(orig).getRowMajor(ret.data);
 
         return ret;
     }
@@ -21,6 +21,7 @@ package jmbench.mtj;
 
 import jmbench.interfaces.BenchmarkMatrix;
 import no.uib.cipr.matrix.Matrix;
+import no.uib.cipr.matrix.DenseMatrix;
 
 
 /**
@@ -58,4 +59,39 @@ public class MtjBenchmarkMatrix implements BenchmarkMatrix {
     public <T> T getOriginal() {
         return (T)mat;
     }
+
+    @Override
+    public void getRows(int row0, int row1, double[] data) {
+        if( !(mat instanceof DenseMatrix) ) {
+            BenchmarkMatrix.super.getRows(row0,row1,data);
+            return;
+        }
+        // MTJ's dense matrices are column-major
+        double[] src = ((DenseMatrix)mat).getData();
+        int numRows = mat.numRows();
+        int numCols = mat.numColumns();
+        for (int col = 0; col < numCols; col++) {
+            int index = col*numRows;
+            for (int row = row0; row < row1; row++) {
+                data[(row-row0)*numCols+col] = src[index+row];
+            }
+        }
+    }
+
+    @Override
+    public void setRows(int row0, int row1, double[] data) {
+        if( !(mat instanceof DenseMatrix) ) {
+            BenchmarkMatrix.super.setRows(row0,row1,data);
+            return;
+        }
+        double[] dst = ((DenseMatrix)mat).getData();
+        int numRows = mat.numRows();
+        int numCols = mat.numColumns();
+        for (int col = 0; col < numCols; col++) {
+            int index = col*numRows;
+            for (int row = row0; row < row1; row++) {
+                dst[index+row] = data[(row-row0)*numCols+col];
+            }
+        }
+    }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.mtj;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.MatrixProcessorInterface;
+import jmbench.interfaces.SparsePerformanceFactory;
+import jmbench.matrix.CsrMatrix;
+import no.uib.cipr.matrix.DenseMatrix;
+import no.uib.cipr.matrix.DenseVector;
+import no.uib.cipr.matrix.Matrix;
+import no.uib.cipr.matrix.MatrixEntry;
+import no.uib.cipr.matrix.sparse.CompRowMatrix;
+import no.uib.cipr.matrix.sparse.FlexCompRowMatrix;
+
+import java.util.Arrays;
+
+
+/**
+ * <p>
+ * Sparse operations using MTJ's compressed row matrices.  MTJ only has iterative solvers for sparse systems
+ * and its matrix-matrix multiplication isn't sparse, so only multiplication by a vector and transpose are
+ * supported.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MtjSparseFactory implements SparsePerformanceFactory {
+
+    @Override
+    public BenchmarkMatrix convertToLib(CsrMatrix input) {
+        int nz[][] = new int[input.numRows][];
+        for (int row = 0; row < input.numRows; row++) {
+            nz[row] = Arrays.copyOfRange(input.colIdx,input.rowPtr[row],input.rowPtr[row+1]);
+        }
+
+        CompRowMatrix A = new CompRowMatrix(input.numRows,input.numCols,nz);
+        System.arraycopy(input.values,0,A.getData(),0,input.getNonZeros());
+
+        return new MtjBenchmarkMatrix(A);
+    }
+
+    @Override
+    public CsrMatrix convertToCsr(BenchmarkMatrix input) {
+        Matrix m = input.getOriginal();
+
+        if( m instanceof CompRowMatrix ) {
+            CompRowMatrix A = (CompRowMatrix)m;
+            CsrMatrix out = new CsrMatrix();
+            out.numRows = A.numRows();
+            out.numCols = A.numColumns();
+            out.rowPtr = A.getRowPointers().clone();
+            out.colIdx = A.getColumnIndices().clone();
+            out.values = A.getData().clone();
+            return out;
+        }
+
+        int length = 0;
+        for( MatrixEntry e : m ) {
+            length++;
+        }
+        int rows[] = new int[length], cols[] = new int[length];
+        double values[] = new double[length];
+        int index = 0;
+        for( MatrixEntry e : m ) {
+            rows[index] = e.row();
+            cols[index] = e.column();
+            values[index++] = e.get();
+        }
+        return CsrMatrix.fromTriplets(m.numRows(),m.numColumns(),rows,cols,values,length);
+    }
+
+    @Override
+    public MatrixProcessorInterface multVector() {
+        return new MultVector();
+    }
+
+    public static class MultVector implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            CompRowMatrix A = inputs[0].getOriginal();
+            DenseMatrix matX = inputs[1].getOriginal();
+
+            DenseVector x = new DenseVector(matX.getData(),false);
+            DenseVector y = new DenseVector(A.numRows());
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                A.mult(x,y);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new MtjBenchmarkMatrix(new DenseMatrix(y,false));
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface transpose() {
+        return new Transpose();
+    }
+
+    public static class Transpose implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            CompRowMatrix A = inputs[0].getOriginal();
+
+            // the structure of the transpose isn't known ahead of time so a matrix which can grow is used
+            FlexCompRowMatrix At = new FlexCompRowMatrix(A.numColumns(),A.numRows());
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                A.transpose(At);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new MtjBenchmarkMatrix(At);
+            }
+            return elapsedTime;
+        }
+    }
+}
@@ -21,9 +21,13 @@ package jmatbench.ojalgo;
 
 import jmbench.PackageMatrixConversion;
 import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.ComplexPerformanceFactory;
 import jmbench.interfaces.DetectedException;
+import jmbench.interfaces.FloatPerformanceFactory;
+import jmbench.interfaces.LatencyRecorder;
 import jmbench.interfaces.MatrixProcessorInterface;
 import jmbench.interfaces.RuntimePerformanceFactory;
+import jmbench.interfaces.SparsePerformanceFactory;
 import jmbench.matrix.RowMajorBenchmarkMatrix;
 import jmbench.matrix.RowMajorMatrix;
 import jmbench.matrix.RowMajorOps;
@@ -67,6 +71,21 @@ public class OjAlgoAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        public void processLatency(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials,
+                final LatencyRecorder recorder) {
+
+            final MatrixStore<Double> matA = inputs[0].getOriginal();
+            final MatrixStore<Double> matB = inputs[1].getOriginal();
+
+            final Primitive64Store result = FACTORY.copy(matA);
+
+            for (long i = 0; i < numTrials; i++) {
+                final long start = System.nanoTime();
+                result.fillMatching(matA, PrimitiveMath.ADD, matB);
+                recorder.record(System.nanoTime() - start);
+            }
+        }
     }
 
     public static class OpChol implements MatrixProcessorInterface {
@@ -95,6 +114,24 @@ public class OjAlgoAlgorithmFactory implements RuntimePerformanceFactory {
 
             return elapsedTime;
         }
+
+        public void processLatency(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials,
+                final LatencyRecorder recorder) {
+
+            final MatrixStore<Double> matA = inputs[0].getOriginal();
+
+            MatrixStore<Double> L = null;
+            final Cholesky<Double> chol = Cholesky.PRIMITIVE.make(matA);
+
+            for (long i = 0; i < numTrials; i++) {
+                final long start = System.nanoTime();
+                if (!chol.compute(matA)) {
+                    throw new DetectedException("Decomposition failed");
+                }
+                L = chol.getL();
+                recorder.record(System.nanoTime() - start);
+            }
+        }
     }
 
     public static class OpDet implements MatrixProcessorInterface {
@@ -113,6 +150,20 @@ public class OjAlgoAlgorithmFactory implements RuntimePerformanceFactory {
 
             return System.nanoTime() - prev;
         }
+
+        public void processLatency(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials,
+                final LatencyRecorder recorder) {
+
+            final MatrixStore<Double> matA = inputs[0].getOriginal();
+
+            final DeterminantTask<Double> tmpTask = DeterminantTask.PRIMITIVE.make(matA, false, false);
+
+            for (long i = 0; i < numTrials; i++) {
+                final long start = System.nanoTime();
+                tmpTask.calculateDeterminant(matA);
+                recorder.record(System.nanoTime() - start);
+            }
+        }
     }
 
     public static class OpEigSymm implements MatrixProcessorInterface {
@@ -142,6 +193,26 @@ public class OjAlgoAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        public void processLatency(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials,
+                final LatencyRecorder recorder) {
+
+            final MatrixStore<Double> matA = inputs[0].getOriginal();
+
+            MatrixStore<Double> D = null;
+            MatrixStore<Double> V = null;
+            final Eigenvalue<Double> eig = Eigenvalue.PRIMITIVE.make(matA, true);
+
+            for (long i = 0; i < numTrials; i++) {
+                final long start = System.nanoTime();
+                if (!eig.decompose(matA)) {
+                    throw new DetectedException("Decomposition failed");
+                }
+                D = eig.getD();
+                V = eig.getV();
+                recorder.record(System.nanoTime() - start);
+            }
+        }
     }
 
     public static class OpInvert implements MatrixProcessorInterface {
@@ -169,6 +240,26 @@ public class OjAlgoAlgorithmFactory implements RuntimePerformanceFactory {
                 outputs[0] = new OjAlgoBenchmarkMatrix(result);
             return elapsedTime;
         }
+
+        public void processLatency(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials,
+                final LatencyRecorder recorder) {
+
+            final MatrixStore<Double> matA = inputs[0].getOriginal();
+            MatrixStore<Double> result = null;
+
+            final InverterTask<Double> tmpInverter = InverterTask.PRIMITIVE.make(matA, false, false);
+            final PhysicalStore<Double> tmpAlloc = tmpInverter.preallocate(matA);
+
+            for (long i = 0; i < numTrials; i++) {
+                final long start = System.nanoTime();
+                try {
+                    result = tmpInverter.invert(matA, tmpAlloc);
+                } catch (final RecoverableCondition ex) {
+                    throw new DetectedException(ex);
+                }
+                recorder.record(System.nanoTime() - start);
+            }
+        }
     }
 
     public static class OpInvertSymmPosDef implements MatrixProcessorInterface {
@@ -196,6 +287,26 @@ public class OjAlgoAlgorithmFactory implements RuntimePerformanceFactory {
                 outputs[0] = new OjAlgoBenchmarkMatrix(inverse.transpose());
             return elapsedTime;
         }
+
+        public void processLatency(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials,
+                final LatencyRecorder recorder) {
+
+            final MatrixStore<Double> matA = inputs[0].getOriginal();
+            MatrixStore<Double> inverse = null;
+
+            final InverterTask<Double> tmpInverter = InverterTask.PRIMITIVE.make(matA, true, true);
+            final PhysicalStore<Double> tmpAlloc = tmpInverter.preallocate(matA);
+
+            for (long i = 0; i < numTrials; i++) {
+                final long start = System.nanoTime();
+                try {
+                    inverse = tmpInverter.invert(matA, tmpAlloc);
+                } catch (final RecoverableCondition ex) {
+                    throw new DetectedException(ex);
+                }
+                recorder.record(System.nanoTime() - start);
+            }
+        }
     }
 
     public static class OpLu implements MatrixProcessorInterface {
@@ -231,6 +342,29 @@ public class OjAlgoAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        public void processLatency(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials,
+                final LatencyRecorder recorder) {
+
+            final MatrixStore<Double> matA = inputs[0].getOriginal();
+
+            MatrixStore<Double> L = null;
+            MatrixStore<Double> U = null;
+            int pivot[] = null;
+            final LU<Double> lu = LU.PRIMITIVE.make(matA);
+
+            for (long i = 0; i < numTrials; i++) {
+                final long start = System.nanoTime();
+                if (!lu.compute(matA)) {
+                    throw new DetectedException("Decomposition failed");
+                }
+
+                L = lu.getL();
+                U = lu.getU();
+                pivot = lu.getPivotOrder();
+                recorder.record(System.nanoTime() - start);
+            }
+        }
     }
 
     public static class OpMult implements MatrixProcessorInterface {
@@ -253,6 +387,21 @@ public class OjAlgoAlgorithmFactory implements RuntimePerformanceFactory {
                 outputs[0] = new OjAlgoBenchmarkMatrix(result);
             return elapsedTime;
         }
+
+        public void processLatency(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials,
+                final LatencyRecorder recorder) {
+
+            final MatrixStore<Double> matA = inputs[0].getOriginal();
+            final MatrixStore<Double> matB = inputs[1].getOriginal();
+
+            final Primitive64Store result = FACTORY.make(matA.countRows(), matB.countColumns());
+
+            for (long i = 0; i < numTrials; i++) {
+                final long start = System.nanoTime();
+                result.fillByMultiplying(matA, matB);
+                recorder.record(System.nanoTime() - start);
+            }
+        }
     }
 
     public static class OpMultTransB implements MatrixProcessorInterface {
@@ -275,6 +424,21 @@ public class OjAlgoAlgorithmFactory implements RuntimePerformanceFactory {
                 outputs[0] = new OjAlgoBenchmarkMatrix(result);
             return elapsedTime;
         }
+
+        public void processLatency(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials,
+                final LatencyRecorder recorder) {
+
+            final MatrixStore<Double> matA = inputs[0].getOriginal();
+            final MatrixStore<Double> matB = inputs[1].getOriginal();
+
+            final Primitive64Store result = FACTORY.make(matA.countRows(), matB.countRows());
+
+            for (long i = 0; i < numTrials; i++) {
+                final long start = System.nanoTime();
+                result.fillByMultiplying(matA, matB.transpose());
+                recorder.record(System.nanoTime() - start);
+            }
+        }
     }
 
     public static class OpQr implements MatrixProcessorInterface {
@@ -304,6 +468,26 @@ public class OjAlgoAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        public void processLatency(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials,
+                final LatencyRecorder recorder) {
+
+            final MatrixStore<Double> matA = inputs[0].getOriginal();
+
+            MatrixStore<Double> Q = null;
+            MatrixStore<Double> R = null;
+            final QR<Double> qr = QR.PRIMITIVE.make(matA);
+
+            for (long i = 0; i < numTrials; i++) {
+                final long start = System.nanoTime();
+                if (!qr.compute(matA)) {
+                    throw new DetectedException("Decomposition failed");
+                }
+                Q = qr.getQ();
+                R = qr.getR();
+                recorder.record(System.nanoTime() - start);
+            }
+        }
     }
 
     public static class OpScale implements MatrixProcessorInterface {
@@ -326,6 +510,21 @@ public class OjAlgoAlgorithmFactory implements RuntimePerformanceFactory {
                 outputs[0] = new OjAlgoBenchmarkMatrix(result);
             return elapsedTime;
         }
+
+        public void processLatency(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials,
+                final LatencyRecorder recorder) {
+
+            final MatrixStore<Double> matA = inputs[0].getOriginal();
+
+            final Primitive64Store result = FACTORY.copy(matA);
+            UnaryFunction<Double> multiplier = PrimitiveMath.MULTIPLY.second(ScaleGenerator.SCALE);
+
+            for (long i = 0; i < numTrials; i++) {
+                final long start = System.nanoTime();
+                result.fillMatching(multiplier, matA);
+                recorder.record(System.nanoTime() - start);
+            }
+        }
     }
 
     public static class OpSolveExact implements MatrixProcessorInterface {
@@ -354,6 +553,27 @@ public class OjAlgoAlgorithmFactory implements RuntimePerformanceFactory {
                 outputs[0] = new OjAlgoBenchmarkMatrix(result);
             return elapsedTime;
         }
+
+        public void processLatency(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials,
+                final LatencyRecorder recorder) {
+
+            final Primitive64Store matA = inputs[0].getOriginal();
+            final Primitive64Store matB = inputs[1].getOriginal();
+            MatrixStore<Double> result = null;
+
+            final SolverTask<Double> tmpSolver = SolverTask.PRIMITIVE.make(matA, matB, false, false);
+            final PhysicalStore<Double> tmpAlloc = tmpSolver.preallocate(matA, matB);
+
+            for (long i = 0; i < numTrials; i++) {
+                final long start = System.nanoTime();
+                try {
+                    result = tmpSolver.solve(matA, matB, tmpAlloc);
+                } catch (final RecoverableCondition ex) {
+                    throw new DetectedException(ex);
+                }
+                recorder.record(System.nanoTime() - start);
+            }
+        }
     }
 
     public static class OpSolveOver implements MatrixProcessorInterface {
@@ -382,6 +602,27 @@ public class OjAlgoAlgorithmFactory implements RuntimePerformanceFactory {
                 outputs[0] = new OjAlgoBenchmarkMatrix(result);
             return elapsedTime;
         }
+
+        public void processLatency(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials,
+                final LatencyRecorder recorder) {
+
+            final MatrixStore<Double> matA = inputs[0].getOriginal();
+            final MatrixStore<Double> matB = inputs[1].getOriginal();
+            MatrixStore<Double> result = null;
+
+            final SolverTask<Double> tmpSolver = SolverTask.PRIMITIVE.make(matA, matB, false, false);
+            final PhysicalStore<Double> tmpAlloc = tmpSolver.preallocate(matA, matB);
+
+            for (long i = 0; i < numTrials; i++) {
+                final long start = System.nanoTime();
+                try {
+                    result = tmpSolver.solve(matA, matB, tmpAlloc);
+                } catch (final RecoverableCondition ex) {
+                    throw new DetectedException(ex);
+                }
+                recorder.record(System.nanoTime() - start);
+            }
+        }
     }
 
     public static class OpSvd implements MatrixProcessorInterface {
@@ -415,6 +656,29 @@ public class OjAlgoAlgorithmFactory implements RuntimePerformanceFactory {
             }
             return elapsedTime;
         }
+
+        public void processLatency(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials,
+                final LatencyRecorder recorder) {
+
+            final MatrixStore<Double> matA = inputs[0].getOriginal();
+
+            MatrixStore<Double> U = null;
+            MatrixStore<Double> S = null;
+            MatrixStore<Double> V = null;
+
+            final SingularValue<Double> svd = SingularValue.PRIMITIVE.make(matA);
+
+            for (long i = 0; i < numTrials; i++) {
+                final long start = System.nanoTime();
+                if (!svd.compute(matA)) {
+                    throw new DetectedException("Decomposition failed");
+                }
+                U = svd.getU();
+                S = svd.getD();
+                V = svd.getV();
+                recorder.record(System.nanoTime() - start);
+            }
+        }
     }
 
     public static class OpTranspose implements MatrixProcessorInterface {
@@ -436,6 +700,20 @@ public class OjAlgoAlgorithmFactory implements RuntimePerformanceFactory {
                 outputs[0] = new OjAlgoBenchmarkMatrix(result);
             return elapsedTime;
         }
+
+        public void processLatency(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials,
+                final LatencyRecorder recorder) {
+
+            final MatrixStore<Double> matA = inputs[0].getOriginal();
+
+            final Primitive64Store result = FACTORY.make(matA.countColumns(), matA.countRows());
+
+            for (long i = 0; i < numTrials; i++) {
+                final long start = System.nanoTime();
+                result.fillMatching(matA.transpose());
+                recorder.record(System.nanoTime() - start);
+            }
+        }
     }
 
     static final PhysicalStore.Factory<Double, Primitive64Store> FACTORY = Primitive64Store.FACTORY;
@@ -454,11 +732,7 @@ public class OjAlgoAlgorithmFactory implements RuntimePerformanceFactory {
 
         final RowMajorMatrix ret = new RowMajorMatrix((int) orig.countRows(), (int) orig.countColumns());
 
-        for (int i = 0; i < ret.numRows; i++) {
-            for (int j = 0; j < ret.numCols; j++) {
-                ret.set(i, j, orig.doubleValue(i, j));
-            }
-        }
+        new OjAlgoBenchmarkMatrix(orig).getRowMajor(ret.data);
 
         return ret;
     }
@@ -479,6 +753,21 @@ public class OjAlgoAlgorithmFactory implements RuntimePerformanceFactory {
         return OjAlgoAlgorithmFactory.ojAlgoToRowMajor(mat);
     }
 
+    @Override
+    public SparsePerformanceFactory sparse() {
+        return new OjAlgoSparseFactory();
+    }
+
+    @Override
+    public FloatPerformanceFactory float32() {
+        return new OjAlgoFloatFactory();
+    }
+
+    @Override
+    public ComplexPerformanceFactory complex() {
+        return new OjAlgoComplexFactory();
+    }
+
     @Override
     public BenchmarkMatrix convertToLib(final RowMajorMatrix input) {
         return new OjAlgoBenchmarkMatrix(OjAlgoAlgorithmFactory.convertToOjAlgo(input));
@@ -559,6 +848,22 @@ public class OjAlgoAlgorithmFactory implements RuntimePerformanceFactory {
         return new OjAlgoBenchmarkMatrix((MatrixStore<?>) matrix);
     }
 
+    @Override
+    public BenchmarkMatrix wrapArray2D(final double[][] data) {
+        return this.wrap(FACTORY.rows(data));
+    }
+
+    @Override
+    public BenchmarkMatrix identity(final int size) {
+        return this.wrap(FACTORY.makeEye(size, size));
+    }
+
+    @Override
+    public BenchmarkMatrix copy(final BenchmarkMatrix m) {
+        final MatrixStore<Double> A = m.getOriginal();
+        return this.wrap(FACTORY.copy(A));
+    }
+
     public String getLibraryVersion() {
         return OjAlgoUtils.getVersion();
     }
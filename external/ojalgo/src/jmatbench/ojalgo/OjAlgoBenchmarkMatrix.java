@@ -22,6 +22,7 @@ package jmatbench.ojalgo;
 import jmbench.interfaces.BenchmarkMatrix;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.Primitive64Store;
 
 /**
  * @author Peter Abeles
@@ -62,4 +63,39 @@ public class OjAlgoBenchmarkMatrix implements BenchmarkMatrix {
     public void set(final int row, final int col, final double value) {
         ((PhysicalStore<?>) mat).set(row, col, value);
     }
+
+    @Override
+    public void getRows(final int row0, final int row1, final double[] data) {
+        if (!(mat instanceof Primitive64Store)) {
+            BenchmarkMatrix.super.getRows(row0, row1, data);
+            return;
+        }
+        // ojAlgo's dense stores are column-major
+        final double[] src = ((Primitive64Store) mat).data;
+        final int numRows = this.numRows();
+        final int numCols = this.numCols();
+        for (int col = 0; col < numCols; col++) {
+            final int index = col * numRows;
+            for (int row = row0; row < row1; row++) {
+                data[(row - row0) * numCols + col] = src[index + row];
+            }
+        }
+    }
+
+    @Override
+    public void setRows(final int row0, final int row1, final double[] data) {
+        if (!(mat instanceof Primitive64Store)) {
+            BenchmarkMatrix.super.setRows(row0, row1, data);
+            return;
+        }
+        final double[] dst = ((Primitive64Store) mat).data;
+        final int numRows = this.numRows();
+        final int numCols = this.numCols();
+        for (int col = 0; col < numCols; col++) {
+            final int index = col * numRows;
+            for (int row = row0; row < row1; row++) {
+                dst[index + row] = data[(row - row0) * numCols + col];
+            }
+        }
+    }
 }
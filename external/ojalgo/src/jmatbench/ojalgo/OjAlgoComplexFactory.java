@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmatbench.ojalgo;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.ComplexBenchmarkMatrix;
+import jmbench.interfaces.ComplexPerformanceFactory;
+import jmbench.interfaces.DetectedException;
+import jmbench.interfaces.MatrixProcessorInterface;
+import org.ojalgo.RecoverableCondition;
+import org.ojalgo.function.constant.ComplexMath;
+import org.ojalgo.matrix.decomposition.Eigenvalue;
+import org.ojalgo.matrix.decomposition.LU;
+import org.ojalgo.matrix.decomposition.QR;
+import org.ojalgo.matrix.decomposition.SingularValue;
+import org.ojalgo.matrix.store.GenericStore;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.task.InverterTask;
+import org.ojalgo.matrix.task.SolverTask;
+import org.ojalgo.scalar.ComplexNumber;
+
+/**
+ * Complex operations using ojAlgo's {@link GenericStore} with {@link ComplexNumber} elements.
+ *
+ * @author Peter Abeles
+ */
+public class OjAlgoComplexFactory implements ComplexPerformanceFactory {
+
+    public static class OpAdd implements MatrixProcessorInterface {
+
+        public long process(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials) {
+
+            final MatrixStore<ComplexNumber> matA = inputs[0].getOriginal();
+            final MatrixStore<ComplexNumber> matB = inputs[1].getOriginal();
+
+            final GenericStore<ComplexNumber> result = FACTORY.make(matA.countRows(), matA.countColumns());
+
+            final long prev = System.nanoTime();
+
+            for (long i = 0; i < numTrials; i++) {
+                result.fillMatching(matA, ComplexMath.ADD, matB);
+            }
+
+            final long elapsedTime = System.nanoTime() - prev;
+            if (outputs != null) {
+                outputs[0] = new OjAlgoComplexBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    public static class OpEigHermitian implements MatrixProcessorInterface {
+
+        public long process(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials) {
+
+            final MatrixStore<ComplexNumber> matA = inputs[0].getOriginal();
+
+            MatrixStore<ComplexNumber> D = null;
+            MatrixStore<ComplexNumber> V = null;
+            final Eigenvalue<ComplexNumber> eig = Eigenvalue.COMPLEX.make(matA, true);
+
+            final long prev = System.nanoTime();
+
+            for (long i = 0; i < numTrials; i++) {
+                if (!eig.decompose(matA)) {
+                    throw new DetectedException("Decomposition failed");
+                }
+                D = eig.getD();
+                V = eig.getV();
+            }
+
+            final long elapsedTime = System.nanoTime() - prev;
+            if (outputs != null) {
+                outputs[0] = new OjAlgoComplexBenchmarkMatrix(D);
+                outputs[1] = new OjAlgoComplexBenchmarkMatrix(V);
+            }
+            return elapsedTime;
+        }
+    }
+
+    public static class OpInvert implements MatrixProcessorInterface {
+
+        public long process(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials) {
+
+            final MatrixStore<ComplexNumber> matA = inputs[0].getOriginal();
+            MatrixStore<ComplexNumber> result = null;
+
+            final InverterTask<ComplexNumber> tmpInverter = InverterTask.COMPLEX.make(matA, false, false);
+            final PhysicalStore<ComplexNumber> tmpAlloc = tmpInverter.preallocate(matA);
+
+            final long prev = System.nanoTime();
+
+            for (long i = 0; i < numTrials; i++) {
+                try {
+                    result = tmpInverter.invert(matA, tmpAlloc);
+                } catch (final RecoverableCondition ex) {
+                    throw new DetectedException(ex);
+                }
+            }
+
+            final long elapsedTime = System.nanoTime() - prev;
+            if (outputs != null) {
+                outputs[0] = new OjAlgoComplexBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    public static class OpLu implements MatrixProcessorInterface {
+
+        public long process(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials) {
+
+            final MatrixStore<ComplexNumber> matA = inputs[0].getOriginal();
+
+            MatrixStore<ComplexNumber> L = null;
+            MatrixStore<ComplexNumber> U = null;
+            final LU<ComplexNumber> lu = LU.COMPLEX.make(matA);
+
+            final long prev = System.nanoTime();
+
+            for (long i = 0; i < numTrials; i++) {
+                if (!lu.compute(matA)) {
+                    throw new DetectedException("Decomposition failed");
+                }
+                L = lu.getL();
+                U = lu.getU();
+            }
+
+            final long elapsedTime = System.nanoTime() - prev;
+            if (outputs != null) {
+                outputs[0] = new OjAlgoComplexBenchmarkMatrix(L);
+                outputs[1] = new OjAlgoComplexBenchmarkMatrix(U);
+            }
+            return elapsedTime;
+        }
+    }
+
+    public static class OpMult implements MatrixProcessorInterface {
+
+        public long process(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials) {
+
+            final MatrixStore<ComplexNumber> matA = inputs[0].getOriginal();
+            final MatrixStore<ComplexNumber> matB = inputs[1].getOriginal();
+
+            final GenericStore<ComplexNumber> result = FACTORY.make(matA.countRows(), matB.countColumns());
+
+            final long prev = System.nanoTime();
+
+            for (long i = 0; i < numTrials; i++) {
+                result.fillByMultiplying(matA, matB);
+            }
+
+            final long elapsedTime = System.nanoTime() - prev;
+            if (outputs != null) {
+                outputs[0] = new OjAlgoComplexBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    public static class OpQr implements MatrixProcessorInterface {
+
+        public long process(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials) {
+
+            final MatrixStore<ComplexNumber> matA = inputs[0].getOriginal();
+
+            MatrixStore<ComplexNumber> Q = null;
+            MatrixStore<ComplexNumber> R = null;
+            final QR<ComplexNumber> qr = QR.COMPLEX.make(matA);
+
+            final long prev = System.nanoTime();
+
+            for (long i = 0; i < numTrials; i++) {
+                if (!qr.compute(matA)) {
+                    throw new DetectedException("Decomposition failed");
+                }
+                Q = qr.getQ();
+                R = qr.getR();
+            }
+
+            final long elapsedTime = System.nanoTime() - prev;
+            if (outputs != null) {
+                outputs[0] = new OjAlgoComplexBenchmarkMatrix(Q);
+                outputs[1] = new OjAlgoComplexBenchmarkMatrix(R);
+            }
+            return elapsedTime;
+        }
+    }
+
+    public static class OpSolve implements MatrixProcessorInterface {
+
+        public long process(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials) {
+
+            final MatrixStore<ComplexNumber> matA = inputs[0].getOriginal();
+            final MatrixStore<ComplexNumber> matB = inputs[1].getOriginal();
+            MatrixStore<ComplexNumber> result = null;
+
+            final SolverTask<ComplexNumber> tmpSolver = SolverTask.COMPLEX.make(matA, matB, false, false);
+            final PhysicalStore<ComplexNumber> tmpAlloc = tmpSolver.preallocate(matA, matB);
+
+            final long prev = System.nanoTime();
+
+            for (long i = 0; i < numTrials; i++) {
+                try {
+                    result = tmpSolver.solve(matA, matB, tmpAlloc);
+                } catch (final RecoverableCondition ex) {
+                    throw new DetectedException(ex);
+                }
+            }
+
+            final long elapsedTime = System.nanoTime() - prev;
+            if (outputs != null) {
+                outputs[0] = new OjAlgoComplexBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    public static class OpSvd implements MatrixProcessorInterface {
+
+        public long process(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials) {
+
+            final MatrixStore<ComplexNumber> matA = inputs[0].getOriginal();
+
+            MatrixStore<ComplexNumber> U = null;
+            MatrixStore<ComplexNumber> S = null;
+            MatrixStore<ComplexNumber> V = null;
+
+            final SingularValue<ComplexNumber> svd = SingularValue.COMPLEX.make(matA);
+
+            final long prev = System.nanoTime();
+
+            for (long i = 0; i < numTrials; i++) {
+                if (!svd.compute(matA)) {
+                    throw new DetectedException("Decomposition failed");
+                }
+                U = svd.getU();
+                S = svd.getD();
+                V = svd.getV();
+            }
+
+            final long elapsedTime = System.nanoTime() - prev;
+            if (outputs != null) {
+                outputs[0] = new OjAlgoComplexBenchmarkMatrix(U);
+                outputs[1] = new OjAlgoComplexBenchmarkMatrix(S);
+                outputs[2] = new OjAlgoComplexBenchmarkMatrix(V);
+            }
+            return elapsedTime;
+        }
+    }
+
+    static final PhysicalStore.Factory<ComplexNumber, GenericStore<ComplexNumber>> FACTORY = GenericStore.COMPLEX;
+
+    @Override
+    public ComplexBenchmarkMatrix create(final int numRows, final int numCols) {
+        return new OjAlgoComplexBenchmarkMatrix(FACTORY.make(numRows, numCols));
+    }
+
+    @Override
+    public MatrixProcessorInterface add() {
+        return new OpAdd();
+    }
+
+    @Override
+    public MatrixProcessorInterface eigHermitian() {
+        return new OpEigHermitian();
+    }
+
+    @Override
+    public MatrixProcessorInterface invert() {
+        return new OpInvert();
+    }
+
+    @Override
+    public MatrixProcessorInterface lu() {
+        return new OpLu();
+    }
+
+    @Override
+    public MatrixProcessorInterface mult() {
+        return new OpMult();
+    }
+
+    @Override
+    public MatrixProcessorInterface qr() {
+        return new OpQr();
+    }
+
+    @Override
+    public MatrixProcessorInterface solve() {
+        return new OpSolve();
+    }
+
+    @Override
+    public MatrixProcessorInterface svd() {
+        return new OpSvd();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmatbench.ojalgo;
+
+import jmbench.interfaces.FloatBenchmarkMatrix;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.Primitive32Store;
+
+/**
+ * Wrapper around ojAlgo's single precision matrices
+ *
+ * @author Peter Abeles
+ */
+public class OjAlgoFloatBenchmarkMatrix implements FloatBenchmarkMatrix {
+
+    MatrixStore<?> mat;
+
+    public OjAlgoFloatBenchmarkMatrix(final MatrixStore<?> mat) {
+
+        super();
+
+        this.mat = mat;
+    }
+
+    @Override
+    public float getFloat(final int row, final int col) {
+        return mat.floatValue(row, col);
+    }
+
+    @Override
+    public void setFloat(final int row, final int col, final float value) {
+        ((PhysicalStore<?>) mat).set(row, col, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T getOriginal() {
+        return (T) mat;
+    }
+
+    @Override
+    public int numCols() {
+        return (int) mat.countColumns();
+    }
+
+    @Override
+    public int numRows() {
+        return (int) mat.countRows();
+    }
+
+    @Override
+    public void getRows(final int row0, final int row1, final double[] data) {
+        if (!(mat instanceof Primitive32Store)) {
+            FloatBenchmarkMatrix.super.getRows(row0, row1, data);
+            return;
+        }
+        // ojAlgo's dense stores are column-major
+        final float[] src = ((Primitive32Store) mat).data;
+        final int numRows = this.numRows();
+        final int numCols = this.numCols();
+        for (int col = 0; col < numCols; col++) {
+            final int index = col * numRows;
+            for (int row = row0; row < row1; row++) {
+                data[(row - row0) * numCols + col] = src[index + row];
+            }
+        }
+    }
+
+    @Override
+    public void setRows(final int row0, final int row1, final double[] data) {
+        if (!(mat instanceof Primitive32Store)) {
+            FloatBenchmarkMatrix.super.setRows(row0, row1, data);
+            return;
+        }
+        final float[] dst = ((Primitive32Store) mat).data;
+        final int numRows = this.numRows();
+        final int numCols = this.numCols();
+        for (int col = 0; col < numCols; col++) {
+            final int index = col * numRows;
+            for (int row = row0; row < row1; row++) {
+                dst[index + row] = (float) data[(row - row0) * numCols + col];
+            }
+        }
+    }
+}
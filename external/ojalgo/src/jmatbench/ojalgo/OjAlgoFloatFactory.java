@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmatbench.ojalgo;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.FloatPerformanceFactory;
+import jmbench.interfaces.MatrixProcessorInterface;
+import jmbench.tools.runtime.generator.ScaleGenerator;
+import org.ojalgo.function.UnaryFunction;
+import org.ojalgo.function.constant.PrimitiveMath;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.Primitive32Store;
+
+/**
+ * <p>
+ * Single precision operations using ojAlgo's {@link Primitive32Store}.  ojAlgo's matrix decompositions are all
+ * double precision, so only the basic operations are supported.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class OjAlgoFloatFactory implements FloatPerformanceFactory {
+
+    public static class OpAdd implements MatrixProcessorInterface {
+
+        public long process(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials) {
+
+            final MatrixStore<Double> matA = inputs[0].getOriginal();
+            final MatrixStore<Double> matB = inputs[1].getOriginal();
+
+            final Primitive32Store result = FACTORY.copy(matA);
+
+            final long prev = System.nanoTime();
+
+            for (long i = 0; i < numTrials; i++) {
+                result.fillMatching(matA, PrimitiveMath.ADD, matB);
+            }
+
+            final long elapsedTime = System.nanoTime() - prev;
+            if (outputs != null) {
+                outputs[0] = new OjAlgoFloatBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    public static class OpMult implements MatrixProcessorInterface {
+
+        public long process(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials) {
+
+            final MatrixStore<Double> matA = inputs[0].getOriginal();
+            final MatrixStore<Double> matB = inputs[1].getOriginal();
+
+            final Primitive32Store result = FACTORY.make(matA.countRows(), matB.countColumns());
+
+            final long prev = System.nanoTime();
+
+            for (long i = 0; i < numTrials; i++) {
+                result.fillByMultiplying(matA, matB);
+            }
+
+            final long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null )
+                outputs[0] = new OjAlgoFloatBenchmarkMatrix(result);
+            return elapsedTime;
+        }
+    }
+
+    public static class OpMultTransB implements MatrixProcessorInterface {
+
+        public long process(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials) {
+
+            final MatrixStore<Double> matA = inputs[0].getOriginal();
+            final MatrixStore<Double> matB = inputs[1].getOriginal();
+
+            final Primitive32Store result = FACTORY.make(matA.countRows(), matB.countRows());
+
+            final long prev = System.nanoTime();
+
+            for (long i = 0; i < numTrials; i++) {
+                result.fillByMultiplying(matA, matB.transpose());
+            }
+
+            final long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null )
+                outputs[0] = new OjAlgoFloatBenchmarkMatrix(result);
+            return elapsedTime;
+        }
+    }
+
+    public static class OpScale implements MatrixProcessorInterface {
+
+        public long process(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials) {
+
+            final MatrixStore<Double> matA = inputs[0].getOriginal();
+
+            final Primitive32Store result = FACTORY.copy(matA);
+            UnaryFunction<Double> multiplier = PrimitiveMath.MULTIPLY.second(ScaleGenerator.SCALE);
+
+            final long prev = System.nanoTime();
+
+            for (long i = 0; i < numTrials; i++) {
+                result.fillMatching(multiplier, matA);
+            }
+
+            final long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null )
+                outputs[0] = new OjAlgoFloatBenchmarkMatrix(result);
+            return elapsedTime;
+        }
+    }
+
+    public static class OpTranspose implements MatrixProcessorInterface {
+
+        public long process(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials) {
+
+            final MatrixStore<Double> matA = inputs[0].getOriginal();
+
+            final Primitive32Store result = FACTORY.make(matA.countColumns(), matA.countRows());
+
+            final long prev = System.nanoTime();
+
+            for (long i = 0; i < numTrials; i++) {
+                result.fillMatching(matA.transpose());
+            }
+
+            final long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null )
+                outputs[0] = new OjAlgoFloatBenchmarkMatrix(result);
+            return elapsedTime;
+        }
+    }
+
+    static final PhysicalStore.Factory<Double, Primitive32Store> FACTORY = Primitive32Store.FACTORY;
+
+    @Override
+    public BenchmarkMatrix create(final int numRows, final int numCols) {
+        return this.wrap(FACTORY.make(numRows, numCols));
+    }
+
+    @Override
+    public BenchmarkMatrix wrap(final Object matrix) {
+        return new OjAlgoFloatBenchmarkMatrix((MatrixStore<?>) matrix);
+    }
+
+    @Override
+    public BenchmarkMatrix identity(final int size) {
+        return this.wrap(FACTORY.makeEye(size, size));
+    }
+
+    @Override
+    public BenchmarkMatrix copy(final BenchmarkMatrix m) {
+        final MatrixStore<Double> A = m.getOriginal();
+        return this.wrap(FACTORY.copy(A));
+    }
+
+    @Override
+    public MatrixProcessorInterface add() {
+        return new OpAdd();
+    }
+
+    @Override
+    public MatrixProcessorInterface mult() {
+        return new OpMult();
+    }
+
+    @Override
+    public MatrixProcessorInterface multTransB() {
+        return new OpMultTransB();
+    }
+
+    @Override
+    public MatrixProcessorInterface scale() {
+        return new OpScale();
+    }
+
+    @Override
+    public MatrixProcessorInterface transpose() {
+        return new OpTranspose();
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmatbench.ojalgo;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.MatrixProcessorInterface;
+import jmbench.interfaces.SparsePerformanceFactory;
+import jmbench.matrix.CsrMatrix;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.Primitive64Store;
+import org.ojalgo.matrix.store.SparseStore;
+import org.ojalgo.structure.ElementView2D;
+
+/**
+ * <p>
+ * Sparse operations using ojAlgo's {@link SparseStore}.  ojAlgo's matrix decompositions are all dense, so solving
+ * isn't supported.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class OjAlgoSparseFactory implements SparsePerformanceFactory {
+
+    public static class OpMultVector implements MatrixProcessorInterface {
+
+        public long process(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials) {
+
+            final SparseStore<Double> matA = inputs[0].getOriginal();
+            final MatrixStore<Double> vecX = inputs[1].getOriginal();
+
+            final Primitive64Store result = Primitive64Store.FACTORY.make(matA.countRows(), 1L);
+
+            final long prev = System.nanoTime();
+
+            for (long i = 0; i < numTrials; i++) {
+                matA.multiply(vecX, result);
+            }
+
+            final long elapsedTime = System.nanoTime() - prev;
+            if (outputs != null) {
+                outputs[0] = new OjAlgoBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    public static class OpMult implements MatrixProcessorInterface {
+
+        public long process(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials) {
+
+            final SparseStore<Double> matA = inputs[0].getOriginal();
+            final SparseStore<Double> matB = inputs[1].getOriginal();
+
+            MatrixStore<Double> result = null;
+
+            final long prev = System.nanoTime();
+
+            for (long i = 0; i < numTrials; i++) {
+                result = matA.multiply(matB);
+            }
+
+            final long elapsedTime = System.nanoTime() - prev;
+            if (outputs != null) {
+                outputs[0] = new OjAlgoBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    public static class OpTranspose implements MatrixProcessorInterface {
+
+        public long process(final BenchmarkMatrix[] inputs, final BenchmarkMatrix[] outputs, final long numTrials) {
+
+            final SparseStore<Double> matA = inputs[0].getOriginal();
+
+            SparseStore<Double> result = null;
+
+            final long prev = System.nanoTime();
+
+            for (long i = 0; i < numTrials; i++) {
+                // transpose() only creates a view, supplying it to a new store is what does the work
+                result = SparseStore.PRIMITIVE64.make(matA.countColumns(), matA.countRows());
+                matA.transpose().supplyTo(result);
+            }
+
+            final long elapsedTime = System.nanoTime() - prev;
+            if (outputs != null) {
+                outputs[0] = new OjAlgoBenchmarkMatrix(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public BenchmarkMatrix convertToLib(final CsrMatrix input) {
+
+        final SparseStore<Double> retVal = SparseStore.PRIMITIVE64.make(input.numRows, input.numCols);
+
+        for (int row = 0; row < input.numRows; row++) {
+            for (int i = input.rowPtr[row]; i < input.rowPtr[row + 1]; i++) {
+                retVal.set(row, input.colIdx[i], input.values[i]);
+            }
+        }
+
+        return new OjAlgoBenchmarkMatrix(retVal);
+    }
+
+    @Override
+    public CsrMatrix convertToCsr(final BenchmarkMatrix input) {
+
+        final MatrixStore<Double> orig = input.getOriginal();
+
+        if (!(orig instanceof SparseStore)) {
+            return CsrMatrix.fromRowMajor(OjAlgoAlgorithmFactory.ojAlgoToRowMajor(orig));
+        }
+
+        final SparseStore<Double> sparse = (SparseStore<Double>) orig;
+
+        int length = 0;
+        for (final ElementView2D<Double, ?> element : sparse.nonzeros()) {
+            length++;
+        }
+
+        final int[] rows = new int[length];
+        final int[] cols = new int[length];
+        final double[] values = new double[length];
+        int index = 0;
+        for (final ElementView2D<Double, ?> element : sparse.nonzeros()) {
+            rows[index] = (int) element.row();
+            cols[index] = (int) element.column();
+            values[index++] = element.doubleValue();
+        }
+
+        return CsrMatrix.fromTriplets((int) sparse.countRows(), (int) sparse.countColumns(), rows, cols, values, length);
+    }
+
+    @Override
+    public MatrixProcessorInterface mult() {
+        return new OpMult();
+    }
+
+    @Override
+    public MatrixProcessorInterface multVector() {
+        return new OpMultVector();
+    }
+
+    @Override
+    public MatrixProcessorInterface transpose() {
+        return new OpTranspose();
+    }
+}
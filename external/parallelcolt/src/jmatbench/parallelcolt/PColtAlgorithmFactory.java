@@ -29,6 +29,7 @@ import jmbench.interfaces.BenchmarkMatrix;
 import jmbench.interfaces.DetectedException;
 import jmbench.interfaces.MatrixProcessorInterface;
 import jmbench.interfaces.RuntimePerformanceFactory;
+import jmbench.interfaces.SparsePerformanceFactory;
 import jmbench.matrix.RowMajorBenchmarkMatrix;
 import jmbench.matrix.RowMajorMatrix;
 import jmbench.matrix.RowMajorOps;
@@ -465,6 +466,11 @@ public class PColtAlgorithmFactory implements RuntimePerformanceFactory {
         return new DenseDoubleMatrix2D( numRows , numCols );
     }
 
+    @Override
+    public SparsePerformanceFactory sparse() {
+        return new PColtSparseFactory();
+    }
+
     @Override
     public BenchmarkMatrix convertToLib(RowMajorMatrix input) {
         return new PColtBenchmarkMatrix(convertToParallelColt(input));
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmatbench.parallelcolt;
+
+import cern.colt.matrix.tdouble.DoubleMatrix1D;
+import cern.colt.matrix.tdouble.DoubleMatrix2D;
+import cern.colt.matrix.tdouble.algo.decomposition.CSparseDoubleLUDecomposition;
+import cern.colt.matrix.tdouble.algo.decomposition.SparseDoubleCholeskyDecomposition;
+import cern.colt.matrix.tdouble.algo.decomposition.SparseDoubleQRDecomposition;
+import cern.colt.matrix.tdouble.impl.DenseDoubleMatrix1D;
+import cern.colt.matrix.tdouble.impl.SparseRCDoubleMatrix2D;
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.DetectedException;
+import jmbench.interfaces.MatrixProcessorInterface;
+import jmbench.interfaces.SparsePerformanceFactory;
+import jmbench.matrix.CsrMatrix;
+
+import java.util.Arrays;
+
+
+/**
+ * <p>
+ * Sparse operations using Parallel Colt's compressed row matrices.  Its solvers come from CSparseJ.  They are
+ * run without reordering the matrix to reduce fill-in, the same as EJML, so the results can be compared.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PColtSparseFactory implements SparsePerformanceFactory {
+
+    // no fill reducing ordering, see CSparse
+    public static final int NATURAL_ORDER = 0;
+
+    @Override
+    public BenchmarkMatrix convertToLib(CsrMatrix input) {
+        int nonZeros = input.getNonZeros();
+        SparseRCDoubleMatrix2D A = new SparseRCDoubleMatrix2D(input.numRows,input.numCols,
+                input.rowPtr.clone(),
+                Arrays.copyOf(input.colIdx,nonZeros),
+                Arrays.copyOf(input.values,nonZeros));
+        return new PColtBenchmarkMatrix(A);
+    }
+
+    @Override
+    public CsrMatrix convertToCsr(BenchmarkMatrix input) {
+        DoubleMatrix2D m = input.getOriginal();
+        SparseRCDoubleMatrix2D A = m instanceof SparseRCDoubleMatrix2D ?
+                (SparseRCDoubleMatrix2D)m : new SparseRCDoubleMatrix2D(m.toArray());
+
+        // sort and remove unused space so the arrays can be copied directly
+        A = A.getTranspose().getTranspose();
+        A.trimToSize();
+
+        CsrMatrix out = new CsrMatrix();
+        out.numRows = A.rows();
+        out.numCols = A.columns();
+        out.rowPtr = Arrays.copyOf(A.getRowPointers(),A.rows()+1);
+        out.colIdx = Arrays.copyOf(A.getColumnIndexes(),out.rowPtr[out.numRows]);
+        out.values = Arrays.copyOf(A.getValues(),out.rowPtr[out.numRows]);
+        return out;
+    }
+
+    @Override
+    public MatrixProcessorInterface multVector() {
+        return new MultVector();
+    }
+
+    public static class MultVector implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            DoubleMatrix2D A = inputs[0].getOriginal();
+            DoubleMatrix2D matX = inputs[1].getOriginal();
+
+            DoubleMatrix1D x = matX.viewColumn(0).copy();
+            DoubleMatrix1D y = new DenseDoubleMatrix1D(A.rows());
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                A.zMult(x,y);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new PColtBenchmarkMatrix(y.reshape(A.rows(),1));
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface mult() {
+        return new Mult();
+    }
+
+    public static class Mult implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            DoubleMatrix2D A = inputs[0].getOriginal();
+            DoubleMatrix2D B = inputs[1].getOriginal();
+
+            DoubleMatrix2D C = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                // the output is created by zMult so that it's sparse
+                C = A.zMult(B,null);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new PColtBenchmarkMatrix(C);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface solveCholesky() {
+        return new Solve() {
+            @Override
+            void solve(DoubleMatrix2D A, DoubleMatrix1D x) {
+                new SparseDoubleCholeskyDecomposition(A,NATURAL_ORDER).solve(x);
+            }
+        };
+    }
+
+    @Override
+    public MatrixProcessorInterface solveLU() {
+        return new Solve() {
+            @Override
+            void solve(DoubleMatrix2D A, DoubleMatrix1D x) {
+                CSparseDoubleLUDecomposition lu = new CSparseDoubleLUDecomposition(A,NATURAL_ORDER,true);
+                if( !lu.isNonsingular() )
+                    throw new DetectedException("Decomposition failed");
+                lu.solve(x);
+            }
+        };
+    }
+
+    @Override
+    public MatrixProcessorInterface solveQR() {
+        return new Solve() {
+            @Override
+            void solve(DoubleMatrix2D A, DoubleMatrix1D x) {
+                new SparseDoubleQRDecomposition(A,NATURAL_ORDER).solve(x);
+            }
+        };
+    }
+
+    /**
+     * Decomposes A and solves for x each trial.  The solution is written into the vector passed in, so b is
+     * copied into x first.
+     */
+    public static abstract class Solve implements MatrixProcessorInterface {
+        abstract void solve( DoubleMatrix2D A , DoubleMatrix1D x );
+
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            DoubleMatrix2D A = inputs[0].getOriginal();
+            DoubleMatrix2D matB = inputs[1].getOriginal();
+
+            DoubleMatrix1D b = matB.viewColumn(0).copy();
+            DoubleMatrix1D x = new DenseDoubleMatrix1D(A.columns());
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                x.assign(b);
+                solve(A,x);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new PColtBenchmarkMatrix(x.reshape(A.columns(),1));
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface transpose() {
+        return new Transpose();
+    }
+
+    public static class Transpose implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            SparseRCDoubleMatrix2D A = inputs[0].getOriginal();
+
+            DoubleMatrix2D At = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                At = A.getTranspose();
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new PColtBenchmarkMatrix(At);
+            }
+            return elapsedTime;
+        }
+    }
+}
@@ -22,6 +22,7 @@ package jmatbench.ujmp;
 import jmbench.interfaces.BenchmarkMatrix;
 import jmbench.interfaces.MatrixProcessorInterface;
 import jmbench.interfaces.RuntimePerformanceFactory;
+import jmbench.interfaces.SparsePerformanceFactory;
 import jmbench.matrix.RowMajorMatrix;
 import jmbench.tools.BenchmarkConstants;
 import org.ujmp.core.Matrix;
@@ -457,6 +458,11 @@ public class UjmpAlgorithmFactory implements RuntimePerformanceFactory {
 		}
 	}
 
+    @Override
+    public SparsePerformanceFactory sparse() {
+        return new UjmpSparseFactory();
+    }
+
     @Override
     public BenchmarkMatrix convertToLib(RowMajorMatrix input) {
         return new UjmpBenchmarkMatrix(convertToUjmp(input));
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmatbench.ujmp;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.MatrixProcessorInterface;
+import jmbench.interfaces.SparsePerformanceFactory;
+import jmbench.matrix.CsrMatrix;
+import org.ujmp.core.Matrix;
+import org.ujmp.core.doublematrix.SparseDoubleMatrix2D;
+
+
+/**
+ * <p>
+ * Sparse operations using UJMP's default sparse matrix.  UJMP's solvers convert the matrix into a dense matrix
+ * so solving isn't supported.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class UjmpSparseFactory implements SparsePerformanceFactory {
+
+    @Override
+    public BenchmarkMatrix convertToLib(CsrMatrix input) {
+        SparseDoubleMatrix2D A = SparseDoubleMatrix2D.Factory.zeros(input.numRows,input.numCols);
+        for (int row = 0; row < input.numRows; row++) {
+            for (int i = input.rowPtr[row]; i < input.rowPtr[row+1]; i++) {
+                A.setDouble(input.values[i],row,input.colIdx[i]);
+            }
+        }
+        return new UjmpBenchmarkMatrix(A);
+    }
+
+    @Override
+    public CsrMatrix convertToCsr(BenchmarkMatrix input) {
+        Matrix m = input.getOriginal();
+
+        int capacity = 0;
+        for( long[] c : m.availableCoordinates() ) {
+            capacity++;
+        }
+        int rows[] = new int[capacity], cols[] = new int[capacity];
+        double values[] = new double[capacity];
+        int length = 0;
+        for( long[] c : m.availableCoordinates() ) {
+            double value = m.getAsDouble(c);
+            if( value == 0 )
+                continue;
+            rows[length] = (int)c[0];
+            cols[length] = (int)c[1];
+            values[length++] = value;
+        }
+        return CsrMatrix.fromTriplets((int)m.getRowCount(),(int)m.getColumnCount(),rows,cols,values,length);
+    }
+
+    @Override
+    public MatrixProcessorInterface multVector() {
+        return new Mult();
+    }
+
+    @Override
+    public MatrixProcessorInterface mult() {
+        return new Mult();
+    }
+
+    /**
+     * Used for both matrix-vector and matrix-matrix multiplication since UJMP doesn't have vectors
+     */
+    public static class Mult implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            Matrix A = inputs[0].getOriginal();
+            Matrix B = inputs[1].getOriginal();
+
+            Matrix C = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                C = A.mtimes(B);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new UjmpBenchmarkMatrix(C);
+            }
+            return elapsedTime;
+        }
+    }
+
+    @Override
+    public MatrixProcessorInterface transpose() {
+        return new Transpose();
+    }
+
+    public static class Transpose implements MatrixProcessorInterface {
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            Matrix A = inputs[0].getOriginal();
+
+            Matrix At = null;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                At = A.transpose();
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            if( outputs != null ) {
+                outputs[0] = new UjmpBenchmarkMatrix(At);
+            }
+            return elapsedTime;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.jmh;
+
+import jmbench.impl.LibraryDescription;
+import jmbench.impl.LibraryManager;
+import jmbench.interfaces.RuntimePerformanceFactory;
+import jmbench.tools.BenchmarkConstants;
+import jmbench.tools.MiscTools;
+import jmbench.tools.runtime.*;
+import jmbench.tools.runtime.evaluation.RuntimeResultsCsvIO;
+import jmbench.tools.stability.UtilXmlSerialization;
+import org.openjdk.jmh.results.BenchmarkResult;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * <p>
+ * Runs the runtime benchmark using JMH instead of {@link RuntimeBenchmark}'s own harness.  The same operations,
+ * matrix sizes, and input generators are used.  Each measurement iteration in JMH becomes one trial in the results,
+ * which are saved in the same directory structure and csv format as the runtime benchmark.  This allows
+ * the results from both harnesses to be plotted and compared with the existing tools.  JMH's own results are
+ * also saved as json.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class JmhRuntimeBenchmark {
+
+    // where should the results be saved to
+    String directorySave;
+
+    RuntimeBenchmarkConfig config;
+
+    // JMH settings
+    int forks = 1;
+    int warmupIterations = 5;
+    int measurementIterations = 10;
+    List<String> profilers = new ArrayList<>();
+
+    public JmhRuntimeBenchmark( String directorySave , RuntimeBenchmarkConfig config ) {
+        this.directorySave = directorySave;
+        this.config = config;
+    }
+
+    public void performBenchmark() throws RunnerException {
+        File dir = new File(directorySave);
+        if( !dir.exists() && !dir.mkdirs() )
+            throw new IllegalArgumentException("Can't make directories to save results.");
+
+        UtilXmlSerialization.serializeXml(config,directorySave+"/config.xml");
+
+        for( LibraryDescription desc : config.targets ) {
+            benchmarkLibrary(desc);
+        }
+    }
+
+    private void benchmarkLibrary( LibraryDescription desc ) throws RunnerException {
+        String libOutputDir = directorySave+"/"+desc.info.outputDirectory();
+        File dir = new File(libOutputDir);
+        if( !dir.exists() && !dir.mkdirs() )
+            throw new IllegalArgumentException("Can't make directories to save results.");
+
+        // same files as the runtime benchmark so that the results can be plotted
+        UtilXmlSerialization.serializeXml(desc,libOutputDir+".xml");
+        RuntimePerformanceFactory factory = createFactory(desc.info.factory);
+        UtilXmlSerialization.serializeXml(LibraryRuntimeInfo.create(factory),
+                new File(dir,BenchmarkConstants.RUNTIME_INFO_NAME).getPath());
+
+        // skip operations which the library doesn't support
+        List<RuntimeEvaluationCase> cases = new ArrayList<>();
+        for( RuntimeEvaluationCase c : new FactoryRuntimeEvaluationCase(desc.info.factory,config).createCases() ) {
+            if( isSupported(factory,c.getNameAlgorithm()) )
+                cases.add(c);
+            else
+                System.out.println("Skipping unsupported operation "+c.getNameAlgorithm());
+        }
+
+        if( cases.isEmpty() )
+            return;
+
+        String[] operations = new String[ cases.size() ];
+        for (int i = 0; i < operations.length; i++) {
+            operations[i] = cases.get(i).getNameAlgorithm();
+        }
+        int[] sizes = cases.get(0).getDimens();
+        String[] sizesStr = new String[ sizes.length ];
+        for (int i = 0; i < sizes.length; i++) {
+            sizesStr[i] = Integer.toString(sizes[i]);
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(RuntimeOperationBenchmark.class.getName())
+                .param("factory",desc.info.factory)
+                .param("operation",operations)
+                .param("size",sizesStr)
+                .param("seed",Long.toString(config.seed))
+                .forks(forks)
+                .warmupIterations(warmupIterations)
+                .measurementIterations(measurementIterations)
+                .jvmArgsAppend("-Xms"+config.memoryMB+"M","-Xmx"+config.memoryMB+"M")
+                .result(libOutputDir+"/jmh.json")
+                .resultFormat(ResultFormatType.JSON);
+        for( String p : profilers ) {
+            options.addProfiler(p);
+        }
+
+        Collection<RunResult> results = new Runner(options.build()).run();
+
+        for( RuntimeEvaluationCase c : cases ) {
+            RuntimeResults r = convertResults(c, desc.info.namePlot, results);
+            RuntimeResultsCsvIO.write(r,libOutputDir+"/"+c.getNameAlgorithm()+".csv");
+        }
+    }
+
+    /**
+     * Converts results from JMH into the same format as the runtime benchmark's results.  Each measurement
+     * iteration is a trial.
+     */
+    public static RuntimeResults convertResults( RuntimeEvaluationCase c , String libraryName ,
+                                                 Collection<RunResult> results ) {
+        int[] sizes = c.getDimens();
+        RuntimeEvaluationMetrics[] metrics = new RuntimeEvaluationMetrics[ sizes.length ];
+
+        for( RunResult run : results ) {
+            if( !c.getNameAlgorithm().equals(run.getParams().getParam("operation")) )
+                continue;
+
+            int size = Integer.parseInt(run.getParams().getParam("size"));
+
+            List<RuntimeMeasurement> trials = new ArrayList<>();
+            for( BenchmarkResult fork : run.getBenchmarkResults() ) {
+                for( IterationResult iteration : fork.getIterationResults() ) {
+                    trials.add(new RuntimeMeasurement(iteration.getPrimaryResult().getScore(),0));
+                }
+            }
+
+            for (int i = 0; i < sizes.length; i++) {
+                if( sizes[i] == size && !trials.isEmpty() )
+                    metrics[i] = new RuntimeEvaluationMetrics(trials);
+            }
+        }
+
+        RuntimeResults r = new RuntimeResults(c.getOpName(),libraryName,sizes,metrics);
+        r.complete = true;
+        return r;
+    }
+
+    /**
+     * Looks up the case which describes the operation.  All the operations are considered, not just the
+     * ones that are enabled by default.
+     *
+     * @return The case or null if there's no match
+     */
+    public static RuntimeEvaluationCase lookupCase( String factory , String operation ) {
+        RuntimeBenchmarkConfig config = RuntimeBenchmarkConfig.createAllConfig(null);
+        config.chol = config.lu = config.qr = true;
+        config.transposeTall = config.transposeWide = true;
+
+        for( RuntimeEvaluationCase c : new FactoryRuntimeEvaluationCase(factory,config).createCases() ) {
+            if( c.getNameAlgorithm().equals(operation) )
+                return c;
+        }
+        return null;
+    }
+
+    private static RuntimePerformanceFactory createFactory( String className ) {
+        try {
+            return (RuntimePerformanceFactory)Class.forName(className).newInstance();
+        } catch (InstantiationException | IllegalAccessException | ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static boolean isSupported( RuntimePerformanceFactory factory , String operation ) {
+        try {
+            return factory.getClass().getMethod(operation).invoke(factory) != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    public static void printHelp() {
+        System.out.println("Runs the runtime benchmark using JMH as the harness.  Results are saved in the same format");
+        System.out.println("as the runtime benchmark and can be plotted with the same tools.");
+        System.out.println();
+        System.out.println("  --Library=<lib>           |  To run a specific library only.  Use a comma to specify multiple libraries.");
+        System.out.println("  --Size=min:max            |  Test matrices from the specified minimum size to the specified maximum size.");
+        System.out.println("  --Seed=<number>           |  used to set the random seed to the specified value.");
+        System.out.println("  --Memory=<size|unit>      |  Amount of memory allocated to each fork.  Default 1024 MB.");
+        System.out.println("  --Forks=<num>             |  Number of JVMs JMH forks for each benchmark. Default 1.");
+        System.out.println("  --Warmup=<num>            |  Number of warmup iterations. Default 5.");
+        System.out.println("  --Iterations=<num>        |  Number of measurement iterations. Each is a trial in the results. Default 10.");
+        System.out.println("  --Profiler=<name>         |  Adds a JMH profiler, e.g. gc or stack. Can be specified multiple times.");
+        System.out.println("  --Output=<directory>      |  Where the results are saved. Default is a new directory in results.");
+        System.out.println();
+        System.out.println("Example: java -jar benchmark_jmh.jar --Library=ejml,ojalgo --Size=2:1000 --Profiler=gc");
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        LibraryManager manager = new LibraryManager();
+
+        RuntimeBenchmarkConfig config = RuntimeBenchmarkConfig.createAllConfig(manager.getDefaults());
+        config.memoryMB = 1024;
+        config.maxMatrixSize = 1000;
+        String directory = MiscTools.selectDirectoryName("jmh");
+        int forks = 1, warmup = 5, iterations = 10;
+        List<String> profilers = new ArrayList<>();
+
+        boolean failed = false;
+        for( int i = 0; i < args.length; i++ ) {
+            String splits[] = args[i].split("=");
+
+            String flag = splits[0];
+
+            if( flag.length() < 2 || flag.charAt(0) != '-' || flag.charAt(1) != '-' || splits.length != 2 ) {
+                System.out.println("Failed to understand "+args[i]);
+                failed = true;
+                break;
+            }
+
+            flag = flag.substring(2);
+
+            if( flag.compareTo("Library") == 0 ) {
+                config.targets.clear();
+                for( String lib : splits[1].split(",") ) {
+                    LibraryDescription match = manager.lookup(lib);
+                    if( match == null ) {
+                        manager.printAllNames();
+                        failed = true;
+                        break;
+                    }
+                    config.targets.add(match);
+                }
+            } else if( flag.compareTo("Size") == 0 ) {
+                String rangeStr[] = splits[1].split(":");
+                if( rangeStr.length != 2 ) {failed = true; break;}
+                config.minMatrixSize = Integer.parseInt(rangeStr[0]);
+                config.maxMatrixSize = Integer.parseInt(rangeStr[1]);
+            } else if( flag.compareTo("Seed") == 0 ) {
+                config.seed = Long.parseLong(splits[1]);
+            } else if( flag.compareTo("Memory") == 0 ) {
+                config.memoryMB = (int)MiscTools.parseMemoryMB(splits[1]);
+            } else if( flag.compareTo("Forks") == 0 ) {
+                forks = Integer.parseInt(splits[1]);
+            } else if( flag.compareTo("Warmup") == 0 ) {
+                warmup = Integer.parseInt(splits[1]);
+            } else if( flag.compareTo("Iterations") == 0 ) {
+                iterations = Integer.parseInt(splits[1]);
+            } else if( flag.compareTo("Profiler") == 0 ) {
+                profilers.add(splits[1]);
+            } else if( flag.compareTo("Output") == 0 ) {
+                directory = splits[1];
+            } else {
+                System.out.println("Unknown flag: "+flag);
+                failed = true;
+                break;
+            }
+        }
+
+        if( failed ) {
+            printHelp();
+            return;
+        }
+
+        JmhRuntimeBenchmark app = new JmhRuntimeBenchmark(directory,config);
+        app.forks = forks;
+        app.warmupIterations = warmup;
+        app.measurementIterations = iterations;
+        app.profilers = profilers;
+        app.performBenchmark();
+    }
+}
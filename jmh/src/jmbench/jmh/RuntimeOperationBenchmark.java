@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.jmh;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.MatrixProcessorInterface;
+import jmbench.interfaces.RuntimePerformanceFactory;
+import jmbench.tools.runtime.RuntimeEvaluationCase;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * JMH benchmark for a single operation provided by a {@link RuntimePerformanceFactory}.  The factory,
+ * operation, and matrix size are all JMH parameters so that every operation in every library can be benchmarked
+ * with this one class.  Inputs are created using the same generators as the runtime benchmark.
+ * </p>
+ *
+ * <p>
+ * The parameter values below are only defaults and are normally overridden by {@link JmhRuntimeBenchmark} or
+ * JMH's "-p" command line option.
+ * </p>
+ *
+ * <p>
+ * Like the runtime benchmark the operation is run several times by each call to process(), which amortizes
+ * setup inside of process() such as allocating the result, and no output matrices are created.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1)
+public class RuntimeOperationBenchmark {
+
+    // number of times the operation is run in each invocation
+    public static final int TRIALS = 10;
+
+    // class name of the library's RuntimePerformanceFactory
+    @Param({"jmatbench.ejml.EjmlAlgorithmFactory"})
+    public String factory;
+
+    // name of the function in the factory which creates the operation
+    @Param({"mult"})
+    public String operation;
+
+    // size of the input matrices
+    @Param({"100"})
+    public int size;
+
+    // random seed used to create the inputs.  Same default as the runtime benchmark
+    @Param({"-559038737"})
+    public long seed;
+
+    private MatrixProcessorInterface alg;
+    private BenchmarkMatrix[] inputs;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        RuntimePerformanceFactory f = (RuntimePerformanceFactory)Class.forName(factory).newInstance();
+
+        RuntimeEvaluationCase c = JmhRuntimeBenchmark.lookupCase(factory, operation);
+        if( c == null )
+            throw new IllegalArgumentException("Unknown operation "+operation);
+
+        alg = (MatrixProcessorInterface)f.getClass().getMethod(operation).invoke(f);
+        if( alg == null )
+            throw new IllegalArgumentException("Operation not supported "+operation);
+
+        inputs = c.getGenerator().createInputs(f, new Random(seed), size);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRIALS)
+    public void process( Blackhole bh ) {
+        bh.consume(alg.process(inputs, null, TRIALS));
+    }
+}
@@ -37,6 +37,10 @@ public class LibraryStringInfo implements Serializable{
     public String nameFull;
     public String nameShort;
     public String namePlot;
+    /**
+     * True if the library uses multiple threads internally
+     */
+    public boolean multiThreaded;
 
     public String getFactory() {
         return factory;
@@ -70,6 +74,14 @@ public class LibraryStringInfo implements Serializable{
         this.namePlot = namePlot;
     }
 
+    public boolean isMultiThreaded() {
+        return multiThreaded;
+    }
+
+    public void setMultiThreaded(boolean multiThreaded) {
+        this.multiThreaded = multiThreaded;
+    }
+
     public String outputDirectory() {
         return nameShort.replaceAll("[-:]","_");
     }
@@ -36,4 +36,54 @@ public interface BenchmarkMatrix {
     public int numCols();
 
     public <T>T getOriginal();
+
+    /**
+     * Copies the elements in rows row0 to row1-1 into the array in a row-major format.  The default implementation
+     * calls {@link #get} for each element.  Libraries should override this with a faster way to access their data.
+     *
+     * @param row0 First row which is copied
+     * @param row1 Last row which is copied, exclusive
+     * @param data Storage for the rows.  Must be at least (row1-row0)*numCols() long
+     */
+    public default void getRows( int row0 , int row1 , double[] data ) {
+        int numCols = numCols();
+        int index = 0;
+        for (int row = row0; row < row1; row++) {
+            for (int col = 0; col < numCols; col++) {
+                data[index++] = get(row,col);
+            }
+        }
+    }
+
+    /**
+     * Sets the elements in rows row0 to row1-1 from an array in a row-major format.  The default implementation
+     * calls {@link #set} for each element.  Libraries should override this with a faster way to access their data.
+     *
+     * @param row0 First row which is set
+     * @param row1 Last row which is set, exclusive
+     * @param data Values of the rows.  Must be at least (row1-row0)*numCols() long
+     */
+    public default void setRows( int row0 , int row1 , double[] data ) {
+        int numCols = numCols();
+        int index = 0;
+        for (int row = row0; row < row1; row++) {
+            for (int col = 0; col < numCols; col++) {
+                set(row,col,data[index++]);
+            }
+        }
+    }
+
+    /**
+     * Copies the entire matrix into the array in a row-major format
+     */
+    public default void getRowMajor( double[] data ) {
+        getRows(0,numRows(),data);
+    }
+
+    /**
+     * Sets the entire matrix from an array in a row-major format
+     */
+    public default void setRowMajor( double[] data ) {
+        setRows(0,numRows(),data);
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.interfaces;
+
+
+/**
+ * <p>
+ * A matrix with complex elements.  {@link #get} and {@link #set(int, int, double)} access the real part only,
+ * so code which only understands real matrices sees something sensible, but the complex accessors should be
+ * used everywhere else.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public interface ComplexBenchmarkMatrix extends BenchmarkMatrix {
+
+    public double getReal( int row , int col );
+
+    public double getImag( int row , int col );
+
+    public void set( int row , int col , double real , double imag );
+
+    @Override
+    public default double get( int row , int col ) {
+        return getReal(row,col);
+    }
+
+    @Override
+    public default void set( int row , int col , double value ) {
+        set(row,col,value,0);
+    }
+
+    /**
+     * Sets the elements in rows row0 to row1-1 from an array in a row-major format, where the real and imaginary
+     * parts of each element are interleaved.  The default implementation calls {@link #set(int, int, double, double)}
+     * for each element.  Libraries should override this with a faster way to access their data.
+     *
+     * @param row0 First row which is set
+     * @param row1 Last row which is set, exclusive
+     * @param data Values of the rows.  Must be at least 2*(row1-row0)*numCols() long
+     */
+    public default void setComplexRows( int row0 , int row1 , double[] data ) {
+        int numCols = numCols();
+        int index = 0;
+        for (int row = row0; row < row1; row++) {
+            for (int col = 0; col < numCols; col++, index += 2) {
+                set(row,col,data[index],data[index+1]);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.interfaces;
+
+import java.io.Serializable;
+
+
+/**
+ * <p>
+ * An interface implemented by libraries which support dense matrices with complex elements.  Inputs and
+ * outputs of each operation are {@link ComplexBenchmarkMatrix}.  Operations which the library doesn't
+ * support return null.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public interface ComplexPerformanceFactory extends Serializable {
+
+    /**
+     * Creates a new matrix which is filled with zeros
+     */
+    ComplexBenchmarkMatrix create( int numRows , int numCols );
+
+    /**
+     * <p>
+     * Matrix multiplication :<br>
+     * <br>
+     * C = A*B
+     * </p>
+     */
+    default MatrixProcessorInterface mult() {
+        return null;
+    }
+
+    /**
+     * <p>
+     * Matrix addition :<br>
+     * <br>
+     * C = A + B
+     * </p>
+     */
+    default MatrixProcessorInterface add() {
+        return null;
+    }
+
+    /**
+     * Inverts a square matrix.
+     */
+    default MatrixProcessorInterface invert() {
+        return null;
+    }
+
+    /**
+     * Solve a system with square input matrix:<br>
+     * <br>
+     * A*x = b<br>
+     * <br>
+     * where A is an m by m matrix and b is a column vector.
+     */
+    default MatrixProcessorInterface solve() {
+        return null;
+    }
+
+    /**
+     * LU decomposition.  Outputs are L and U.
+     */
+    default MatrixProcessorInterface lu() {
+        return null;
+    }
+
+    /**
+     * QR decomposition.  Outputs are Q and R.
+     */
+    default MatrixProcessorInterface qr() {
+        return null;
+    }
+
+    /**
+     * Singular Value Decomposition.  Outputs are U, S, and V.
+     */
+    default MatrixProcessorInterface svd() {
+        return null;
+    }
+
+    /**
+     * Eigenvalue decomposition of a Hermitian matrix.  Outputs are D and V.
+     */
+    default MatrixProcessorInterface eigHermitian() {
+        return null;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.interfaces;
+
+
+/**
+ * <p>
+ * A matrix which stores its elements as single precision floats.  Values are converted to and from
+ * doubles by {@link #get} and {@link #set}, so the existing code which creates and checks matrices
+ * works with it unmodified.  Libraries should implement the float accessors and bulk operations directly
+ * so that nothing is converted to double while the operation is being benchmarked.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public interface FloatBenchmarkMatrix extends BenchmarkMatrix {
+
+    public float getFloat( int row , int col );
+
+    public void setFloat( int row , int col , float value );
+
+    @Override
+    public default double get( int row , int col ) {
+        return getFloat(row,col);
+    }
+
+    @Override
+    public default void set( int row , int col , double value ) {
+        setFloat(row,col,(float)value);
+    }
+}
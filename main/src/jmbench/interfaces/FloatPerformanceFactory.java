@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.interfaces;
+
+import java.io.Serializable;
+
+
+/**
+ * <p>
+ * Single precision (32-bit float) versions of the dense operations in {@link RuntimePerformanceFactory}.  Each
+ * operation has the same inputs and outputs as its double precision counterpart, so the same
+ * {@link jmbench.tools.runtime.InputOutputGenerator} can be used to create both.  Comparing the two shows
+ * where a library benefits from moving half as much memory.
+ * </p>
+ *
+ * <p>
+ * Matrices created by the factory must be {@link FloatBenchmarkMatrix}.  Operations which the library can't
+ * perform in single precision return null.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public interface FloatPerformanceFactory extends MatrixFactory, Serializable {
+
+    /**
+     * See {@link RuntimePerformanceFactory#chol()}
+     */
+    default MatrixProcessorInterface chol() {
+        return null;
+    }
+
+    /**
+     * See {@link RuntimePerformanceFactory#lu()}
+     */
+    default MatrixProcessorInterface lu() {
+        return null;
+    }
+
+    /**
+     * See {@link RuntimePerformanceFactory#svd()}
+     */
+    default MatrixProcessorInterface svd() {
+        return null;
+    }
+
+    /**
+     * See {@link RuntimePerformanceFactory#qr()}
+     */
+    default MatrixProcessorInterface qr() {
+        return null;
+    }
+
+    /**
+     * See {@link RuntimePerformanceFactory#eigSymm()}
+     */
+    default MatrixProcessorInterface eigSymm() {
+        return null;
+    }
+
+    /**
+     * See {@link RuntimePerformanceFactory#det()}
+     */
+    default MatrixProcessorInterface det() {
+        return null;
+    }
+
+    /**
+     * See {@link RuntimePerformanceFactory#invert()}
+     */
+    default MatrixProcessorInterface invert() {
+        return null;
+    }
+
+    /**
+     * See {@link RuntimePerformanceFactory#invertSymmPosDef()}
+     */
+    default MatrixProcessorInterface invertSymmPosDef() {
+        return null;
+    }
+
+    /**
+     * See {@link RuntimePerformanceFactory#add()}
+     */
+    default MatrixProcessorInterface add() {
+        return null;
+    }
+
+    /**
+     * See {@link RuntimePerformanceFactory#mult()}
+     */
+    default MatrixProcessorInterface mult() {
+        return null;
+    }
+
+    /**
+     * See {@link RuntimePerformanceFactory#multTransB()}
+     */
+    default MatrixProcessorInterface multTransB() {
+        return null;
+    }
+
+    /**
+     * See {@link RuntimePerformanceFactory#scale()}
+     */
+    default MatrixProcessorInterface scale() {
+        return null;
+    }
+
+    /**
+     * See {@link RuntimePerformanceFactory#solveExact()}
+     */
+    default MatrixProcessorInterface solveExact() {
+        return null;
+    }
+
+    /**
+     * See {@link RuntimePerformanceFactory#solveOver()}
+     */
+    default MatrixProcessorInterface solveOver() {
+        return null;
+    }
+
+    /**
+     * See {@link RuntimePerformanceFactory#transpose()}
+     */
+    default MatrixProcessorInterface transpose() {
+        return null;
+    }
+}
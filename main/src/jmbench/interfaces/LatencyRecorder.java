@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.interfaces;
+
+/**
+ * Receives the elapsed time of individual iterations of an operation.  Implementations must not create
+ * any garbage since they are called inside of the timing loop.
+ *
+ * @author Peter Abeles
+ */
+public interface LatencyRecorder {
+    /**
+     * @param latencyNS How long a single iteration took in nanoseconds
+     */
+    void record( long latencyNS );
+}
@@ -27,4 +27,52 @@ public interface MatrixFactory {
     BenchmarkMatrix create( int numRows , int numCols );
 
     BenchmarkMatrix wrap( Object matrix );
+
+    /**
+     * Creates a matrix from an array in a row-major format.  Libraries which store their data the same way
+     * can use the array without copying it, so the caller must not modify it afterwards.  The default
+     * implementation creates a new matrix and copies the array into it.
+     */
+    default BenchmarkMatrix wrapRowMajor( int numRows , int numCols , double[] data ) {
+        BenchmarkMatrix m = create(numRows,numCols);
+        m.setRowMajor(data);
+        return m;
+    }
+
+    /**
+     * Creates a matrix from a 2D array, where the first index is the row.  Libraries which store their data the
+     * same way can use the array without copying it.  The default implementation creates a new matrix and
+     * copies each row into it.
+     */
+    default BenchmarkMatrix wrapArray2D( double[][] data ) {
+        int numCols = data.length > 0 ? data[0].length : 0;
+        BenchmarkMatrix m = create(data.length,numCols);
+        for (int row = 0; row < data.length; row++) {
+            m.setRows(row,row+1,data[row]);
+        }
+        return m;
+    }
+
+    /**
+     * Creates a square identity matrix.  The default implementation creates a new matrix and sets its diagonal.
+     */
+    default BenchmarkMatrix identity( int size ) {
+        BenchmarkMatrix m = create(size,size);
+        for (int i = 0; i < size; i++) {
+            m.set(i,i,1);
+        }
+        return m;
+    }
+
+    /**
+     * Creates a new matrix which is a copy of 'm'.  The default implementation creates a new matrix and copies
+     * the elements over in row-major order.
+     */
+    default BenchmarkMatrix copy( BenchmarkMatrix m ) {
+        BenchmarkMatrix c = create(m.numRows(),m.numCols());
+        double[] data = new double[m.numRows()*m.numCols()];
+        m.getRowMajor(data);
+        c.setRowMajor(data);
+        return c;
+    }
 }
@@ -48,4 +48,29 @@ public interface MatrixProcessorInterface {
      */
     public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials);
 
+    /**
+     * <p>
+     * Performs the operation 'numTrials' times and records how long each iteration took.  Used to see how
+     * much the latency varies, instead of just the average.
+     * </p>
+     *
+     * <p>
+     * The default implementation calls {@link #process} once for each iteration, which only times the
+     * operation itself, but any setup inside of process, e.g. allocating the result, is repeated each iteration
+     * and its garbage shows up in the latency.  Libraries should override this to do the setup once and time
+     * each iteration inside of a single loop.
+     * </p>
+     *
+     * @param inputs Input matrices. MUST NOT BE MODIFIED.
+     * @param outputs Storage array for output matrices.  If null then don't create output.
+     * @param numTrials How many times the operation should be performed.
+     * @param recorder Where the elapsed time of each iteration is sent
+     */
+    default void processLatency(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials,
+                                LatencyRecorder recorder) {
+        for( long i = 0; i < numTrials; i++ ) {
+            recorder.record(process(inputs, outputs, 1));
+        }
+    }
+
 }
\ No newline at end of file
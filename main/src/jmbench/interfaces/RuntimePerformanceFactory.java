@@ -20,6 +20,8 @@
 package jmbench.interfaces;
 
 import jmbench.matrix.RowMajorMatrix;
+import jmbench.misc.ConversionProcessors;
+import jmbench.misc.CreationProcessors;
 
 import java.io.Serializable;
 
@@ -144,6 +146,122 @@ public interface RuntimePerformanceFactory extends LibraryFactory , MatrixFactor
 
     RowMajorMatrix convertToRowMajor(BenchmarkMatrix input);
 
+    /**
+     * Converts a row-major matrix into the library's format using {@link #convertToLib}
+     */
+    default MatrixProcessorInterface importRowMajor() {
+        return new ConversionProcessors.ImportRowMajor(this);
+    }
+
+    /**
+     * Converts a matrix in the library's format into a row-major matrix using {@link #convertToRowMajor}
+     */
+    default MatrixProcessorInterface exportRowMajor() {
+        return new ConversionProcessors.ExportRowMajor(this);
+    }
+
+    /**
+     * Wraps a matrix in the library's format using {@link #wrap}
+     */
+    default MatrixProcessorInterface wrapMatrix() {
+        return new ConversionProcessors.WrapMatrix(this);
+    }
+
+    /**
+     * Converts a 2D array into the library's format using {@link #wrapArray2D}
+     */
+    default MatrixProcessorInterface importArray2D() {
+        return new ConversionProcessors.ImportArray2D(this);
+    }
+
+    /**
+     * Declares a new matrix filled with zeros using {@link #create}
+     */
+    default MatrixProcessorInterface createMatrix() {
+        return new CreationProcessors.CreateMatrix(this);
+    }
+
+    /**
+     * Creates an identity matrix using {@link #identity}
+     */
+    default MatrixProcessorInterface createIdentity() {
+        return new CreationProcessors.CreateIdentity(this);
+    }
+
+    /**
+     * Creates a copy of a matrix using {@link #copy}
+     */
+    default MatrixProcessorInterface copyMatrix() {
+        return new CreationProcessors.CopyMatrix(this);
+    }
+
+    /**
+     * <p>
+     * Multiplies a batch of small square matrices, c[i]=a[i]*b[i].  Inputs are laid out as a0,b0,a1,b1,...  See
+     * {@link jmbench.tools.runtime.generator.BatchGenerator}.  Each trial processes the next matrix in the batch,
+     * wrapping around at the end, so the number of trials is the number of matrices processed.
+     * </p>
+     *
+     * <p>
+     * Batched operations can use code which is specialized for small matrices of a fixed size.  By default
+     * they are not supported and null is returned.
+     * </p>
+     */
+    default MatrixProcessorInterface batchMult() {
+        return null;
+    }
+
+    /**
+     * Inverts a batch of small square matrices.  One input per matrix.  See {@link #batchMult()}.
+     */
+    default MatrixProcessorInterface batchInvert() {
+        return null;
+    }
+
+    /**
+     * Solves a batch of small square linear systems, A[i]*x[i]=b[i] where b[i] is a column vector.  Inputs are laid
+     * out as A0,b0,A1,b1,...  See {@link #batchMult()}.
+     */
+    default MatrixProcessorInterface batchSolve() {
+        return null;
+    }
+
+    /**
+     * Computes the determinant of a batch of small square matrices.  One input per matrix.  See {@link #batchMult()}.
+     */
+    default MatrixProcessorInterface batchDet() {
+        return null;
+    }
+
+    /**
+     * Cholesky decomposition of a batch of small symmetric positive definite matrices.  One input per matrix.
+     * See {@link #batchMult()}.
+     */
+    default MatrixProcessorInterface batchChol() {
+        return null;
+    }
+
+    /**
+     * Returns the library's support for sparse matrices or null if it doesn't have any.
+     */
+    default SparsePerformanceFactory sparse() {
+        return null;
+    }
+
+    /**
+     * Returns the library's support for single precision dense matrices or null if it doesn't have any.
+     */
+    default FloatPerformanceFactory float32() {
+        return null;
+    }
+
+    /**
+     * Returns the library's support for complex matrices or null if it doesn't have any.
+     */
+    default ComplexPerformanceFactory complex() {
+        return null;
+    }
+
     /**
      * String which represents the official library version
      */
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.interfaces;
+
+import jmbench.matrix.CsrMatrix;
+
+import java.io.Serializable;
+
+
+/**
+ * <p>
+ * Implemented by libraries which support sparse matrices.  It's returned by
+ * {@link RuntimePerformanceFactory#sparse()} and is used to measure the runtime performance of sparse operations.
+ * Sparse matrices are passed in and out of the library using {@link CsrMatrix}.  Dense vectors and matrices are
+ * created using the library's {@link MatrixFactory}.
+ * </p>
+ *
+ * <p>
+ * Operations which the library can't do with sparse matrices return null and are skipped.  A library should not
+ * convert the sparse matrix into a dense matrix to perform an operation.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public interface SparsePerformanceFactory extends Serializable {
+
+    /**
+     * Converts a CSR matrix into the library's sparse format
+     */
+    BenchmarkMatrix convertToLib( CsrMatrix input );
+
+    /**
+     * Converts a sparse matrix in the library's format into a CSR matrix
+     */
+    CsrMatrix convertToCsr( BenchmarkMatrix input );
+
+    /**
+     * <p>
+     * Sparse matrix times a dense column vector:<br>
+     * <br>
+     * y = A*x
+     * </p>
+     */
+    default MatrixProcessorInterface multVector() {
+        return null;
+    }
+
+    /**
+     * <p>
+     * Sparse matrix times a sparse matrix, the output is sparse:<br>
+     * <br>
+     * C = A*B
+     * </p>
+     */
+    default MatrixProcessorInterface mult() {
+        return null;
+    }
+
+    /**
+     * Solves A*x = b, where A is sparse symmetric positive definite and b is a dense column vector, using
+     * a sparse Cholesky decomposition.
+     */
+    default MatrixProcessorInterface solveCholesky() {
+        return null;
+    }
+
+    /**
+     * Solves A*x = b, where A is sparse square and b is a dense column vector, using a sparse LU decomposition.
+     */
+    default MatrixProcessorInterface solveLU() {
+        return null;
+    }
+
+    /**
+     * Solves A*x = b, where A is sparse square and b is a dense column vector, using a sparse QR decomposition.
+     */
+    default MatrixProcessorInterface solveQR() {
+        return null;
+    }
+
+    /**
+     * Transpose of a sparse matrix, the output is sparse
+     */
+    default MatrixProcessorInterface transpose() {
+        return null;
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.matrix;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Sparse matrix in compressed sparse row (CSR) format.  Sparse matrices are passed between the benchmark and each
+ * library in this format, the same way {@link RowMajorMatrix} is used for dense matrices.  The non-zero elements
+ * in row i are stored in colIdx and values from index rowPtr[i] to rowPtr[i+1]-1.  Inside of a row the elements
+ * are sorted by column and there are no duplicates.
+ * </p>
+ *
+ * <p>
+ * Compressed sparse column (CSC) is the same format with the roles of rows and columns swapped.  The CSR arrays of
+ * A<sup>T</sup> are the CSC arrays of A, so libraries which use CSC can convert with {@link #transpose()}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CsrMatrix implements Serializable {
+	public int numRows,numCols;
+	// index of the first element in each row.  numRows+1 long and the last element is the number of non-zeros
+	public int rowPtr[];
+	// column of each non-zero element
+	public int colIdx[];
+	// value of each non-zero element
+	public double values[];
+
+	public CsrMatrix( int numRows , int numCols , int nonZeros ) {
+		this.numRows = numRows;
+		this.numCols = numCols;
+		rowPtr = new int[numRows+1];
+		colIdx = new int[nonZeros];
+		values = new double[nonZeros];
+	}
+
+	public CsrMatrix() {
+	}
+
+	/**
+	 * Creates a matrix from a list of (row,col,value) triplets, which can be in any order.  Duplicate triplets
+	 * are added together.
+	 *
+	 * @param length Number of triplets.  Only the first length elements in the arrays are used.
+	 */
+	public static CsrMatrix fromTriplets( int numRows , int numCols ,
+										  int rows[] , int cols[] , double values[] , int length ) {
+		CsrMatrix ret = new CsrMatrix(numRows,numCols,length);
+
+		// count the elements in each row then place each triplet inside its row
+		for (int i = 0; i < length; i++) {
+			ret.rowPtr[rows[i]+1]++;
+		}
+		for (int row = 0; row < numRows; row++) {
+			ret.rowPtr[row+1] += ret.rowPtr[row];
+		}
+		int next[] = Arrays.copyOf(ret.rowPtr,numRows);
+		for (int i = 0; i < length; i++) {
+			int index = next[rows[i]]++;
+			ret.colIdx[index] = cols[i];
+			ret.values[index] = values[i];
+		}
+
+		// sort each row by column and merge duplicates.  Rows are short so insertion sort is used
+		int nonZeros = 0;
+		int start = 0;
+		for (int row = 0; row < numRows; row++) {
+			int end = ret.rowPtr[row+1];
+			for (int i = start+1; i < end; i++) {
+				int col = ret.colIdx[i];
+				double value = ret.values[i];
+				int j = i-1;
+				while( j >= start && ret.colIdx[j] > col ) {
+					ret.colIdx[j+1] = ret.colIdx[j];
+					ret.values[j+1] = ret.values[j];
+					j--;
+				}
+				ret.colIdx[j+1] = col;
+				ret.values[j+1] = value;
+			}
+
+			ret.rowPtr[row] = nonZeros;
+			for (int i = start; i < end; i++) {
+				if( nonZeros > ret.rowPtr[row] && ret.colIdx[nonZeros-1] == ret.colIdx[i] ) {
+					ret.values[nonZeros-1] += ret.values[i];
+				} else {
+					ret.colIdx[nonZeros] = ret.colIdx[i];
+					ret.values[nonZeros] = ret.values[i];
+					nonZeros++;
+				}
+			}
+			start = end;
+		}
+		ret.rowPtr[numRows] = nonZeros;
+		ret.colIdx = Arrays.copyOf(ret.colIdx,nonZeros);
+		ret.values = Arrays.copyOf(ret.values,nonZeros);
+
+		return ret;
+	}
+
+	/**
+	 * Creates a sparse copy of a dense matrix.  Only elements which are not zero are saved.
+	 */
+	public static CsrMatrix fromRowMajor( RowMajorMatrix m ) {
+		int nonZeros = 0;
+		for (int i = 0; i < m.getNumElements(); i++) {
+			if( m.data[i] != 0 )
+				nonZeros++;
+		}
+
+		CsrMatrix ret = new CsrMatrix(m.numRows,m.numCols,nonZeros);
+		int index = 0;
+		for (int row = 0; row < m.numRows; row++) {
+			ret.rowPtr[row] = index;
+			for (int col = 0; col < m.numCols; col++) {
+				double value = m.get(row,col);
+				if( value != 0 ) {
+					ret.colIdx[index] = col;
+					ret.values[index++] = value;
+				}
+			}
+		}
+		ret.rowPtr[m.numRows] = index;
+		return ret;
+	}
+
+	/**
+	 * Returns the value of the element, which is zero if it's not stored
+	 */
+	public double get( int row , int col ) {
+		int index = Arrays.binarySearch(colIdx,rowPtr[row],rowPtr[row+1],col);
+		return index >= 0 ? values[index] : 0;
+	}
+
+	/**
+	 * Creates the transpose of this matrix.  Its arrays are also this matrix in CSC format.
+	 */
+	public CsrMatrix transpose() {
+		int nonZeros = getNonZeros();
+		CsrMatrix ret = new CsrMatrix(numCols,numRows,nonZeros);
+
+		for (int i = 0; i < nonZeros; i++) {
+			ret.rowPtr[colIdx[i]+1]++;
+		}
+		for (int col = 0; col < numCols; col++) {
+			ret.rowPtr[col+1] += ret.rowPtr[col];
+		}
+
+		// rows are traversed in order so the columns in the transpose are already sorted
+		int next[] = Arrays.copyOf(ret.rowPtr,numCols);
+		for (int row = 0; row < numRows; row++) {
+			for (int i = rowPtr[row]; i < rowPtr[row+1]; i++) {
+				int index = next[colIdx[i]]++;
+				ret.colIdx[index] = row;
+				ret.values[index] = values[i];
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Creates a dense copy of this matrix
+	 */
+	public RowMajorMatrix toRowMajor() {
+		RowMajorMatrix ret = new RowMajorMatrix(numRows,numCols);
+		for (int row = 0; row < numRows; row++) {
+			for (int i = rowPtr[row]; i < rowPtr[row+1]; i++) {
+				ret.set(row,colIdx[i],values[i]);
+			}
+		}
+		return ret;
+	}
+
+	public int getNonZeros() {
+		return rowPtr[numRows];
+	}
+
+	public int getNumRows() {
+		return numRows;
+	}
+
+	public int getNumCols() {
+		return numCols;
+	}
+
+	public int[] getRowPtr() {
+		return rowPtr;
+	}
+
+	public int[] getColIdx() {
+		return colIdx;
+	}
+
+	public double[] getValues() {
+		return values;
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmbench.matrix;
+
+import jmbench.interfaces.BenchmarkMatrix;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Row-major matrix which is stored in a memory-mapped file instead of the heap.  A single mapping can't be more
+ * than 2 GB so the file is mapped in chunks.  Used to cache very large input matrices in files which can be
+ * shared between JVMs.
+ *
+ * @author Peter Abeles
+ */
+public class MappedBenchmarkMatrix implements BenchmarkMatrix {
+	// number of bytes in each mapped chunk, as a power of two.  A multiple of 8 so a double is never split
+	public static final int CHUNK_BITS = 30;
+	public static final long CHUNK_SIZE = 1L << CHUNK_BITS;
+
+	MappedByteBuffer[] chunks;
+	int numRows,numCols;
+
+	/**
+	 * Maps a matrix which is stored at the specified location in a file
+	 *
+	 * @param channel The file.  If writable the file is extended as needed
+	 * @param mode READ_ONLY or READ_WRITE
+	 * @param offset Location of the first element in the file. Must be a multiple of 8
+	 */
+	public MappedBenchmarkMatrix( FileChannel channel , FileChannel.MapMode mode , long offset ,
+								  int numRows , int numCols ) throws IOException {
+		if( offset % 8 != 0 )
+			throw new IllegalArgumentException("Offset must be a multiple of 8");
+		this.numRows = numRows;
+		this.numCols = numCols;
+
+		long length = getSizeBytes(numRows,numCols);
+		int numChunks = (int)((length+CHUNK_SIZE-1)/CHUNK_SIZE);
+		chunks = new MappedByteBuffer[numChunks];
+		for (int i = 0; i < numChunks; i++) {
+			long start = i*CHUNK_SIZE;
+			chunks[i] = channel.map(mode,offset+start,Math.min(CHUNK_SIZE,length-start));
+			chunks[i].order(ByteOrder.nativeOrder());
+		}
+	}
+
+	/**
+	 * Number of bytes needed to store a matrix
+	 */
+	public static long getSizeBytes( int numRows , int numCols ) {
+		return 8L*numRows*numCols;
+	}
+
+	@Override
+	public void getRows( int row0 , int row1 , double[] data ) {
+		long index = (long)row0*numCols;
+		int N = (row1-row0)*numCols;
+		int i = 0;
+		while( i < N ) {
+			long byteIndex = (index+i)*8;
+			MappedByteBuffer chunk = chunks[(int)(byteIndex >>> CHUNK_BITS)];
+			int chunkIndex = (int)(byteIndex & (CHUNK_SIZE-1));
+			int length = Math.min(N-i,(chunk.limit()-chunkIndex)/8);
+			chunk.duplicate().order(ByteOrder.nativeOrder()).position(chunkIndex).asDoubleBuffer().get(data,i,length);
+			i += length;
+		}
+	}
+
+	@Override
+	public void setRows( int row0 , int row1 , double[] data ) {
+		long index = (long)row0*numCols;
+		int N = (row1-row0)*numCols;
+		int i = 0;
+		while( i < N ) {
+			long byteIndex = (index+i)*8;
+			MappedByteBuffer chunk = chunks[(int)(byteIndex >>> CHUNK_BITS)];
+			int chunkIndex = (int)(byteIndex & (CHUNK_SIZE-1));
+			int length = Math.min(N-i,(chunk.limit()-chunkIndex)/8);
+			chunk.duplicate().order(ByteOrder.nativeOrder()).position(chunkIndex).asDoubleBuffer().put(data,i,length);
+			i += length;
+		}
+	}
+
+	@Override
+	public double get(int row, int col) {
+		long byteIndex = ((long)row*numCols+col)*8;
+		return chunks[(int)(byteIndex >>> CHUNK_BITS)].getDouble((int)(byteIndex & (CHUNK_SIZE-1)));
+	}
+
+	@Override
+	public void set(int row, int col, double value) {
+		long byteIndex = ((long)row*numCols+col)*8;
+		chunks[(int)(byteIndex >>> CHUNK_BITS)].putDouble((int)(byteIndex & (CHUNK_SIZE-1)),value);
+	}
+
+	@Override
+	public int numRows() {
+		return numRows;
+	}
+
+	@Override
+	public int numCols() {
+		return numCols;
+	}
+
+	@Override
+	public <T> T getOriginal() {
+		return null;
+	}
+}
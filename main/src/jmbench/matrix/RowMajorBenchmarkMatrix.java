@@ -52,6 +52,16 @@ public class RowMajorBenchmarkMatrix implements BenchmarkMatrix {
 		return matrix.numCols;
 	}
 
+	@Override
+	public void getRows(int row0, int row1, double[] data) {
+		System.arraycopy(matrix.data,row0*matrix.numCols,data,0,(row1-row0)*matrix.numCols);
+	}
+
+	@Override
+	public void setRows(int row0, int row1, double[] data) {
+		System.arraycopy(data,0,matrix.data,row0*matrix.numCols,(row1-row0)*matrix.numCols);
+	}
+
 	@Override
 	public <T> T getOriginal() {
 		return (T)matrix;
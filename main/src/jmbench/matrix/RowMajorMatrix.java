@@ -21,12 +21,14 @@ package jmbench.matrix;
 
 import jmbench.interfaces.BenchmarkMatrix;
 
+import java.io.Serializable;
+
 /**
  * Very simple matrix format.  Single array row-major.
  *
  * @author Peter Abeles
  */
-public class RowMajorMatrix {
+public class RowMajorMatrix implements Serializable {
 	public double data[];
 	public int numRows,numCols;
 
@@ -38,11 +40,7 @@ public class RowMajorMatrix {
 
 	public RowMajorMatrix( BenchmarkMatrix orig ) {
 		this( orig.numRows() , orig.numCols() );
-		for (int row = 0; row < numRows; row++) {
-			for (int col = 0; col < numCols; col++) {
-				data[getIndex(row,col)] = orig.get(row,col);
-			}
-		}
+		orig.getRowMajor(data);
 	}
 
 	public double get( int row , int col ) {
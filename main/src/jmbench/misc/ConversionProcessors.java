@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmbench.misc;
+
+import jmbench.PackageMatrixConversion;
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.MatrixProcessorInterface;
+import jmbench.interfaces.RuntimePerformanceFactory;
+import jmbench.matrix.RowMajorMatrix;
+
+
+/**
+ * <p>
+ * Operations which measure how long it takes to move data into and out of a library's matrix format.  For small
+ * matrices this can cost more than the math.  They only use {@link RuntimePerformanceFactory} and
+ * {@link jmbench.interfaces.MatrixFactory}, so they work with every library.
+ * </p>
+ *
+ * <p>
+ * Each one is given a single input matrix in the library's format.  Anything which needs to be done to it before
+ * the conversion, e.g. creating a row-major copy, is done before the timer is started.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ConversionProcessors {
+
+    /**
+     * Times {@link RuntimePerformanceFactory#convertToLib}
+     */
+    public static class ImportRowMajor implements MatrixProcessorInterface {
+        RuntimePerformanceFactory factory;
+
+        // sum of a value read from each result, so that the JIT can't remove their creation
+        public double total;
+
+        public ImportRowMajor(RuntimePerformanceFactory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            RowMajorMatrix matA = new RowMajorMatrix(inputs[0]);
+
+            BenchmarkMatrix result = null;
+            double total = 0;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                result = factory.convertToLib(matA);
+                total += result.numRows() + result.get(0,0);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            this.total = total;
+            if( outputs != null ) {
+                outputs[0] = result;
+            }
+            return elapsedTime;
+        }
+    }
+
+    /**
+     * Times {@link RuntimePerformanceFactory#convertToRowMajor}
+     */
+    public static class ExportRowMajor implements MatrixProcessorInterface {
+        RuntimePerformanceFactory factory;
+
+        // sum of a value read from each result, so that the JIT can't remove their creation
+        public double total;
+
+        public ExportRowMajor(RuntimePerformanceFactory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            BenchmarkMatrix matA = inputs[0];
+
+            RowMajorMatrix result = null;
+            double total = 0;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                result = factory.convertToRowMajor(matA);
+                total += result.numRows + result.get(0,0);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            this.total = total;
+            if( outputs != null ) {
+                outputs[0] = factory.convertToLib(result);
+            }
+            return elapsedTime;
+        }
+    }
+
+    /**
+     * Times {@link RuntimePerformanceFactory#wrap} on the input's original matrix
+     */
+    public static class WrapMatrix implements MatrixProcessorInterface {
+        RuntimePerformanceFactory factory;
+
+        // sum of a value read from each result, so that the JIT can't remove their creation
+        public double total;
+
+        public WrapMatrix(RuntimePerformanceFactory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            Object matA = inputs[0].getOriginal();
+
+            BenchmarkMatrix result = null;
+            double total = 0;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                result = factory.wrap(matA);
+                total += result.numRows() + result.get(0,0);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            this.total = total;
+            if( outputs != null ) {
+                outputs[0] = result;
+            }
+            return elapsedTime;
+        }
+    }
+
+    /**
+     * Times {@link RuntimePerformanceFactory#wrapArray2D}.  The 2D array is created using
+     * {@link PackageMatrixConversion#convertToArray2D} before the timer is started.  Libraries which can use the
+     * array without copying it will be much faster, which is what happens in practice too.
+     */
+    public static class ImportArray2D implements MatrixProcessorInterface {
+        RuntimePerformanceFactory factory;
+
+        // sum of a value read from each result, so that the JIT can't remove their creation
+        public double total;
+
+        public ImportArray2D(RuntimePerformanceFactory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            double[][] matA = PackageMatrixConversion.convertToArray2D(new RowMajorMatrix(inputs[0]));
+
+            BenchmarkMatrix result = null;
+            double total = 0;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                result = factory.wrapArray2D(matA);
+                total += result.numRows() + result.get(0,0);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            this.total = total;
+            if( outputs != null ) {
+                outputs[0] = result;
+            }
+            return elapsedTime;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jmbench.misc;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Hands out disjoint sets of CPU cores to slaves which are run at the same time.  A thread requesting
+ * more cores than are currently free will block until enough have been released.  Neighboring cores are
+ * preferred since they are more likely to share a cache.
+ * </p>
+ *
+ * <p>
+ * Cores are physical cores.  On Linux the logical CPUs which share a physical core through simultaneous
+ * multithreading are found using /sys/devices/system/cpu/cpuN/topology and only the first of them is
+ * handed out, so two slaves never compete for the same core.  If the topology can't be read then every
+ * logical CPU is treated as a core.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CpuCoreAllocator {
+    // logical CPU which is handed out for each physical core
+    private final int[] cpus;
+    // true if a core is not currently assigned
+    private final boolean[] free;
+    private int numFree;
+
+    /**
+     * @param firstCpu Index of the first logical CPU which can be assigned
+     * @param numCpus Number of logical CPUs, starting at firstCpu, which can be assigned
+     */
+    public CpuCoreAllocator( int firstCpu , int numCpus ) {
+        this(physicalCores(firstCpu,numCpus));
+    }
+
+    /**
+     * @param cpus Logical CPU which is handed out for each physical core, in order of their location
+     */
+    public CpuCoreAllocator( int[] cpus ) {
+        if( cpus.length <= 0 )
+            throw new IllegalArgumentException("Must have at least one core");
+        this.cpus = cpus.clone();
+        this.free = new boolean[cpus.length];
+        for (int i = 0; i < cpus.length; i++) {
+            free[i] = true;
+        }
+        this.numFree = cpus.length;
+    }
+
+    /**
+     * Groups logical CPUs by the physical core they are on and returns the lowest numbered CPU in each group
+     */
+    static int[] physicalCores( int firstCpu , int numCpus ) {
+        Map<String,Integer> cores = new LinkedHashMap<>();
+        for (int cpu = firstCpu; cpu < firstCpu+numCpus; cpu++) {
+            String dir = "/sys/devices/system/cpu/cpu"+cpu+"/topology/";
+            String pkg = readLine(dir+"physical_package_id");
+            String core = readLine(dir+"core_id");
+            String key = pkg == null || core == null ? "cpu"+cpu : pkg+":"+core;
+            if( !cores.containsKey(key) )
+                cores.put(key,cpu);
+        }
+
+        List<Integer> list = new ArrayList<>(cores.values());
+        int[] ret = new int[list.size()];
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = list.get(i);
+        }
+        return ret;
+    }
+
+    /**
+     * Reads the first line in a file or returns null if it can't be read
+     */
+    private static String readLine( String path ) {
+        try( BufferedReader input = new BufferedReader(new FileReader(path)) ) {
+            String line = input.readLine();
+            return line == null ? null : line.trim();
+        } catch( IOException e ) {
+            return null;
+        }
+    }
+
+    /**
+     * Blocks until the requested number of cores are free then assigns them.
+     *
+     * @param amount Number of cores.  Must not be more than the total number of cores.
+     * @return Index of the logical CPUs which were assigned, one for each core
+     */
+    public synchronized int[] acquire( int amount ) throws InterruptedException {
+        if( amount <= 0 || amount > free.length )
+            throw new IllegalArgumentException("Can't assign "+amount+" cores out of "+free.length);
+
+        while( numFree < amount )
+            wait();
+
+        int[] cores = new int[amount];
+
+        // first look for neighboring cores
+        int start = -1;
+        for (int i = 0, run = 0; i < free.length; i++) {
+            run = free[i] ? run + 1 : 0;
+            if( run == amount ) {
+                start = i - amount + 1;
+                break;
+            }
+        }
+
+        if( start >= 0 ) {
+            for (int i = 0; i < amount; i++) {
+                cores[i] = start + i;
+            }
+        } else {
+            for (int i = 0, n = 0; n < amount; i++) {
+                if( free[i] )
+                    cores[n++] = i;
+            }
+        }
+
+        for (int i = 0; i < amount; i++) {
+            free[cores[i]] = false;
+            cores[i] = cpus[cores[i]];
+        }
+        numFree -= amount;
+
+        return cores;
+    }
+
+    /**
+     * Returns previously assigned cores so that they can be assigned again
+     */
+    public synchronized void release( int[] cores ) {
+        for( int c : cores ) {
+            int i = indexOf(c);
+            if( i < 0 || free[i] )
+                throw new IllegalArgumentException("Core "+c+" was not assigned");
+            free[i] = true;
+        }
+        numFree += cores.length;
+        notifyAll();
+    }
+
+    private int indexOf( int cpu ) {
+        for (int i = 0; i < cpus.length; i++) {
+            if( cpus[i] == cpu )
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Total number of cores which can be assigned
+     */
+    public int getTotalCores() {
+        return free.length;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmbench.misc;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.MatrixProcessorInterface;
+import jmbench.interfaces.RuntimePerformanceFactory;
+
+
+/**
+ * <p>
+ * Operations which measure how long it takes to create a new matrix.  Libraries which allocate a matrix for every
+ * result spend a lot of their time here for small matrices, and the garbage it creates shows up later in
+ * the garbage collector.  They only use {@link jmbench.interfaces.MatrixFactory}, so they work with every library.
+ * </p>
+ *
+ * <p>
+ * Each one is given a single input matrix in the library's format which is only used to get the shape or
+ * as the matrix which is copied.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CreationProcessors {
+
+    /**
+     * Times {@link RuntimePerformanceFactory#create}, which returns a matrix filled with zeros
+     */
+    public static class CreateMatrix implements MatrixProcessorInterface {
+        RuntimePerformanceFactory factory;
+
+        // sum of a value read from each result, so that the JIT can't remove their creation
+        public double total;
+
+        public CreateMatrix(RuntimePerformanceFactory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            int numRows = inputs[0].numRows();
+            int numCols = inputs[0].numCols();
+
+            BenchmarkMatrix result = null;
+            double total = 0;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                result = factory.create(numRows,numCols);
+                total += result.numRows() + result.get(0,0);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            this.total = total;
+            if( outputs != null ) {
+                outputs[0] = result;
+            }
+            return elapsedTime;
+        }
+    }
+
+    /**
+     * Times {@link RuntimePerformanceFactory#identity}
+     */
+    public static class CreateIdentity implements MatrixProcessorInterface {
+        RuntimePerformanceFactory factory;
+
+        // sum of a value read from each result, so that the JIT can't remove their creation
+        public double total;
+
+        public CreateIdentity(RuntimePerformanceFactory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            int size = inputs[0].numRows();
+
+            BenchmarkMatrix result = null;
+            double total = 0;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                result = factory.identity(size);
+                total += result.numRows() + result.get(0,0);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            this.total = total;
+            if( outputs != null ) {
+                outputs[0] = result;
+            }
+            return elapsedTime;
+        }
+    }
+
+    /**
+     * Times {@link RuntimePerformanceFactory#copy}
+     */
+    public static class CopyMatrix implements MatrixProcessorInterface {
+        RuntimePerformanceFactory factory;
+
+        // sum of a value read from each result, so that the JIT can't remove their creation
+        public double total;
+
+        public CopyMatrix(RuntimePerformanceFactory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public long process(BenchmarkMatrix[] inputs, BenchmarkMatrix[] outputs, long numTrials) {
+            BenchmarkMatrix matA = inputs[0];
+
+            BenchmarkMatrix result = null;
+            double total = 0;
+
+            long prev = System.nanoTime();
+
+            for( long i = 0; i < numTrials; i++ ) {
+                result = factory.copy(matA);
+                total += result.numRows() + result.get(0,0);
+            }
+
+            long elapsedTime = System.nanoTime() - prev;
+            this.total = total;
+            if( outputs != null ) {
+                outputs[0] = result;
+            }
+            return elapsedTime;
+        }
+    }
+}
@@ -20,11 +20,15 @@
 package jmbench.misc;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Class for launching JVMs.  Monitors the status and kills frozen threads.  Keeps track of execution time and
@@ -34,6 +38,16 @@ import java.util.List;
  */
 public class JavaRuntimeLauncher {
 
+    /**
+     * Argument passed to a JVM launched by {@link #launchPooled} to indicate that it should read jobs from
+     * standard in
+     */
+    public static final String POOL_ARGUMENT = "--Pool";
+    /**
+     * Printed on its own line by a pooled JVM when it has finished processing a job
+     */
+    public static final String POOL_JOB_FINISHED = "JMBENCH_POOL_JOB_FINISHED";
+
     private String classPath;
     // amount of memory allocated to the JVM
     private long memoryInMB = 200;
@@ -49,11 +63,53 @@ public class JavaRuntimeLauncher {
     // optional message which describes the task being performed
     private String messageTask = "";
 
+    // If not null the JVM is restricted to these CPU cores using taskset
+    private int[] cpuAffinity;
+
+    // additional arguments passed to the JVM, e.g. which garbage collector to use
+    private List<String> jvmExtraArgs = new ArrayList<>();
+
+    // If not null then JVMs started by launch() are run inside of perf to collect hardware counters
+    private PerfStat perf;
+
+    // If more than zero the slave writes a heartbeat and it's killed if one isn't seen for this long (ms)
+    private long heartbeatTimeoutMS = 0;
+    // a call to the library is considered stalled if it takes this many times longer than expected
+    public static final double STALL_FACTOR = 10.0;
+    // file the current JVM writes its heartbeat to
+    private File heartbeatFile;
+    // most recent status read from the heartbeat file and when its sequence number last changed
+    private SlaveHeartbeat.Status heartbeat;
+    private long lastHeartbeatTime;
+    private long lastHeartbeatRead;
+
+    // description of why the slave was killed.  null if it wasn't
+    private String killReason;
+    // true if the slave was killed because it would take too long, instead of because it was frozen
+    private boolean killedTooSlow;
+
     public PrintStream errorStream = System.err;
 
+    // Reads standard in, shared by every launcher since slaves can be monitored by several threads at once.
+    // null until the first slave is monitored
+    private static Thread quitWatcher;
+
     // Reason the slave stopped running
     public Exit exit;
 
+    // JVM which is kept alive between jobs.  null if one isn't running
+    private Process pooled;
+    private BufferedReader pooledInput;
+    private BufferedReader pooledError;
+    private PrintStream pooledCommands;
+    // number of jobs the pooled JVM has been given
+    private int pooledJobs;
+    // amount of memory the pooled JVM was launched with
+    private long pooledMemoryInMB;
+    // the line of text being output by the pooled JVM which might be the job finished marker
+    private final StringBuilder pooledLine = new StringBuilder();
+    private boolean pooledLineStart = true;
+
     /**
      * Constructor.  Configures which library it is to be launching a class from/related to
      * @param pathJars List of paths to all the jars
@@ -92,6 +148,72 @@ public class JavaRuntimeLauncher {
         this.memoryInMB = memoryInMB;
     }
 
+    /**
+     * Restricts the launched JVM to the specified CPU cores using taskset and sets its active processor count
+     * to match.  Only works on Linux.
+     *
+     * @param cpuAffinity List of cores or null to not restrict it
+     */
+    public void setCpuAffinity(int[] cpuAffinity) {
+        this.cpuAffinity = cpuAffinity;
+    }
+
+    public int[] getCpuAffinity() {
+        return cpuAffinity;
+    }
+
+    /**
+     * Specifies additional arguments which are passed to the JVM, before the memory and class path arguments.
+     * A pooled JVM which is already running is not affected.
+     *
+     * @param jvmExtraArgs List of arguments.  Can be empty.
+     */
+    public void setJvmExtraArgs(List<String> jvmExtraArgs) {
+        this.jvmExtraArgs = new ArrayList<>(jvmExtraArgs);
+    }
+
+    public List<String> getJvmExtraArgs() {
+        return jvmExtraArgs;
+    }
+
+    /**
+     * Turns collection of hardware performance counters on and off.  Only JVMs started by {@link #launch} are
+     * run inside of perf since it only reports the counters when the process exits.  If perf can't be used then
+     * a warning is printed and it's left off.
+     *
+     * @param enabled true to collect counters
+     * @return true if counters will be collected
+     */
+    public boolean setPerfCounters( boolean enabled ) {
+        perf = null;
+        if( enabled ) {
+            if( PerfStat.isAvailable() )
+                perf = new PerfStat();
+            else
+                errorStream.println("perf isn't available or can't read the counters. Hardware counters are disabled.");
+        }
+        return perf != null;
+    }
+
+    /**
+     * Turns on heartbeats from the slave.  When on the slave is killed if its heartbeat stops, if a call to the
+     * library takes {@link #STALL_FACTOR} times longer than expected, or if it's predicted to finish after the
+     * frozen time.  A call with no expected time is killed once it has run for the heartbeat timeout.
+     * Otherwise a slave is only killed once the frozen time has passed.
+     *
+     * @param heartbeatTimeoutMS Kill the slave if a heartbeat isn't seen for this long (ms).  0 to turn off.
+     */
+    public void setHeartbeatTimeoutMS( long heartbeatTimeoutMS ) {
+        this.heartbeatTimeoutMS = heartbeatTimeoutMS;
+    }
+
+    /**
+     * Counters collected from the most recent JVM started by {@link #launch}.  null if counters are off.
+     */
+    public PerfStat getPerfStat() {
+        return perf;
+    }
+
     /**
      * Returns how long the operation took to complete. In milliseconds
      */
@@ -107,7 +229,9 @@ public class JavaRuntimeLauncher {
      */
     public Exit launch( Class mainClass , String ...args ) {
 
-        jvmArgs = configureArguments(mainClass,args);
+        if( perf != null )
+            perf.create();
+        jvmArgs = configureArguments(perf,mainClass,args);
 
         try {
             Runtime rt = Runtime.getRuntime();
@@ -121,12 +245,120 @@ public class JavaRuntimeLauncher {
             BufferedReader error = new BufferedReader(new InputStreamReader(pr.getErrorStream()));
 
             // print the output from the slave
-            return monitorSlave(pr, input, error);
+            return monitorSlave(pr, input, error, false);
+        } catch (IOException | InterruptedException e) {
+            throw new RuntimeException(e);
+        } finally {
+            if( perf != null )
+                perf.read();
+            deleteHeartbeatFile();
+        }
+    }
+
+    /**
+     * Runs a job inside a JVM which is kept alive between jobs.  This avoids the cost of launching a new JVM
+     * each time.  If a JVM isn't running, or it was launched with a different amount of memory, then a new
+     * one is launched with {@link #POOL_ARGUMENT} as its only argument.  The job's arguments are sent as a
+     * single tab separated line to the JVM's standard in and the job is finished when it prints {@link #POOL_JOB_FINISHED}.
+     * If the JVM freezes or exits then it's discarded and a new one will be launched for the next job.
+     *
+     * @param mainClass Class which is launched if a new JVM is needed
+     * @param args Arguments for the job.  Can't contain tabs or line breaks.
+     * @return How the job ended
+     */
+    public Exit launchPooled( Class mainClass , String ...args ) {
+        try {
+            if( pooled != null && (!pooled.isAlive() || pooledMemoryInMB != memoryInMB) )
+                shutdownPooled();
+
+            if( pooled == null ) {
+                jvmArgs = configureArguments(null,mainClass,POOL_ARGUMENT);
+                pooled = Runtime.getRuntime().exec(jvmArgs);
+                pooledMemoryInMB = memoryInMB;
+                pooledJobs = 0;
+                pooledInput = new BufferedReader(new InputStreamReader(pooled.getInputStream()));
+                pooledError = new BufferedReader(new InputStreamReader(pooled.getErrorStream()));
+                pooledCommands = new PrintStream(pooled.getOutputStream(),true);
+            }
+
+            pooledJobs++;
+            pooledCommands.println(String.join("\t",args));
+
+            Exit ret = monitorSlave(pooled, pooledInput, pooledError, true);
+
+            // the process has either been killed or has exited on its own
+            if( ret != Exit.NORMAL || !pooled.isAlive() )
+                discardPooled();
+
+            return ret;
         } catch (IOException | InterruptedException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Tells the pooled JVM to exit, if one is running.  If it doesn't exit on its own it's killed.
+     */
+    public void shutdownPooled() {
+        if( pooled == null )
+            return;
+
+        // the slave exits when its standard in is closed
+        pooledCommands.close();
+        try {
+            if( !pooled.waitFor(5, TimeUnit.SECONDS) ) {
+                pooled.destroyForcibly().waitFor(20, TimeUnit.SECONDS);
+            }
+            printToStream(pooledError, errorStream);
+            printToStream(pooledInput, System.out);
+        } catch (IOException | InterruptedException e) {
+            e.printStackTrace(errorStream);
+        }
+        discardPooled();
+    }
+
+    private void discardPooled() {
+        deleteHeartbeatFile();
+        pooled = null;
+        pooledInput = null;
+        pooledError = null;
+        pooledCommands = null;
+        pooledJobs = 0;
+        pooledLine.setLength(0);
+        pooledLineStart = true;
+    }
+
+    /**
+     * Number of jobs the currently running pooled JVM has been given.  Zero if one isn't running.
+     */
+    public int getPooledJobs() {
+        return pooledJobs;
+    }
+
+    /**
+     * Starts a daemon thread which exits the application when the user presses 'q' unless it's already running.
+     * It's the only thing which reads standard in.
+     */
+    private static synchronized void watchForQuit() {
+        if( quitWatcher != null )
+            return;
+
+        quitWatcher = new Thread(() -> {
+            try {
+                int c;
+                while( (c = System.in.read()) != -1 ) {
+                    if( c == 'q' ) {
+                        System.out.println("User requested for the application to quit by pressing 'q'");
+                        System.exit(0);
+                    }
+                }
+            } catch( IOException ignore ) {
+            }
+        }, "QuitWatcher");
+        quitWatcher.setDaemon(true);
+        quitWatcher.start();
+    }
+
     /**
      * Prints out the standard out and error from the slave and checks its health.  Exits if
      * the slave has finished or is declared frozen.
@@ -134,32 +366,33 @@ public class JavaRuntimeLauncher {
      * @return true if successful or false if it was forced to kill the slave because it was frozen
      */
     private Exit monitorSlave(Process pr,
-                                 BufferedReader input, BufferedReader error)
+                              BufferedReader input, BufferedReader error, boolean pooledJob)
             throws IOException, InterruptedException {
 
-        // flush the input buffer
-        System.in.skip(System.in.available());
+        watchForQuit();
 
         // If the total amount of time allocated to the slave exceeds the maximum number of trials multiplied
         // by the maximum runtime plus some fudge factor the slave is declared as frozen
 
         exit = Exit.NORMAL;
+        killReason = null;
+        killedTooSlow = false;
 
         long startTime = System.currentTimeMillis();
+        heartbeat = null;
+        lastHeartbeatTime = lastHeartbeatRead = startTime;
         long lastAliveMessage = startTime;
         for(;;) {
-            while( System.in.available() > 0 ) {
-                if( System.in.read() == 'q' ) {
-                    System.out.println("User requested for the application to quit by pressing 'q'");
-                    System.exit(0);
-                }
-            }
-
             printToStream(error, errorStream);
             if( input.ready() ) {
-                printToStream(input, System.out);
+                if( pooledJob ) {
+                    if( printFindJobFinished(input) )
+                        break;
+                } else {
+                    printToStream(input, System.out);
+                }
             } else {
-                Thread.sleep(500);
+                Thread.sleep(pooledJob ? 20 : 500);
             }
 
             try {
@@ -171,12 +404,16 @@ public class JavaRuntimeLauncher {
                 long ellapsedTime = System.currentTimeMillis() - startTime;
 
                 // check to see if the process is frozen
-                if(ellapsedTime > frozenTimeMS) {
+                killReason = checkFrozen(ellapsedTime);
+                if( killReason != null ) {
+                    errorStream.println("Killing slave: "+killReason);
                     // use destroyForcibly() because it might kill the child subprocess too
                     // not that isn't ensured
                     long giveUpTime = System.currentTimeMillis()+20_000;
                     boolean success = false;
                     while( System.currentTimeMillis() < giveUpTime && !success ) {
+                        // the JVM might be a child of perf
+                        pr.descendants().forEach(ProcessHandle::destroyForcibly);
                         if( !pr.destroyForcibly().isAlive() ) {
                             success = true;
                         } else {
@@ -187,7 +424,7 @@ public class JavaRuntimeLauncher {
                     }
 
                     if( success )
-                        exit = Exit.FROZEN;
+                        exit = killedTooSlow ? Exit.TOO_SLOW : Exit.FROZEN;
                     else
                         exit = Exit.FROZEN_WILL_NOT_DIE;
                     break;
@@ -199,6 +436,8 @@ public class JavaRuntimeLauncher {
                     System.out.println("\nMaster is still alive: "+new Date()+"  Press 'q' and enter to quit. "+percent+"%");
                     if( messageTask != null && messageTask.length() > 0 )
                         System.out.println(messageTask);
+                    if( heartbeat != null )
+                        System.out.println("Slave "+heartbeat);
                     lastAliveMessage = System.currentTimeMillis();
                 }
             }
@@ -207,6 +446,60 @@ public class JavaRuntimeLauncher {
         return exit;
     }
 
+    /**
+     * Decides if the slave should be killed
+     *
+     * @param ellapsedTime Time since the job started (ms)
+     * @return Why it should be killed or null if it shouldn't be
+     */
+    private String checkFrozen( long ellapsedTime ) {
+        if( heartbeatFile != null ) {
+            long time = System.currentTimeMillis();
+            if( time - lastHeartbeatRead >= 250 ) {
+                lastHeartbeatRead = time;
+                SlaveHeartbeat.Status status = SlaveHeartbeat.Status.read(heartbeatFile);
+                if( status != null && (heartbeat == null || status.sequence != heartbeat.sequence) ) {
+                    heartbeat = status;
+                    lastHeartbeatTime = time;
+                }
+            }
+
+            if( time - lastHeartbeatTime > heartbeatTimeoutMS )
+                return "no heartbeat for "+(time - lastHeartbeatTime)+" ms";
+
+            if( heartbeat != null && heartbeat.batchAgeMS >= 0 ) {
+                // adjust for the time since the heartbeat was written
+                long age = heartbeat.batchAgeMS + (time - lastHeartbeatTime);
+                long expected = heartbeat.expectedBatchMS;
+                if( expected < 0 ) {
+                    // nothing to compare against, e.g. the very first call at the smallest size
+                    if( age > heartbeatTimeoutMS ) {
+                        killedTooSlow = true;
+                        return "first call took longer than "+heartbeatTimeoutMS+" ms. "+heartbeat;
+                    }
+                } else if( age > STALL_FACTOR*expected + heartbeatTimeoutMS ) {
+                    return "stalled. "+heartbeat;
+                } else if( ellapsedTime - age + expected > frozenTimeMS ) {
+                    killedTooSlow = true;
+                    return "predicted to take longer than "+frozenTimeMS+" ms. "+heartbeat;
+                }
+            }
+        }
+
+        if( ellapsedTime > frozenTimeMS )
+            return "took longer than "+frozenTimeMS+" ms";
+
+        return null;
+    }
+
+    private void deleteHeartbeatFile() {
+        if( heartbeatFile != null ) {
+            heartbeatFile.delete();
+            new File(heartbeatFile.getPath()+".tmp").delete();
+            heartbeatFile = null;
+        }
+    }
+
     protected void printToStream(BufferedReader reader, PrintStream stream) throws IOException
     {
         while( reader.ready() ) {
@@ -216,22 +509,94 @@ public class JavaRuntimeLauncher {
         }
     }
 
-    private String[] configureArguments( Class mainClass , String ...args ) {
-        String out[] = new String[7+args.length];
+    /**
+     * Prints the output from a pooled JVM while looking for the job finished marker.  Only text at the start
+     * of a line which could still be the marker is held back.
+     *
+     * @return true if the marker was found
+     */
+    private boolean printFindJobFinished( BufferedReader reader ) throws IOException {
+        while( reader.ready() ) {
+            int val = reader.read();
+            if( val < 0 ) break;
+            char c = (char)val;
+
+            if( c == '\n' ) {
+                if( pooledLineStart && pooledLine.toString().equals(POOL_JOB_FINISHED) ) {
+                    pooledLine.setLength(0);
+                    return true;
+                }
+                System.out.println(pooledLine);
+                pooledLine.setLength(0);
+                pooledLineStart = true;
+            } else if( pooledLineStart ) {
+                if( c == '\r' )
+                    continue;
+                pooledLine.append(c);
+                if( !POOL_JOB_FINISHED.startsWith(pooledLine.toString()) ) {
+                    System.out.print(pooledLine);
+                    pooledLine.setLength(0);
+                    pooledLineStart = false;
+                }
+            } else {
+                System.out.print(c);
+            }
+        }
+        return false;
+    }
+
+    private String[] configureArguments( PerfStat perf , Class mainClass , String ...args ) {
+        List<String> out = new ArrayList<>();
+
+        if( perf != null )
+            out.addAll(perf.commandPrefix());
+
+        if( cpuAffinity != null ) {
+            out.add("taskset");
+            out.add("-c");
+            out.add(coresToString(cpuAffinity));
+        }
 
-        String app = System.getProperty("java.home")+"/bin/java";
+        out.add(System.getProperty("java.home")+"/bin/java");
+        out.add("-server");
+        if( cpuAffinity != null )
+            out.add("-XX:ActiveProcessorCount="+cpuAffinity.length);
+        out.addAll(jvmExtraArgs);
+        if( perf != null )
+            out.addAll(perf.jvmArguments());
+        if( heartbeatTimeoutMS > 0 ) {
+            deleteHeartbeatFile();
+            try {
+                heartbeatFile = File.createTempFile("jmbench_heartbeat",".txt");
+            } catch( IOException e ) {
+                throw new RuntimeException(e);
+            }
+            out.add("-D"+SlaveHeartbeat.PROPERTY+"="+heartbeatFile.getPath());
+        }
+        // lets the slave read safepoint statistics
+        out.add("--add-exports");
+        out.add("java.management/sun.management=ALL-UNNAMED");
+        out.add("-Xms"+memoryInMB+"M");
+        out.add("-Xmx"+memoryInMB+"M");
+        out.add("-classpath");
+        out.add(classPath);
+        out.add(mainClass.getName());
+        out.addAll(Arrays.asList(args));
+
+        return out.toArray(new String[0]);
+    }
 
-        out[0] = app;
-        out[1] = "-server";
-        out[2] = "-Xms"+memoryInMB+"M";
-        out[3] = "-Xmx"+memoryInMB+"M";
-        out[4] = "-classpath";
-        out[5] = classPath;
-        out[6] = mainClass.getName();
-        for (int i = 0; i < args.length; i++) {
-            out[7+i] = args[i];
+    /**
+     * Converts a list of cores into the format used by taskset, e.g. "2,3,4"
+     */
+    public static String coresToString( int[] cores ) {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < cores.length; i++) {
+            if( i > 0 )
+                s.append(',');
+            s.append(cores[i]);
         }
-        return out;
+        return s.toString();
     }
 
     public String getClassPath() {
@@ -258,6 +623,13 @@ public class JavaRuntimeLauncher {
         return exit;
     }
 
+    /**
+     * Description of why the most recent slave was killed.  null if it wasn't killed
+     */
+    public String getKillReason() {
+        return killReason;
+    }
+
     public enum Exit
     {
         /**
@@ -268,6 +640,10 @@ public class JavaRuntimeLauncher {
          * Did not finish in the required amount of time
          */
         FROZEN,
+        /**
+         * Killed because it was going to take longer than the required amount of time
+         */
+        TOO_SLOW,
         /**
          * exited with a non zero return value
          */
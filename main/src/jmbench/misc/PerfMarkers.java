@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmbench.misc;
+
+import java.io.*;
+
+/**
+ * Used inside a slave to turn hardware performance counting on and off around the code which is being measured.
+ * Only does something if the slave was launched inside of perf by {@link PerfStat}, otherwise all the functions
+ * do nothing.
+ *
+ * @author Peter Abeles
+ */
+public class PerfMarkers {
+
+    private static boolean initialized;
+    private static PrintStream control;
+    private static BufferedReader ack;
+
+    /**
+     * Returns true if the slave was launched inside of perf and the counters can be controlled
+     */
+    public static synchronized boolean isActive() {
+        if( !initialized ) {
+            initialized = true;
+            String pathControl = System.getProperty(PerfStat.PROPERTY_CONTROL);
+            String pathAck = System.getProperty(PerfStat.PROPERTY_ACK);
+            if( pathControl != null && pathAck != null ) {
+                try {
+                    control = new PrintStream(new FileOutputStream(pathControl),true);
+                    ack = new BufferedReader(new FileReader(pathAck));
+                } catch( IOException e ) {
+                    System.err.println("Failed to open perf control. "+e.getMessage());
+                    control = null;
+                    ack = null;
+                }
+            }
+        }
+        return control != null;
+    }
+
+    /**
+     * Starts counting.  Blocks until perf has acknowledged the command.
+     */
+    public static void enable() {
+        send("enable");
+    }
+
+    /**
+     * Stops counting.  Blocks until perf has acknowledged the command.
+     */
+    public static void disable() {
+        send("disable");
+    }
+
+    private static synchronized void send( String command ) {
+        if( !isActive() )
+            return;
+        control.println(command);
+        try {
+            ack.readLine();
+        } catch( IOException e ) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmbench.misc;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Collects hardware performance counters from a slave by launching it inside of Linux's "perf stat".  Counting
+ * starts disabled and the slave turns it on and off using {@link PerfMarkers}, which writes to perf's control
+ * FIFO, so only the region which is being measured is counted.  perf only reports the totals once the process
+ * exits, so each slave should only process a single job.
+ * </p>
+ *
+ * <p>
+ * Requires a version of perf which supports "--control", Linux 5.10 or newer, and permission to read the
+ * counters, see /proc/sys/kernel/perf_event_paranoid.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PerfStat {
+
+    /**
+     * System property which tells the slave where the control FIFO is
+     */
+    public static final String PROPERTY_CONTROL = "jmbench.perf.control";
+    /**
+     * System property which tells the slave where the acknowledgement FIFO is
+     */
+    public static final String PROPERTY_ACK = "jmbench.perf.ack";
+
+    /**
+     * Events which are counted
+     */
+    public static final String[] EVENTS = {"cycles","instructions","LLC-load-misses","branch-misses"};
+
+    // cached result of checking to see if perf can be used
+    private static Boolean available;
+
+    // directory containing the FIFOs and output file for the current launch
+    private File directory;
+    private File control;
+    private File ack;
+    private File output;
+
+    // Counter totals from the most recent launch.  -1 if it wasn't counted
+    public long cycles = -1;
+    public long instructions = -1;
+    public long llcMisses = -1;
+    public long branchMisses = -1;
+
+    /**
+     * Checks to see if perf is installed, supports starting with counting disabled, and can read the counters.
+     * The check is only done once.
+     */
+    public static synchronized boolean isAvailable() {
+        if( available == null ) {
+            available = false;
+            try {
+                Process p = new ProcessBuilder("perf", "stat", "-x,", "-D", "-1", "-e", "instructions", "--", "true")
+                        .redirectErrorStream(true).start();
+                // read all the output so that it can't block
+                BufferedReader reader = new BufferedReader(new InputStreamReader(p.getInputStream()));
+                while( reader.readLine() != null ) {}
+                if( p.waitFor(10, TimeUnit.SECONDS) )
+                    available = p.exitValue() == 0;
+                else
+                    p.destroyForcibly();
+            } catch( IOException | InterruptedException e ) {
+                // perf isn't installed
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Creates the FIFOs and output file used by the next launch and resets the counters
+     */
+    public void create() {
+        cycles = instructions = llcMisses = branchMisses = -1;
+        try {
+            directory = Files.createTempDirectory("jmbench_perf").toFile();
+            control = new File(directory,"control");
+            ack = new File(directory,"ack");
+            output = new File(directory,"output.txt");
+
+            Process p = new ProcessBuilder("mkfifo", control.getPath(), ack.getPath()).inheritIO().start();
+            if( p.waitFor() != 0 )
+                throw new RuntimeException("mkfifo failed");
+        } catch( IOException | InterruptedException e ) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Arguments which go in front of the command being launched
+     */
+    public List<String> commandPrefix() {
+        return new ArrayList<>(Arrays.asList("perf", "stat", "-x,", "-o", output.getPath(),
+                "-D", "-1", "--control", "fifo:"+control.getPath()+","+ack.getPath(),
+                "-e", String.join(",",EVENTS), "--"));
+    }
+
+    /**
+     * Arguments passed to the JVM so the slave can find the FIFOs
+     */
+    public List<String> jvmArguments() {
+        List<String> out = new ArrayList<>();
+        out.add("-D"+PROPERTY_CONTROL+"="+control.getPath());
+        out.add("-D"+PROPERTY_ACK+"="+ack.getPath());
+        return out;
+    }
+
+    /**
+     * Reads the counters from the output of the most recent launch then deletes all the files
+     */
+    public void read() {
+        try {
+            if( output.exists() ) {
+                try( BufferedReader reader = new BufferedReader(new FileReader(output)) ) {
+                    String line;
+                    while( (line = reader.readLine()) != null ) {
+                        parseLine(line);
+                    }
+                }
+            }
+        } catch( IOException e ) {
+            throw new RuntimeException(e);
+        } finally {
+            delete();
+        }
+    }
+
+    /**
+     * Parses a line in perf's CSV format, e.g. "1234,,cycles,1000,100.00,,".  Hybrid CPUs have one line for
+     * each type of core, e.g. "cpu_core/cycles/", which are added together.
+     */
+    void parseLine( String line ) {
+        if( line.isEmpty() || line.startsWith("#") )
+            return;
+        String[] columns = line.split(",");
+        if( columns.length < 3 )
+            return;
+
+        long value;
+        try {
+            value = Long.parseLong(columns[0].trim());
+        } catch( NumberFormatException e ) {
+            // "<not counted>" or "<not supported>"
+            return;
+        }
+
+        String event = columns[2];
+        int slash = event.indexOf('/');
+        if( slash >= 0 ) {
+            int end = event.indexOf('/',slash+1);
+            event = event.substring(slash+1, end < 0 ? event.length() : end);
+        }
+        int colon = event.indexOf(':');
+        if( colon >= 0 )
+            event = event.substring(0,colon);
+
+        switch( event ) {
+            case "cycles": cycles = add(cycles,value); break;
+            case "instructions": instructions = add(instructions,value); break;
+            case "LLC-load-misses": llcMisses = add(llcMisses,value); break;
+            case "branch-misses": branchMisses = add(branchMisses,value); break;
+            default:
+        }
+    }
+
+    private static long add( long total , long value ) {
+        return total < 0 ? value : total + value;
+    }
+
+    private void delete() {
+        if( directory == null )
+            return;
+        control.delete();
+        ack.delete();
+        output.delete();
+        directory.delete();
+        directory = null;
+    }
+
+    public long getCycles() {
+        return cycles;
+    }
+
+    public long getInstructions() {
+        return instructions;
+    }
+
+    public long getLlcMisses() {
+        return llcMisses;
+    }
+
+    public long getBranchMisses() {
+        return branchMisses;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.misc;
+
+import jmbench.matrix.CsrMatrix;
+
+import java.util.Arrays;
+import java.util.Random;
+
+
+/**
+ * <p>
+ * Creates random sparse matrices with a structure which is similar to what's found in different applications.
+ * How dense the matrix is can be controlled by specifying the number of non-zero elements in each row.  For
+ * all the patterns this is approximate.
+ * </p>
+ *
+ * <p>
+ * Off diagonal elements are drawn from a uniform distribution from -1 to 1.  The diagonal is set to be
+ * larger than the sum of the other elements in its row, making the matrix diagonally dominant and not singular.
+ * When symmetric it's also positive definite, so the same matrices can be used to benchmark each type of solver.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RandomSparseMatrices {
+
+    /**
+     * Location of the non-zero elements
+     */
+    public enum Pattern {
+        /**
+         * Non-zero elements are randomly distributed across each row.  Common in graphs and networks.
+         */
+        RANDOM,
+        /**
+         * Non-zero elements are inside a band around the diagonal.  Common in 1D problems and after the
+         * matrix has been reordered to reduce its bandwidth.
+         */
+        BANDED,
+        /**
+         * Stiffness matrix from a finite element or finite difference model on a 2D grid.  Each node is coupled
+         * to the nodes in a square around it.  Unlike banded matrices there's a second band far from the diagonal.
+         */
+        FEM
+    }
+
+    /**
+     * Creates a random square sparse matrix.
+     *
+     * @param pattern Location of non-zero elements
+     * @param size Number of rows and columns
+     * @param nonZerosPerRow Desired number of non-zero elements in each row, including the diagonal
+     * @param symmetric If true the matrix will be symmetric positive definite
+     * @param rand Random number generator
+     */
+    public static CsrMatrix create( Pattern pattern , int size , int nonZerosPerRow ,
+                                    boolean symmetric , Random rand ) {
+        Triplets t = new Triplets(size*Math.max(1,nonZerosPerRow));
+
+        // number of off diagonal elements before the diagonal in each row, for symmetric patterns
+        int half = Math.max(1,(nonZerosPerRow-1)/2);
+
+        switch( pattern ) {
+            case RANDOM:
+                if( symmetric ) {
+                    for (int row = 0; row < size; row++) {
+                        for (int i = 0; i < half && size > 1; i++) {
+                            t.add(row,randomColumn(row,size,rand),symmetric,rand);
+                        }
+                    }
+                } else {
+                    for (int row = 0; row < size; row++) {
+                        for (int i = 0; i < nonZerosPerRow-1 && size > 1; i++) {
+                            t.add(row,randomColumn(row,size,rand),false,rand);
+                        }
+                    }
+                }
+                break;
+
+            case BANDED:
+                for (int row = 0; row < size; row++) {
+                    for (int col = Math.max(0,row-half); col < row; col++) {
+                        t.add(row,col,symmetric,rand);
+                        if( !symmetric )
+                            t.add(col,row,false,rand);
+                    }
+                }
+                break;
+
+            case FEM: {
+                // radius of the square around each node which it's connected to
+                int radius = Math.max(1,(int)Math.round((Math.sqrt(nonZerosPerRow)-1)/2));
+                int width = (int)Math.ceil(Math.sqrt(size));
+                for (int node = 0; node < size; node++) {
+                    int x = node%width, y = node/width;
+                    // only the neighbors before this node are added, the others add this node
+                    for (int dy = -radius; dy <= 0; dy++) {
+                        for (int dx = -radius; dx <= radius; dx++) {
+                            if( dy == 0 && dx >= 0 )
+                                break;
+                            int nx = x+dx, ny = y+dy;
+                            if( nx < 0 || nx >= width || ny < 0 )
+                                continue;
+                            t.add(node,ny*width+nx,symmetric,rand);
+                            if( !symmetric )
+                                t.add(ny*width+nx,node,false,rand);
+                        }
+                    }
+                }
+            } break;
+
+            default:
+                throw new IllegalArgumentException("Unknown pattern "+pattern);
+        }
+
+        // make the matrix diagonally dominant
+        double rowSum[] = new double[size];
+        for (int i = 0; i < t.length; i++) {
+            rowSum[t.rows[i]] += Math.abs(t.values[i]);
+        }
+        for (int row = 0; row < size; row++) {
+            t.add(row,row,rowSum[row]+1.0);
+        }
+
+        return CsrMatrix.fromTriplets(size,size,t.rows,t.cols,t.values,t.length);
+    }
+
+    /**
+     * Random column which isn't the diagonal
+     */
+    private static int randomColumn( int row , int size , Random rand ) {
+        int col = rand.nextInt(size-1);
+        return col >= row ? col+1 : col;
+    }
+
+    /**
+     * List of elements in the matrix which grows as needed
+     */
+    private static class Triplets {
+        int rows[], cols[];
+        double values[];
+        int length;
+
+        Triplets( int capacity ) {
+            rows = new int[capacity];
+            cols = new int[capacity];
+            values = new double[capacity];
+        }
+
+        void add( int row , int col , double value ) {
+            if( length == rows.length ) {
+                int capacity = Math.max(10,length*2);
+                rows = Arrays.copyOf(rows,capacity);
+                cols = Arrays.copyOf(cols,capacity);
+                values = Arrays.copyOf(values,capacity);
+            }
+            rows[length] = row;
+            cols[length] = col;
+            values[length++] = value;
+        }
+
+        /**
+         * Adds a random element.  If symmetric it's also added at the transposed location.
+         */
+        void add( int row , int col , boolean symmetric , Random rand ) {
+            double value = rand.nextDouble()*2.0-1.0;
+            add(row,col,value);
+            if( symmetric )
+                add(col,row,value);
+        }
+    }
+}
@@ -20,6 +20,7 @@
 package jmbench.misc;
 
 import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.ComplexBenchmarkMatrix;
 import jmbench.matrix.RowMajorMatrix;
 import jmbench.matrix.RowMajorOps;
 
@@ -31,14 +32,28 @@ import java.util.Random;
  */
 public class RandomizeMatrices {
 
+    // Number of elements which are filled at once.  Several rows are copied into the matrix with a single call,
+    // while keeping the temporary array small for large matrices
+    public static final int BLOCK_ELEMENTS = 1 << 16;
+
     public static void randomize( BenchmarkMatrix input , double min , double max , Random rand ) {
 
         double range = max-min;
-
-        for( int i = 0; i < input.numRows(); i++ ) {
-            for( int j = 0; j < input.numCols(); j++ ) {
-                input.set(i,j,rand.nextDouble()*range+min);
+        int numCols = input.numCols();
+
+        // filled a block of rows at a time in row-major order so that the random numbers are used in the
+        // same order as before
+        int numRows = input.numRows();
+        int blockRows = Math.max(1,Math.min(numRows,BLOCK_ELEMENTS/Math.max(1,numCols)));
+        double[] block = new double[blockRows*numCols];
+        for( int row0 = 0; row0 < numRows; row0 += blockRows ) {
+            int row1 = Math.min(numRows,row0+blockRows);
+            int length = (row1-row0)*numCols;
+            double[] data = length == block.length ? block : new double[length];
+            for( int j = 0; j < length; j++ ) {
+                data[j] = rand.nextDouble()*range+min;
             }
+            input.setRows(row0,row1,data);
         }
     }
 
@@ -46,33 +61,72 @@ public class RandomizeMatrices {
 
         double range = max-min;
 
-        for( int i = 0; i < input.numRows(); i++ ) {
-            for( int j = i; j < input.numCols(); j++ ) {
+        RowMajorMatrix sym = new RowMajorMatrix(input.numRows(),input.numCols());
+        for( int i = 0; i < sym.numRows; i++ ) {
+            for( int j = i; j < sym.numCols; j++ ) {
                 double v = rand.nextDouble()*range+min;
-                input.set(i,j,v);
-                input.set(j,i,v);
+                sym.set(i,j,v);
+                sym.set(j,i,v);
             }
         }
+        input.setRowMajor(sym.data);
     }
 
     public static void symmPosDef( BenchmarkMatrix input , Random rand ) {
 
         RowMajorMatrix spd = RowMajorOps.createSymmPosDef(input.numRows(), rand);
 
-        for( int i = 0; i < input.numRows(); i++ ) {
-            for( int j = 0; j < input.numCols(); j++ ) {
-                input.set(i,j,spd.get(i,j));
+        input.setRowMajor(spd.data);
+    }
+
+
+    /**
+     * Fills the real and imaginary parts of each element with random values
+     */
+    public static void randomizeComplex( ComplexBenchmarkMatrix input , double min , double max , Random rand ) {
+
+        double range = max-min;
+        int numCols = input.numCols();
+
+        int numRows = input.numRows();
+        int blockRows = Math.max(1,Math.min(numRows,BLOCK_ELEMENTS/Math.max(1,2*numCols)));
+        double[] block = new double[blockRows*2*numCols];
+        for( int row0 = 0; row0 < numRows; row0 += blockRows ) {
+            int row1 = Math.min(numRows,row0+blockRows);
+            int length = (row1-row0)*2*numCols;
+            double[] data = length == block.length ? block : new double[length];
+            for( int j = 0; j < length; j++ ) {
+                data[j] = rand.nextDouble()*range+min;
             }
+            input.setComplexRows(row0,row1,data);
         }
     }
 
+    /**
+     * Fills a square matrix with random values so that it's Hermitian, i.e. equal to its conjugate transpose.
+     * The diagonal elements are real.
+     */
+    public static void hermitian( ComplexBenchmarkMatrix input , double min , double max , Random rand ) {
 
-    public static void convertToBm( RowMajorMatrix orig , BenchmarkMatrix ret ) {
-
-        for( int i = 0; i < orig.numRows; i++ ) {
-            for( int j = 0; j < orig.numCols; j++ ) {
-                ret.set(i,j, orig.get(i,j) );
+        double range = max-min;
+        int N = input.numRows();
+
+        double[] data = new double[2*N*N];
+        for( int i = 0; i < N; i++ ) {
+            data[(i*N+i)*2] = rand.nextDouble()*range+min;
+            for( int j = i+1; j < N; j++ ) {
+                double real = rand.nextDouble()*range+min;
+                double imag = rand.nextDouble()*range+min;
+                data[(i*N+j)*2] = real;
+                data[(i*N+j)*2+1] = imag;
+                data[(j*N+i)*2] = real;
+                data[(j*N+i)*2+1] = -imag;
             }
         }
+        input.setComplexRows(0,N,data);
+    }
+
+    public static void convertToBm( RowMajorMatrix orig , BenchmarkMatrix ret ) {
+        ret.setRowMajor(orig.data);
     }
 }
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmbench.misc;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * <p>
+ * Lets the master see what a slave is doing while it's running.  A daemon thread inside the slave periodically
+ * writes its status to a file which the master reads.  The status contains the current phase, how many trials
+ * have been completed, and how long the current call to the library has been running and is expected to take.
+ * If the heartbeat stops the slave is assumed to be frozen and if a call is predicted to take too long it can be
+ * stopped early.
+ * </p>
+ *
+ * <p>
+ * The file contains a single line: sequence, phase, completed trials, trials in the current batch, time since the
+ * batch started (ms), and the expected duration of the batch (ms).  Times are -1 if unknown.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SlaveHeartbeat {
+
+    /**
+     * System property which specifies the file the heartbeat is written to
+     */
+    public static final String PROPERTY = "jmbench.heartbeat";
+
+    /**
+     * How often the heartbeat is written (ms)
+     */
+    public static final long PERIOD_MS = 1000;
+
+    /**
+     * What the slave is currently doing
+     */
+    public enum Phase {
+        /** Waiting for a job */
+        IDLE,
+        /** Loading the test and library */
+        SETUP,
+        /** Creating the input matrices */
+        GENERATE,
+        /** Running the operation until it's warmed up */
+        WARMUP,
+        /** Running the operation for a measurement */
+        MEASURE,
+        /** Additional passes after the measurement, e.g. latency or counters */
+        EXTRA
+    }
+
+    // state of the slave.  Written by the benchmark and read by the heartbeat thread
+    private static volatile Phase phase = Phase.IDLE;
+    private static volatile long completedTrials;
+    private static volatile long batchTrials;
+    private static volatile long batchStartNS;
+    private static volatile long expectedBatchNS = -1;
+    private static volatile boolean inBatch;
+
+    private static Thread thread;
+
+    /**
+     * Starts writing the heartbeat if the slave was told where to write it.  Calling it more than once does nothing.
+     */
+    public static synchronized void start() {
+        String path = System.getProperty(PROPERTY);
+        if( path == null || thread != null )
+            return;
+
+        File file = new File(path);
+        File tmp = new File(path+".tmp");
+        thread = new Thread(() -> {
+            long sequence = 0;
+            while( true ) {
+                try {
+                    Files.write(tmp.toPath(), encode(++sequence).getBytes(StandardCharsets.UTF_8));
+                    Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                    Thread.sleep(PERIOD_MS);
+                } catch( InterruptedException e ) {
+                    return;
+                } catch( IOException e ) {
+                    // the master might have deleted the file, try again next time
+                }
+            }
+        },"heartbeat");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Changes the phase.  The number of completed trials is reset if the phase is different.
+     */
+    public static void setPhase( Phase phase ) {
+        inBatch = false;
+        if( SlaveHeartbeat.phase != phase ) {
+            completedTrials = 0;
+            SlaveHeartbeat.phase = phase;
+        }
+    }
+
+    /**
+     * Called just before the library is asked to process a batch of trials
+     *
+     * @param trials Number of trials in the batch
+     * @param expectedNS How long the batch is expected to take or -1 if unknown
+     */
+    public static void beginBatch( long trials , long expectedNS ) {
+        batchTrials = trials;
+        expectedBatchNS = expectedNS;
+        batchStartNS = System.nanoTime();
+        inBatch = true;
+    }
+
+    /**
+     * Called after the library has finished processing a batch
+     */
+    public static void endBatch() {
+        inBatch = false;
+        completedTrials += batchTrials;
+    }
+
+    private static String encode( long sequence ) {
+        boolean batch = inBatch;
+        long ageMS = batch ? (System.nanoTime()-batchStartNS)/1_000_000 : -1;
+        long expectedMS = batch && expectedBatchNS >= 0 ? expectedBatchNS/1_000_000 : -1;
+        return sequence+" "+phase+" "+completedTrials+" "+(batch ? batchTrials : 0)+" "+ageMS+" "+expectedMS+"\n";
+    }
+
+    /**
+     * Status read from the heartbeat file by the master
+     */
+    public static class Status {
+        public long sequence;
+        public Phase phase;
+        public long completedTrials;
+        public long batchTrials;
+        // time since the current batch started (ms).  -1 if not in a batch
+        public long batchAgeMS;
+        // how long the current batch is expected to take (ms).  -1 if unknown
+        public long expectedBatchMS;
+
+        /**
+         * Reads the status from the file
+         *
+         * @return the status or null if the file doesn't exist yet or couldn't be parsed
+         */
+        public static Status read( File file ) {
+            try {
+                String[] words = new String(Files.readAllBytes(file.toPath()),StandardCharsets.UTF_8).trim().split(" ");
+                if( words.length != 6 )
+                    return null;
+                Status s = new Status();
+                s.sequence = Long.parseLong(words[0]);
+                s.phase = Phase.valueOf(words[1]);
+                s.completedTrials = Long.parseLong(words[2]);
+                s.batchTrials = Long.parseLong(words[3]);
+                s.batchAgeMS = Long.parseLong(words[4]);
+                s.expectedBatchMS = Long.parseLong(words[5]);
+                return s;
+            } catch( IOException | IllegalArgumentException e ) {
+                return null;
+            }
+        }
+
+        public boolean isBatchExpected() {
+            return batchAgeMS >= 0 && expectedBatchMS >= 0;
+        }
+
+        @Override
+        public String toString() {
+            String s = "phase = "+phase+" completed trials = "+completedTrials;
+            if( batchAgeMS >= 0 )
+                s += " batch = "+batchTrials+" trials running for "+batchAgeMS+" ms";
+            if( expectedBatchMS >= 0 )
+                s += " of an expected "+expectedBatchMS+" ms";
+            return s;
+        }
+    }
+}
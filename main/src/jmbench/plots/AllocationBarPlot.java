@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmbench.plots;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartFrame;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.CategoryPlot;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.renderer.category.BarRenderer;
+import org.jfree.chart.title.TextTitle;
+import org.jfree.data.category.DefaultCategoryDataset;
+
+import java.awt.*;
+
+
+/**
+ * Bar plot showing how many bytes each library allocates every time it performs an operation.
+ *
+ * @author Peter Abeles
+ */
+public class AllocationBarPlot {
+
+    DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+
+    JFreeChart chart;
+
+    public AllocationBarPlot( String title ) {
+        chart = ChartFactory.createBarChart(
+                title,       // chart title
+                "Operation",               // domain axis label
+                "Bytes Allocated per Operation",                  // range axis label
+                dataset,                  // data
+                PlotOrientation.VERTICAL, // orientation
+                true,                     // include legend
+                true,                     // tooltips?
+                false                     // URLs?
+        );
+        chart.addSubtitle(new TextTitle("(Smaller is Better)",new Font("SansSerif", Font.ITALIC, 12)));
+
+        plot();
+    }
+
+    public void addResult( String operation , String library , double bytesPerOp ) {
+        dataset.addValue(bytesPerOp, library, operation);
+    }
+
+    private void plot() {
+        CategoryPlot plot = chart.getCategoryPlot();
+
+        plot.setRangeGridlinePaint(Color.BLACK);
+        plot.setBackgroundPaint(new Color(230,230,230));
+
+        BarRenderer renderer = (BarRenderer) plot.getRenderer();
+        renderer.setDrawBarOutline(true);
+        renderer.setShadowVisible(false);
+        renderer.setBaseOutlinePaint(Color.BLACK);
+    }
+
+    public void displayWindow(int width, int height) {
+
+        ChartFrame window = new ChartFrame(chart.getTitle().getText(),chart);
+
+        window.setMinimumSize(new Dimension(width,height));
+        window.setPreferredSize(window.getMinimumSize());
+        window.setVisible(true);
+    }
+
+    public void savePDF( String fileName , int width , int height ) {
+        UtilPlotPdf.saveAsPdf(chart,fileName,width,height);
+    }
+
+    public static void main( String args[] ) {
+        AllocationBarPlot plot = new AllocationBarPlot("Bytes Allocated per Operation");
+
+        plot.addResult("add","ejml",0);
+        plot.addResult("add","ojalgo",320);
+        plot.addResult("mult","ejml",0);
+        plot.addResult("mult","ojalgo",1280);
+
+        plot.displayWindow(400,300);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmbench.plots;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartFrame;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
+import org.jfree.chart.title.TextTitle;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+
+import java.awt.*;
+
+
+/**
+ * Plots how much memory is retained against time, with one line for each operation.  Used to see if a library's
+ * memory keeps on growing the longer it's used.
+ *
+ * @author Peter Abeles
+ */
+public class MemoryTimePlot {
+
+    XYSeriesCollection dataset = new XYSeriesCollection();
+
+    JFreeChart chart;
+    XYPlot plot;
+
+    /**
+     * @param title Title of the plot
+     * @param ylabel Label for the y-axis, e.g. "Live Heap (MB)"
+     */
+    public MemoryTimePlot( String title , String ylabel ) {
+        chart = ChartFactory.createXYLineChart(title,
+                "Time (min)",
+                ylabel,
+                dataset,
+                PlotOrientation.VERTICAL,
+                true , false , false  );
+        chart.addSubtitle(new TextTitle("(Flat is Better)",new Font("SansSerif", Font.ITALIC, 12)));
+
+        plot = (XYPlot) chart.getPlot();
+        plot.setBackgroundPaint(Color.WHITE);
+        plot.setDomainGridlinePaint(Color.GRAY);
+        plot.setRangeGridlinePaint(Color.GRAY);
+        ((NumberAxis)plot.getRangeAxis()).setAutoRangeIncludesZero(false);
+    }
+
+    /**
+     * Adds a line for one operation.  Negative values are missing and are skipped.
+     *
+     * @param timeMS Time each value was sampled at in milliseconds
+     * @param bytes Memory in bytes
+     */
+    public void addResults( String name , long[] timeMS , long[] bytes ) {
+        XYSeries series = new XYSeries(name,false,false);
+        for (int i = 0; i < timeMS.length; i++) {
+            if( bytes[i] >= 0 )
+                series.add(timeMS[i]/60000.0,bytes[i]/(1024.0*1024.0));
+        }
+
+        int index = dataset.getSeriesCount();
+        dataset.addSeries(series);
+
+        XYLineAndShapeRenderer renderer = (XYLineAndShapeRenderer)plot.getRenderer();
+        renderer.setSeriesShapesVisible(index,true);
+        renderer.setSeriesPaint(index,OperationsVersusSizePlot.getColor(index));
+        renderer.setSeriesStroke(index,new BasicStroke(2));
+    }
+
+    public void displayWindow(int width, int height) {
+
+        ChartFrame window = new ChartFrame(chart.getTitle().getText(),chart);
+
+        window.setMinimumSize(new Dimension(width,height));
+        window.setPreferredSize(window.getMinimumSize());
+        window.setVisible(true);
+    }
+
+    public void savePDF( String fileName , int width , int height ) {
+        UtilPlotPdf.saveAsPdf(chart,fileName,width,height);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmbench.plots;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartFrame;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.LogarithmicAxis;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.ValueMarker;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
+import org.jfree.chart.title.TextTitle;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+
+import java.awt.*;
+
+
+/**
+ * Plots how well a library scales as it's given more processors.  There is one line for each number of
+ * processors showing either the speedup or parallel efficiency at each matrix size.  A horizontal line is
+ * drawn at the value where there is no benefit, e.g. a speedup of one.
+ *
+ * @author Peter Abeles
+ */
+public class ScalingPlot {
+
+    XYSeriesCollection dataset = new XYSeriesCollection();
+
+    JFreeChart chart;
+    XYPlot plot;
+
+    /**
+     * @param title Title of the plot
+     * @param ylabel Label for the y-axis, e.g. "Speedup"
+     * @param reference Value where using more processors has no benefit
+     */
+    public ScalingPlot( String title , String ylabel , double reference ) {
+        chart = ChartFactory.createXYLineChart(title,
+                "Matrix Size",
+                ylabel,
+                dataset,
+                PlotOrientation.VERTICAL,
+                true , false , false  );
+        chart.addSubtitle(new TextTitle("(Higher is Better)",new Font("SansSerif", Font.ITALIC, 12)));
+
+        plot = (XYPlot) chart.getPlot();
+        plot.setBackgroundPaint(Color.WHITE);
+        plot.setDomainGridlinePaint(Color.GRAY);
+        plot.setRangeGridlinePaint(Color.GRAY);
+        plot.setDomainAxis(new LogarithmicAxis("Matrix Size"));
+        ((NumberAxis)plot.getRangeAxis()).setAutoRangeIncludesZero(true);
+
+        ValueMarker marker = new ValueMarker(reference);
+        marker.setPaint(Color.BLACK);
+        marker.setStroke(new BasicStroke(1.5f));
+        plot.addRangeMarker(marker);
+    }
+
+    /**
+     * Adds a line for one processor count.  Matrix sizes without a value should be NaN and are skipped.
+     */
+    public void addResults( String name , int[] sizes , double[] values ) {
+        XYSeries series = new XYSeries(name,false,false);
+        for (int i = 0; i < sizes.length; i++) {
+            if( !Double.isNaN(values[i]) && !Double.isInfinite(values[i]) )
+                series.add(sizes[i],values[i]);
+        }
+
+        int index = dataset.getSeriesCount();
+        dataset.addSeries(series);
+
+        XYLineAndShapeRenderer renderer = (XYLineAndShapeRenderer)plot.getRenderer();
+        renderer.setSeriesShapesVisible(index,true);
+        renderer.setSeriesPaint(index,OperationsVersusSizePlot.getColor(index));
+        renderer.setSeriesStroke(index,new BasicStroke(2));
+    }
+
+    public void displayWindow(int width, int height) {
+
+        ChartFrame window = new ChartFrame(chart.getTitle().getText(),chart);
+
+        window.setMinimumSize(new Dimension(width,height));
+        window.setPreferredSize(window.getMinimumSize());
+        window.setVisible(true);
+    }
+
+    public void savePDF( String fileName , int width , int height ) {
+        UtilPlotPdf.saveAsPdf(chart,fileName,width,height);
+    }
+
+    public static void main( String args[] ) {
+        ScalingPlot plot = new ScalingPlot("Speedup","Speedup",1);
+
+        int[] sizes = new int[]{10,100,1000};
+        plot.addResults("2 cores",sizes,new double[]{0.8,1.5,1.9});
+        plot.addResults("4 cores",sizes,new double[]{0.6,2.1,3.6});
+
+        plot.displayWindow(600,400);
+    }
+}
@@ -20,7 +20,6 @@
 package jmbench.tools;
 
 import jmbench.misc.JavaRuntimeLauncher;
-import jmbench.tools.stability.UtilXmlSerialization;
 
 import java.io.File;
 import java.util.List;
@@ -33,13 +32,19 @@ import java.util.Random;
 // todo change random seed with each trial, optional
 public class BenchmarkTools extends JavaRuntimeLauncher {
 
-    public static final String RESULTS_NAME = "slave_results.xml";
+    // files used to pass information between the master and the slave for the current job
+    File caseFile;
+    File resultsFile;
 
     // used to ID stale results
     int requestID = new Random().nextInt();
     // if not zero it will allocate this much memory (MB)
     long overrideMemory = 0;
 
+    // maximum number of jobs a slave JVM will process before it's replaced.  If one or less then a new
+    // JVM is launched for every job, which provides the most isolation between jobs
+    int jobsPerSlave = 1;
+
     boolean verbose = true;
 
     public BenchmarkTools(List<String> pathJars) {
@@ -54,9 +59,15 @@ public class BenchmarkTools extends JavaRuntimeLauncher {
         this.overrideMemory = overrideMemory;
     }
 
+    public void setJobsPerSlave(int jobsPerSlave) {
+        this.jobsPerSlave = jobsPerSlave;
+    }
+
     /**
      * Spawns a new java vm to run {@link EvaluatorSlave} which will compute the ops
-     * per second for the specified test.
+     * per second for the specified test.  If more than one job per slave is allowed then an already running
+     * slave is used instead, if there is one.  The slave is replaced after it has processed the maximum
+     * number of jobs, ran out of memory, or froze.
      *
      * @param test A description of which is to be tested by the slave
      * @return The results of the experiment.
@@ -66,7 +77,9 @@ public class BenchmarkTools extends JavaRuntimeLauncher {
         requestID++;
 
         // write out a file describing what the slave should process.
-        UtilXmlSerialization.serializeXml(test, "case.xml");
+        caseFile = SlaveChannel.createFile("case");
+        resultsFile = SlaveChannel.createFile("results");
+        SlaveChannel.write(test, caseFile.getPath());
 
         // compute required memory in mega bytes
         long allocatedMemory = overrideMemory;
@@ -76,11 +89,21 @@ public class BenchmarkTools extends JavaRuntimeLauncher {
 
         setMemoryInMB(allocatedMemory);
 
-        boolean skipReadXml = false;
-        switch (launch(EvaluatorSlave.class, "case.xml", Long.toString(requestID))) {
+        boolean pooled = jobsPerSlave > 1;
+
+        String[] args = {caseFile.getPath(), Long.toString(requestID), resultsFile.getPath()};
+        Exit status = pooled ? launchPooled(EvaluatorSlave.class, args) : launch(EvaluatorSlave.class, args);
+
+        boolean skipRead = false;
+        switch (status) {
             case FROZEN:
                 errorStream.println("BenchmarkTools: Slave froze and was killed");
-                skipReadXml = true;
+                skipRead = true;
+                break;
+
+            case TOO_SLOW:
+                errorStream.println("BenchmarkTools: Slave was too slow and was killed");
+                skipRead = true;
                 break;
 
             case RETURN_NOT_ZERO:
@@ -92,18 +115,24 @@ public class BenchmarkTools extends JavaRuntimeLauncher {
         }
 
         EvaluatorSlave.Results ret = null;
-        if (!skipReadXml) {
+        if (!skipRead) {
             // see if the user terminated the slave
-            ret = UtilXmlSerialization.deserializeXml(RESULTS_NAME);
+            ret = SlaveChannel.read(resultsFile.getPath());
             if (ret == null || ret.getRequestID() != requestID) {
                 if (ret == null)
-                    errorStream.println("UtilXmlSerialization.deserializeXml returned null");
+                    errorStream.println("Couldn't read the slave's results");
                 else
                     errorStream.println("ret.getRequestID() does not match");
                 ret = null;
             }
         }
 
+        // the slave's state can't be trusted after a failure and it might already be exiting, in which case the
+        // next job would be sent to a dead JVM
+        if (pooled && (ret == null || ret.failed != null || getPooledJobs() >= jobsPerSlave)) {
+            shutdownPooled();
+        }
+
         cleanup();
         return ret;
     }
@@ -140,15 +169,8 @@ public class BenchmarkTools extends JavaRuntimeLauncher {
      * Delete temporary files that it created to pass information between the master and the slave.
      */
     private void cleanup() {
-        delete(new File("case.xml"));
-
-        File results = new File(RESULTS_NAME);
-
-        if (!results.exists())
-            System.out.println(results.getName() + " does not exist");
-        else {
-            delete(results);
-        }
+        delete(caseFile);
+        delete(resultsFile);
     }
 
     private void delete(File file) {
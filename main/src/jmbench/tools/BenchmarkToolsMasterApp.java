@@ -21,12 +21,17 @@ package jmbench.tools;
 
 import jmbench.impl.LibraryDescription;
 import jmbench.impl.LibraryManager;
+import jmbench.tools.memory.AllocationBenchmark;
+import jmbench.tools.memory.LeakBenchmark;
 import jmbench.tools.memory.MemoryBenchmark;
+import jmbench.tools.memory.PlotAllocationResults;
+import jmbench.tools.memory.PlotLeakResults;
 import jmbench.tools.memory.PlotMemoryResultsXml;
 import jmbench.tools.runtime.RuntimeBenchmark;
 import jmbench.tools.runtime.evaluation.CheckForErrorsInResults;
 import jmbench.tools.runtime.evaluation.ComparePlatformResults;
 import jmbench.tools.runtime.evaluation.PlotRuntimeResults;
+import jmbench.tools.runtime.evaluation.PlotScalingResults;
 import jmbench.tools.stability.DisplayStability;
 import jmbench.tools.stability.StabilityBenchmark;
 
@@ -51,9 +56,14 @@ public class BenchmarkToolsMasterApp {
         System.out.println("  stability          Runs the stability benchmark.");
         System.out.println("  runtime            Runs the runtime benchmark.");
         System.out.println("  memory             Runs the memory benchmark.");
+        System.out.println("  allocation         Runs the benchmark which measures bytes allocated per operation.");
+        System.out.println("  leak               Runs each operation for several minutes and looks for memory leaks.");
         System.out.println("  checkRuntime       Outputs the runtime sanity check results.");
         System.out.println("  plotRuntime        Generates plots from runtime results.");
+        System.out.println("  plotScaling        Generates speedup and efficiency plots from runtime results with --Scaling.");
         System.out.println("  plotMemory         Generates a plot from memory benchmark results.");
+        System.out.println("  plotAllocation     Generates plots from allocation benchmark results.");
+        System.out.println("  plotLeak           Generates plots from leak benchmark results.");
         System.out.println("  compareRuntime     Compares runtime performance for a single library across different platforms.");
         System.out.println("  displayStability   Prints out tables showing stability results.");
         System.out.println("  libraries          Lists all the libraries it can find.");
@@ -100,12 +110,22 @@ public class BenchmarkToolsMasterApp {
             StabilityBenchmark.main(pruned);
         } else if( tool.compareToIgnoreCase("memory") == 0 ) {
             MemoryBenchmark.main(pruned);
+        } else if( tool.compareToIgnoreCase("allocation") == 0 ) {
+            AllocationBenchmark.main(pruned);
+        } else if( tool.compareToIgnoreCase("leak") == 0 ) {
+            LeakBenchmark.main(pruned);
         } else if( tool.compareToIgnoreCase("checkRuntime") == 0) {
             CheckForErrorsInResults.main(pruned);
         } else if( tool.compareToIgnoreCase("plotRuntime") == 0) {
             PlotRuntimeResults.main(pruned);
+        } else if( tool.compareToIgnoreCase("plotScaling") == 0 ) {
+            PlotScalingResults.main(pruned);
         } else if( tool.compareToIgnoreCase("plotMemory") == 0 ) {
             PlotMemoryResultsXml.main(pruned);
+        } else if( tool.compareToIgnoreCase("plotAllocation") == 0 ) {
+            PlotAllocationResults.main(pruned);
+        } else if( tool.compareToIgnoreCase("plotLeak") == 0 ) {
+            PlotLeakResults.main(pruned);
         } else if( tool.compareToIgnoreCase("compareRuntime") == 0 ) {
             ComparePlatformResults.main(pruned);
         } else if( tool.compareToIgnoreCase("displayStability") == 0) {
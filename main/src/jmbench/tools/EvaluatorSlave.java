@@ -19,17 +19,17 @@
 
 package jmbench.tools;
 
-import jmbench.tools.stability.UtilXmlSerialization;
+import jmbench.misc.JavaRuntimeLauncher;
+import jmbench.misc.SlaveHeartbeat;
 
-import java.io.FileNotFoundException;
-import java.io.Serializable;
+import java.io.*;
 
 
 /**
  * <p>
  * EvaluatorSlave is a class that evaluates the performance of an algorithm for a specific
- * operation against random inputs of different sizes.  The results are output as an xml
- * file.
+ * operation against random inputs of different sizes.  The test is read from and the results are written to
+ * files using {@link SlaveChannel}.
  * </p>
  * <p>
  * Processing can stop if: 1) All the trials have been processed.  2) A single trial takes too long.
@@ -44,6 +44,10 @@ import java.io.Serializable;
  * other trials will also take too long.  The max time is to prevent pathological cases where any single
  * trial doesn't take the max time, but running through everything just is too slow.
  * </p>
+ * <p>
+ * If launched with {@link JavaRuntimeLauncher#POOL_ARGUMENT} it will process multiple jobs that are sent to it
+ * through standard in, avoiding the cost of launching a new JVM for each one.
+ * </p>
  *
  * @author Peter Abeles
  */
@@ -51,27 +55,73 @@ public class EvaluatorSlave {
 
     private static final boolean VERBOSE = false;
 
-    private static long requestID;
-
-    public static void main(String[] args) throws FileNotFoundException {
+    public static void main(String[] args) throws IOException {
         // catch control-c
 //        install("INT");
 //        install("TERM");
 
+        // lets the master know it's still alive and what it's doing
+        SlaveHeartbeat.start();
+
+        if( args.length == 1 && args[0].equals(JavaRuntimeLauncher.POOL_ARGUMENT) ) {
+            processPool();
+        } else {
+            processJob(args);
+        }
+
+        // by calling this exit function the slave will terminate even if a library is poorly
+        // written and has a dangling thread.
+        System.exit(0);
+    }
+
+    /**
+     * Processes jobs sent by the master through standard in until standard in is closed.  Each job is a single
+     * line with the same arguments as when a single job is processed, separated by tabs.  After the results have been saved
+     * {@link JavaRuntimeLauncher#POOL_JOB_FINISHED} is printed.  If an error is thrown the JVM's state can't be
+     * trusted any more and it stops processing jobs.
+     */
+    private static void processPool() throws IOException {
+        BufferedReader commands = new BufferedReader(new InputStreamReader(System.in));
+
+        while( true ) {
+            String line = commands.readLine();
+            if( line == null )
+                break;
+
+            boolean healthy = processJob(line.trim().split("\t"));
+
+            System.out.println(JavaRuntimeLauncher.POOL_JOB_FINISHED);
+            System.out.flush();
+
+            if( !healthy )
+                break;
+        }
+    }
+
+    /**
+     * Loads the test, evaluates it, and saves the results.
+     *
+     * @param args File describing the test, request ID, and the file the results are saved to
+     * @return false if an error was thrown while evaluating the test
+     */
+    private static boolean processJob( String[] args ) {
         // parse the input arguments
-        if( args.length != 2 ) {
+        if( args.length != 3 ) {
             throw new IllegalArgumentException("Unexpected number of arguments. Got"+args.length);
         }
         String fileName = args[0];
-        requestID = Long.parseLong(args[1]);
+        long requestID = Long.parseLong(args[1]);
+        String resultsFile = args[2];
+
+        SlaveHeartbeat.setPhase(SlaveHeartbeat.Phase.SETUP);
 
         // load the plan
-        EvaluationTest eval = UtilXmlSerialization.deserializeXml(fileName);
+        EvaluationTest eval = SlaveChannel.read(fileName);
 
         if( eval == null ) {
             System.out.println("Can't deserialize input");
-            writeOutFailure(requestID,FailReason.READ_CONFIG_FILE,null);
-            return;
+            writeOutFailure(resultsFile,requestID,FailReason.READ_CONFIG_FILE,null);
+            return true;
         }
 
         if( VERBOSE ) {
@@ -85,11 +135,11 @@ public class EvaluatorSlave {
             // save the results
             if( VERBOSE ) System.out.println("Slave done");
             r.requestID = requestID;
-            UtilXmlSerialization.serializeXml(r,"slave_results.xml");
+            SlaveChannel.write(r,resultsFile);
         } catch( Error e ) {
             if( e instanceof OutOfMemoryError ) {
                 if( VERBOSE) System.out.println("OutOfMemoryError: Slave is out of memory!");
-                writeOutFailure(requestID,FailReason.OUT_OF_MEMORY,null);
+                writeOutFailure(resultsFile,requestID,FailReason.OUT_OF_MEMORY,null);
             } else {
                 e.printStackTrace();
                 String message = e.toString() + "\n";
@@ -97,22 +147,21 @@ public class EvaluatorSlave {
                 for (StackTraceElement s : stack) {
                     message += s.toString() + "\n";
                 }
-                writeOutFailure(requestID, FailReason.MISC_EXCEPTION, message);
+                writeOutFailure(resultsFile,requestID, FailReason.MISC_EXCEPTION, message);
             }
+            return false;
+        } finally {
+            SlaveHeartbeat.setPhase(SlaveHeartbeat.Phase.IDLE);
         }
-
-        // by calling this exit function the slave will terminate even if a library is poorly
-        // written and has a dangling thread.
-        System.exit(0);
+        return true;
     }
 
-
-    private static void writeOutFailure( long requestID , FailReason reason , String message ) throws FileNotFoundException {
+    private static void writeOutFailure( String resultsFile , long requestID , FailReason reason , String message ) {
         Results r = new Results();
         r.failed = reason;
         r.requestID = requestID;
         r.detailedError = message;
-        UtilXmlSerialization.serializeXml(r,"slave_results.xml");
+        SlaveChannel.write(r,resultsFile);
     }
 
     /**
@@ -123,6 +172,7 @@ public class EvaluatorSlave {
         eval.init();
 
         // create the matrix inputs for the algorithm.
+        SlaveHeartbeat.setPhase(SlaveHeartbeat.Phase.GENERATE);
         eval.setupTest();
 
         Results results = new Results();
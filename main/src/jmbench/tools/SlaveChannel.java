@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.tools;
+
+import java.io.*;
+
+/**
+ * Passes the test case to the slave and the results back to the master.  Each job is given its own pair of
+ * temporary files so that several slaves can run at the same time without interfering with each other or
+ * reading stale results.  The objects are written using Java's binary serialization, which is much faster
+ * to start up and process than XML.
+ *
+ * @author Peter Abeles
+ */
+public class SlaveChannel {
+
+    /**
+     * Creates a new empty file which is private to a single job
+     *
+     * @param prefix Describes what's stored in the file
+     * @return The file
+     */
+    public static File createFile( String prefix ) {
+        try {
+            return File.createTempFile("jmbench_"+prefix,".bin");
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static void write( Serializable o , String fileName ) {
+        try (ObjectOutputStream out = new ObjectOutputStream(
+                new BufferedOutputStream(new FileOutputStream(fileName)))) {
+            out.writeObject(o);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Reads an object from the file.  If the file exists but can't be read, e.g. it was only partially written or
+     * is from a different version of the class, then why is printed to standard error.
+     *
+     * @return The object or null if the file doesn't exist, is empty, or can't be read
+     */
+    public static <T> T read( String fileName ) {
+        File file = new File(fileName);
+        if( !file.exists() || file.length() == 0 )
+            return null;
+
+        try (ObjectInputStream in = new ObjectInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            return (T)in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Failed to read "+fileName+": "+e);
+            e.printStackTrace();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmbench.tools.memory;
+
+import jmbench.impl.LibraryDescription;
+import jmbench.impl.LibraryManager;
+import jmbench.misc.RandomSparseMatrices;
+import jmbench.tools.BenchmarkTools;
+import jmbench.tools.EvaluatorSlave;
+import jmbench.tools.MiscTools;
+import jmbench.tools.SystemInfo;
+import jmbench.tools.runtime.InputOutputGenerator;
+import jmbench.tools.runtime.OperationTrack;
+import jmbench.tools.runtime.generator.*;
+import jmbench.tools.stability.UtilXmlSerialization;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * <p>
+ * Measures how many bytes each library allocates every time it performs an operation.  {@link MemoryBenchmark}
+ * measures the peak memory used by the process, which doesn't say how much garbage is created.  The garbage
+ * created is what determines how often the garbage collector needs to run in a long running application.
+ * </p>
+ *
+ * <p>
+ * Results are saved in the same directory structure as {@link MemoryBenchmark}, one {@link AllocationResults}
+ * file for each operation inside of the size and library directory.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class AllocationBenchmark {
+
+    String directorySave;
+
+    public AllocationBenchmark() {
+        directorySave = MiscTools.selectDirectoryName("allocation");
+    }
+
+    public AllocationBenchmark( String directory ) {
+        this.directorySave = directory;
+    }
+
+    public void performBenchmark( MemoryConfig config ) {
+        System.out.println("Setting up results directory");
+        File dir = new File(directorySave);
+        if( !dir.exists() ) {
+            if( !dir.mkdirs() ) {
+                throw new IllegalArgumentException("Can't make directories to save results.");
+            }
+        }
+
+        SystemInfo info = new SystemInfo();
+        info.grabCurrentInfo();
+
+        UtilXmlSerialization.serializeXml(info,directorySave+"/info.xml");
+        UtilXmlSerialization.serializeXml(config,directorySave+"/config.xml");
+
+        long startTime = System.currentTimeMillis();
+
+        MemoryBenchmark.saveLibraryDescriptions(directorySave,config.libraries);
+
+        for( int size : config.matrixSizes ) {
+            System.out.println("************ Starting size "+size);
+
+            String sizeDir = directorySave+"/"+size;
+            new File(sizeDir).mkdirs();
+            saveMatrixSize(sizeDir+"/size.txt",size);
+
+            for( LibraryDescription desc : config.libraries ) {
+                processLibrary(config,desc,sizeDir+"/"+desc.info.outputDirectory(),size);
+                System.out.println("Finished Library Benchmark");
+                System.out.println();
+            }
+        }
+
+        System.out.println("Finished Benchmark");
+        System.out.println("Elapsed time "+MiscTools.milliToHuman(System.currentTimeMillis()-startTime)+"\n");
+        MiscTools.sendFinishedEmail("Allocation",startTime);
+    }
+
+    private void processLibrary( MemoryConfig config , LibraryDescription desc , String libDir , int size ) {
+        new File(libDir).mkdirs();
+
+        PrintStream logStream;
+        try {
+            logStream = new PrintStream(libDir+"/log.txt");
+        } catch (FileNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+
+        BenchmarkTools tool = new BenchmarkTools(desc.listOfJarFilePaths());
+        tool.setVerbose(false);
+        tool.setOverrideMemory(config.memoryMaxMB);
+        tool.setFrozenTimeMS(config.maxTestTimeMilli);
+        tool.setErrorStream(logStream);
+
+        String libraryName = desc.info.getNamePlot();
+
+        for( Operation op : createOperations(config,size) ) {
+            AllocationResults results = new AllocationResults();
+            results.nameLibrary = libraryName;
+            results.nameOperation = op.name;
+            results.displayName = op.displayName;
+            results.matrixSize = op.size;
+
+            System.out.println(libraryName+" operation "+op.displayName);
+
+            for( int trial = 0; trial < config.numTrials; trial++ ) {
+                AllocationTest test = new AllocationTest();
+                test.setup(desc.info.factory,op.gen,op.name,op.size,config.minTestTimeMilli);
+                test.setTrack(op.track);
+                test.setRandomSeed(config.seed+trial);
+
+                EvaluatorSlave.Results r = tool.runTest(test);
+
+                if( r == null || r.failed != null ) {
+                    System.out.println("Failed!");
+                    logStream.println("FAILED: operation "+op.displayName+" "+(r == null ? "" : r.failed));
+                    if( r != null && r.detailedError != null )
+                        logStream.println(r.detailedError);
+                    results.numFailed++;
+                    break;
+                }
+
+                AllocationTest.Results a = (AllocationTest.Results)r.getResults();
+                // operation isn't supported by the library
+                if( a.bytesPerOp < 0 )
+                    break;
+
+                System.out.printf(" trial %d  %.1f bytes/op\n",trial,a.bytesPerOp);
+                results.results.add(a.bytesPerOp);
+            }
+
+            if( !results.results.isEmpty() || results.numFailed > 0 )
+                UtilXmlSerialization.serializeXml(results,libDir+"/"+op.displayName+".xml");
+        }
+
+        tool.shutdownPooled();
+        logStream.close();
+    }
+
+    /**
+     * Operations which are enabled in the configuration.  SVD is tested on a smaller matrix since it's much
+     * more expensive.
+     */
+    static List<Operation> createOperations( MemoryConfig config , int size ) {
+        List<Operation> ops = new ArrayList<Operation>();
+
+        if( config.add )
+            ops.add(new Operation("add","add",new AddGenerator(),size));
+        if( config.mult )
+            ops.add(new Operation("mult","mult",new MultGenerator(),size));
+        if( config.multTransB )
+            ops.add(new Operation("multTransB","multTransB",new MultTranBGenerator(),size));
+        if( config.solveLinear )
+            ops.add(new Operation("solveExact","solveExact",new SolveEqGenerator(),size));
+        if( config.solveLS )
+            ops.add(new Operation("solveOver","solveOver",new SolveOverGenerator(),size));
+        if( config.invSymmPosDef )
+            ops.add(new Operation("invertSymmPosDef","invertSymmPosDef",new InvertSymmPosDefGenerator(),size));
+        if( config.svd )
+            ops.add(new Operation("svd","svd",new SvdGenerator(),Math.max(1,size/2)));
+        if( config.eig )
+            ops.add(new Operation("eigSymm","eigSymm",new EigSymmGenerator(),size));
+        if( config.sparse ) {
+            RandomSparseMatrices.Pattern pattern = RandomSparseMatrices.Pattern.RANDOM;
+            int nz = config.sparseNonZerosPerRow;
+            OperationTrack sparse = OperationTrack.SPARSE;
+            ops.add(new Operation("multVector","sparseMultVector",sparse,new SparseMultVectorGenerator(pattern,nz),size));
+            ops.add(new Operation("mult","sparseMult",sparse,new SparseMultGenerator(pattern,nz),size));
+            ops.add(new Operation("solveCholesky","sparseSolveChol",sparse,new SparseSolveGenerator(pattern,nz,true),size));
+            ops.add(new Operation("solveLU","sparseSolveLU",sparse,new SparseSolveGenerator(pattern,nz,false),size));
+            ops.add(new Operation("solveQR","sparseSolveQR",sparse,new SparseSolveGenerator(pattern,nz,false),size));
+            ops.add(new Operation("transpose","sparseTranspose",sparse,new SparseTransposeGenerator(pattern,nz),size));
+        }
+
+        return ops;
+    }
+
+    private void saveMatrixSize( String fileName , int size ) {
+        try {
+            PrintStream out = new PrintStream(fileName);
+            out.println(size);
+            out.close();
+        } catch (FileNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static class Operation {
+        String name;
+        String displayName;
+        // which factory the operation is found in
+        OperationTrack track;
+        InputOutputGenerator gen;
+        int size;
+
+        public Operation(String name, String displayName, OperationTrack track, InputOutputGenerator gen, int size) {
+            this.name = name;
+            this.displayName = displayName;
+            this.track = track;
+            this.gen = gen;
+            this.size = size;
+        }
+
+        public Operation(String name, String displayName, InputOutputGenerator gen, int size) {
+            this(name,displayName,OperationTrack.DENSE,gen,size);
+        }
+    }
+
+    public static void printHelp() {
+        System.out.println("The following options are valid for allocation benchmark:");
+        System.out.println("  --Config=<file>          |  Configure using the specified xml file.");
+        System.out.println("  --Library=<lib>          |  To run a specific library only.  --Library=? will print a list");
+        System.out.println("  --Size=<n,...>           |  Matrix sizes which are tested.");
+        System.out.println("  --MinTimeMS=<ms>         |  An operation is repeated until it takes at least this long.");
+        System.out.println("  --Sparse=<true|false>    |  Also measure sparse operations on random sparse matrices.");
+    }
+
+    public static void main( String args[] ) {
+        boolean failed = false;
+        LibraryManager manager = new LibraryManager();
+        MemoryConfig config = MemoryConfig.createAllocationDefault();
+        config.libraries = manager.getDefaults();
+
+        System.out.println("** Parsing Command Line **");
+        System.out.println();
+        for( int i = 0; i < args.length && !failed; i++ ) {
+            String splits[] = args[i].split("=");
+
+            String flag = splits[0];
+            if( flag.length() < 2 || splits.length != 2 ) {failed = true; break;}
+
+            flag = flag.substring(2);
+
+            if( flag.compareTo("Config") == 0 ) {
+                System.out.println("Loading config: "+splits[1]);
+                config = UtilXmlSerialization.deserializeXml(splits[1]);
+            } else if( flag.compareTo("Library") == 0 ) {
+                String[] libs = splits[1].split(",");
+
+                config.libraries.clear();
+
+                for (int j = 0; j < libs.length; j++) {
+                    LibraryDescription match = manager.lookup(libs[j]);
+                    if( match == null ) {
+                        failed = true;
+                        manager.printAllNames();
+                        break;
+                    }
+                    config.libraries.add(match);
+                }
+            } else if( flag.compareTo("Size") == 0 ) {
+                String[] sizes = splits[1].split(",");
+                config.matrixSizes = new int[sizes.length];
+                for (int j = 0; j < sizes.length; j++) {
+                    config.matrixSizes[j] = Integer.parseInt(sizes[j]);
+                }
+            } else if( flag.compareTo("MinTimeMS") == 0 ) {
+                config.minTestTimeMilli = Long.parseLong(splits[1]);
+            } else if( flag.compareTo("Sparse") == 0 ) {
+                config.sparse = Boolean.parseBoolean(splits[1]);
+            } else {
+                failed = true;
+            }
+        }
+        if( failed ) {
+            printHelp();
+        } else {
+            new AllocationBenchmark().performBenchmark(config);
+        }
+    }
+}
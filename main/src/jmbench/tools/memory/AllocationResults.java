@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmbench.tools.memory;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Number of bytes a library allocated each time it performed an operation.  One is saved for each library,
+ * operation, and matrix size.
+ *
+ * @author Peter Abeles
+ */
+public class AllocationResults implements Serializable {
+    String nameLibrary;
+    String nameOperation;
+    String displayName;
+    int matrixSize;
+
+    // bytes allocated per operation from each trial
+    List<Double> results = new ArrayList<Double>();
+    int numFailed;
+
+    public void printStatistics() {
+        if( results.size() == 0 ) {
+            System.out.println("No data to print!");
+            return;
+        }
+        Collections.sort(results);
+
+        double min = results.get(0);
+        double max = results.get(results.size()-1);
+        System.out.printf(" min %12.1f max %12.1f (bytes/op)\n",min,max);
+    }
+
+    /**
+     * The smallest number of bytes allocated per operation across all the trials.  Allocations by the JVM
+     * itself can only make the number larger, so the minimum is the best estimate.
+     */
+    public double getBytesPerOp() {
+        return Collections.min(results);
+    }
+
+    public String getNameLibrary() {
+        return nameLibrary;
+    }
+
+    public void setNameLibrary(String nameLibrary) {
+        this.nameLibrary = nameLibrary;
+    }
+
+    public String getNameOperation() {
+        return nameOperation;
+    }
+
+    public void setNameOperation(String nameOperation) {
+        this.nameOperation = nameOperation;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public void setDisplayName(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public int getMatrixSize() {
+        return matrixSize;
+    }
+
+    public void setMatrixSize(int matrixSize) {
+        this.matrixSize = matrixSize;
+    }
+
+    public List<Double> getResults() {
+        return results;
+    }
+
+    public void setResults(List<Double> results) {
+        this.results = results;
+    }
+
+    public int getNumFailed() {
+        return numFailed;
+    }
+
+    public void setNumFailed(int numFailed) {
+        this.numFailed = numFailed;
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.tools.memory;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.MatrixProcessorInterface;
+import jmbench.interfaces.RuntimePerformanceFactory;
+import jmbench.tools.EvaluationTest;
+import jmbench.tools.TestResults;
+import jmbench.tools.runtime.GcMonitor;
+import jmbench.tools.runtime.InputOutputGenerator;
+import jmbench.tools.runtime.OperationTrack;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Random;
+
+
+/**
+ * <p>
+ * Measures how many bytes an operation allocates each time it's called.  The number of bytes allocated by
+ * every thread in the JVM is recorded before and after the operation is run, so memory allocated by threads
+ * a library spawns is included.  Threads which are created and die while the operation is running are missed.
+ * </p>
+ *
+ * <p>
+ * The operation is first run until it takes at least the minimum test time, which also warms up the JIT.
+ * This matters since escape analysis can remove allocations once the code has been compiled.  Memory allocated
+ * once each time the operation is called, such as the output matrix, is excluded by running it twice as many times
+ * and using the difference.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class AllocationTest extends EvaluationTest {
+
+    String nameFactory;
+    InputOutputGenerator gen;
+    String nameOperation;
+    // which factory the operation is found in
+    OperationTrack track = OperationTrack.DENSE;
+    int size;
+    // the operation is repeated until it takes at least this long (ms)
+    long minTestTimeMS;
+
+    transient volatile RuntimePerformanceFactory factory;
+
+    public void setup( String nameFactory ,
+                       InputOutputGenerator gen ,
+                       String nameOperation , int size , long minTestTimeMS ) {
+        this.nameFactory = nameFactory;
+        this.gen = gen;
+        this.nameOperation = nameOperation;
+        this.size = size;
+        this.minTestTimeMS = minTestTimeMS;
+    }
+
+    @Override
+    public void init() {
+        try {
+            factory = (RuntimePerformanceFactory)Class.forName(nameFactory).newInstance();
+        } catch (InstantiationException | IllegalAccessException | ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void setupTest() {}
+
+    @Override
+    public void printInfo() {}
+
+    @Override
+    public long getInputMemorySize() {
+        return -1;
+    }
+
+    @Override
+    public TestResults evaluate() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        if( !threads.isThreadAllocatedMemorySupported() )
+            throw new RuntimeException("JVM doesn't support measuring allocated memory");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        Random rand = new Random(randomSeed);
+        BenchmarkMatrix []inputs = gen.createInputs(factory,rand, size);
+
+        MatrixProcessorInterface operation = createAlgorithm();
+
+        // see if the operation is supported
+        if( operation == null ) {
+            return new Results(-1,0);
+        }
+
+        // find the number of operations needed to meet the minimum time and warm up the JIT
+        long goalNS = minTestTimeMS*1_000_000;
+        long numOps = 1;
+        while( true ) {
+            // output is null since that would require creating new memory, which isn't part of the operation
+            long elapsedNS = operation.process(inputs,null,numOps);
+            if( elapsedNS >= goalNS )
+                break;
+            numOps = Math.max(numOps*2,(long)Math.ceil(1.1*goalNS*numOps/(double)Math.max(1,elapsedNS)));
+        }
+
+        // Each call to process can allocate memory while setting up, e.g. the output matrix.  That memory
+        // isn't part of the operation so the number of operations is doubled and the difference used
+        long single = measure(threads,operation,inputs,numOps);
+        long doubled = measure(threads,operation,inputs,2*numOps);
+
+        return new Results(Math.max(0,doubled-single)/(double)numOps,numOps);
+    }
+
+    /**
+     * Total bytes allocated by all threads while the operation is run the specified number of times
+     */
+    private static long measure( com.sun.management.ThreadMXBean threads ,
+                                 MatrixProcessorInterface operation ,
+                                 BenchmarkMatrix []inputs , long numOps ) {
+        // memory allocated when nothing is done, e.g. from reading the allocated memory
+        Map<Long,Long> before = GcMonitor.allocatedBytes(threads);
+        long overhead = GcMonitor.totalSince(threads,before);
+
+        before = GcMonitor.allocatedBytes(threads);
+        operation.process(inputs,null,numOps);
+        return GcMonitor.totalSince(threads,before) - overhead;
+    }
+
+    public static class Results implements TestResults
+    {
+        // bytes allocated each time the operation is called. -1 if not supported
+        double bytesPerOp;
+        // number of times the operation was called while measuring
+        long numOps;
+
+        public Results(double bytesPerOp, long numOps) {
+            this.bytesPerOp = bytesPerOp;
+            this.numOps = numOps;
+        }
+
+        public Results() {
+        }
+
+        public double getBytesPerOp() {
+            return bytesPerOp;
+        }
+
+        public void setBytesPerOp(double bytesPerOp) {
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        public long getNumOps() {
+            return numOps;
+        }
+
+        public void setNumOps(long numOps) {
+            this.numOps = numOps;
+        }
+    }
+
+    private MatrixProcessorInterface createAlgorithm() {
+        return track.createAlgorithm(factory,nameOperation);
+    }
+
+    public String getNameFactory() {
+        return nameFactory;
+    }
+
+    public void setNameFactory(String nameFactory) {
+        this.nameFactory = nameFactory;
+    }
+
+    public OperationTrack getTrack() {
+        return track;
+    }
+
+    public void setTrack(OperationTrack track) {
+        this.track = track;
+    }
+
+    public String getNameOperation() {
+        return nameOperation;
+    }
+
+    public void setNameOperation(String nameOperation) {
+        this.nameOperation = nameOperation;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public InputOutputGenerator getGen() {
+        return gen;
+    }
+
+    public void setGen(InputOutputGenerator gen) {
+        this.gen = gen;
+    }
+
+    public long getMinTestTimeMS() {
+        return minTestTimeMS;
+    }
+
+    public void setMinTestTimeMS(long minTestTimeMS) {
+        this.minTestTimeMS = minTestTimeMS;
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmbench.tools.memory;
+
+import jmbench.impl.LibraryDescription;
+import jmbench.impl.LibraryManager;
+import jmbench.tools.BenchmarkTools;
+import jmbench.tools.EvaluatorSlave;
+import jmbench.tools.MiscTools;
+import jmbench.tools.SystemInfo;
+import jmbench.tools.stability.UtilXmlSerialization;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * <p>
+ * Looks for memory leaks by having each library perform the same operation over and over for several minutes
+ * while the memory it retains is sampled by {@link LeakTest}.  Any library and operation whose live heap, RSS,
+ * or native memory is still growing faster than the threshold at the end is flagged.  Caches which grow without
+ * bound are the usual culprit, so the matrix size is changed between calls.
+ * </p>
+ *
+ * <p>
+ * Results are saved in a directory for each library, one {@link LeakResults} file for each operation and a
+ * text report.  A summary of all the flagged operations is saved in the root directory.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LeakBenchmark {
+
+    public static final String REPORT_NAME = "leak_report.txt";
+
+    String directorySave;
+
+    public LeakBenchmark() {
+        directorySave = MiscTools.selectDirectoryName("leak");
+    }
+
+    public LeakBenchmark( String directory ) {
+        this.directorySave = directory;
+    }
+
+    public void performBenchmark( MemoryConfig config ) {
+        System.out.println("Setting up results directory");
+        File dir = new File(directorySave);
+        if( !dir.exists() ) {
+            if( !dir.mkdirs() ) {
+                throw new IllegalArgumentException("Can't make directories to save results.");
+            }
+        }
+
+        SystemInfo info = new SystemInfo();
+        info.grabCurrentInfo();
+
+        UtilXmlSerialization.serializeXml(info,directorySave+"/info.xml");
+        UtilXmlSerialization.serializeXml(config,directorySave+"/config.xml");
+
+        long startTime = System.currentTimeMillis();
+
+        MemoryBenchmark.saveLibraryDescriptions(directorySave,config.libraries);
+
+        List<LeakResults> leaks = new ArrayList<LeakResults>();
+        for( LibraryDescription desc : config.libraries ) {
+            List<LeakResults> results = processLibrary(config,desc,directorySave+"/"+desc.info.outputDirectory());
+            for( LeakResults r : results ) {
+                if( r.isLeaking() )
+                    leaks.add(r);
+            }
+            System.out.println("Finished Library Benchmark");
+            System.out.println();
+        }
+
+        saveReport(directorySave+"/"+REPORT_NAME,"Leaking Operations in All Libraries",config,leaks);
+
+        System.out.println("Finished Benchmark");
+        System.out.println("Operations with leaks: "+leaks.size());
+        System.out.println("Elapsed time "+MiscTools.milliToHuman(System.currentTimeMillis()-startTime)+"\n");
+        MiscTools.sendFinishedEmail("Leak",startTime);
+    }
+
+    private List<LeakResults> processLibrary( MemoryConfig config , LibraryDescription desc , String libDir ) {
+        new File(libDir).mkdirs();
+
+        PrintStream logStream;
+        try {
+            logStream = new PrintStream(libDir+"/log.txt");
+        } catch (FileNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+
+        BenchmarkTools tool = new BenchmarkTools(desc.listOfJarFilePaths());
+        tool.setVerbose(false);
+        tool.setOverrideMemory(config.memoryMaxMB);
+        tool.setFrozenTimeMS(config.leakDurationMilli+config.maxTestTimeMilli);
+        tool.setErrorStream(logStream);
+        // Touch every page of the heap on startup.  Otherwise RSS keeps growing as new parts of the heap are used
+        // and it looks like a leak
+        tool.setJvmExtraArgs(Collections.singletonList("-XX:+AlwaysPreTouch"));
+
+        String libraryName = desc.info.getNamePlot();
+
+        List<LeakResults> all = new ArrayList<LeakResults>();
+        for( AllocationBenchmark.Operation op : AllocationBenchmark.createOperations(config,0) ) {
+            LeakResults results = new LeakResults();
+            results.nameLibrary = libraryName;
+            results.nameOperation = op.name;
+            results.displayName = op.displayName;
+            results.matrixSizes = config.matrixSizes;
+
+            System.out.println(libraryName+" operation "+op.displayName);
+
+            LeakTest test = new LeakTest();
+            test.setup(desc.info.factory,op.gen,op.name,config.matrixSizes,
+                    config.leakDurationMilli,config.leakSampleMilli);
+            test.setTrack(op.track);
+            test.setRandomSeed(config.seed);
+
+            EvaluatorSlave.Results r = tool.runTest(test);
+
+            if( r == null || r.failed != null ) {
+                System.out.println("Failed!");
+                logStream.println("FAILED: operation "+op.displayName+" "+(r == null ? "" : r.failed));
+                if( r != null && r.detailedError != null )
+                    logStream.println(r.detailedError);
+                results.numFailed++;
+            } else {
+                LeakTest.Results a = (LeakTest.Results)r.getResults();
+                // operation isn't supported by the library
+                if( !a.supported )
+                    continue;
+
+                results.timeMS = Arrays.copyOf(a.timeMS,a.numSamples);
+                results.heapBytes = Arrays.copyOf(a.heapBytes,a.numSamples);
+                results.rssBytes = Arrays.copyOf(a.rssBytes,a.numSamples);
+                results.nativeBytes = Arrays.copyOf(a.nativeBytes,a.numSamples);
+                results.numOps = a.numOps;
+                results.analyze(config.leakThresholdBytesPerMinute);
+
+                System.out.printf(" heap %.3f  rss %.3f  native %.3f (MB/min) %s\n",
+                        toMB(results.heapSlope),toMB(results.rssSlope),toMB(results.nativeSlope),
+                        results.isLeaking() ? "LEAK" : "");
+            }
+
+            UtilXmlSerialization.serializeXml(results,libDir+"/"+op.displayName+".xml");
+            all.add(results);
+        }
+
+        saveReport(libDir+"/"+REPORT_NAME,libraryName,config,all);
+
+        tool.shutdownPooled();
+        logStream.close();
+
+        return all;
+    }
+
+    /**
+     * Saves a table showing how fast memory grew for each operation and which ones are leaking
+     */
+    public static void saveReport( String fileName , String title , MemoryConfig config ,
+                                   List<LeakResults> results ) {
+        PrintStream out;
+        try {
+            out = new PrintStream(fileName);
+        } catch (FileNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+
+        out.println("Memory Leak Report: "+title);
+        out.printf("Duration %s  Sizes %s  Threshold %.3f MB/min\n",
+                MiscTools.milliToHuman(config.leakDurationMilli),Arrays.toString(config.matrixSizes),
+                toMB(config.leakThresholdBytesPerMinute));
+        out.println();
+        if( results.isEmpty() ) {
+            out.println("No operations");
+            out.close();
+            return;
+        }
+        out.printf("%-12s %-18s %12s %12s %12s %14s  %s\n",
+                "Library","Operation","Calls","Heap MB/min","RSS MB/min","Native MB/min","Leak");
+        for( LeakResults r : results ) {
+            if( r.numFailed > 0 ) {
+                out.printf("%-12s %-18s FAILED\n",r.nameLibrary,r.displayName);
+                continue;
+            }
+            String leak = (r.heapLeak ? "heap " : "")+(r.rssLeak ? "rss " : "")+(r.nativeLeak ? "native" : "");
+            out.printf("%-12s %-18s %12d %12.3f %12.3f %14.3f  %s\n",r.nameLibrary,r.displayName,r.numOps,
+                    toMB(r.heapSlope),toMB(r.rssSlope),toMB(r.nativeSlope),leak.trim());
+        }
+        out.close();
+    }
+
+    private static double toMB( double bytes ) {
+        return bytes/(1024.0*1024.0);
+    }
+
+    public static void printHelp() {
+        System.out.println("The following options are valid for leak benchmark:");
+        System.out.println("  --Config=<file>          |  Configure using the specified xml file.");
+        System.out.println("  --Library=<lib>          |  To run a specific library only.  --Library=? will print a list");
+        System.out.println("  --Size=<n,...>           |  Matrix sizes which are randomly selected between calls.");
+        System.out.println("  --Duration=<time|unit>   |  How long each operation is run for. "+MiscTools.stringTimeArgumentHelp());
+        System.out.println("  --SampleMS=<ms>          |  How often retained memory is sampled.");
+        System.out.println("  --ThresholdKB=<kb>       |  Memory growing faster than this many KB per minute is a leak.");
+    }
+
+    public static void main( String args[] ) {
+        boolean failed = false;
+        LibraryManager manager = new LibraryManager();
+        MemoryConfig config = MemoryConfig.createLeakDefault();
+        config.libraries = manager.getDefaults();
+
+        System.out.println("** Parsing Command Line **");
+        System.out.println();
+        for( int i = 0; i < args.length && !failed; i++ ) {
+            String splits[] = args[i].split("=");
+
+            String flag = splits[0];
+            if( flag.length() < 2 || splits.length != 2 ) {failed = true; break;}
+
+            flag = flag.substring(2);
+
+            if( flag.compareTo("Config") == 0 ) {
+                System.out.println("Loading config: "+splits[1]);
+                config = UtilXmlSerialization.deserializeXml(splits[1]);
+            } else if( flag.compareTo("Library") == 0 ) {
+                String[] libs = splits[1].split(",");
+
+                config.libraries.clear();
+
+                for (int j = 0; j < libs.length; j++) {
+                    LibraryDescription match = manager.lookup(libs[j]);
+                    if( match == null ) {
+                        failed = true;
+                        manager.printAllNames();
+                        break;
+                    }
+                    config.libraries.add(match);
+                }
+            } else if( flag.compareTo("Size") == 0 ) {
+                String[] sizes = splits[1].split(",");
+                config.matrixSizes = new int[sizes.length];
+                for (int j = 0; j < sizes.length; j++) {
+                    config.matrixSizes[j] = Integer.parseInt(sizes[j]);
+                }
+            } else if( flag.compareTo("Duration") == 0 ) {
+                config.leakDurationMilli = MiscTools.parseTime(splits[1]);
+            } else if( flag.compareTo("SampleMS") == 0 ) {
+                config.leakSampleMilli = Long.parseLong(splits[1]);
+            } else if( flag.compareTo("ThresholdKB") == 0 ) {
+                config.leakThresholdBytesPerMinute = Long.parseLong(splits[1])*1024;
+            } else {
+                failed = true;
+            }
+        }
+        if( failed ) {
+            printHelp();
+        } else {
+            new LeakBenchmark().performBenchmark(config);
+        }
+    }
+}
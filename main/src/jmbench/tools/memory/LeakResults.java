@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmbench.tools.memory;
+
+import java.io.Serializable;
+
+
+/**
+ * <p>
+ * Memory retained by a library while it repeatedly performed an operation.  One is saved for each library and
+ * operation by {@link LeakBenchmark}.
+ * </p>
+ *
+ * <p>
+ * A line is fit to each type of memory to find how fast it grows.  The first part of the test is skipped since
+ * the JIT, class loading, and caches filling up will all increase memory at the start.  Memory which is
+ * still growing at the end is what matters, so the slope is also found for the second half of what's left
+ * and both need to exceed the threshold for it to be considered a leak.  This prevents a cache which fills
+ * up part way through from being flagged.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LeakResults implements Serializable {
+    // fraction of the samples at the start which are skipped when fitting a line
+    public static final double WARMUP_FRACTION = 0.2;
+    // minimum number of samples needed to fit a line
+    public static final int MIN_SAMPLES = 4;
+
+    String nameLibrary;
+    String nameOperation;
+    String displayName;
+    int[] matrixSizes;
+
+    // sampled memory.  See LeakTest.Results
+    long[] timeMS;
+    long[] heapBytes;
+    long[] rssBytes;
+    long[] nativeBytes;
+    long numOps;
+
+    // how fast each type of memory grew after the warmup (bytes per minute).  NaN if there isn't enough data
+    double heapSlope = Double.NaN;
+    double rssSlope = Double.NaN;
+    double nativeSlope = Double.NaN;
+
+    // true if memory was still growing faster than the threshold at the end of the test
+    boolean heapLeak;
+    boolean rssLeak;
+    boolean nativeLeak;
+
+    int numFailed;
+
+    /**
+     * Fits lines to the sampled memory and decides which types of memory are leaking
+     *
+     * @param thresholdBytesPerMinute Memory growing faster than this is considered a leak
+     */
+    public void analyze( double thresholdBytesPerMinute ) {
+        int N = timeMS == null ? 0 : timeMS.length;
+        int start = (int)(N*WARMUP_FRACTION);
+        int middle = start + (N-start)/2;
+
+        heapSlope = slope(timeMS,heapBytes,start,N);
+        rssSlope = slope(timeMS,rssBytes,start,N);
+        nativeSlope = slope(timeMS,nativeBytes,start,N);
+
+        heapLeak = isLeak(heapSlope,slope(timeMS,heapBytes,middle,N),thresholdBytesPerMinute);
+        rssLeak = isLeak(rssSlope,slope(timeMS,rssBytes,middle,N),thresholdBytesPerMinute);
+        nativeLeak = isLeak(nativeSlope,slope(timeMS,nativeBytes,middle,N),thresholdBytesPerMinute);
+    }
+
+    private static boolean isLeak( double slope , double slopeEnd , double threshold ) {
+        return slope > threshold && slopeEnd > threshold;
+    }
+
+    /**
+     * Least-squares slope of the values against time.  Negative values are treated as missing.
+     *
+     * @param start First sample, inclusive
+     * @param end Last sample, exclusive
+     * @return slope in bytes per minute or NaN if there are too few samples
+     */
+    public static double slope( long[] timeMS , long[] values , int start , int end ) {
+        if( values == null )
+            return Double.NaN;
+
+        int count = 0;
+        double meanT = 0, meanV = 0;
+        for (int i = start; i < end; i++) {
+            if( values[i] < 0 )
+                continue;
+            meanT += timeMS[i]/60000.0;
+            meanV += values[i];
+            count++;
+        }
+        if( count < MIN_SAMPLES )
+            return Double.NaN;
+        meanT /= count;
+        meanV /= count;
+
+        double top = 0, bottom = 0;
+        for (int i = start; i < end; i++) {
+            if( values[i] < 0 )
+                continue;
+            double dt = timeMS[i]/60000.0 - meanT;
+            top += dt*(values[i]-meanV);
+            bottom += dt*dt;
+        }
+        return bottom == 0 ? Double.NaN : top/bottom;
+    }
+
+    /**
+     * True if any type of memory is leaking
+     */
+    public boolean isLeaking() {
+        return heapLeak || rssLeak || nativeLeak;
+    }
+
+    public String getNameLibrary() {
+        return nameLibrary;
+    }
+
+    public void setNameLibrary(String nameLibrary) {
+        this.nameLibrary = nameLibrary;
+    }
+
+    public String getNameOperation() {
+        return nameOperation;
+    }
+
+    public void setNameOperation(String nameOperation) {
+        this.nameOperation = nameOperation;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public void setDisplayName(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public int[] getMatrixSizes() {
+        return matrixSizes;
+    }
+
+    public void setMatrixSizes(int[] matrixSizes) {
+        this.matrixSizes = matrixSizes;
+    }
+
+    public long[] getTimeMS() {
+        return timeMS;
+    }
+
+    public void setTimeMS(long[] timeMS) {
+        this.timeMS = timeMS;
+    }
+
+    public long[] getHeapBytes() {
+        return heapBytes;
+    }
+
+    public void setHeapBytes(long[] heapBytes) {
+        this.heapBytes = heapBytes;
+    }
+
+    public long[] getRssBytes() {
+        return rssBytes;
+    }
+
+    public void setRssBytes(long[] rssBytes) {
+        this.rssBytes = rssBytes;
+    }
+
+    public long[] getNativeBytes() {
+        return nativeBytes;
+    }
+
+    public void setNativeBytes(long[] nativeBytes) {
+        this.nativeBytes = nativeBytes;
+    }
+
+    public long getNumOps() {
+        return numOps;
+    }
+
+    public void setNumOps(long numOps) {
+        this.numOps = numOps;
+    }
+
+    public double getHeapSlope() {
+        return heapSlope;
+    }
+
+    public void setHeapSlope(double heapSlope) {
+        this.heapSlope = heapSlope;
+    }
+
+    public double getRssSlope() {
+        return rssSlope;
+    }
+
+    public void setRssSlope(double rssSlope) {
+        this.rssSlope = rssSlope;
+    }
+
+    public double getNativeSlope() {
+        return nativeSlope;
+    }
+
+    public void setNativeSlope(double nativeSlope) {
+        this.nativeSlope = nativeSlope;
+    }
+
+    public boolean isHeapLeak() {
+        return heapLeak;
+    }
+
+    public void setHeapLeak(boolean heapLeak) {
+        this.heapLeak = heapLeak;
+    }
+
+    public boolean isRssLeak() {
+        return rssLeak;
+    }
+
+    public void setRssLeak(boolean rssLeak) {
+        this.rssLeak = rssLeak;
+    }
+
+    public boolean isNativeLeak() {
+        return nativeLeak;
+    }
+
+    public void setNativeLeak(boolean nativeLeak) {
+        this.nativeLeak = nativeLeak;
+    }
+
+    public int getNumFailed() {
+        return numFailed;
+    }
+
+    public void setNumFailed(int numFailed) {
+        this.numFailed = numFailed;
+    }
+}
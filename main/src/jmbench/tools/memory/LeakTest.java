@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmbench.tools.memory;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.MatrixProcessorInterface;
+import jmbench.interfaces.RuntimePerformanceFactory;
+import jmbench.tools.EvaluationTest;
+import jmbench.tools.TestResults;
+import jmbench.tools.runtime.InputOutputGenerator;
+import jmbench.tools.runtime.OperationTrack;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Random;
+
+
+/**
+ * <p>
+ * Repeatedly calls an operation for a fixed amount of time and periodically samples how much memory is retained.
+ * The matrix size is selected at random before each call so that caches which are indexed by size get exercised.
+ * Before each sample the garbage collector is run until the heap stops shrinking, so only memory which is
+ * still referenced is counted.
+ * </p>
+ *
+ * <p>
+ * Three values are sampled.  The live heap, the process's resident set size (RSS) read from /proc, and memory the
+ * JVM knows about outside of the heap, i.e. non-heap pools like metaspace plus direct and mapped buffers.  Memory
+ * allocated by native code which the JVM doesn't know about only shows up in RSS.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LeakTest extends EvaluationTest {
+
+    String nameFactory;
+    InputOutputGenerator gen;
+    String nameOperation;
+    // which factory the operation is found in
+    OperationTrack track = OperationTrack.DENSE;
+    int[] sizes;
+    // how long the operation is run for (ms)
+    long durationMS;
+    // how often memory is sampled (ms)
+    long sampleMS;
+
+    transient volatile RuntimePerformanceFactory factory;
+
+    public void setup( String nameFactory ,
+                       InputOutputGenerator gen ,
+                       String nameOperation , int[] sizes ,
+                       long durationMS , long sampleMS ) {
+        this.nameFactory = nameFactory;
+        this.gen = gen;
+        this.nameOperation = nameOperation;
+        this.sizes = sizes;
+        this.durationMS = durationMS;
+        this.sampleMS = sampleMS;
+    }
+
+    @Override
+    public void init() {
+        try {
+            factory = (RuntimePerformanceFactory)Class.forName(nameFactory).newInstance();
+        } catch (InstantiationException | IllegalAccessException | ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void setupTest() {}
+
+    @Override
+    public void printInfo() {}
+
+    @Override
+    public long getInputMemorySize() {
+        return -1;
+    }
+
+    @Override
+    public TestResults evaluate() {
+        MatrixProcessorInterface operation = createAlgorithm();
+
+        // see if the operation is supported
+        if( operation == null ) {
+            return new Results();
+        }
+
+        // inputs are created once so that they are part of the baseline and not mistaken for a leak
+        Random rand = new Random(randomSeed);
+        BenchmarkMatrix[][] inputs = new BenchmarkMatrix[sizes.length][];
+        for (int i = 0; i < sizes.length; i++) {
+            inputs[i] = gen.createInputs(factory,rand,sizes[i]);
+        }
+
+        int numSamples = (int)(durationMS/sampleMS)+1;
+        Results results = new Results(numSamples);
+
+        long startTime = System.currentTimeMillis();
+        long nextSample = startTime;
+        while( true ) {
+            long time = System.currentTimeMillis();
+            if( time >= nextSample ) {
+                results.add(time-startTime);
+                if( results.numSamples >= numSamples )
+                    break;
+                nextSample += sampleMS;
+            }
+
+            // output is null so that the last result isn't retained by the test
+            operation.process(inputs[rand.nextInt(sizes.length)],null,1);
+            results.numOps++;
+        }
+
+        return results;
+    }
+
+    /**
+     * Runs the garbage collector until the amount of memory used by the heap stops going down
+     */
+    private static long liveHeap( MemoryMXBean memory ) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            memory.gc();
+            long used = memory.getHeapMemoryUsage().getUsed();
+            if( used >= best )
+                break;
+            best = used;
+        }
+        return best;
+    }
+
+    /**
+     * Memory the JVM tracks outside of the heap
+     */
+    private static long nativeMemory( MemoryMXBean memory ) {
+        long total = memory.getNonHeapMemoryUsage().getUsed();
+        for( BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class) ) {
+            total += Math.max(0,pool.getMemoryUsed());
+        }
+        return total;
+    }
+
+    /**
+     * Resident set size of this process read from /proc/self/status
+     *
+     * @return size in bytes or -1 if not available
+     */
+    private static long residentSetSize() {
+        try( BufferedReader input = new BufferedReader(new FileReader("/proc/self/status")) ) {
+            String line;
+            while( (line = input.readLine()) != null ) {
+                if( line.startsWith("VmRSS:") ) {
+                    String[] words = line.substring(6).trim().split("\\s+");
+                    return Long.parseLong(words[0])*1024;
+                }
+            }
+        } catch( IOException | NumberFormatException e ) {
+            return -1;
+        }
+        return -1;
+    }
+
+    public static class Results implements TestResults
+    {
+        // is the operation supported by the library
+        boolean supported;
+        // number of samples which have been recorded
+        int numSamples;
+        // time each sample was recorded at (ms) since the start of the test
+        long[] timeMS;
+        // live heap after garbage collection (bytes)
+        long[] heapBytes;
+        // resident set size of the process (bytes).  -1 if not available
+        long[] rssBytes;
+        // memory used by the JVM outside of the heap (bytes)
+        long[] nativeBytes;
+        // number of times the operation was called
+        long numOps;
+
+        public Results( int maxSamples ) {
+            supported = true;
+            timeMS = new long[maxSamples];
+            heapBytes = new long[maxSamples];
+            rssBytes = new long[maxSamples];
+            nativeBytes = new long[maxSamples];
+        }
+
+        public Results() {
+        }
+
+        /**
+         * Samples the amount of memory retained by the process
+         */
+        public void add( long elapsedMS ) {
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            timeMS[numSamples] = elapsedMS;
+            heapBytes[numSamples] = liveHeap(memory);
+            nativeBytes[numSamples] = nativeMemory(memory);
+            rssBytes[numSamples] = residentSetSize();
+            numSamples++;
+        }
+
+        public boolean isSupported() {
+            return supported;
+        }
+
+        public void setSupported(boolean supported) {
+            this.supported = supported;
+        }
+
+        public int getNumSamples() {
+            return numSamples;
+        }
+
+        public void setNumSamples(int numSamples) {
+            this.numSamples = numSamples;
+        }
+
+        public long[] getTimeMS() {
+            return timeMS;
+        }
+
+        public void setTimeMS(long[] timeMS) {
+            this.timeMS = timeMS;
+        }
+
+        public long[] getHeapBytes() {
+            return heapBytes;
+        }
+
+        public void setHeapBytes(long[] heapBytes) {
+            this.heapBytes = heapBytes;
+        }
+
+        public long[] getRssBytes() {
+            return rssBytes;
+        }
+
+        public void setRssBytes(long[] rssBytes) {
+            this.rssBytes = rssBytes;
+        }
+
+        public long[] getNativeBytes() {
+            return nativeBytes;
+        }
+
+        public void setNativeBytes(long[] nativeBytes) {
+            this.nativeBytes = nativeBytes;
+        }
+
+        public long getNumOps() {
+            return numOps;
+        }
+
+        public void setNumOps(long numOps) {
+            this.numOps = numOps;
+        }
+    }
+
+    private MatrixProcessorInterface createAlgorithm() {
+        return track.createAlgorithm(factory,nameOperation);
+    }
+
+    public String getNameFactory() {
+        return nameFactory;
+    }
+
+    public void setNameFactory(String nameFactory) {
+        this.nameFactory = nameFactory;
+    }
+
+    public OperationTrack getTrack() {
+        return track;
+    }
+
+    public void setTrack(OperationTrack track) {
+        this.track = track;
+    }
+
+    public String getNameOperation() {
+        return nameOperation;
+    }
+
+    public void setNameOperation(String nameOperation) {
+        this.nameOperation = nameOperation;
+    }
+
+    public int[] getSizes() {
+        return sizes;
+    }
+
+    public void setSizes(int[] sizes) {
+        this.sizes = sizes;
+    }
+
+    public InputOutputGenerator getGen() {
+        return gen;
+    }
+
+    public void setGen(InputOutputGenerator gen) {
+        this.gen = gen;
+    }
+
+    public long getDurationMS() {
+        return durationMS;
+    }
+
+    public void setDurationMS(long durationMS) {
+        this.durationMS = durationMS;
+    }
+
+    public long getSampleMS() {
+        return sampleMS;
+    }
+
+    public void setSampleMS(long sampleMS) {
+        this.sampleMS = sampleMS;
+    }
+}
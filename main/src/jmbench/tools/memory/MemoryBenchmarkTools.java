@@ -21,7 +21,7 @@ package jmbench.tools.memory;
 
 import jmbench.tools.EvaluationTest;
 import jmbench.tools.EvaluatorSlave;
-import jmbench.tools.stability.UtilXmlSerialization;
+import jmbench.tools.SlaveChannel;
 
 import java.io.*;
 import java.util.Date;
@@ -79,6 +79,10 @@ public class MemoryBenchmarkTools {
     // arguments passed to slave jvm
     String []params;
 
+    // files used to pass information between the master and the slave for the current test
+    File caseFile;
+    File resultsFile;
+
     MemoryConfig.SampleType sampleType;
 
     public MemoryBenchmarkTools(){}
@@ -432,12 +436,14 @@ public class MemoryBenchmarkTools {
 
 
     /**
-     * Writes out an xml file that tells the slave what to run and puts together the runtime
+     * Writes out a file that tells the slave what to run and puts together the runtime
      * parameters that are passed on to it.
      */
     private String[] setupSlave(EvaluationTest test) {
         // write out a file describing what the slave should process.
-        UtilXmlSerialization.serializeXml(test,"case.xml");
+        caseFile = SlaveChannel.createFile("case");
+        resultsFile = SlaveChannel.createFile("results");
+        SlaveChannel.write(test,caseFile.getPath());
 
         // grab the current classpath and add some additional jars
         String classPath = getClassPath();
@@ -446,7 +452,7 @@ public class MemoryBenchmarkTools {
         if(verbose)
             System.out.println("Memory = "+memoryMax+" MB");
 
-        params = new String[10];
+        params = new String[11];
         params[0] = app;
         params[1] = "-server";
         params[2] = "-Xms"+memoryMin+"M";
@@ -455,8 +461,9 @@ public class MemoryBenchmarkTools {
         params[5] = "-classpath";
         params[6] = classPath;
         params[7] = "jmbench.tools.EvaluatorSlave";
-        params[8] = "case.xml";
+        params[8] = caseFile.getPath();
         params[9] = Long.toString(requestID);
+        params[10] = resultsFile.getPath();
         return params;
     }
 
@@ -502,13 +509,13 @@ public class MemoryBenchmarkTools {
                 errorStream.println("None 0 exit value returned by the slave. val = "+exitVal);
                 failed = true;
             } else {
-                EvaluatorSlave.Results results = UtilXmlSerialization.deserializeXml("slave_results.xml");
+                EvaluatorSlave.Results results = SlaveChannel.read(resultsFile.getPath());
 
                 // make sure these results are not stale
                 if( results == null ) {
-                    errorStream.println("Can't find slave_results.xml");
+                    errorStream.println("Can't read the slave's results");
                     failed = true;
-                } if( results.getRequestID() != requestID ) {
+                } else if( results.getRequestID() != requestID ) {
                     errorStream.println("Stale request ID");
                     failed = true;
                 } else if( results.failed != null ) {
@@ -563,13 +570,13 @@ public class MemoryBenchmarkTools {
     /**
      * Delete temporary files that it created to pass information between the master and the slave.
      */
-    private static void cleanup() {
-        if( !new File("case.xml").delete() ) {
-            System.out.println("Couldn't delete case.xml");
+    private void cleanup() {
+        if( !caseFile.delete() ) {
+            System.out.println("Couldn't delete "+caseFile.getPath());
         }
 
-        if( !new File("slave_results.xml").delete() ) {
-            System.out.println("Couldn't delete slave_results.xml");
+        if( !resultsFile.delete() ) {
+            System.out.println("Couldn't delete "+resultsFile.getPath());
         }
     }
 
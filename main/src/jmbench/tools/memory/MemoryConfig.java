@@ -41,6 +41,15 @@ public class MemoryConfig {
     // how many times should it repeat each test
     public int numTrials;
 
+    // allocation benchmark only.  An operation is repeated until it takes at least this long
+    public long minTestTimeMilli;
+
+    // leak benchmark only.  How long each operation is run for and how often retained memory is sampled
+    public long leakDurationMilli;
+    public long leakSampleMilli;
+    // leak benchmark only.  Retained memory which grows faster than this is flagged as a leak.  bytes per minute
+    public long leakThresholdBytesPerMinute;
+
     // how much memory should it allocate to the test process in megabytes
     public long memoryMinMB;
     public long memoryMaxMB;
@@ -57,6 +66,9 @@ public class MemoryConfig {
     public boolean invSymmPosDef;
     public boolean svd;
     public boolean eig;
+    // sparse operations, run on random sparse matrices with this many non-zero elements in each row
+    public boolean sparse;
+    public int sparseNonZerosPerRow;
 
     public SampleType memorySampleType;
 
@@ -98,6 +110,37 @@ public class MemoryConfig {
         ret.invSymmPosDef = true;
         ret.svd = true;
         ret.eig = true;
+        ret.sparse = false;
+        ret.sparseNonZerosPerRow = 10;
+
+        return ret;
+    }
+
+    /**
+     * Default configuration for {@link AllocationBenchmark}.  Much smaller matrices are used since garbage created
+     * by small matrices is what tends to be a problem
+     */
+    public static MemoryConfig createAllocationDefault() {
+        MemoryConfig ret = createDefault();
+
+        ret.maxTestTimeMilli = 5*60*1000;
+        ret.minTestTimeMilli = 1000;
+        ret.memoryMaxMB = 1024;
+        ret.matrixSizes = new int[]{2,10,100,500};
+
+        return ret;
+    }
+
+    /**
+     * Default configuration for {@link LeakBenchmark}.  All the matrix sizes are used by each test, since caches
+     * which are indexed by matrix size are a common source of leaks.
+     */
+    public static MemoryConfig createLeakDefault() {
+        MemoryConfig ret = createAllocationDefault();
+
+        ret.leakDurationMilli = 5*60*1000;
+        ret.leakSampleMilli = 5000;
+        ret.leakThresholdBytesPerMinute = 1024*1024;
 
         return ret;
     }
@@ -118,6 +161,38 @@ public class MemoryConfig {
         this.maxTestTimeMilli = maxTestTimeMilli;
     }
 
+    public long getMinTestTimeMilli() {
+        return minTestTimeMilli;
+    }
+
+    public void setMinTestTimeMilli(long minTestTimeMilli) {
+        this.minTestTimeMilli = minTestTimeMilli;
+    }
+
+    public long getLeakDurationMilli() {
+        return leakDurationMilli;
+    }
+
+    public void setLeakDurationMilli(long leakDurationMilli) {
+        this.leakDurationMilli = leakDurationMilli;
+    }
+
+    public long getLeakSampleMilli() {
+        return leakSampleMilli;
+    }
+
+    public void setLeakSampleMilli(long leakSampleMilli) {
+        this.leakSampleMilli = leakSampleMilli;
+    }
+
+    public long getLeakThresholdBytesPerMinute() {
+        return leakThresholdBytesPerMinute;
+    }
+
+    public void setLeakThresholdBytesPerMinute(long leakThresholdBytesPerMinute) {
+        this.leakThresholdBytesPerMinute = leakThresholdBytesPerMinute;
+    }
+
     public int getNumTrials() {
         return numTrials;
     }
@@ -206,6 +281,22 @@ public class MemoryConfig {
         this.eig = eig;
     }
 
+    public boolean isSparse() {
+        return sparse;
+    }
+
+    public void setSparse(boolean sparse) {
+        this.sparse = sparse;
+    }
+
+    public int getSparseNonZerosPerRow() {
+        return sparseNonZerosPerRow;
+    }
+
+    public void setSparseNonZerosPerRow(int sparseNonZerosPerRow) {
+        this.sparseNonZerosPerRow = sparseNonZerosPerRow;
+    }
+
     public SampleType getMemorySampleType() {
         return memorySampleType;
     }
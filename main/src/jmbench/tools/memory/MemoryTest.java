@@ -44,7 +44,7 @@ public class MemoryTest extends EvaluationTest {
     int N;
     int size;
 
-    volatile RuntimePerformanceFactory factory;
+    transient volatile RuntimePerformanceFactory factory;
 
     public void setup( String nameFactory ,
                        InputOutputGenerator gen ,
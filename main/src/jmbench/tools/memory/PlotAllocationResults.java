@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmbench.tools.memory;
+
+import jmbench.plots.AllocationBarPlot;
+import jmbench.tools.runtime.evaluation.PlotRuntimeResults;
+import jmbench.tools.stability.UtilXmlSerialization;
+
+import java.io.File;
+import java.util.*;
+
+
+/**
+ * Creates a plot for each matrix size from the results of {@link AllocationBenchmark}.
+ *
+ * @author Peter Abeles
+ */
+public class PlotAllocationResults {
+
+    int plotWidth = 1100;
+    int plotHeight = 300;
+
+    File directory;
+    boolean displayResults = true;
+
+    public PlotAllocationResults( String dir ) {
+        System.out.println("Reading "+dir);
+        directory = new File(dir);
+
+        if( !directory.isDirectory() ) {
+            throw new IllegalArgumentException("Need to specify a directory.");
+        }
+    }
+
+    public void plot() {
+        File[] children = directory.listFiles();
+        if( children == null )
+            return;
+        Arrays.sort(children);
+
+        for( File sizeDir : children ) {
+            if( !sizeDir.isDirectory() || !new File(sizeDir,"size.txt").exists() )
+                continue;
+
+            List<AllocationResults> results = parseResults(sizeDir);
+            if( results.isEmpty() )
+                continue;
+
+            plotResults(results,sizeDir);
+        }
+    }
+
+    private List<AllocationResults> parseResults( File sizeDir ) {
+        List<AllocationResults> all = new ArrayList<AllocationResults>();
+
+        File[] libDirs = sizeDir.listFiles();
+        for( File libDir : libDirs ) {
+            if( !libDir.isDirectory() )
+                continue;
+
+            File[] files = libDir.listFiles();
+            for( File f : files ) {
+                if( !f.getName().endsWith(".xml") )
+                    continue;
+
+                AllocationResults r;
+                try {
+                    r = UtilXmlSerialization.deserializeXml(f.getPath());
+                } catch( ClassCastException e ) {
+                    System.out.println("Couldn't deserialize "+f.getPath());
+                    continue;
+                }
+
+                System.out.printf("%10.10s  %5d %16s ",r.getNameLibrary(),r.getMatrixSize(),r.getDisplayName());
+                r.printStatistics();
+
+                if( !r.results.isEmpty() && r.numFailed == 0 )
+                    all.add(r);
+            }
+        }
+        return all;
+    }
+
+    private void plotResults( List<AllocationResults> results , File sizeDir ) {
+        // sort to ensure the order is the same each time
+        Collections.sort(results,new Comparator<AllocationResults>() {
+            @Override
+            public int compare(AllocationResults o1, AllocationResults o2) {
+                int c = o1.getDisplayName().compareTo(o2.getDisplayName());
+                if( c != 0 )
+                    return c;
+                return o1.getNameLibrary().compareTo(o2.getNameLibrary());
+            }
+        });
+
+        AllocationBarPlot plot = new AllocationBarPlot("Bytes Allocated per Operation: Size "+sizeDir.getName());
+
+        for( AllocationResults r : results ) {
+            plot.addResult(r.getDisplayName(),r.getNameLibrary(),r.getBytesPerOp());
+        }
+
+        if( displayResults )
+            plot.displayWindow(plotWidth,plotHeight);
+        plot.savePDF(sizeDir.getPath()+"/plot_allocation.pdf",plotWidth,plotHeight);
+    }
+
+    public static void main( String args[] ) {
+        String dir = null;
+        boolean display = true;
+
+        for( String arg : args ) {
+            if( arg.startsWith("--Display=") ) {
+                display = Boolean.parseBoolean(arg.substring("--Display=".length()));
+            } else {
+                dir = arg;
+            }
+        }
+
+        if( dir == null )
+            dir = PlotRuntimeResults.findMostRecentDirectory();
+
+        PlotAllocationResults plotter = new PlotAllocationResults(dir);
+        plotter.displayResults = display;
+        plotter.plot();
+    }
+}
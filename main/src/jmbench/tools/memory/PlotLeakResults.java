@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmbench.tools.memory;
+
+import jmbench.plots.MemoryTimePlot;
+import jmbench.tools.runtime.evaluation.PlotRuntimeResults;
+import jmbench.tools.stability.UtilXmlSerialization;
+
+import java.io.File;
+import java.util.*;
+
+
+/**
+ * Creates plots of retained memory against time for each library from the results of {@link LeakBenchmark}.
+ * There is one plot for each type of memory, the live heap, RSS, and native memory.
+ *
+ * @author Peter Abeles
+ */
+public class PlotLeakResults {
+
+    int plotWidth = 800;
+    int plotHeight = 500;
+
+    File directory;
+    boolean displayResults = true;
+
+    public PlotLeakResults( String dir ) {
+        System.out.println("Reading "+dir);
+        directory = new File(dir);
+
+        if( !directory.isDirectory() ) {
+            throw new IllegalArgumentException("Need to specify a directory.");
+        }
+    }
+
+    public void plot() {
+        File[] children = directory.listFiles();
+        if( children == null )
+            return;
+        Arrays.sort(children);
+
+        for( File libDir : children ) {
+            if( !libDir.isDirectory() )
+                continue;
+
+            List<LeakResults> results = parseResults(libDir);
+            if( results.isEmpty() )
+                continue;
+
+            plotResults(results,libDir);
+        }
+    }
+
+    private List<LeakResults> parseResults( File libDir ) {
+        List<LeakResults> all = new ArrayList<LeakResults>();
+
+        File[] files = libDir.listFiles();
+        for( File f : files ) {
+            if( !f.getName().endsWith(".xml") )
+                continue;
+
+            LeakResults r;
+            try {
+                r = UtilXmlSerialization.deserializeXml(f.getPath());
+            } catch( ClassCastException e ) {
+                continue;
+            }
+
+            if( r.numFailed == 0 && r.timeMS != null )
+                all.add(r);
+        }
+
+        // sort to ensure the order is the same each time
+        Collections.sort(all,new Comparator<LeakResults>() {
+            @Override
+            public int compare(LeakResults o1, LeakResults o2) {
+                return o1.getDisplayName().compareTo(o2.getDisplayName());
+            }
+        });
+
+        return all;
+    }
+
+    private void plotResults( List<LeakResults> results , File libDir ) {
+        String library = results.get(0).getNameLibrary();
+
+        MemoryTimePlot heap = new MemoryTimePlot("Live Heap: "+library,"Live Heap (MB)");
+        MemoryTimePlot rss = new MemoryTimePlot("Resident Set Size: "+library,"RSS (MB)");
+        MemoryTimePlot nat = new MemoryTimePlot("Native Memory: "+library,"Non-Heap and Buffers (MB)");
+
+        for( LeakResults r : results ) {
+            String name = r.getDisplayName()+(r.isLeaking() ? " (leak)" : "");
+            heap.addResults(name,r.timeMS,r.heapBytes);
+            rss.addResults(name,r.timeMS,r.rssBytes);
+            nat.addResults(name,r.timeMS,r.nativeBytes);
+        }
+
+        if( displayResults )
+            heap.displayWindow(plotWidth,plotHeight);
+        heap.savePDF(libDir.getPath()+"/plot_leak_heap.pdf",plotWidth,plotHeight);
+        rss.savePDF(libDir.getPath()+"/plot_leak_rss.pdf",plotWidth,plotHeight);
+        nat.savePDF(libDir.getPath()+"/plot_leak_native.pdf",plotWidth,plotHeight);
+    }
+
+    public static void main( String args[] ) {
+        String dir = null;
+        boolean display = true;
+
+        for( String arg : args ) {
+            if( arg.startsWith("--Display=") ) {
+                display = Boolean.parseBoolean(arg.substring("--Display=".length()));
+            } else {
+                dir = arg;
+            }
+        }
+
+        if( dir == null )
+            dir = PlotRuntimeResults.findMostRecentDirectory();
+
+        PlotLeakResults plotter = new PlotLeakResults(dir);
+        plotter.displayResults = display;
+        plotter.plot();
+    }
+}
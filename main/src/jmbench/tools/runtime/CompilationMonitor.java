@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.tools.runtime;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Watches the JIT compiler inside the slave so that a measurement is only made after the JVM has stopped
+ * compiling and deoptimizing code.  The total compilation time reported by {@link CompilationMXBean} is always
+ * used.  Optionally JFR's jdk.Compilation and jdk.Deoptimization events can be used instead, which will catch
+ * deoptimizations and very short compilations that don't change the total compilation time.  Streaming
+ * events causes JFR's own code and the parts of the JDK it uses to be compiled, so when events are used only
+ * those for methods outside of the JDK, i.e. the benchmark and the library, are considered.  The total
+ * compilation time is then only used to compute the compilation cost.
+ * </p>
+ *
+ * <p>
+ * JFR events are delivered in batches about once a second so the quiet window should be at least that long
+ * when they are used.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CompilationMonitor {
+
+    CompilationMXBean bean = ManagementFactory.getCompilationMXBean();
+
+    // compilation time the last time it was checked
+    long previousCompileMS;
+    // compilation time when the monitor was created
+    long initialCompileMS;
+
+    // number of JFR compilation and deoptimization events
+    AtomicLong totalEvents = new AtomicLong();
+    long previousEvents;
+
+    // last time any compiler activity was seen
+    long lastActivityNS;
+
+    RecordingStream stream;
+
+    /**
+     * @param useEvents If true JFR compilation and deoptimization events are monitored too
+     */
+    public CompilationMonitor( boolean useEvents ) {
+        if( useEvents ) {
+            try {
+                stream = new RecordingStream();
+                stream.enable("jdk.Compilation").withThreshold(Duration.ZERO);
+                stream.enable("jdk.Deoptimization");
+                stream.onEvent(e -> {
+                    if( !isInternal(e) )
+                        totalEvents.incrementAndGet();
+                });
+                stream.startAsync();
+            } catch( RuntimeException | Error e ) {
+                System.err.println("Failed to start JFR. Only using CompilationMXBean. "+e.getMessage());
+                stream = null;
+            }
+        }
+
+        initialCompileMS = previousCompileMS = getTotalCompileMS();
+        lastActivityNS = System.nanoTime();
+    }
+
+    /**
+     * Returns true if the JVM can report how much time has been spent compiling.  If it can't then
+     * the monitor can't tell when the JIT is done.
+     */
+    public static boolean isSupported() {
+        CompilationMXBean bean = ManagementFactory.getCompilationMXBean();
+        return bean != null && bean.isCompilationTimeMonitoringSupported();
+    }
+
+    /**
+     * Checks to see if the compiler has done anything since the last time this was called
+     *
+     * @return true if there was compiler activity
+     */
+    public boolean update() {
+        long compileMS = getTotalCompileMS();
+        long events = totalEvents.get();
+
+        boolean active = stream != null ? events != previousEvents : compileMS != previousCompileMS;
+        previousCompileMS = compileMS;
+        previousEvents = events;
+
+        if( active )
+            lastActivityNS = System.nanoTime();
+        return active;
+    }
+
+    /**
+     * How long it has been since any compiler activity was seen, as of the last call to {@link #update()}.
+     */
+    public long getQuietMS() {
+        return (System.nanoTime()-lastActivityNS)/1_000_000;
+    }
+
+    /**
+     * The last time, according to {@link System#nanoTime()}, that compiler activity was seen
+     */
+    public long getLastActivityNS() {
+        return lastActivityNS;
+    }
+
+    /**
+     * Amount of time the JIT has spent compiling since the monitor was created
+     */
+    public long getCompileMS() {
+        return previousCompileMS - initialCompileMS;
+    }
+
+    /**
+     * Returns true if the event is for a method that's part of the JDK
+     */
+    private static boolean isInternal( RecordedEvent e ) {
+        if( !e.hasField("method") )
+            return false;
+        RecordedMethod m = e.getValue("method");
+        if( m == null || m.getType() == null )
+            return false;
+        String name = m.getType().getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.") ||
+                name.startsWith("sun.") || name.startsWith("com.sun.");
+    }
+
+    private long getTotalCompileMS() {
+        return bean.getTotalCompilationTime();
+    }
+
+    public void close() {
+        if( stream != null ) {
+            stream.close();
+            stream = null;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmbench.tools.runtime;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.MatrixProcessorInterface;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Runs several instances of the same operation at the same time, each in its own thread with its own inputs and
+ * outputs.  Used to measure the combined throughput of a library when it's called by many independent threads,
+ * which reveals shared state, locks, or internal thread pools that get in each other's way.
+ *
+ * @author Peter Abeles
+ */
+public class ConcurrentProcessor {
+
+    List<MatrixProcessorInterface> algs;
+    List<BenchmarkMatrix[]> inputs;
+    List<BenchmarkMatrix[]> outputs;
+
+    ExecutorService executor;
+
+    /**
+     * @param algs One instance of the operation for each thread
+     * @param inputs Inputs for each thread
+     * @param outputs Outputs for each thread
+     */
+    public ConcurrentProcessor( List<MatrixProcessorInterface> algs ,
+                                List<BenchmarkMatrix[]> inputs , List<BenchmarkMatrix[]> outputs ) {
+        if( algs.size() != inputs.size() || algs.size() != outputs.size() )
+            throw new IllegalArgumentException("Must have the same number of algorithms, inputs, and outputs");
+        this.algs = algs;
+        this.inputs = inputs;
+        this.outputs = outputs;
+
+        executor = Executors.newFixedThreadPool(algs.size(), r -> {
+            Thread t = new Thread(r,"concurrent");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Each thread runs the operation the specified number of times.  All the threads are started at the
+     * same time.
+     *
+     * @param numTrials Number of times each thread runs the operation
+     * @return Time from when the threads started until the last one finished (ns)
+     */
+    public long process( long numTrials ) {
+        int N = algs.size();
+        CountDownLatch ready = new CountDownLatch(N);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < N; i++) {
+            MatrixProcessorInterface alg = algs.get(i);
+            BenchmarkMatrix[] in = inputs.get(i);
+            BenchmarkMatrix[] out = outputs.get(i);
+            futures.add(executor.submit(() -> {
+                ready.countDown();
+                start.await();
+                alg.process(in, out, numTrials);
+                return null;
+            }));
+        }
+
+        try {
+            ready.await();
+            long before = System.nanoTime();
+            start.countDown();
+            for( Future<?> f : futures ) {
+                f.get();
+            }
+            return System.nanoTime() - before;
+        } catch( InterruptedException e ) {
+            throw new RuntimeException(e);
+        } catch( ExecutionException e ) {
+            if( e.getCause() instanceof RuntimeException )
+                throw (RuntimeException)e.getCause();
+            if( e.getCause() instanceof Error )
+                throw (Error)e.getCause();
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Number of threads which run the operation
+     */
+    public int getNumThreads() {
+        return algs.size();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
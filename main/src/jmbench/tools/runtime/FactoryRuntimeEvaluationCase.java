@@ -19,6 +19,7 @@
 
 package jmbench.tools.runtime;
 
+import jmbench.misc.RandomSparseMatrices;
 import jmbench.tools.runtime.generator.*;
 
 import java.util.ArrayList;
@@ -29,6 +30,11 @@ import java.util.List;
  * @author Peter Abeles
  */
 public class FactoryRuntimeEvaluationCase {
+    // matrix sizes that batched operations are run on
+    public static final int[] BATCH_SIZES = new int[]{2,3,4,5,6};
+    // appended to the file name of the double precision operation to get the file of the single precision version
+    public static final String FLOAT32_SUFFIX = "_f32";
+
     String factory;
 
     RuntimeBenchmarkConfig config;
@@ -78,6 +84,18 @@ public class FactoryRuntimeEvaluationCase {
 
         if( config.eigSymm ) ret.add( createEigSymm(factory));
 
+        if( config.conversion ) ret.addAll( createConversions(factory));
+
+        if( config.creation ) ret.addAll( createCreations(factory));
+
+        if( config.batch ) ret.addAll( createBatched(factory));
+
+        if( config.sparse ) ret.addAll( createSparse(factory));
+
+        if( config.float32 ) ret.addAll( createFloat32(factory));
+
+        if( config.complex ) ret.addAll( createComplex(factory));
+
         return ret;
     }
 
@@ -257,7 +275,233 @@ public class FactoryRuntimeEvaluationCase {
                 factory,generator);
     }
 
-    private static int[] createDimenList( int min , int max ) {
+    /**
+     * Operations which move data into and out of the library's matrix format
+     */
+    public List<RuntimeEvaluationCase> createConversions( String factory ) {
+
+        int matDimen[] = createDimenList(config.minMatrixSize, config.maxMatrixSize);
+
+        List<RuntimeEvaluationCase> ret = new ArrayList<RuntimeEvaluationCase>();
+
+        ret.add(new RuntimeEvaluationCase("Convert Row-Major to Lib","importRowMajor",matDimen,
+                factory,new ConversionGenerator()));
+        ret.add(new RuntimeEvaluationCase("Convert Lib to Row-Major","exportRowMajor",matDimen,
+                factory,new ConversionGenerator()));
+        ret.add(new RuntimeEvaluationCase("Convert 2D Array to Lib","importArray2D",matDimen,
+                factory,new ConversionGenerator()));
+        ret.add(new RuntimeEvaluationCase("Wrap Matrix","wrapMatrix",matDimen,
+                factory,new ConversionGenerator()));
+
+        return ret;
+    }
+
+    /**
+     * Operations which create new matrices
+     */
+    public List<RuntimeEvaluationCase> createCreations( String factory ) {
+
+        int matDimen[] = createDimenList(config.minMatrixSize, config.maxMatrixSize);
+
+        List<RuntimeEvaluationCase> ret = new ArrayList<RuntimeEvaluationCase>();
+
+        ret.add(new RuntimeEvaluationCase("Create Matrix","createMatrix",matDimen,
+                factory,new ConversionGenerator()));
+        ret.add(new RuntimeEvaluationCase("Create Identity","createIdentity",matDimen,
+                factory,new ConversionGenerator()));
+        ret.add(new RuntimeEvaluationCase("Copy Matrix","copyMatrix",matDimen,
+                factory,new ConversionGenerator()));
+
+        // every call creates a new matrix so the garbage collector is expected to run
+        for( RuntimeEvaluationCase c : ret )
+            c.setAlwaysAllocates(true);
+
+        return ret;
+    }
+
+    /**
+     * Operations on batches of small matrices.  These are always run on the same small sizes, independent of the
+     * configured matrix sizes.
+     */
+    public List<RuntimeEvaluationCase> createBatched( String factory ) {
+
+        int count = config.batchCount;
+
+        List<RuntimeEvaluationCase> ret = new ArrayList<RuntimeEvaluationCase>();
+
+        ret.add(new RuntimeEvaluationCase("Batch Mult c=a*b","batchMult",BATCH_SIZES.clone(),
+                factory,new BatchGenerator(new MultGenerator(),count)));
+        ret.add(new RuntimeEvaluationCase("Batch Invert b=inv(a)","batchInvert",BATCH_SIZES.clone(),
+                factory,new BatchGenerator(new InvertGenerator(),count)));
+        ret.add(new RuntimeEvaluationCase("Batch Solve Ax=b","batchSolve",BATCH_SIZES.clone(),
+                factory,new BatchGenerator(new SolveEqGenerator(),count)));
+        ret.add(new RuntimeEvaluationCase("Batch Determinant","batchDet",BATCH_SIZES.clone(),
+                factory,new BatchGenerator(new DeterminantGenerator(),count)));
+        ret.add(new RuntimeEvaluationCase("Batch Cholesky","batchChol",BATCH_SIZES.clone(),
+                factory,new BatchGenerator(new CholeskyGenerator(),count)));
+
+        return ret;
+    }
+
+    /**
+     * Operations on sparse matrices.  Each operation is run on every pattern of non-zero elements in the
+     * configuration, using the range of sizes for sparse matrices.
+     */
+    public List<RuntimeEvaluationCase> createSparse( String factory ) {
+
+        int matDimen[] = createDimenList(config.sparseMinSize, config.sparseMaxSize);
+        int nz = config.sparseNonZerosPerRow;
+
+        List<RuntimeEvaluationCase> ret = new ArrayList<RuntimeEvaluationCase>();
+
+        for( RandomSparseMatrices.Pattern p : config.sparsePatterns ) {
+            List<RuntimeEvaluationCase> cases = new ArrayList<RuntimeEvaluationCase>();
+
+            cases.add(createSparse("Sparse Mult y=A*x","multVector","sparseMultVector",matDimen,
+                    factory,new SparseMultVectorGenerator(p,nz)));
+            cases.add(createSparse("Sparse Mult C=A*B","mult","sparseMult",matDimen,
+                    factory,new SparseMultGenerator(p,nz)));
+            cases.add(createSparse("Sparse Solve Chol","solveCholesky","sparseSolveChol",matDimen,
+                    factory,new SparseSolveGenerator(p,nz,true)));
+            cases.add(createSparse("Sparse Solve LU","solveLU","sparseSolveLU",matDimen,
+                    factory,new SparseSolveGenerator(p,nz,false)));
+            cases.add(createSparse("Sparse Solve QR","solveQR","sparseSolveQR",matDimen,
+                    factory,new SparseSolveGenerator(p,nz,false)));
+            cases.add(createSparse("Sparse Transpose","transpose","sparseTranspose",matDimen,
+                    factory,new SparseTransposeGenerator(p,nz)));
+
+            // the same operation is run on each pattern so they need to be saved to different files
+            String pattern = p.name().toLowerCase();
+            for( RuntimeEvaluationCase c : cases ) {
+                c.setOpName(c.getOpName()+" "+pattern);
+                c.setFileName(c.getFileName()+"_"+pattern);
+            }
+            ret.addAll(cases);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Creates a case for an operation in the library's {@link jmbench.interfaces.SparsePerformanceFactory}
+     *
+     * @param nameAlgorithm Name of the operation in the sparse factory
+     * @param fileName Name of the file results are saved to
+     */
+    private static RuntimeEvaluationCase createSparse( String opName , String nameAlgorithm , String fileName ,
+                                                       int[] dimens , String factory ,
+                                                       InputOutputGenerator generator ) {
+        RuntimeEvaluationCase c = new RuntimeEvaluationCase(opName,nameAlgorithm,dimens,factory,generator);
+        c.setTrack(OperationTrack.SPARSE);
+        c.setFileName(fileName);
+        return c;
+    }
+
+    /**
+     * Single precision versions of the dense operations which are turned on.  Inputs are created by the same
+     * generators as the double precision operations and saved to the same file name with
+     * {@link #FLOAT32_SUFFIX} appended, so the two can be compared.
+     */
+    public List<RuntimeEvaluationCase> createFloat32( String factory ) {
+
+        List<RuntimeEvaluationCase> ret = new ArrayList<RuntimeEvaluationCase>();
+
+        if( config.mult ) ret.add( createFloat32(createMatrixMult(factory)));
+
+        if( config.add ) ret.add( createFloat32(createMatrixAdd(factory)));
+
+        if( config.transposeSquare ) ret.add( createFloat32(createTransposeSquare(factory)));
+
+        if( config.scale ) ret.add( createFloat32(createScale(factory)));
+
+        if( config.det ) ret.add( createFloat32(createDeterminant(factory)));
+
+        if( config.invert ) ret.add( createFloat32(createInvert(factory)));
+
+        if( config.invertSymmPosDef ) ret.add( createFloat32(createInvertSymmPosDef(factory)));
+
+        if( config.svd ) ret.add( createFloat32(createSVD(factory)));
+
+        if( config.chol ) ret.add( createFloat32(createCholesky(factory)));
+
+        if( config.multTransB ) ret.add( createFloat32(createMultTranB(factory)));
+
+        if( config.solveExact ) ret.add( createFloat32(createSolveEq(factory)));
+
+        if( config.solveOver ) ret.add( createFloat32(createSolveOver(factory)));
+
+        if( config.qr ) ret.add( createFloat32(createQR(factory)));
+
+        if( config.lu ) ret.add( createFloat32(createLU(factory)));
+
+        if( config.eigSymm ) ret.add( createFloat32(createEigSymm(factory)));
+
+        return ret;
+    }
+
+    /**
+     * Converts a double precision case into its single precision version.  The operation has the same name in the
+     * library's {@link jmbench.interfaces.FloatPerformanceFactory}.
+     *
+     * @param c The double precision case.  Modified.
+     */
+    private static RuntimeEvaluationCase createFloat32( RuntimeEvaluationCase c ) {
+        c.setFileName(c.getFileName()+FLOAT32_SUFFIX);
+        c.setOpName(c.getOpName()+" f32");
+        c.setTrack(OperationTrack.FLOAT32);
+        c.setGenerator(new FloatGenerator(c.getGenerator()));
+        return c;
+    }
+
+    /**
+     * Operations on matrices with complex elements.  They use the same range of sizes as the dense operations
+     * and each is saved to its own file.
+     */
+    public List<RuntimeEvaluationCase> createComplex( String factory ) {
+
+        int matDimen[] = createDimenList(config.minMatrixSize, config.maxMatrixSize);
+
+        List<RuntimeEvaluationCase> ret = new ArrayList<RuntimeEvaluationCase>();
+
+        ret.add(createComplex("Complex Mult c=a*b","mult","complexMult",matDimen,
+                factory,new ComplexMultGenerator()));
+        ret.add(createComplex("Complex Add c=a+b","add","complexAdd",matDimen,
+                factory,new ComplexAddGenerator()));
+        ret.add(createComplex("Complex Invert b=inv(a)","invert","complexInvert",matDimen,
+                factory,new ComplexInvertGenerator()));
+        ret.add(createComplex("Complex Solve m=n","solve","complexSolve",matDimen,
+                factory,new ComplexSolveGenerator()));
+        ret.add(createComplex("Complex LU","lu","complexLu",matDimen,
+                factory,new ComplexLuGenerator()));
+        ret.add(createComplex("Complex QR","qr","complexQr",matDimen,
+                factory,new ComplexQrGenerator()));
+        ret.add(createComplex("Complex SVD","svd","complexSvd",matDimen,
+                factory,new ComplexSvdGenerator()));
+        ret.add(createComplex("Complex Eigen for Hermitian","eigHermitian","complexEigHerm",matDimen,
+                factory,new ComplexEigHermGenerator()));
+
+        return ret;
+    }
+
+    /**
+     * Creates a case for an operation in the library's {@link jmbench.interfaces.ComplexPerformanceFactory}
+     *
+     * @param nameAlgorithm Name of the operation in the complex factory
+     * @param fileName Name of the file results are saved to
+     */
+    private static RuntimeEvaluationCase createComplex( String opName , String nameAlgorithm , String fileName ,
+                                                        int[] dimens , String factory ,
+                                                        InputOutputGenerator generator ) {
+        RuntimeEvaluationCase c = new RuntimeEvaluationCase(opName,nameAlgorithm,dimens,factory,generator);
+        c.setTrack(OperationTrack.COMPLEX);
+        c.setFileName(fileName);
+        return c;
+    }
+
+    /**
+     * Creates the list of matrix sizes between min and max which are benchmarked
+     */
+    public static int[] createDimenList( int min , int max ) {
         List<Integer> a = new ArrayList<Integer>();
 
         int val = min;
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.tools.runtime;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Measures how many garbage collections and safepoints happened while a block of code ran.  Used to detect
+ * measurements which were contaminated by the garbage collector.  Call {@link #start()} before and
+ * {@link #stop()} after the code which is being measured.  The number of bytes allocated by every thread in
+ * the JVM is also recorded, so memory allocated by threads a library spawns is included.
+ * </p>
+ *
+ * <p>
+ * Safepoint statistics are only available from HotSpot's internal management API, which requires the JVM to
+ * be launched with "--add-exports java.management/sun.management=ALL-UNNAMED".  If it's not available then
+ * the safepoint values are -1.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class GcMonitor {
+
+    List<GarbageCollectorMXBean> beans = ManagementFactory.getGarbageCollectorMXBeans();
+
+    // used to measure how much memory each thread allocated.  null if not available
+    com.sun.management.ThreadMXBean threads;
+    // bytes allocated by each thread when start was called
+    Map<Long,Long> startAllocated;
+
+    // HotSpot's runtime bean and the functions used to read safepoint statistics.  null if not available
+    Object hotspotRuntime;
+    Method methodSafepointCount;
+    Method methodSafepointTime;
+
+    // values when start was called
+    long startCollections, startCollectionMS, startSafepoints, startSafepointMS;
+
+    // number of garbage collections and total time spent collecting (ms) between start and stop
+    public long collections;
+    public long collectionMS;
+    // number of safepoints and time spent in them (ms) between start and stop.  -1 if not available
+    public long safepoints = -1;
+    public long safepointMS = -1;
+    // bytes allocated by all threads between start and stop.  -1 if not available
+    public long allocatedBytes = -1;
+
+    public GcMonitor() {
+        try {
+            Class<?> helper = Class.forName("sun.management.ManagementFactoryHelper");
+            Class<?> runtime = Class.forName("sun.management.HotspotRuntimeMBean");
+            hotspotRuntime = helper.getMethod("getHotspotRuntimeMBean").invoke(null);
+            methodSafepointCount = runtime.getMethod("getSafepointCount");
+            methodSafepointTime = runtime.getMethod("getTotalSafepointTime");
+            // make sure it can actually be called
+            readSafepoints();
+        } catch( Exception | LinkageError e ) {
+            hotspotRuntime = null;
+        }
+
+        if( ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean ) {
+            threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+            if( threads.isThreadAllocatedMemorySupported() )
+                threads.setThreadAllocatedMemoryEnabled(true);
+            else
+                threads = null;
+        }
+    }
+
+    public void start() {
+        startCollections = totalCollections();
+        startCollectionMS = totalCollectionMS();
+        if( hotspotRuntime != null ) {
+            startSafepoints = readSafepoints();
+            startSafepointMS = readSafepointMS();
+        }
+        if( threads != null )
+            startAllocated = allocatedBytes(threads);
+    }
+
+    public void stop() {
+        collections = totalCollections() - startCollections;
+        collectionMS = totalCollectionMS() - startCollectionMS;
+        if( hotspotRuntime != null ) {
+            safepoints = readSafepoints() - startSafepoints;
+            safepointMS = readSafepointMS() - startSafepointMS;
+        }
+        if( threads != null )
+            allocatedBytes = totalSince(threads,startAllocated);
+    }
+
+    /**
+     * Bytes allocated by each thread which is alive, indexed by thread ID
+     */
+    public static Map<Long,Long> allocatedBytes( com.sun.management.ThreadMXBean threads ) {
+        long[] ids = threads.getAllThreadIds();
+        long[] bytes = threads.getThreadAllocatedBytes(ids);
+        Map<Long,Long> map = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            if( bytes[i] >= 0 )
+                map.put(ids[i],bytes[i]);
+        }
+        return map;
+    }
+
+    /**
+     * Total bytes allocated by all threads since the snapshot.  Threads which didn't exist in the snapshot
+     * started at zero.  Threads which died since the snapshot are missed.
+     */
+    public static long totalSince( com.sun.management.ThreadMXBean threads , Map<Long,Long> before ) {
+        long[] ids = threads.getAllThreadIds();
+        long[] bytes = threads.getThreadAllocatedBytes(ids);
+        long total = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if( bytes[i] < 0 )
+                continue;
+            Long previous = before.get(ids[i]);
+            total += bytes[i] - (previous == null ? 0 : previous);
+        }
+        return total;
+    }
+
+    private long totalCollections() {
+        long total = 0;
+        for( GarbageCollectorMXBean b : beans ) {
+            total += Math.max(0,b.getCollectionCount());
+        }
+        return total;
+    }
+
+    private long totalCollectionMS() {
+        long total = 0;
+        for( GarbageCollectorMXBean b : beans ) {
+            total += Math.max(0,b.getCollectionTime());
+        }
+        return total;
+    }
+
+    private long readSafepoints() {
+        try {
+            return (Long)methodSafepointCount.invoke(hotspotRuntime);
+        } catch( Exception e ) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private long readSafepointMS() {
+        try {
+            return (Long)methodSafepointTime.invoke(hotspotRuntime);
+        } catch( Exception e ) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmbench.tools.runtime;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.MatrixFactory;
+import jmbench.matrix.MappedBenchmarkMatrix;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+/**
+ * <p>
+ * Cache of input matrices which is shared by all the slaves in a benchmark.  Creating the inputs for very large
+ * matrices one element at a time with a single random number generator can take longer than the test itself
+ * and it would be repeated for every library.  Instead the first slave that needs a set of inputs creates them
+ * in a memory-mapped file, as row-major doubles, and every slave after that copies them out of the file.
+ * </p>
+ *
+ * <p>
+ * Files are keyed by the generator and its configuration, random seed, and matrix size.  Since generators only depend on those the
+ * inputs are identical to the ones created without a cache.  A file is written under a temporary name and then
+ * renamed, so slaves which run at the same time never see a partial file.  If the cache would exceed its
+ * maximum size the inputs are used once and then deleted.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class InputMatrixCache {
+    // identifies the file format
+    public static final long MAGIC = 0x4A4D42494E505431L;
+    // space reserved at the start of a file for the header
+    public static final int HEADER_BYTES = 4096;
+    // bytes used to describe each matrix in the header: offset, rows, and columns
+    private static final int MATRIX_BYTES = 16;
+    // number of elements copied at once when a cached matrix is read into a library's matrix
+    private static final int COPY_BLOCK_ELEMENTS = 1 << 17;
+
+    File directory;
+    // maximum total size of all the files in the cache, in bytes
+    long maxBytes;
+
+    public InputMatrixCache( File directory , long maxBytes ) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the inputs created by the generator, reading them from the cache if possible.
+     *
+     * @param generator Creates the inputs
+     * @param factory Creates matrices in the library's format
+     * @param seed Seed for the random number generator used to create the inputs
+     * @param size Matrix size
+     */
+    public BenchmarkMatrix[] createInputs( InputOutputGenerator generator , MatrixFactory factory ,
+                                           long seed , int size ) {
+        File file = new File(directory,fileName(generator,seed,size));
+
+        try {
+            if( file.exists() )
+                return read(file,factory);
+
+            if( !directory.exists() && !directory.mkdirs() && !directory.exists() )
+                throw new IOException("Can't create "+directory.getPath());
+
+            File temp = File.createTempFile(file.getName(),".tmp",directory);
+            try {
+                write(generator,seed,size,temp);
+                if( getTotalBytes() > maxBytes ) {
+                    // too big to keep but the work to create it isn't wasted
+                    return read(temp,factory);
+                }
+                Files.move(temp.toPath(),file.toPath(),StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                if( temp.exists() && !temp.delete() )
+                    System.err.println("Can't delete "+temp.getPath());
+            }
+            return read(file,factory);
+        } catch( IOException e ) {
+            System.err.println("Input cache failed. "+e.getMessage());
+            return generator.createInputs(factory,new Random(seed),size);
+        }
+    }
+
+    /**
+     * Deletes all the files in the cache and its directory
+     */
+    public void delete() {
+        File[] files = directory.listFiles();
+        if( files != null ) {
+            for( File f : files ) {
+                if( !f.delete() )
+                    System.err.println("Can't delete "+f.getPath());
+            }
+        }
+        if( directory.exists() && !directory.delete() )
+            System.err.println("Can't delete "+directory.getPath());
+    }
+
+    /**
+     * Name of the file the inputs are saved in.  Generators can have parameters, e.g. the operation a batch is
+     * created for, so a hash of the serialized generator is included to tell instances of the same class apart.
+     */
+    public static String fileName( InputOutputGenerator generator , long seed , int size ) {
+        return generator.getClass().getSimpleName()+"_"+configHash(generator)+"_"+
+                Long.toHexString(seed)+"_"+size+".bin";
+    }
+
+    /**
+     * Hash of the generator's serialized form, which includes all of its configuration
+     */
+    private static String configHash( InputOutputGenerator generator ) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try( ObjectOutputStream out = new ObjectOutputStream(bytes) ) {
+            out.writeObject(generator);
+        } catch( IOException e ) {
+            throw new RuntimeException(e);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        return Long.toHexString(crc.getValue());
+    }
+
+    /**
+     * Total size of all the files in the cache, including ones which are being written
+     */
+    public long getTotalBytes() {
+        long total = 0;
+        File[] files = directory.listFiles();
+        if( files != null ) {
+            for( File f : files )
+                total += f.length();
+        }
+        return total;
+    }
+
+    /**
+     * Creates the inputs directly inside of a new file
+     */
+    private static void write( InputOutputGenerator generator , long seed , int size , File file ) throws IOException {
+        try( RandomAccessFile raf = new RandomAccessFile(file,"rw") ) {
+            MappedFactory factory = new MappedFactory(raf.getChannel());
+            BenchmarkMatrix[] inputs = generator.createInputs(factory,new Random(seed),size);
+
+            if( HEADER_BYTES < 12 + MATRIX_BYTES*inputs.length )
+                throw new IOException("Too many inputs");
+
+            MappedByteBuffer header = raf.getChannel().map(FileChannel.MapMode.READ_WRITE,0,HEADER_BYTES);
+            header.order(ByteOrder.nativeOrder());
+            header.putLong(MAGIC);
+            header.putInt(inputs.length);
+            for( BenchmarkMatrix m : inputs ) {
+                header.putLong(factory.offsets.get(m));
+                header.putInt(m.numRows());
+                header.putInt(m.numCols());
+            }
+            header.force();
+        }
+    }
+
+    /**
+     * Copies the inputs in the file into matrices created by the factory
+     */
+    private static BenchmarkMatrix[] read( File file , MatrixFactory factory ) throws IOException {
+        try( RandomAccessFile raf = new RandomAccessFile(file,"r") ) {
+            FileChannel channel = raf.getChannel();
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY,0,HEADER_BYTES);
+            header.order(ByteOrder.nativeOrder());
+            if( header.getLong() != MAGIC )
+                throw new IOException("Not an input cache file "+file.getPath());
+
+            BenchmarkMatrix[] inputs = new BenchmarkMatrix[header.getInt()];
+            for (int i = 0; i < inputs.length; i++) {
+                long offset = header.getLong();
+                int numRows = header.getInt();
+                int numCols = header.getInt();
+
+                MappedBenchmarkMatrix src = new MappedBenchmarkMatrix(channel,
+                        FileChannel.MapMode.READ_ONLY,offset,numRows,numCols);
+                inputs[i] = factory.create(numRows,numCols);
+                copy(src,inputs[i]);
+            }
+            return inputs;
+        }
+    }
+
+    /**
+     * Copies a matrix in the cache into a library's matrix a block of rows at a time
+     */
+    private static void copy( MappedBenchmarkMatrix src , BenchmarkMatrix dst ) {
+        int numRows = src.numRows();
+        int numCols = src.numCols();
+        int blockRows = Math.max(1,Math.min(numRows,COPY_BLOCK_ELEMENTS/Math.max(1,numCols)));
+        double[] block = new double[blockRows*numCols];
+        for (int row0 = 0; row0 < numRows; row0 += blockRows) {
+            int row1 = Math.min(numRows,row0+blockRows);
+            src.getRows(row0,row1,block);
+            dst.setRows(row0,row1,block);
+        }
+    }
+
+    /**
+     * Creates matrices one after another inside of a file, after the header
+     */
+    private static class MappedFactory implements MatrixFactory {
+        FileChannel channel;
+        long offset = HEADER_BYTES;
+        // where each matrix is stored in the file
+        Map<BenchmarkMatrix,Long> offsets = new IdentityHashMap<>();
+
+        public MappedFactory(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public BenchmarkMatrix create(int numRows, int numCols) {
+            try {
+                MappedBenchmarkMatrix m = new MappedBenchmarkMatrix(channel,
+                        FileChannel.MapMode.READ_WRITE,offset,numRows,numCols);
+                offsets.put(m,offset);
+                offset += MappedBenchmarkMatrix.getSizeBytes(numRows,numCols);
+                return m;
+            } catch( IOException e ) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public BenchmarkMatrix wrap(Object matrix) {
+            throw new UnsupportedOperationException("Can't wrap matrices in the input cache");
+        }
+    }
+}
@@ -22,6 +22,7 @@ package jmbench.tools.runtime;
 import jmbench.interfaces.BenchmarkMatrix;
 import jmbench.interfaces.MatrixFactory;
 
+import java.io.Serializable;
 import java.util.Random;
 
 
@@ -34,7 +35,7 @@ import java.util.Random;
  *
  * @author Peter Abeles
  */
-public interface InputOutputGenerator {
+public interface InputOutputGenerator extends Serializable {
 
     /**
      * Creates a set of inputs for each library to process.
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.tools.runtime;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A named set of JVM arguments, e.g. which garbage collector or JIT settings to use, that slaves are launched
+ * with.  The runtime benchmark is repeated for each profile and the results are saved into a directory
+ * with the profile's name.  A profile can also restrict the slave to a number of processors.
+ *
+ * @author Peter Abeles
+ */
+public class JvmProfile implements Serializable {
+
+    // name of the profile.  Used as the name of the results directory so it can't contain white space or slashes
+    public String name;
+
+    // arguments which are passed to the JVM
+    public List<String> arguments = new ArrayList<>();
+
+    // Number of processors the slave is restricted to using CPU affinity and -XX:ActiveProcessorCount.  If
+    // zero or less then it can use all of them
+    public int processors;
+
+    public JvmProfile( String name , String ...arguments ) {
+        this.name = name;
+        this.arguments.addAll(Arrays.asList(arguments));
+    }
+
+    public JvmProfile() {
+    }
+
+    /**
+     * Commonly used profiles for comparing garbage collectors and JIT settings
+     */
+    public static List<JvmProfile> createStandard() {
+        List<JvmProfile> profiles = createGarbageCollectors();
+        profiles.add(new JvmProfile("NoSuperWord","-XX:-UseSuperWord"));
+        profiles.add(new JvmProfile("C1","-XX:TieredStopAtLevel=1"));
+        profiles.add(new JvmProfile("LargePages","-XX:+UseLargePages"));
+        return profiles;
+    }
+
+    /**
+     * One profile for each of the commonly used garbage collectors.  Used to see how the garbage created by an
+     * operation affects its performance.
+     */
+    public static List<JvmProfile> createGarbageCollectors() {
+        List<JvmProfile> profiles = new ArrayList<>();
+        profiles.add(new JvmProfile("SerialGC","-XX:+UseSerialGC"));
+        profiles.add(new JvmProfile("ParallelGC","-XX:+UseParallelGC"));
+        profiles.add(new JvmProfile("G1","-XX:+UseG1GC"));
+        profiles.add(new JvmProfile("ZGC","-XX:+UseZGC"));
+        return profiles;
+    }
+
+    /**
+     * Looks up one of the standard profiles by name.
+     *
+     * @return The profile or null if there is no match
+     */
+    public static JvmProfile lookupStandard( String name ) {
+        for( JvmProfile p : createStandard() ) {
+            if( p.name.equalsIgnoreCase(name) )
+                return p;
+        }
+        return null;
+    }
+
+    /**
+     * Creates a copy of this profile where the slave is restricted to the specified number of processors
+     *
+     * @param profile The profile which is copied.  If null there are no JVM arguments
+     * @param processors Number of processors
+     */
+    public static JvmProfile withProcessors( JvmProfile profile , int processors ) {
+        JvmProfile ret = new JvmProfile();
+        ret.name = (profile == null ? "" : profile.name+"_")+"Cores"+processors;
+        if( profile != null )
+            ret.arguments.addAll(profile.arguments);
+        ret.processors = processors;
+        return ret;
+    }
+
+    public String toString() {
+        String s = name+" "+String.join(" ",arguments);
+        if( processors > 0 )
+            s += " processors="+processors;
+        return s;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getProcessors() {
+        return processors;
+    }
+
+    public void setProcessors(int processors) {
+        this.processors = processors;
+    }
+
+    public List<String> getArguments() {
+        return arguments;
+    }
+
+    public void setArguments(List<String> arguments) {
+        this.arguments = arguments;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.tools.runtime;
+
+import jmbench.interfaces.LatencyRecorder;
+
+import java.io.Serializable;
+
+/**
+ * <p>
+ * Histogram of how long individual iterations of an operation took.  Buckets are spaced logarithmically with
+ * {@link #SUB_BUCKETS} buckets for each power of two, so values are recorded with a relative error of about 12%
+ * across the full range of a long.  All the memory is allocated when it's created so recording a value
+ * doesn't create any garbage and won't disturb the measurement.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LatencyHistogram implements LatencyRecorder, Serializable {
+    // number of bits used to divide up each power of two
+    public static final int SUB_BITS = 3;
+    public static final int SUB_BUCKETS = 1 << SUB_BITS;
+    public static final int TOTAL_BUCKETS = (63-SUB_BITS+1)*SUB_BUCKETS;
+
+    // number of values recorded in each bucket
+    public long[] counts = new long[TOTAL_BUCKETS];
+    // total number of recorded values
+    public long total;
+    // smallest and largest recorded value (ns)
+    public long min = Long.MAX_VALUE;
+    public long max = -1;
+
+    /**
+     * Records the latency of a single iteration
+     *
+     * @param latencyNS Elapsed time in nanoseconds
+     */
+    @Override
+    public void record( long latencyNS ) {
+        if( latencyNS < 0 )
+            return;
+        counts[bucket(latencyNS)]++;
+        total++;
+        if( latencyNS < min )
+            min = latencyNS;
+        if( latencyNS > max )
+            max = latencyNS;
+    }
+
+    /**
+     * Adds all the values recorded in 'h' to this histogram
+     */
+    public void add( LatencyHistogram h ) {
+        for (int i = 0; i < TOTAL_BUCKETS; i++) {
+            counts[i] += h.counts[i];
+        }
+        total += h.total;
+        min = Math.min(min,h.min);
+        max = Math.max(max,h.max);
+    }
+
+    /**
+     * Returns the latency that the specified percentage of iterations were at or below.  The upper end of
+     * the bucket is returned so the value is never an underestimate, except it's capped at the maximum.
+     *
+     * @param percentile Percentile from 0 to 100
+     * @return latency in nanoseconds or -1 if nothing was recorded
+     */
+    public long getValueAtPercentile( double percentile ) {
+        if( total == 0 )
+            return -1;
+        if( percentile <= 0 )
+            return min;
+
+        long target = Math.max(1,(long)Math.ceil(total*percentile/100.0));
+
+        long sum = 0;
+        for (int i = 0; i < TOTAL_BUCKETS; i++) {
+            sum += counts[i];
+            if( sum >= target )
+                return Math.max(min,Math.min(max,upperBound(i)));
+        }
+        return max;
+    }
+
+    /**
+     * Index of the bucket the value belongs in
+     */
+    public static int bucket( long value ) {
+        if( value < SUB_BUCKETS )
+            return (int)value;
+
+        int exponent = 63-Long.numberOfLeadingZeros(value);
+        int sub = (int)(value >>> (exponent-SUB_BITS)) & (SUB_BUCKETS-1);
+        return (exponent-SUB_BITS+1)*SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Smallest value which is recorded in the bucket
+     */
+    public static long lowerBound( int bucket ) {
+        if( bucket < SUB_BUCKETS )
+            return bucket;
+
+        int exponent = bucket/SUB_BUCKETS + SUB_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        return (long)(SUB_BUCKETS + sub) << (exponent-SUB_BITS);
+    }
+
+    /**
+     * Largest value which is recorded in the bucket
+     */
+    public static long upperBound( int bucket ) {
+        if( bucket+1 >= TOTAL_BUCKETS )
+            return Long.MAX_VALUE;
+        return lowerBound(bucket+1)-1;
+    }
+
+    /**
+     * Encodes the histogram as a compact string with no white space.  Only buckets with values are saved.
+     * Format is "min;max;bucket:count,bucket:count,..."
+     */
+    public String encode() {
+        StringBuilder s = new StringBuilder();
+        s.append(min).append(';').append(max).append(';');
+        boolean first = true;
+        for (int i = 0; i < TOTAL_BUCKETS; i++) {
+            if( counts[i] == 0 )
+                continue;
+            if( !first )
+                s.append(',');
+            s.append(i).append(':').append(counts[i]);
+            first = false;
+        }
+        return s.toString();
+    }
+
+    /**
+     * Decodes a string created by {@link #encode()}
+     */
+    public static LatencyHistogram decode( String text ) {
+        String[] parts = text.split(";",-1);
+        if( parts.length != 3 )
+            throw new IllegalArgumentException("Unexpected latency histogram "+text);
+
+        LatencyHistogram h = new LatencyHistogram();
+        h.min = Long.parseLong(parts[0]);
+        h.max = Long.parseLong(parts[1]);
+        if( !parts[2].isEmpty() ) {
+            for( String pair : parts[2].split(",") ) {
+                int split = pair.indexOf(':');
+                long count = Long.parseLong(pair.substring(split+1));
+                h.counts[Integer.parseInt(pair.substring(0,split))] = count;
+                h.total += count;
+            }
+        }
+        return h;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getMin() {
+        return min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+}
@@ -61,6 +61,17 @@ public class LibraryRuntimeInfo implements Serializable {
         this.sourceHash = sourceHash;
     }
 
+    /**
+     * Creates the info by querying the library's factory
+     */
+    public static LibraryRuntimeInfo create( RuntimePerformanceFactory factory ) {
+        LibraryRuntimeInfo info = new LibraryRuntimeInfo();
+        info.isNative = factory.isNative();
+        info.version = factory.getLibraryVersion();
+        info.sourceHash = factory.getSourceHash();
+        return info;
+    }
+
     public static void main(String[] args) {
         String factoryName = args[0];
         String path = args[1];
@@ -73,10 +84,7 @@ public class LibraryRuntimeInfo implements Serializable {
             System.out.println("                   native  "+factory.isNative());
             System.out.println("                   hash    "+factory.getSourceHash());
 
-            LibraryRuntimeInfo info = new LibraryRuntimeInfo();
-            info.isNative = factory.isNative();
-            info.version = factory.getLibraryVersion();
-            info.sourceHash = factory.getSourceHash();
+            LibraryRuntimeInfo info = create(factory);
 
             UtilXmlSerialization.serializeXml(info,path);
         } catch (Exception e) {
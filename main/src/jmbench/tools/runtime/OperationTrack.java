@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.tools.runtime;
+
+import jmbench.interfaces.MatrixProcessorInterface;
+import jmbench.interfaces.RuntimePerformanceFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+
+/**
+ * <p>
+ * Specifies which factory an operation is found in.  Dense operations are in {@link RuntimePerformanceFactory}
+ * while other kinds of matrices have their own factory which the library returns, or null if it doesn't support
+ * them.  The operation is then looked up by name in that factory.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public enum OperationTrack {
+    // dense double precision operations in RuntimePerformanceFactory
+    DENSE,
+    // operations in the factory returned by RuntimePerformanceFactory.sparse()
+    SPARSE,
+    // operations in the factory returned by RuntimePerformanceFactory.float32()
+    FLOAT32,
+    // operations in the factory returned by RuntimePerformanceFactory.complex()
+    COMPLEX;
+
+    /**
+     * Returns the factory which contains this track's operations
+     *
+     * @return The factory or null if the library doesn't support this track
+     */
+    public Object factory( RuntimePerformanceFactory factory ) {
+        switch( this ) {
+            case DENSE: return factory;
+            case SPARSE: return factory.sparse();
+            case FLOAT32: return factory.float32();
+            case COMPLEX: return factory.complex();
+            default: throw new IllegalArgumentException("Unknown track "+this);
+        }
+    }
+
+    /**
+     * Creates the operation with the specified name by calling the function in this track's factory
+     *
+     * @param factory The library's factory
+     * @param nameOperation Name of the function which creates the operation
+     * @return The operation or null if the library doesn't support it
+     */
+    public MatrixProcessorInterface createAlgorithm( RuntimePerformanceFactory factory , String nameOperation ) {
+        Object owner = factory(factory);
+        if( owner == null )
+            return null;
+
+        try {
+            Method m = owner.getClass().getMethod(nameOperation);
+            return (MatrixProcessorInterface)m.invoke(owner);
+        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmbench.tools.runtime;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Models how long an operation takes as a function of matrix size, time = a*n<sup>k</sup>.  It's fit with least
+ * squares in log-log space using only the largest few sizes, since fixed costs such as allocating the output
+ * dominate at small sizes and hide the operation's true complexity.  That overhead causes the exponent
+ * to be underestimated at first, so predictions err on the side of being too fast.
+ * </p>
+ *
+ * <p>
+ * The exponent is limited to {@link #MAX_EXPONENT} so that a single noisy measurement can't cause
+ * a wild prediction.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PowerLawModel {
+    // number of the most recent points which are used to fit the model
+    public static final int MAX_POINTS = 3;
+    // largest exponent it will predict with.  Dense matrix operations are at most cubic
+    public static final double MAX_EXPONENT = 4;
+
+    // matrix sizes and times which have been added
+    List<Integer> sizes = new ArrayList<>();
+    List<Double> times = new ArrayList<>();
+
+    // time = a*n^k
+    double a;
+    double k;
+
+    /**
+     * Adds the time it took to process a matrix size and refits the model.  Non-positive values are ignored.
+     *
+     * @param size Matrix size
+     * @param time Time taken.  Any units.
+     */
+    public void add( int size , double time ) {
+        if( size <= 0 || !(time > 0) || Double.isInfinite(time) )
+            return;
+        sizes.add(size);
+        times.add(time);
+        fit();
+    }
+
+    private void fit() {
+        int N = Math.min(MAX_POINTS,sizes.size());
+        int start = sizes.size()-N;
+
+        double meanX = 0, meanY = 0;
+        for (int i = start; i < sizes.size(); i++) {
+            meanX += Math.log(sizes.get(i));
+            meanY += Math.log(times.get(i));
+        }
+        meanX /= N;
+        meanY /= N;
+
+        double sumXY = 0, sumXX = 0;
+        for (int i = start; i < sizes.size(); i++) {
+            double dx = Math.log(sizes.get(i))-meanX;
+            sumXY += dx*(Math.log(times.get(i))-meanY);
+            sumXX += dx*dx;
+        }
+
+        k = sumXX > 0 ? sumXY/sumXX : 0;
+        k = Math.max(0,Math.min(MAX_EXPONENT,k));
+        a = Math.exp(meanY - k*meanX);
+    }
+
+    /**
+     * Returns true if there are enough points, two distinct sizes, for the model to make predictions
+     */
+    public boolean isValid() {
+        for (int i = 1; i < sizes.size(); i++) {
+            if( !sizes.get(i).equals(sizes.get(0)) )
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Predicts how long it will take to process the matrix size.  Only call if {@link #isValid()} is true.
+     */
+    public double predict( int size ) {
+        return a*Math.pow(size,k);
+    }
+
+    public double getA() {
+        return a;
+    }
+
+    public double getK() {
+        return k;
+    }
+}
@@ -21,13 +21,21 @@ package jmbench.tools.runtime;
 
 import jmbench.impl.LibraryDescription;
 import jmbench.impl.LibraryManager;
+import jmbench.misc.CpuCoreAllocator;
+import jmbench.misc.JavaRuntimeLauncher;
+import jmbench.misc.RandomSparseMatrices;
 import jmbench.tools.MiscTools;
 import jmbench.tools.SystemInfo;
 import jmbench.tools.stability.UtilXmlSerialization;
 
+import org.apache.commons.lang3.SystemUtils;
+
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Semaphore;
 
 
 /**
@@ -43,6 +51,15 @@ import java.util.List;
  */
 public class RuntimeBenchmark {
 
+    // name of the file the JVM profile is saved to inside of the profile's results directory
+    public static final String PROFILE_NAME = "profile.xml";
+    // name of the file the benchmark config is saved to.  Also saved inside of each thread count's results directory
+    public static final String CONFIG_NAME = "config.xml";
+    // prefix of the results directory for each thread count in the throughput benchmark
+    public static final String THREADS_PREFIX = "threads";
+    // name of the directory in the results directory that input matrices are cached in
+    public static final String INPUT_CACHE_NAME = "input_cache";
+
     // where should the results be saved to
     private String directorySave;
 
@@ -62,23 +79,109 @@ public class RuntimeBenchmark {
         saveSystemInfo(config);
 
         long startTime = System.currentTimeMillis();
-        processLibraries(config.getTargets(),config);
+        if( config.throughputThreads == null || config.throughputThreads.isEmpty() ) {
+            processProfiles(directorySave, config);
+        } else {
+            // each thread count gets its own results directory which has the same structure as when operations
+            // are run by a single thread.  The thread count is recorded in the config saved inside of it
+            for( int threads : config.throughputThreads ) {
+                System.out.println("Operations run by "+threads+" threads");
+                String threadsDir = directorySave+"/"+THREADS_PREFIX+threads;
+                config.threads = threads;
+                saveXml(threadsDir, config, CONFIG_NAME);
+                processProfiles(threadsDir, config);
+            }
+            config.threads = 1;
+        }
+        // the cached inputs can be very large so don't leave them around
+        new InputMatrixCache(getInputCacheDirectory(),0).delete();
+
         long elapsedTime = System.currentTimeMillis()-startTime;
         System.out.println("Elapsed time "+MiscTools.milliToHuman(elapsedTime)+"\n");
 
         MiscTools.sendFinishedEmail("Runtime",startTime);
     }
 
-    private void processLibraries( List<LibraryDescription> libs, RuntimeBenchmarkConfig config ) {
+    /**
+     * Benchmarks all the libraries with each of the JVM profiles
+     *
+     * @param directory Where the results are saved to
+     */
+    private void processProfiles( String directory, RuntimeBenchmarkConfig config ) {
+        List<JvmProfile> profiles = createProfiles(config);
+        if( profiles.isEmpty() ) {
+            processLibraries(directory, config.getTargets(), config, null);
+        } else {
+            // each profile gets its own results directory which has the same structure as when no profiles are used
+            for( JvmProfile profile : profiles ) {
+                System.out.println("JVM profile "+profile);
+                String profileDir = directory+"/"+profile.name;
+                saveXml(profileDir, profile, PROFILE_NAME);
+                processLibraries(profileDir, config.getTargets(), config, profile);
+            }
+        }
+    }
 
-        for( LibraryDescription desc : libs ) {
-            String libOutputDir = directorySave+"/"+desc.info.outputDirectory();
+    /**
+     * Creates the list of profiles the benchmark is run with.  If processor counts are specified for the scaling
+     * benchmark then each JVM profile is repeated with each number of processors.
+     */
+    static List<JvmProfile> createProfiles( RuntimeBenchmarkConfig config ) {
+        List<JvmProfile> profiles = new ArrayList<>();
+        if( config.jvmProfiles != null )
+            profiles.addAll(config.jvmProfiles);
+
+        if( config.scalingProcessors != null && !config.scalingProcessors.isEmpty() ) {
+            if( profiles.isEmpty() )
+                profiles.add(null);
+
+            List<JvmProfile> ret = new ArrayList<>();
+            for( JvmProfile p : profiles ) {
+                for( int processors : config.scalingProcessors ) {
+                    ret.add(JvmProfile.withProcessors(p,processors));
+                }
+            }
+            profiles = ret;
+        }
+        return profiles;
+    }
 
-            // save the description so that where this came from can be easily extracted
-            String outputFile = libOutputDir+".xml";
-            UtilXmlSerialization.serializeXml(desc,outputFile);
+    /**
+     * Processor counts used by the scaling benchmark when all of them are requested.  Powers of two up to the
+     * number of processors, and the number of processors.
+     */
+    static List<Integer> allProcessorCounts() {
+        int available = Runtime.getRuntime().availableProcessors();
+        List<Integer> ret = new ArrayList<>();
+        for (int i = 1; i < available; i *= 2) {
+            ret.add(i);
+        }
+        ret.add(available);
+        return ret;
+    }
 
-            RuntimeBenchmarkLibrary benchmark = new RuntimeBenchmarkLibrary(libOutputDir,desc,config);
+    private void processLibraries( String directory, List<LibraryDescription> libs, RuntimeBenchmarkConfig config,
+                                   JvmProfile profile ) {
+
+        if( config.parallelSlaves > 1 && config.threads > 1 ) {
+            System.out.println("Operations are run by multiple threads.  Running one slave at a time.");
+        } else if( config.parallelSlaves > 1 && profile != null && profile.processors > 0 ) {
+            System.out.println("Slaves are restricted to "+profile.processors+" processors.  Running one slave at a time.");
+        } else if( config.parallelSlaves > 1 ) {
+            int numCpus = Runtime.getRuntime().availableProcessors() - config.reservedCores;
+            CpuCoreAllocator allocator = numCpus > 0 ? new CpuCoreAllocator(config.reservedCores, numCpus) : null;
+            if( !SystemUtils.IS_OS_LINUX ) {
+                System.out.println("Pinning slaves to cores requires Linux.  Running one slave at a time.");
+            } else if( allocator == null || allocator.getTotalCores() < 2 ) {
+                System.out.println("Not enough cores to run slaves in parallel.  Running one slave at a time.");
+            } else {
+                processLibrariesParallel(directory, libs, config, profile, allocator);
+                return;
+            }
+        }
+
+        for( LibraryDescription desc : libs ) {
+            RuntimeBenchmarkLibrary benchmark = createLibraryBenchmark(directory, desc, config, profile);
 
             try {
                 benchmark.performBenchmark();
@@ -88,6 +191,112 @@ public class RuntimeBenchmark {
         }
     }
 
+    /**
+     * Benchmarks multiple libraries at the same time.  Each library gets its own slave which is pinned to
+     * its own cores.  Single threaded libraries are given one core and multi-threaded libraries a group of
+     * cores.  Multi-threaded libraries are started first since it's harder to find room for them.  If a library
+     * fails then no more are started and, once the running ones finish, the failure is thrown.
+     */
+    private void processLibrariesParallel( String directory, List<LibraryDescription> libs,
+                                           RuntimeBenchmarkConfig config, JvmProfile profile,
+                                           CpuCoreAllocator allocator ) {
+        List<LibraryDescription> ordered = new ArrayList<>();
+        for( LibraryDescription desc : libs ) {
+            if( desc.info.multiThreaded )
+                ordered.add(desc);
+        }
+        for( LibraryDescription desc : libs ) {
+            if( !desc.info.multiThreaded )
+                ordered.add(desc);
+        }
+
+        Semaphore slaves = new Semaphore(config.parallelSlaves);
+        List<Thread> threads = new ArrayList<>();
+        // exceptions thrown by the threads benchmarking a library
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+
+        try {
+            for( LibraryDescription desc : ordered ) {
+                int numCores = desc.info.multiThreaded ?
+                        Math.min(config.coresMultiThreaded, allocator.getTotalCores()) : 1;
+
+                slaves.acquire();
+                if( !failures.isEmpty() ) {
+                    slaves.release();
+                    break;
+                }
+                int[] cores = allocator.acquire(numCores);
+
+                System.out.println("Benchmarking "+desc.info.nameShort+" on cores "+
+                        JavaRuntimeLauncher.coresToString(cores));
+
+                RuntimeBenchmarkLibrary benchmark = createLibraryBenchmark(directory, desc, config, profile);
+                benchmark.setCpuAffinity(cores);
+
+                Thread thread = new Thread(() -> {
+                    try {
+                        benchmark.performBenchmark();
+                    } catch( Throwable e ) {
+                        failures.add(e);
+                    } finally {
+                        allocator.release(cores);
+                        slaves.release();
+                    }
+                }, desc.info.nameShort);
+                thread.start();
+                threads.add(thread);
+            }
+
+            for( Thread t : threads ) {
+                t.join();
+            }
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+
+        if( !failures.isEmpty() ) {
+            RuntimeException e = new RuntimeException("Benchmarking failed for "+failures.size()+" libraries",
+                    failures.get(0));
+            for (int i = 1; i < failures.size(); i++) {
+                e.addSuppressed(failures.get(i));
+            }
+            throw e;
+        }
+    }
+
+    private RuntimeBenchmarkLibrary createLibraryBenchmark( String directory, LibraryDescription desc,
+                                                            RuntimeBenchmarkConfig config, JvmProfile profile ) {
+        String libOutputDir = directory+"/"+desc.info.outputDirectory();
+
+        // save the description so that where this came from can be easily extracted
+        String outputFile = libOutputDir+".xml";
+        UtilXmlSerialization.serializeXml(desc,outputFile);
+
+        RuntimeBenchmarkLibrary benchmark = new RuntimeBenchmarkLibrary(libOutputDir,desc,config);
+        if( config.inputCacheMinSize > 0 )
+            benchmark.setInputCacheDir(getInputCacheDirectory().getPath());
+        if( profile != null )
+            benchmark.setJvmProfile(profile);
+        return benchmark;
+    }
+
+    private File getInputCacheDirectory() {
+        return new File(directorySave,INPUT_CACHE_NAME);
+    }
+
+    /**
+     * Creates the directory which results from a profile or thread count are saved to and saves what they were
+     * run with into it
+     */
+    private void saveXml( String directory, Object data , String fileName ) {
+        File dir = new File(directory);
+        if( !dir.exists() && !dir.mkdirs() ) {
+            throw new IllegalArgumentException("Can't make directories to save results.");
+        }
+
+        UtilXmlSerialization.serializeXml(data,directory+"/"+fileName);
+    }
+
     /**
      * Collects information of the system that this is being run on.  Allows for a better understanding
      * of the results.  Not all relevant information can be gathered since this is java.
@@ -106,7 +315,7 @@ public class RuntimeBenchmark {
         }
 
         UtilXmlSerialization.serializeXml(info,directorySave+"/info.xml");
-        UtilXmlSerialization.serializeXml(config,directorySave+"/config.xml");
+        UtilXmlSerialization.serializeXml(config,directorySave+"/"+CONFIG_NAME);
     }
 
     public static void printHelp() {
@@ -129,15 +338,67 @@ public class RuntimeBenchmark {
         System.out.println();
         System.out.println("The following options are valid for runtime benchmark:");
         System.out.println("  --Config=<file>           |  Configure using the specified xml file.");
-        System.out.println("  --TotalTests=<num>        |  Total number of tests for each operation + matrix size combo. Default 15");
+        System.out.println("  --TotalTests=<num>        |  Maximum number of tests for each operation + matrix size combo. Default 15");
+        System.out.println("  --MinTests=<num>          |  Minimum number of tests before it can stop early. Default 5");
+        System.out.println("  --Convergence=<percent>   |  Stop early once the 95% confidence interval of ops/sec is within this");
+        System.out.println("                            |  percent of the mean. 0 to always do TotalTests. Default 0");
+        System.out.println("  --CellTime=<time|unit>    |  Stop early once this much time has been spent on a matrix size. Default no limit");
         System.out.println("  --Size=min:max            |  Test matrices from the specified minimum size to the specified maximum size.");
         System.out.println("  --Quick                   |  Generate results much faster by sacrificing accuracy/stability of the results.");
         System.out.println("  --Library=<lib>           |  To run a specific library only.  --Library=? will print a list");
         System.out.println("                            |  Use a comma to specify multiple libraries, e.g. 'ejml,ojalgo'");
         System.out.println("  --Seed=<number>           |  used to set the random seed to the specified value.");
         System.out.println("  --MinTestTime=<ms>        |  The minimum amount of time spent in a single test.  Default is 3000 ms.");
+        System.out.println("  --JitQuiet=<ms>           |  Only measure after the JIT has been quiet this long. 0 for a fixed number");
+        System.out.println("                            |  of warm up trials. Default is 0.");
+        System.out.println("  --JitEvents=<true|false>  |  Also use JFR compilation and deoptimization events to detect JIT activity.");
+        System.out.println("  --Latency=<true|false>    |  Also record a histogram of how long individual iterations took. Doubles the");
+        System.out.println("                            |  time each test takes. Default false.");
+        System.out.println("  --GcRetries=<num>         |  Times a test is repeated if the GC ran while it was timed. Default 0.");
+        System.out.println("  --Perf=<true|false>       |  Collect hardware counters with Linux perf. Adds a counted run to each test.");
         System.out.println("  --MaxTestTime=<time|unit> |  "+MiscTools.stringTimeArgumentHelp());
         System.out.println("                            |  Default is 15 minutes");
+        System.out.println("  --Heartbeat=<ms>          |  Kill a slave if it doesn't send a heartbeat for this long. Also stops it early");
+        System.out.println("                            |  if it's predicted to exceed MaxTestTime. 0 to turn off. Default 0.");
+        System.out.println("  --Predict=<true|false>    |  Skip matrix sizes which are predicted to exceed MaxTestTime and do fewer tests");
+        System.out.println("                            |  on sizes which won't fit in CellTime. Default false.");
+        System.out.println("  --Sampling=<true|false>   |  Find the largest size each operation can process, then draw operations and");
+        System.out.println("                            |  sizes at random instead of testing every size in order. Default false.");
+        System.out.println("  --SampleTrials=<num>      |  Stop sampling an operation after this many tests. 0 for no limit. Default 200.");
+        System.out.println("  --SampleBudget=<time|unit>|  Stop sampling an operation after this much time. 0 for no limit. Default 60m.");
+        System.out.println("  --Conversion=<true|false> |  Also time converting matrices into and out of each library's format.");
+        System.out.println("                            |  Default false.");
+        System.out.println("  --Creation=<true|false>   |  Also time creating zeroed, identity, and copied matrices. Default false.");
+        System.out.println("  --Batch=<true|false>      |  Also time operations on batches of 2x2 to 6x6 matrices. Results are matrices");
+        System.out.println("                            |  per second. Only libraries with batched operations are run. Default false.");
+        System.out.println("  --BatchCount=<num>        |  Number of different matrices in each batch. Default 4096.");
+        System.out.println("  --Sparse=<true|false>     |  Also time sparse operations. Only libraries with sparse support are run.");
+        System.out.println("                            |  Default false.");
+        System.out.println("  --SparseSize=min:max      |  Range of sizes for sparse matrices. Default 1000:100000.");
+        System.out.println("  --SparsePattern=<p,...>   |  Patterns of non-zero elements. random, banded, fem. Default all.");
+        System.out.println("  --SparseNZ=<num>          |  Approximate number of non-zero elements in each row. Default 10.");
+        System.out.println("  --Float32=<true|false>    |  Also time single precision versions of the dense operations. Only libraries");
+        System.out.println("                            |  with float support are run. Default false.");
+        System.out.println("  --Complex=<true|false>    |  Also time operations on complex matrices. Only libraries with complex");
+        System.out.println("                            |  support are run. Default false.");
+        System.out.println("  --InputCache=<size>       |  Inputs for this matrix size and larger are created once and shared between");
+        System.out.println("                            |  slaves through memory-mapped files. 0 to turn off. Default 0.");
+        System.out.println("  --InputCacheMB=<mb>       |  Maximum size of the input cache. Default 10240 MB.");
+        System.out.println("  --JobsPerSlave=<num>      |  Number of tests a slave JVM runs before it's replaced. Default 1, a new JVM per test.");
+        System.out.println("  --Parallel=<num>          |  Number of libraries benchmarked at the same time. Each slave is pinned to its");
+        System.out.println("                            |  own physical cores using taskset. Linux only. Default 1.");
+        System.out.println("  --CoresMT=<num>           |  Physical cores given to multi-threaded libraries when run in parallel. Default 4.");
+        System.out.println("  --Throughput=<all|n,...>  |  Repeats the benchmark with each operation run by this many threads at once, each");
+        System.out.println("                            |  on its own inputs.  'all' is 1 to the number of processors. Results are");
+        System.out.println("                            |  saved into threads<n> directories.");
+        System.out.println("  --Scaling=<all|n,...>     |  Repeats the benchmark with the slave restricted to this many processors. Used");
+        System.out.println("                            |  to see how multi-threaded libraries scale. 'all' is powers of two up to the");
+        System.out.println("                            |  number of processors. Plot with plotScaling.");
+        System.out.println("  --Profile=<name>[:<args>] |  Repeats the benchmark with slaves launched using these JVM arguments. Can be");
+        System.out.println("                            |  specified multiple times. Arguments are separated by commas, e.g.");
+        System.out.println("                            |  'G1:-XX:+UseG1GC'. Without arguments a standard profile is used: ");
+        System.out.println("                            |  "+standardProfileNames()+". 'Standard' adds all of them and");
+        System.out.println("                            |  'GC' adds the ones which change the garbage collector.");
         System.out.println("  --Resume=<directory>      |  It will resume an unfinished benchmark at the specified directory.");
         System.out.println("  --Memory=<size|unit>      |  Sets the amount of memory allocated.  Default is MB. Recognizes suffixes for m,mb,g,gb,b.");
         System.out.println("                            |  as large as possible with out exceeding the amount of physical memory on the system.");
@@ -150,6 +411,14 @@ public class RuntimeBenchmark {
         System.out.println("Example: java -jar benchmark.jar runtime --Size=2:40000 --MaxTestTime=60m --Memory=25g");
     }
 
+    private static String standardProfileNames() {
+        List<String> names = new ArrayList<>();
+        for( JvmProfile p : JvmProfile.createStandard() ) {
+            names.add(p.name);
+        }
+        return String.join(",",names);
+    }
+
     public static void main( String args[] ) {
         if( args.length == 0 ) {
             printHelp();
@@ -224,19 +493,185 @@ public class RuntimeBenchmark {
                 System.out.println("Random seed set to "+config.seed);
             } else if( flag.compareTo("TotalTests") == 0 ) {
                 config.totalTests = Integer.parseInt(splits[1]);
+            } else if( flag.compareTo("MinTests") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.minimumTests = Integer.parseInt(splits[1]);
+                System.out.println("Minimum tests set to "+config.minimumTests);
+            } else if( flag.compareTo("Convergence") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.convergencePercent = Double.parseDouble(splits[1]);
+                System.out.println("Convergence set to "+config.convergencePercent+"%");
+            } else if( flag.compareTo("CellTime") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.maximumCellTimeMS = (int)MiscTools.parseTime(splits[1]);
+                System.out.println("Maximum time per matrix size set to "+config.maximumCellTimeMS +" (ms).");
             } else if( flag.compareTo("MinTestTime") == 0 ) {
                 if( splits.length != 2 ) {failed = true; break;}
                 config.minimumTimePeriodMS = Integer.parseInt(splits[1]);
                 System.out.println("Minimum time per test set to "+config.minimumTimePeriodMS +" (ms).");
+            } else if( flag.compareTo("JitQuiet") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.compileQuietMS = Integer.parseInt(splits[1]);
+                System.out.println("JIT quiet window set to "+config.compileQuietMS +" (ms).");
+            } else if( flag.compareTo("JitEvents") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.compilationEvents = Boolean.parseBoolean(splits[1]);
+                System.out.println("JIT events = "+config.compilationEvents);
+            } else if( flag.compareTo("Latency") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.latencyHistogram = Boolean.parseBoolean(splits[1]);
+                System.out.println("Latency histogram = "+config.latencyHistogram);
+            } else if( flag.compareTo("GcRetries") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.gcRetries = Integer.parseInt(splits[1]);
+                System.out.println("GC retries set to "+config.gcRetries);
+            } else if( flag.compareTo("Perf") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.perfCounters = Boolean.parseBoolean(splits[1]);
+                System.out.println("Hardware counters = "+config.perfCounters);
             } else if( flag.compareTo("MaxTestTime") == 0 ) {
                 if( splits.length != 2 ) {failed = true; break;}
                 config.maximumTimeSlaveProcessingMS = (int)MiscTools.parseTime(splits[1]);
                 System.out.println("Maximum time per test set to "+config.maximumTimeSlaveProcessingMS +" (ms).");
-            }else if( flag.compareTo("Resume") == 0 ) {
+            } else if( flag.compareTo("Heartbeat") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.heartbeatTimeoutMS = Integer.parseInt(splits[1]);
+                System.out.println("Heartbeat timeout set to "+config.heartbeatTimeoutMS+" (ms).");
+            } else if( flag.compareTo("Predict") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.predictiveSkip = Boolean.parseBoolean(splits[1]);
+                System.out.println("Predictive skip = "+config.predictiveSkip);
+            } else if( flag.compareTo("Sampling") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.sampling = Boolean.parseBoolean(splits[1]);
+                System.out.println("Random sampling of operations and sizes = "+config.sampling);
+            } else if( flag.compareTo("SampleTrials") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.samplingTrials = Integer.parseInt(splits[1]);
+                System.out.println("Maximum sampled tests per operation set to "+config.samplingTrials);
+            } else if( flag.compareTo("SampleBudget") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.samplingBudgetMS = (int)MiscTools.parseTime(splits[1]);
+                System.out.println("Sampling time budget per operation set to "+config.samplingBudgetMS+" (ms).");
+            } else if( flag.compareTo("Conversion") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.conversion = Boolean.parseBoolean(splits[1]);
+                System.out.println("Conversion operations = "+config.conversion);
+            } else if( flag.compareTo("Creation") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.creation = Boolean.parseBoolean(splits[1]);
+                System.out.println("Creation operations = "+config.creation);
+            } else if( flag.compareTo("Batch") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.batch = Boolean.parseBoolean(splits[1]);
+                System.out.println("Batched operations = "+config.batch);
+            } else if( flag.compareTo("BatchCount") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.batchCount = Integer.parseInt(splits[1]);
+                System.out.println("Matrices per batch = "+config.batchCount);
+            } else if( flag.compareTo("Sparse") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.sparse = Boolean.parseBoolean(splits[1]);
+                System.out.println("Sparse operations = "+config.sparse);
+            } else if( flag.compareTo("SparseSize") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                String rangeStr[] = splits[1].split(":");
+                if( rangeStr.length != 2 ) {failed = true; break;}
+                config.sparseMinSize = Integer.parseInt(rangeStr[0]);
+                config.sparseMaxSize = Integer.parseInt(rangeStr[1]);
+                System.out.println("Set min/max sparse matrix size to: "+config.sparseMinSize+" "+config.sparseMaxSize);
+            } else if( flag.compareTo("SparsePattern") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                String names[] = splits[1].split(",");
+                config.sparsePatterns = new RandomSparseMatrices.Pattern[names.length];
+                for (int j = 0; j < names.length; j++) {
+                    config.sparsePatterns[j] = RandomSparseMatrices.Pattern.valueOf(names[j].toUpperCase());
+                }
+                System.out.println("Sparse patterns = "+splits[1]);
+            } else if( flag.compareTo("SparseNZ") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.sparseNonZerosPerRow = Integer.parseInt(splits[1]);
+                System.out.println("Sparse non-zeros per row = "+config.sparseNonZerosPerRow);
+            } else if( flag.compareTo("Float32") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.float32 = Boolean.parseBoolean(splits[1]);
+                System.out.println("Float32 operations = "+config.float32);
+            } else if( flag.compareTo("Complex") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.complex = Boolean.parseBoolean(splits[1]);
+                System.out.println("Complex operations = "+config.complex);
+            } else if( flag.compareTo("InputCache") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.inputCacheMinSize = Integer.parseInt(splits[1]);
+                System.out.println("Input cache minimum size = "+config.inputCacheMinSize);
+            } else if( flag.compareTo("InputCacheMB") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.inputCacheMaxMB = Long.parseLong(splits[1]);
+                System.out.println("Input cache maximum size = "+config.inputCacheMaxMB+" (MB)");
+            } else if( flag.compareTo("JobsPerSlave") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.jobsPerSlave = Integer.parseInt(splits[1]);
+                System.out.println("Jobs per slave JVM set to "+config.jobsPerSlave);
+            } else if( flag.compareTo("Parallel") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.parallelSlaves = Integer.parseInt(splits[1]);
+                System.out.println("Slaves run in parallel set to "+config.parallelSlaves);
+            } else if( flag.compareTo("CoresMT") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.coresMultiThreaded = Integer.parseInt(splits[1]);
+                System.out.println("Cores for multi-threaded libraries set to "+config.coresMultiThreaded);
+            } else if( flag.compareTo("Throughput") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                config.throughputThreads = new ArrayList<>();
+                if( splits[1].equalsIgnoreCase("all") ) {
+                    for (int j = 1; j <= Runtime.getRuntime().availableProcessors(); j++) {
+                        config.throughputThreads.add(j);
+                    }
+                } else {
+                    for( String n : splits[1].split(",") ) {
+                        config.throughputThreads.add(Integer.parseInt(n));
+                    }
+                }
+                System.out.println("Throughput threads = "+config.throughputThreads);
+            } else if( flag.compareTo("Scaling") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                if( splits[1].equalsIgnoreCase("all") ) {
+                    config.scalingProcessors = allProcessorCounts();
+                } else {
+                    config.scalingProcessors = new ArrayList<>();
+                    for( String n : splits[1].split(",") ) {
+                        config.scalingProcessors.add(Integer.parseInt(n));
+                    }
+                }
+                System.out.println("Scaling processors = "+config.scalingProcessors);
+            } else if( flag.compareTo("Profile") == 0 ) {
+                // JVM arguments can contain '=' so the original argument is parsed instead of splits
+                String value = args[i].substring(args[i].indexOf('=')+1);
+                if( splits.length < 2 || value.isEmpty() ) {failed = true; break;}
+                if( config.jvmProfiles == null )
+                    config.jvmProfiles = new ArrayList<>();
+                int colon = value.indexOf(':');
+                if( colon < 0 && value.equalsIgnoreCase("Standard") ) {
+                    config.jvmProfiles.addAll(JvmProfile.createStandard());
+                } else if( colon < 0 && value.equalsIgnoreCase("GC") ) {
+                    config.jvmProfiles.addAll(JvmProfile.createGarbageCollectors());
+                } else if( colon < 0 ) {
+                    JvmProfile profile = JvmProfile.lookupStandard(value);
+                    if( profile == null ) {
+                        System.out.println("Unknown profile "+value+".  Standard profiles are "+standardProfileNames());
+                        failed = true; break;
+                    }
+                    config.jvmProfiles.add(profile);
+                } else {
+                    config.jvmProfiles.add(new JvmProfile(value.substring(0,colon),
+                            value.substring(colon+1).split(",")));
+                }
+                System.out.println("Added JVM profile "+config.jvmProfiles.get(config.jvmProfiles.size()-1));
+            } else if( flag.compareTo("Resume") == 0 ) {
                 if( splits.length != 2 || args.length != 1 ) {failed = true; break;}
                 System.out.println("Resuming a benchmark in dir "+splits[1]);
                 RuntimeBenchmark master = new RuntimeBenchmark(splits[1]);
-                config = UtilXmlSerialization.deserializeXml(splits[1]+"/config.xml");
+                config = UtilXmlSerialization.deserializeXml(splits[1]+"/"+CONFIG_NAME);
                 master.performBenchmark(config);
                 return;
             } else if( flag.compareTo("Memory") == 0 ) {
@@ -20,8 +20,10 @@
 package jmbench.tools.runtime;
 
 import jmbench.impl.LibraryDescription;
+import jmbench.misc.RandomSparseMatrices;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 
 
@@ -57,6 +59,25 @@ public class RuntimeBenchmarkConfig implements Serializable {
     public boolean transposeSquare;
     public boolean transposeTall;
     public boolean transposeWide;
+    // operations which convert matrices into and out of the library's format
+    public boolean conversion;
+    // operations which create new matrices
+    public boolean creation;
+    // operations on batches of small fixed size matrices and how many matrices are in each batch
+    public boolean batch;
+    public int batchCount;
+    // operations on sparse matrices.  They have their own range of sizes since sparse matrices are much larger
+    public boolean sparse;
+    public int sparseMinSize;
+    public int sparseMaxSize;
+    // patterns of non-zero elements which the sparse operations are run on
+    public RandomSparseMatrices.Pattern[] sparsePatterns;
+    // approximate number of non-zero elements in each row of a sparse matrix
+    public int sparseNonZerosPerRow;
+    // single precision versions of the dense operations which are turned on
+    public boolean float32;
+    // operations on matrices with complex elements
+    public boolean complex;
 
     // which libraries are to be evaluated
     public List<LibraryDescription> targets;
@@ -65,18 +86,85 @@ public class RuntimeBenchmarkConfig implements Serializable {
     // It does warm up trials and attempts to get a stable measurement that lasts at least minimumTimePeriodMS
     // After that it will record the ops/sec and return that.
 
+    // If true then instead of going through every matrix size in order, each operation is first run at increasing
+    // sizes until it fails or is too slow and then operations and matrix sizes are drawn at random
+    public boolean sampling;
+    // Sampling stops for an operation after this many tests.  If zero there's no limit
+    public int samplingTrials;
+    // Sampling stops for an operation after this much time has been spent on it (ms).  If zero there's no limit
+    public int samplingBudgetMS;
+
     // it will stop processing a matrix size if this number of tests has been exceeded
     public int totalTests;
+    // it will stop processing a matrix size early once the 95% confidence interval's half-width of ops/sec is
+    // less than this percentage of the mean.  If zero then totalTests are always performed.
+    public double convergencePercent;
+    // minimum number of tests for a matrix size before it can stop early
+    public int minimumTests;
+    // it will stop processing a matrix size once this much time has been spent on it (ms). If zero there's no limit
+    public int maximumCellTimeMS;
     // the minimum amount of time a single test should last for (ms)
     public int minimumTimePeriodMS;
+    // A test is only measured after the JIT has been quiet for this long (ms).  If zero then a fixed number of
+    // warm up trials is used instead
+    public int compileQuietMS;
+    // If true then JFR compilation and deoptimization events are also used to detect JIT activity
+    public boolean compilationEvents;
+    // If true then the latency of individual iterations is recorded in a histogram after each test
+    public boolean latencyHistogram;
+    // Number of times a test is repeated if the garbage collector ran while it was being timed
+    public int gcRetries;
+    // If true then slaves are run inside of Linux perf to collect hardware counters.  Requires one job per slave
+    public boolean perfCounters;
     // The maximum amount of time a slave is allowed to run before it's killed, possible frozen (ms)
     public int maximumTimeSlaveProcessingMS;
+    // If more than zero slaves send heartbeats and are killed if one isn't seen for this long (ms).  With
+    // heartbeats a slave is also stopped early if a call is predicted to end after maximumTimeSlaveProcessingMS
+    public int heartbeatTimeoutMS;
+    // If true then the time a test takes is modeled from the completed matrix sizes.  Sizes predicted to take
+    // longer than maximumTimeSlaveProcessingMS are skipped and fewer tests are done on sizes which won't fit
+    // inside of maximumCellTimeMS
+    public boolean predictiveSkip;
+    // Input matrices for this matrix size and larger are created once and shared between slaves through
+    // memory-mapped files.  If zero or less then slaves always create their own inputs
+    public int inputCacheMinSize;
+    // Maximum size of the files in the input cache (MB).  Inputs which don't fit are only used once
+    public long inputCacheMaxMB;
 
     // specifies a fixed amount of memory that is to be allocated to the slave.
     // if set to zero then the memory will be dynamically allocated
     // memory here is in megabytes
     public int memoryMB;
 
+    // Maximum number of tests a slave JVM will run before it's replaced by a new one.  If one or less a new JVM
+    // is launched for each test, which is the most isolated but spends a lot of time starting JVMs
+    public int jobsPerSlave;
+
+    // Number of slaves which are run at the same time, each one benchmarking a different library and pinned to
+    // its own CPU cores.  If one or less then libraries are benchmarked one at a time without pinning
+    public int parallelSlaves;
+    // Number of cores a library which is multi-threaded internally is given when slaves are run in parallel
+    public int coresMultiThreaded;
+    // Logical CPUs with an index less than this are never assigned to a slave, leaving them for the master and OS
+    public int reservedCores;
+
+    // The benchmark is repeated with slaves launched using each of these JVM profiles.  If empty then slaves are
+    // launched with the default JVM settings
+    public List<JvmProfile> jvmProfiles;
+
+    // If not empty then the benchmark is repeated with each operation being run by this many threads at once,
+    // each on its own inputs, and the combined throughput is recorded.  Each thread count is saved into its own
+    // results directory
+    public List<Integer> throughputThreads;
+
+    // Number of threads which run each operation at the same time.  One or less for a single thread.  Set for
+    // each entry in throughputThreads and saved with the results of that thread count
+    public int threads = 1;
+
+    // If not empty then the benchmark is repeated with the slave restricted to each of these numbers of processors.
+    // Used to see how well libraries which are multi-threaded internally scale.  Saved like a profile
+    public List<Integer> scalingProcessors;
+
     // largest size matrix it can process
     public int maxMatrixSize;
     // the smallest matrix size it will process
@@ -92,9 +180,31 @@ public class RuntimeBenchmarkConfig implements Serializable {
 
         config.seed = 0xDEADBEEF;
         config.totalTests = 15;
+        config.convergencePercent = 0;
+        config.minimumTests = 5;
+        config.maximumCellTimeMS = 0;
         config.minimumTimePeriodMS = 3000;
+        config.compileQuietMS = 0;
+        config.compilationEvents = false;
+        config.latencyHistogram = false;
+        config.gcRetries = 0;
+        config.perfCounters = false;
         config.maximumTimeSlaveProcessingMS = 1000*60*15;
+        config.heartbeatTimeoutMS = 0;
+        config.predictiveSkip = false;
+        config.inputCacheMinSize = 0;
+        config.inputCacheMaxMB = 10*1024;
         config.memoryMB = 0;
+        config.jobsPerSlave = 1;
+        config.parallelSlaves = 1;
+        config.coresMultiThreaded = 4;
+        config.reservedCores = 1;
+        config.jvmProfiles = new ArrayList<>();
+        config.throughputThreads = new ArrayList<>();
+        config.scalingProcessors = new ArrayList<>();
+        config.sampling = false;
+        config.samplingTrials = 200;
+        config.samplingBudgetMS = 1000*60*60;
         config.randizeOrder = true;
         config.maxMatrixSize = 40000;
         config.minMatrixSize = 2;
@@ -117,6 +227,17 @@ public class RuntimeBenchmarkConfig implements Serializable {
         config.solveExact = true;
         config.solveOver = true;
         config.transposeSquare = true;
+        config.conversion = false;
+        config.creation = false;
+        config.batch = false;
+        config.batchCount = 4096;
+        config.sparse = false;
+        config.sparseMinSize = 1000;
+        config.sparseMaxSize = 100000;
+        config.sparsePatterns = RandomSparseMatrices.Pattern.values();
+        config.sparseNonZerosPerRow = 10;
+        config.float32 = false;
+        config.complex = false;
 
         config.targets = targets;
 
@@ -267,6 +388,118 @@ public class RuntimeBenchmarkConfig implements Serializable {
         this.targets = targets;
     }
 
+    public boolean isConversion() {
+        return conversion;
+    }
+
+    public void setConversion(boolean conversion) {
+        this.conversion = conversion;
+    }
+
+    public boolean isCreation() {
+        return creation;
+    }
+
+    public void setCreation(boolean creation) {
+        this.creation = creation;
+    }
+
+    public boolean isBatch() {
+        return batch;
+    }
+
+    public void setBatch(boolean batch) {
+        this.batch = batch;
+    }
+
+    public int getBatchCount() {
+        return batchCount;
+    }
+
+    public void setBatchCount(int batchCount) {
+        this.batchCount = batchCount;
+    }
+
+    public boolean isSparse() {
+        return sparse;
+    }
+
+    public void setSparse(boolean sparse) {
+        this.sparse = sparse;
+    }
+
+    public int getSparseMinSize() {
+        return sparseMinSize;
+    }
+
+    public void setSparseMinSize(int sparseMinSize) {
+        this.sparseMinSize = sparseMinSize;
+    }
+
+    public int getSparseMaxSize() {
+        return sparseMaxSize;
+    }
+
+    public void setSparseMaxSize(int sparseMaxSize) {
+        this.sparseMaxSize = sparseMaxSize;
+    }
+
+    public RandomSparseMatrices.Pattern[] getSparsePatterns() {
+        return sparsePatterns;
+    }
+
+    public void setSparsePatterns(RandomSparseMatrices.Pattern[] sparsePatterns) {
+        this.sparsePatterns = sparsePatterns;
+    }
+
+    public int getSparseNonZerosPerRow() {
+        return sparseNonZerosPerRow;
+    }
+
+    public void setSparseNonZerosPerRow(int sparseNonZerosPerRow) {
+        this.sparseNonZerosPerRow = sparseNonZerosPerRow;
+    }
+
+    public boolean isFloat32() {
+        return float32;
+    }
+
+    public void setFloat32(boolean float32) {
+        this.float32 = float32;
+    }
+
+    public boolean isComplex() {
+        return complex;
+    }
+
+    public void setComplex(boolean complex) {
+        this.complex = complex;
+    }
+
+    public boolean isSampling() {
+        return sampling;
+    }
+
+    public void setSampling(boolean sampling) {
+        this.sampling = sampling;
+    }
+
+    public int getSamplingTrials() {
+        return samplingTrials;
+    }
+
+    public void setSamplingTrials(int samplingTrials) {
+        this.samplingTrials = samplingTrials;
+    }
+
+    public int getSamplingBudgetMS() {
+        return samplingBudgetMS;
+    }
+
+    public void setSamplingBudgetMS(int samplingBudgetMS) {
+        this.samplingBudgetMS = samplingBudgetMS;
+    }
+
     public boolean isRandizeOrder() {
         return randizeOrder;
     }
@@ -283,6 +516,30 @@ public class RuntimeBenchmarkConfig implements Serializable {
         this.totalTests = totalTests;
     }
 
+    public double getConvergencePercent() {
+        return convergencePercent;
+    }
+
+    public void setConvergencePercent(double convergencePercent) {
+        this.convergencePercent = convergencePercent;
+    }
+
+    public int getMinimumTests() {
+        return minimumTests;
+    }
+
+    public void setMinimumTests(int minimumTests) {
+        this.minimumTests = minimumTests;
+    }
+
+    public int getMaximumCellTimeMS() {
+        return maximumCellTimeMS;
+    }
+
+    public void setMaximumCellTimeMS(int maximumCellTimeMS) {
+        this.maximumCellTimeMS = maximumCellTimeMS;
+    }
+
     public int getMinimumTimePeriodMS() {
         return minimumTimePeriodMS;
     }
@@ -291,6 +548,46 @@ public class RuntimeBenchmarkConfig implements Serializable {
         this.minimumTimePeriodMS = minimumTimePeriodMS;
     }
 
+    public int getCompileQuietMS() {
+        return compileQuietMS;
+    }
+
+    public void setCompileQuietMS(int compileQuietMS) {
+        this.compileQuietMS = compileQuietMS;
+    }
+
+    public boolean isCompilationEvents() {
+        return compilationEvents;
+    }
+
+    public void setCompilationEvents(boolean compilationEvents) {
+        this.compilationEvents = compilationEvents;
+    }
+
+    public boolean isLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    public void setLatencyHistogram(boolean latencyHistogram) {
+        this.latencyHistogram = latencyHistogram;
+    }
+
+    public int getGcRetries() {
+        return gcRetries;
+    }
+
+    public void setGcRetries(int gcRetries) {
+        this.gcRetries = gcRetries;
+    }
+
+    public boolean isPerfCounters() {
+        return perfCounters;
+    }
+
+    public void setPerfCounters(boolean perfCounters) {
+        this.perfCounters = perfCounters;
+    }
+
     public int getMaxMatrixSize() {
         return maxMatrixSize;
     }
@@ -323,6 +620,38 @@ public class RuntimeBenchmarkConfig implements Serializable {
         this.maximumTimeSlaveProcessingMS = maximumTimeSlaveProcessingMS;
     }
 
+    public int getInputCacheMinSize() {
+        return inputCacheMinSize;
+    }
+
+    public void setInputCacheMinSize(int inputCacheMinSize) {
+        this.inputCacheMinSize = inputCacheMinSize;
+    }
+
+    public long getInputCacheMaxMB() {
+        return inputCacheMaxMB;
+    }
+
+    public void setInputCacheMaxMB(long inputCacheMaxMB) {
+        this.inputCacheMaxMB = inputCacheMaxMB;
+    }
+
+    public boolean isPredictiveSkip() {
+        return predictiveSkip;
+    }
+
+    public void setPredictiveSkip(boolean predictiveSkip) {
+        this.predictiveSkip = predictiveSkip;
+    }
+
+    public int getHeartbeatTimeoutMS() {
+        return heartbeatTimeoutMS;
+    }
+
+    public void setHeartbeatTimeoutMS(int heartbeatTimeoutMS) {
+        this.heartbeatTimeoutMS = heartbeatTimeoutMS;
+    }
+
     public int getMemoryMB() {
         return memoryMB;
     }
@@ -330,4 +659,68 @@ public class RuntimeBenchmarkConfig implements Serializable {
     public void setMemoryMB(int memoryMB) {
         this.memoryMB = memoryMB;
     }
+
+    public int getJobsPerSlave() {
+        return jobsPerSlave;
+    }
+
+    public void setJobsPerSlave(int jobsPerSlave) {
+        this.jobsPerSlave = jobsPerSlave;
+    }
+
+    public int getParallelSlaves() {
+        return parallelSlaves;
+    }
+
+    public void setParallelSlaves(int parallelSlaves) {
+        this.parallelSlaves = parallelSlaves;
+    }
+
+    public int getCoresMultiThreaded() {
+        return coresMultiThreaded;
+    }
+
+    public void setCoresMultiThreaded(int coresMultiThreaded) {
+        this.coresMultiThreaded = coresMultiThreaded;
+    }
+
+    public List<JvmProfile> getJvmProfiles() {
+        return jvmProfiles;
+    }
+
+    public void setJvmProfiles(List<JvmProfile> jvmProfiles) {
+        this.jvmProfiles = jvmProfiles;
+    }
+
+    public List<Integer> getThroughputThreads() {
+        return throughputThreads;
+    }
+
+    public void setThroughputThreads(List<Integer> throughputThreads) {
+        this.throughputThreads = throughputThreads;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public List<Integer> getScalingProcessors() {
+        return scalingProcessors;
+    }
+
+    public void setScalingProcessors(List<Integer> scalingProcessors) {
+        this.scalingProcessors = scalingProcessors;
+    }
+
+    public int getReservedCores() {
+        return reservedCores;
+    }
+
+    public void setReservedCores(int reservedCores) {
+        this.reservedCores = reservedCores;
+    }
 }
@@ -27,6 +27,10 @@ import jmbench.tools.BenchmarkTools;
 import jmbench.tools.EvaluatorSlave;
 import jmbench.tools.TestResults;
 import jmbench.tools.runtime.evaluation.RuntimeResultsCsvIO;
+import jmbench.tools.runtime.generator.ComplexGenerator;
+import jmbench.tools.runtime.generator.FloatGenerator;
+import jmbench.tools.runtime.generator.SparseGenerator;
+import org.apache.commons.lang3.SystemUtils;
 
 import java.io.*;
 import java.util.ArrayList;
@@ -97,6 +101,9 @@ public class RuntimeBenchmarkLibrary {
     // the most memory that it allocated to java without any issues
     private long maxMemoryAllocated;
 
+    // directory of the cache that input matrices are shared through.  null if there is no cache
+    private String inputCacheDir;
+
     // should it spawn a slave to run the benchmark or do it in the same java instance as this class
     private static final boolean SPAWN_SLAVE = true;
 
@@ -124,6 +131,73 @@ public class RuntimeBenchmarkLibrary {
 
         tools = new BenchmarkTools(desc.listOfJarFilePaths());
         tools.setVerbose(false);
+        tools.setJobsPerSlave(config.jobsPerSlave);
+        tools.setHeartbeatTimeoutMS(config.heartbeatTimeoutMS);
+        if( config.perfCounters ) {
+            // perf only reports counters when the process exits
+            if( config.jobsPerSlave > 1 )
+                System.err.println("Hardware counters require one job per slave. Counters are disabled.");
+            else
+                tools.setPerfCounters(true);
+        }
+    }
+
+    /**
+     * Restricts all the slaves to the specified CPU cores.  Required if multiple libraries are being
+     * benchmarked at the same time.
+     *
+     * @param cores List of cores or null to not restrict it
+     */
+    public void setCpuAffinity( int[] cores ) {
+        tools.setCpuAffinity(cores);
+    }
+
+    /**
+     * Specifies the directory of the cache that input matrices are shared through
+     *
+     * @param inputCacheDir The directory or null to not use a cache
+     */
+    public void setInputCacheDir( String inputCacheDir ) {
+        this.inputCacheDir = inputCacheDir;
+    }
+
+    /**
+     * Launches all the slaves with the arguments in the profile
+     */
+    public void setJvmProfile( JvmProfile profile ) {
+        List<String> arguments = new ArrayList<>(profile.arguments);
+        if( profile.processors > 0 ) {
+            if( SystemUtils.IS_OS_LINUX ) {
+                // the launcher also sets the active processor count to match
+                tools.setCpuAffinity(selectCores(config.reservedCores,profile.processors));
+            } else {
+                // can't control which cores are used but the JVM and libraries will think there are fewer
+                arguments.add("-XX:ActiveProcessorCount="+profile.processors);
+            }
+        }
+        tools.setJvmExtraArgs(arguments);
+    }
+
+    /**
+     * Selects neighboring cores for a slave which is restricted to the specified number of processors.  Reserved
+     * cores are skipped if there are enough cores left.
+     *
+     * @param reservedCores Cores with an index less than this are avoided
+     * @param processors Number of cores
+     */
+    public static int[] selectCores( int reservedCores , int processors ) {
+        int available = Runtime.getRuntime().availableProcessors();
+        if( processors > available ) {
+            System.err.println("Only "+available+" processors.  Can't restrict the slave to "+processors);
+            processors = available;
+        }
+        int first = Math.min(Math.max(0,reservedCores),available-processors);
+
+        int[] cores = new int[processors];
+        for (int i = 0; i < processors; i++) {
+            cores[i] = first+i;
+        }
+        return cores;
     }
 
     /**
@@ -135,7 +209,7 @@ public class RuntimeBenchmarkLibrary {
         List<RuntimeEvaluationCase> cases =
                 new FactoryRuntimeEvaluationCase(info.factory,config).createCases();
 
-        List<CaseState> states = createCaseList(cases);
+        List<CaseState> states = config.sampling ? createSamplingList(cases) : createCaseList(cases);
 
         if( states.isEmpty() ) {
             System.out.println("Benchmark already finished.  Deleting the new log and moving on.");
@@ -152,14 +226,16 @@ public class RuntimeBenchmarkLibrary {
 
             while(!states.isEmpty()) {
                 // if random is true then select the next operation block that is to be benchmarked randomly
-                int index = config.randizeOrder ? rand.nextInt( states.size() ) : 0;
+                int index = config.randizeOrder || config.sampling ? rand.nextInt( states.size() ) : 0;
 
                 CaseState s = states.get(index);
 
-                if( evaluateOneTest(s)) {
+                boolean finished = config.sampling ? evaluateOneSample(s) : evaluateOneTest(s);
+                if( finished ) {
                     states.remove(index);
                 }
             }
+            tools.shutdownPooled();
 
             System.out.println("Total processing time = "+(System.currentTimeMillis()-startTime)/1000.0);
 
@@ -175,7 +251,7 @@ public class RuntimeBenchmarkLibrary {
 
         for( RuntimeEvaluationCase c : cases ) {
             // see if the file already exists
-            File f = new File(directorySave+"/"+c.getNameAlgorithm()+".csv");
+            File f = new File(directorySave+"/"+c.getFileName()+".csv");
 
             if( f.exists() ) {
                 // if it exists read it in and see if it finished
@@ -185,6 +261,8 @@ public class RuntimeBenchmarkLibrary {
                 if( !oldResults.isComplete() ) {
                     CaseState cs = new CaseState(c);
                     cs.score = oldResults.metrics;
+                    if( oldResults.skipReasons != null )
+                        cs.skipReasons = oldResults.skipReasons;
                     for( cs.matrixIndex = 0; cs.matrixIndex < cs.score.length; cs.matrixIndex++ ) {
                         if( cs.score[cs.matrixIndex] == null ) {
                             break;
@@ -195,9 +273,9 @@ public class RuntimeBenchmarkLibrary {
                         cs.matrixIndex--;
                         List<RuntimeMeasurement> rawResults = cs.score[cs.matrixIndex].getRawResults();
 
-                        // TODO have a single function evaluate if its done processing matrix size
                         // see if it has enough trials to move on to the next matrix size
-                        if( rawResults.size() >= config.totalTests) {
+                        if( isMatrixSizeFinished(rawResults, 0, config.totalTests, c.getOpName(),
+                                oldResults.getMatDimen()[cs.matrixIndex]) ) {
                             cs.matrixIndex++;
                         } else {
                             // see if any of the current results are too long and it should move on
@@ -239,6 +317,53 @@ public class RuntimeBenchmarkLibrary {
         return states;
     }
 
+    /**
+     * Creates the list of operations for random sampling.  Previously saved results which haven't finished are
+     * added to.  If any matrix sizes were skipped then the largest size has already been found.
+     */
+    private List<CaseState> createSamplingList(List<RuntimeEvaluationCase> cases) {
+        if( config.samplingTrials <= 0 && config.samplingBudgetMS <= 0 )
+            throw new IllegalArgumentException("Sampling requires a limit on the number of tests or time per operation");
+
+        List<CaseState> states = new ArrayList<CaseState>();
+
+        for( RuntimeEvaluationCase c : cases ) {
+            CaseState cs = new CaseState(c);
+            cs.probing = true;
+
+            File f = new File(directorySave+"/"+c.getFileName()+".csv");
+            if( f.exists() ) {
+                RuntimeResults oldResults = RuntimeResultsCsvIO.read(f);
+
+                if( oldResults.isComplete() ) {
+                    System.out.println("SKIPPING: Found previously completed results for "+c.getOpName());
+                    logStream.println("SKIPPING: Found previously completed results for "+c.getOpName());
+                    continue;
+                }
+
+                cs.score = oldResults.metrics;
+                if( oldResults.skipReasons != null )
+                    cs.skipReasons = oldResults.skipReasons;
+                for (int i = 0; i < cs.score.length; i++) {
+                    if( cs.score[i] != null ) {
+                        cs.maxIndex = i;
+                        cs.trials += cs.score[i].getRawResults().size();
+                    }
+                    if( cs.skipReasons[i] != null )
+                        cs.probing = false;
+                }
+                cs.matrixIndex = cs.maxIndex+1;
+                if( cs.matrixIndex >= cs.score.length )
+                    cs.probing = false;
+                System.out.println("RESUMING OLD RESULTS: Operation "+c.getOpName()+" numTrials "+cs.trials);
+                logStream.println("RESUMING OLD RESULTS: Operation "+c.getOpName()+" numTrials "+cs.trials);
+            }
+            states.add(cs);
+        }
+
+        return states;
+    }
+
     /**
      * Sets out a file for recording errors.
      */
@@ -261,6 +386,10 @@ public class RuntimeBenchmarkLibrary {
 
         // For debugging purposes output the slave's classpath
         logStream.println("Current directory = "+new File(".").getAbsolutePath());
+        if( tools.getCpuAffinity() != null )
+            logStream.println("CPU cores = "+JavaRuntimeLauncher.coresToString(tools.getCpuAffinity()));
+        if( !tools.getJvmExtraArgs().isEmpty() )
+            logStream.println("JVM arguments = "+String.join(" ",tools.getJvmExtraArgs()));
         logStream.println("Classpath:");
         logStream.println(tools.getClassPath());
 
@@ -288,34 +417,252 @@ public class RuntimeBenchmarkLibrary {
         System.out.println(taskDescription);
         tools.setMessageTask(taskDescription); // this will be periodically printed out
 
+        long startTime = System.currentTimeMillis();
         RuntimeResults r = computeResults(e, state.matrixIndex , randSeedTrials , score , state.results);
+        state.elapsedMS += System.currentTimeMillis()-startTime;
 
         if( r == null )
             throw new RuntimeException("Shouldn't return null any more.  This is a bug.");
 
         boolean done = tooSlow || caseFailed;
 
+        if( done ) {
+            String reason = (tooSlow ? "too slow" : "failed")+" at size "+matDimen[state.matrixIndex];
+            for (int i = state.matrixIndex; i < matDimen.length; i++) {
+                if( score[i] == null )
+                    state.skipReasons[i] = reason;
+            }
+        }
+
         // increment the number of blocks
-        if( !done && state.results.size() >= config.totalTests) {
+        if( !done && isMatrixSizeFinished(state.results, state.elapsedMS, state.plannedTests, e.getOpName(),
+                matDimen[state.matrixIndex]) ) {
+            updateModel(state,state.matrixIndex,state.elapsedMS/(double)state.results.size());
+
             state.results.clear();
+            state.elapsedMS = 0;
             state.matrixIndex++;
 
             // see if its done processing all the matrices
             if( state.matrixIndex >= matDimen.length ) {
                 done = true;
+            } else {
+                done = planMatrixSize(state);
             }
         }
 
         // mark the this operation as being finished or not
         r.complete = done;
+        r.skipReasons = state.skipReasons;
 
         // save the current state of the test
-        RuntimeResultsCsvIO.write(r,directorySave+"/"+e.getNameAlgorithm()+".csv");
+        RuntimeResultsCsvIO.write(r,directorySave+"/"+e.getFileName()+".csv");
 //        UtilXmlSerialization.serializeXml(r,directorySave+"/"+e.getFileName()+".xml");
 
         return done;
     }
 
+    /**
+     * <p>
+     * Runs a single test for random sampling.  While probing the operation is run once at each matrix size,
+     * smallest first, to find the largest size it can process.  Probing stops when it fails, is too slow, or
+     * the next size is predicted to take too long.  After that the matrix size is drawn at random from the sizes
+     * it could process.
+     * </p>
+     *
+     * <p>
+     * Every test, including those done while probing, counts towards the operation's limits on the number of
+     * tests and time.  The results are saved after each test the same way as when every size is tested in order.
+     * </p>
+     *
+     * @return true if the operation has finished
+     */
+    private boolean evaluateOneSample( CaseState state ) throws FileNotFoundException {
+        RuntimeEvaluationCase e = state.evalCase;
+        int[] matDimen = e.getDimens();
+
+        int index = state.probing ? state.matrixIndex : rand.nextInt(state.maxIndex+1);
+
+        String limit = config.samplingTrials > 0 ? "/"+config.samplingTrials : "";
+        String taskDescription = "#### "+info.namePlot+"  op "+e.getOpName()+"  Size "+matDimen[index]+
+                (state.probing ? " Probing" : " Sampling")+" "+state.trials+limit+"  ####";
+        System.out.println(taskDescription);
+        tools.setMessageTask(taskDescription);
+
+        List<RuntimeMeasurement> rawResults = state.score[index] == null ?
+                new ArrayList<RuntimeMeasurement>() : state.score[index].getRawResults();
+
+        long startTime = System.currentTimeMillis();
+        RuntimeResults r = computeResults(e, index , randSeedTrials , state.score , rawResults);
+        long elapsedMS = System.currentTimeMillis()-startTime;
+        state.elapsedMS += elapsedMS;
+        state.trials++;
+
+        if( tooSlow || caseFailed ) {
+            // don't try this size or any larger ones again
+            String reason = (tooSlow ? "too slow" : "failed")+" at size "+matDimen[index];
+            for (int i = index; i < matDimen.length; i++) {
+                if( state.score[i] == null && state.skipReasons[i] == null )
+                    state.skipReasons[i] = reason;
+            }
+            state.maxIndex = Math.min(state.maxIndex,index-1);
+            state.probing = false;
+        } else if( state.probing ) {
+            updateModel(state,index,elapsedMS);
+            state.maxIndex = index;
+            state.matrixIndex++;
+            if( state.matrixIndex >= matDimen.length || planMatrixSize(state) ) {
+                state.probing = false;
+            }
+        }
+
+        boolean done = isSamplingFinished(state);
+
+        r.complete = done;
+        r.skipReasons = state.skipReasons;
+        RuntimeResultsCsvIO.write(r,directorySave+"/"+e.getFileName()+".csv");
+
+        return done;
+    }
+
+    /**
+     * Random sampling of an operation is finished once it has used up its tests or time, or if it can't process
+     * any of the matrix sizes
+     */
+    private boolean isSamplingFinished( CaseState state ) {
+        String opName = state.evalCase.getOpName();
+        if( !state.probing && state.maxIndex < 0 ) {
+            logStream.println("    No matrix sizes could be processed: op = "+opName);
+            return true;
+        }
+        if( config.samplingTrials > 0 && state.trials >= config.samplingTrials ) {
+            logStream.println("    Sampled tests used up: op = "+opName+" tests = "+state.trials);
+            return true;
+        }
+        if( config.samplingBudgetMS > 0 && state.elapsedMS >= config.samplingBudgetMS ) {
+            logStream.println("    Sampling time budget used up: op = "+opName+" tests = "+state.trials);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Adds the time a single call took at a finished matrix size to the runtime model.  The time each test took,
+     * including launching the slave, is used to update the estimated overhead of a test.
+     *
+     * @param testMS Average time it took to run a single test at the matrix size
+     */
+    private void updateModel( CaseState state , int matrixIndex , double testMS ) {
+        RuntimeEvaluationMetrics score = state.score[matrixIndex];
+        if( score == null || score.getMedian() <= 0 )
+            return;
+        // When run concurrently ops/sec is the combined throughput of every thread
+        double callMS = Math.max(1,config.threads)*1000.0/score.getMedian();
+        state.model.add(state.evalCase.getDimens()[matrixIndex],callMS);
+        state.overheadMS = Math.max(0,testMS-predictTestMS(callMS));
+    }
+
+    /**
+     * Predicts how long the slave will spend running the operation in a single test from how long a single call
+     * takes.  It mirrors {@link RuntimeEvaluationTest#evaluate()}, which warms up for about 4 minimum time
+     * periods then measures over one more.  Operations which are far slower than the minimum time period are
+     * called only once.  Recording latency and hardware counters both run the measurement again.
+     *
+     * @param callMS Time a single call takes in milliseconds
+     * @return Time in milliseconds, not including the overhead of launching the slave
+     */
+    private double predictTestMS( double callMS ) {
+        double goalMS = config.minimumTimePeriodMS;
+        if( callMS > goalMS*30 )
+            return callMS;
+
+        double batchMS = Math.max(goalMS,callMS);
+        int extraBatches = 0;
+        if( config.latencyHistogram && config.threads <= 1 )
+            extraBatches++;
+        if( config.perfCounters )
+            extraBatches++;
+        return Math.max(callMS,4*0.9*goalMS) + batchMS*(1+extraBatches);
+    }
+
+    /**
+     * Uses the runtime model to decide what to do with the next matrix size.  If a test is predicted to take
+     * longer than a slave is allowed to run then it and all the larger sizes are skipped.  If all the tests
+     * won't fit inside the time budget for a matrix size then fewer are planned.
+     *
+     * @return true if the remaining matrix sizes are skipped
+     */
+    private boolean planMatrixSize( CaseState state ) {
+        state.plannedTests = config.totalTests;
+        if( !config.predictiveSkip || !state.model.isValid() )
+            return false;
+
+        RuntimeEvaluationCase e = state.evalCase;
+        int[] matDimen = e.getDimens();
+        int matrixSize = matDimen[state.matrixIndex];
+        double predictedMS = predictTestMS(state.model.predict(matrixSize)) + state.overheadMS;
+
+        if( predictedMS > config.maximumTimeSlaveProcessingMS ) {
+            String reason = String.format("predicted %.0f ms per test at size %d",predictedMS,matrixSize);
+            for (int i = state.matrixIndex; i < matDimen.length; i++) {
+                state.skipReasons[i] = reason;
+            }
+            String message = String.format("    Skipping sizes >= %d: op = %s predicted %.0f ms per test, " +
+                    "limit %d ms, ms per call = %.3g*n^%.2f",matrixSize,e.getOpName(),predictedMS,
+                    config.maximumTimeSlaveProcessingMS,state.model.getA(),state.model.getK());
+            logStream.println(message);
+            System.out.println(message);
+            return true;
+        }
+
+        if( config.maximumCellTimeMS > 0 ) {
+            int fits = (int)(config.maximumCellTimeMS/predictedMS);
+            if( fits < config.totalTests ) {
+                state.plannedTests = Math.max(1,fits);
+                logStream.printf("    Reducing tests: op = %s matrix size = %d tests = %d predicted %.0f ms per test\n",
+                        e.getOpName(),matrixSize,state.plannedTests,predictedMS);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decides if enough tests have been done for a matrix size.  It's done once the maximum number of tests has
+     * been reached.  After the minimum number of tests it can stop early if the time budget has been used up or
+     * the confidence interval of ops/sec is narrow enough.
+     *
+     * @param results Tests performed for the matrix size
+     * @param elapsedMS How much time has been spent on the matrix size.  Zero if unknown.
+     * @param plannedTests Number of tests which were planned for this size. At most totalTests
+     * @return true if it should move on to the next matrix size
+     */
+    private boolean isMatrixSizeFinished( List<RuntimeMeasurement> results , long elapsedMS , int plannedTests ,
+                                          String opName , int matrixSize ) {
+        int N = results.size();
+        if( N >= Math.min(plannedTests,config.totalTests) )
+            return true;
+
+        // must have at least two to compute a confidence interval
+        if( N < Math.min(Math.max(2,config.minimumTests),config.totalTests) )
+            return false;
+
+        if( config.maximumCellTimeMS > 0 && elapsedMS >= config.maximumCellTimeMS ) {
+            logStream.println("    Time budget used up: op = "+opName+" matrix size = "+matrixSize+" tests = "+N);
+            return true;
+        }
+
+        if( config.convergencePercent > 0 ) {
+            double percent = 100*RuntimeEvaluationMetrics.relativeConfidenceHalfWidth(results);
+            if( percent <= config.convergencePercent ) {
+                logStream.printf("    Converged: op = %s matrix size = %d tests = %d confidence = +-%.2f%%\n",
+                        opName,matrixSize,N,percent);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     /**
      * Saves library info that can only be determined at runtime.
      */
@@ -331,7 +678,8 @@ public class RuntimeBenchmarkLibrary {
                                           RuntimeEvaluationMetrics[] score, List<RuntimeMeasurement> rawResults )
     {
         // compute the results for all the tests
-        RuntimeMeasurement opsPerSecond = evaluateCaseFixedMemory( e , randSeed , matrixIndex , rawResults.size());
+        RuntimeMeasurement opsPerSecond = evaluateCaseFixedMemory( e , randSeed , matrixIndex , rawResults.size(),
+                estimateCallNS(e.getDimens(),matrixIndex,score));
 
         if( opsPerSecond == null || caseFailed ) {
             System.out.println("      ---- ***** -----");
@@ -350,22 +698,57 @@ public class RuntimeBenchmarkLibrary {
     }
 
 
+    /**
+     * Estimates how long a single call to the operation will take at a matrix size.  Measurements at the same size
+     * are used if there are any, otherwise the closest smaller size is scaled up assuming O(N^3).  The slave gives
+     * this to the master as the expected time of its first call so that a library which hangs is caught early.
+     *
+     * @return time in nanoseconds or -1 if there's nothing to base it on
+     */
+    private long estimateCallNS( int[] matDimen , int matrixIndex , RuntimeEvaluationMetrics[] score ) {
+        for (int i = matrixIndex; i >= 0; i--) {
+            if( score[i] == null || score[i].getMin() <= 0 )
+                continue;
+            // slowest measurement.  When run concurrently ops/sec is the combined throughput of every thread
+            double callNS = Math.max(1,config.threads)*1e9/score[i].getMin();
+            return (long)(callNS*Math.pow(matDimen[matrixIndex]/(double)matDimen[i],3));
+        }
+        return -1;
+    }
+
     /**
      * Computes performance metrics for the specified case only allocating the specified amount of memory.
      *
      * @param indexDimen Which matrix size it should use.
+     * @param expectedCallNS How long a single call is expected to take or -1 if unknown
      * @return The operations per second for this case.
      */
     @SuppressWarnings({"RedundantCast", "unchecked"})
     private RuntimeMeasurement evaluateCaseFixedMemory( RuntimeEvaluationCase e ,
-                                                              long seed , int indexDimen, int completedTests )
+                                                              long seed , int indexDimen, int completedTests ,
+                                                              long expectedCallNS )
     {
 
         RuntimeEvaluationTest test = e.createTest(completedTests,indexDimen,config.minimumTimePeriodMS);
         test.setRandomSeed(seed);
+        test.setExpectedCallNS(expectedCallNS);
+        test.setCompileQuietMS(config.compileQuietMS);
+        test.setCompilationEvents(config.compilationEvents);
+        test.setRecordLatency(config.latencyHistogram);
+        test.setGcRetries(config.gcRetries);
+        test.setThreads(config.threads);
 
         int matrixSize = e.getDimens()[indexDimen];
 
+        // the cache saves inputs as dense matrices, which would be far larger than the sparse matrices, and reads
+        // them back as real double precision matrices
+        boolean cacheable = !(e.getGenerator() instanceof SparseGenerator || e.getGenerator() instanceof FloatGenerator ||
+                e.getGenerator() instanceof ComplexGenerator);
+        if( inputCacheDir != null && cacheable && matrixSize >= config.inputCacheMinSize )
+            test.setInputCache(inputCacheDir,config.inputCacheMaxMB);
+        else
+            test.setInputCache(null,0);
+
         tools.setOverrideMemory(config.memoryMB);
 
         EvaluatorSlave.Results r = callRunTest(e, test, matrixSize);
@@ -374,7 +757,18 @@ public class RuntimeBenchmarkLibrary {
             return null;
         }
 
-        return (RuntimeMeasurement)r.results;
+        RuntimeMeasurement measurement = (RuntimeMeasurement)r.results;
+        if( measurement != null && tools.getCpuAffinity() != null )
+            measurement.cores = JavaRuntimeLauncher.coresToString(tools.getCpuAffinity());
+        if( measurement != null && tools.getPerfStat() != null )
+            measurement.setPerfCounters(tools.getPerfStat());
+        if( measurement != null && measurement.isGcContaminated() ) {
+            logStream.printf("    GC ran during the measurement: op = %s matrix size = %d collections = %d " +
+                            "gc time = %d ms fraction = %.3f retries = %d\n", e.getOpName(), matrixSize,
+                    measurement.gcCount, measurement.gcTimeMS, measurement.gcFraction, measurement.gcRetries);
+        }
+
+        return measurement;
     }
 
     private EvaluatorSlave.Results callRunTest(RuntimeEvaluationCase e, RuntimeEvaluationTest test, int matrixSize ) {
@@ -389,7 +783,13 @@ public class RuntimeBenchmarkLibrary {
         else
             r = tools.runTestNoSpawn(test);
 
-        if( r == null ) {
+        if( r == null && tools.getExit() == JavaRuntimeLauncher.Exit.TOO_SLOW ) {
+            logStream.println("    Case was too slow: op = "+e.getOpName()+" matrix size = "+matrixSize+
+                    " reason = "+tools.getKillReason());
+            tooSlow = true;
+        } else if( r == null ) {
+            if( tools.getKillReason() != null )
+                logStream.println("*** Slave was killed: "+tools.getKillReason());
             logStream.println("*** RunTest returned null: exit = "+tools.getExit()+
                     " op = " + e.getOpName() + " matrix size = " + matrixSize + " memory = " +
                     tools.getAllocatedMemoryInMB() + " mb duration = " + tools.getDurationMilli());
@@ -467,9 +867,29 @@ public class RuntimeBenchmarkLibrary {
 
         int matrixIndex = 0;
 
+        // time spent on the current matrix size in milliseconds.  When sampling it's the time spent on the operation
+        long elapsedMS;
+
+        // predicts how long a single call to the operation will take at the next matrix size
+        PowerLawModel model = new PowerLawModel();
+        // time spent on a test outside of running the operation, e.g. launching the slave, in milliseconds
+        double overheadMS;
+        // number of tests planned for the current matrix size
+        int plannedTests = Integer.MAX_VALUE;
+        // why a matrix size was skipped
+        String[] skipReasons;
+
+        // true while random sampling is finding the largest matrix size that can be processed
+        boolean probing;
+        // index of the largest matrix size which could be processed when sampling.  -1 if none
+        int maxIndex = -1;
+        // number of tests done while sampling
+        int trials;
+
         public CaseState( RuntimeEvaluationCase e ) {
             this.evalCase = e;
             this.score = new RuntimeEvaluationMetrics[ e.getDimens().length ];
+            this.skipReasons = new String[ e.getDimens().length ];
         }
     }
 
@@ -34,8 +34,14 @@ public class RuntimeEvaluationCase implements Serializable {
     private String classFactory;
     // list of algorithms it it can run
     private String nameAlgorithm;
+    // which factory the algorithm is found in
+    private OperationTrack track = OperationTrack.DENSE;
+    // true if the operation allocates memory every time it's called
+    private boolean alwaysAllocates;
     // what creates the matrices it processes
     private InputOutputGenerator generator;
+    // name of the file results are saved to, without the extension.  If null then nameAlgorithm is used
+    private String fileName;
 
     private volatile RuntimeEvaluationTest theTest = new RuntimeEvaluationTest();
 
@@ -57,6 +63,8 @@ public class RuntimeEvaluationCase implements Serializable {
         theTest.setCompletedTrials(completedTrials);
         theTest.setDimen(dimens[dimenIndex]);
         theTest.setNameAlgorithm(nameAlgorithm);
+        theTest.setTrack(track);
+        theTest.setAlwaysAllocates(alwaysAllocates);
         theTest.setClassFactory(classFactory);
         theTest.setGenerator(generator);
         theTest.setMinTestPeriodMS(minTestPeriodMS);
@@ -72,6 +80,22 @@ public class RuntimeEvaluationCase implements Serializable {
         this.nameAlgorithm = nameAlgorithm;
     }
 
+    public OperationTrack getTrack() {
+        return track;
+    }
+
+    public void setTrack(OperationTrack track) {
+        this.track = track;
+    }
+
+    public boolean isAlwaysAllocates() {
+        return alwaysAllocates;
+    }
+
+    public void setAlwaysAllocates(boolean alwaysAllocates) {
+        this.alwaysAllocates = alwaysAllocates;
+    }
+
     public String getClassFactory() {
         return classFactory;
     }
@@ -103,4 +127,16 @@ public class RuntimeEvaluationCase implements Serializable {
     public void setGenerator(InputOutputGenerator generator) {
         this.generator = generator;
     }
+
+    /**
+     * Name of the file results are saved to.  Only needs to be set when the same algorithm is run more than once
+     * with different inputs.
+     */
+    public String getFileName() {
+        return fileName != null ? fileName : nameAlgorithm;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
 }
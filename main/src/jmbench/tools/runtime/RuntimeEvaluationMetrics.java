@@ -36,6 +36,11 @@ public class RuntimeEvaluationMetrics
     public final static int METRIC_MIN = 2;
     public final static int METRIC_MAX = 3;
     public final static int METRIC_MEDIAN = 4;
+    // Inverse of the mean time it took the JIT to reach steady state.  Inverted so that like ops/sec larger
+    // is better and the absolute plots show the time in seconds
+    public final static int METRIC_WARMUP = 5;
+    // Mean instructions per cycle from the hardware counters
+    public final static int METRIC_IPC = 6;
 
     public double mean;
     public double stdev;
@@ -44,6 +49,11 @@ public class RuntimeEvaluationMetrics
     public double max;
     public double median;
 
+    // mean time it took the JIT to reach steady state (ms).  NaN if it wasn't measured
+    public double warmupMS;
+    // mean instructions per cycle.  NaN if hardware counters weren't collected
+    public double ipc;
+
     // unsorted raw results.  these are in the order they were generated
     public List<RuntimeMeasurement> rawResults;
 
@@ -81,10 +91,81 @@ public class RuntimeEvaluationMetrics
             stdev += (d - mean)*(d - mean);
         }
         stdev = Math.sqrt( stdev / numSamples );
+
+        int numWarmup = 0;
+        warmupMS = 0;
+        for( RuntimeMeasurement r : rawResults ) {
+            if( r.warmupMS >= 0 ) {
+                warmupMS += r.warmupMS;
+                numWarmup++;
+            }
+        }
+        warmupMS = numWarmup > 0 ? warmupMS/numWarmup : Double.NaN;
+
+        int numIpc = 0;
+        ipc = 0;
+        for( RuntimeMeasurement r : rawResults ) {
+            if( r.getIpc() >= 0 ) {
+                ipc += r.getIpc();
+                numIpc++;
+            }
+        }
+        ipc = numIpc > 0 ? ipc/numIpc : Double.NaN;
     }
 
     public RuntimeEvaluationMetrics(){}
 
+    // Student's t critical values for a two sided 95% confidence interval. Index is degrees of freedom minus one
+    private static final double[] T_95 = {12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042};
+
+    /**
+     * Computes the half-width of the 95% confidence interval for the mean ops/sec, relative to the mean.
+     *
+     * @param vals Measurements
+     * @return Half-width divided by the mean or NaN if there are less than two measurements
+     */
+    public static double relativeConfidenceHalfWidth( List<RuntimeMeasurement> vals ) {
+        int N = vals.size();
+        if( N < 2 )
+            return Double.NaN;
+
+        double mean = 0;
+        for( RuntimeMeasurement r : vals ) {
+            mean += r.getOpsPerSec();
+        }
+        mean /= N;
+
+        double variance = 0;
+        for( RuntimeMeasurement r : vals ) {
+            double d = r.getOpsPerSec() - mean;
+            variance += d*d;
+        }
+        variance /= N-1;
+
+        double t = N-1 <= T_95.length ? T_95[N-2] : 1.960;
+
+        return t*Math.sqrt(variance/N)/mean;
+    }
+
+    /**
+     * Combines the latency histograms from all the measurements
+     *
+     * @return The combined histogram or null if latency wasn't recorded
+     */
+    public LatencyHistogram combinedLatency() {
+        LatencyHistogram combined = null;
+        for( RuntimeMeasurement r : rawResults ) {
+            if( r.latency == null )
+                continue;
+            if( combined == null )
+                combined = new LatencyHistogram();
+            combined.add(r.latency);
+        }
+        return combined;
+    }
+
     public double getMetric( int which ) {
         switch( which ) {
             case METRIC_MEAN:
@@ -101,6 +182,12 @@ public class RuntimeEvaluationMetrics
 
             case METRIC_MEDIAN:
                 return median;
+
+            case METRIC_WARMUP:
+                return 1000.0/Math.max(1,warmupMS);
+
+            case METRIC_IPC:
+                return ipc;
         }
 
         throw new IllegalArgumentException("Unknown metric");
@@ -146,6 +233,14 @@ public class RuntimeEvaluationMetrics
         this.median = median;
     }
 
+    public double getWarmupMS() {
+        return warmupMS;
+    }
+
+    public void setWarmupMS(double warmupMS) {
+        this.warmupMS = warmupMS;
+    }
+
     public List<RuntimeMeasurement> getRawResults() {
         return rawResults;
     }
@@ -22,11 +22,14 @@ package jmbench.tools.runtime;
 import jmbench.interfaces.BenchmarkMatrix;
 import jmbench.interfaces.MatrixProcessorInterface;
 import jmbench.interfaces.RuntimePerformanceFactory;
+import jmbench.misc.PerfMarkers;
+import jmbench.misc.SlaveHeartbeat;
 import jmbench.tools.EvaluationTest;
 import jmbench.tools.TestResults;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 
@@ -37,22 +40,54 @@ public class RuntimeEvaluationTest extends EvaluationTest {
 
     public static final double MAX_ERROR_THRESHOLD = 0.05;
 
+    // maximum number of times it will adjust the number of trials before giving up
+    public static final int MAX_CYCLES = 20;
+
     // how many trials have already been completed.  Used to determine which random seed is used
     private int completedTrials;
 
     private String nameAlgorithm;
+    // which factory the algorithm is found in
+    private OperationTrack track = OperationTrack.DENSE;
     private int dimen;
     private String classFactory;
     private InputOutputGenerator generator;
     // How long a test should run for. After warmed up, a test should run for this length of time or more.
     private long minTestPeriodMS;
+    // The measurement is made after the JIT has been quiet for this long (ms).  If zero then a fixed number
+    // of warm up trials is used instead
+    private long compileQuietMS;
+    // If true JFR compilation and deoptimization events are used to detect JIT activity
+    private boolean compilationEvents;
+    // If true then the latency of individual iterations is recorded after ops/sec has been measured
+    private boolean recordLatency;
+    // Number of times the measurement is repeated if the garbage collector ran while it was being timed
+    private int gcRetries;
+    // If true the operation allocates memory every time it's called, so the garbage collector will always run
+    // and the measurement isn't repeated
+    private boolean alwaysAllocates;
+    // How long a single call is expected to take.  Given to the master as the expected time of the first call.
+    // -1 if unknown
+    private long expectedCallNS = -1;
+    // Number of threads which run the operation at the same time, each with its own inputs.  If one or less
+    // the operation is only run in the slave's main thread
+    private int threads;
+    // Directory of the cache which input matrices are shared through.  If null inputs are always generated
+    private String inputCacheDir;
+    // maximum size of the input cache in megabytes
+    private long inputCacheMaxMB;
 
     // randomly generated input matrices
-    private volatile Random masterRand;
+    private transient volatile Random masterRand;
 
-    private volatile BenchmarkMatrix[] inputs;
-    private volatile BenchmarkMatrix[] outputs;
-    private volatile RuntimePerformanceFactory factory;
+    private transient volatile BenchmarkMatrix[] inputs;
+    private transient volatile BenchmarkMatrix[] outputs;
+    // inputs and outputs for each thread when run concurrently.  The first thread uses inputs and outputs
+    private transient volatile List<BenchmarkMatrix[]> threadInputs;
+    private transient volatile List<BenchmarkMatrix[]> threadOutputs;
+    // runs the operation in multiple threads.  null if it's only run in the main thread
+    private transient volatile ConcurrentProcessor concurrent;
+    private transient volatile RuntimePerformanceFactory factory;
 
     public RuntimeEvaluationTest(){}
 
@@ -72,18 +107,41 @@ public class RuntimeEvaluationTest extends EvaluationTest {
             throw new RuntimeException(e);
         }
 
+        // each trial draws one seed for every thread.  Skip the ones used by previous trials so that
+        // no two trials or threads get the same inputs
         masterRand = new Random(randomSeed);
-        for(int i = 0; i < completedTrials; i++ )
+        long skip = (long)completedTrials*Math.max(1,threads);
+        for(long i = 0; i < skip; i++ )
             masterRand.nextLong();
     }
 
     @Override
     public void setupTest()
     {
-        Random rand = new Random(masterRand.nextLong());
-
-        inputs = generator.createInputs(factory,rand,dimen);
+        inputs = createInputs(masterRand.nextLong());
         outputs = new BenchmarkMatrix[ generator.numOutputs() ];
+
+        if( threads > 1 ) {
+            threadInputs = new ArrayList<>();
+            threadOutputs = new ArrayList<>();
+            threadInputs.add(inputs);
+            threadOutputs.add(outputs);
+            for (int i = 1; i < threads; i++) {
+                threadInputs.add(createInputs(masterRand.nextLong()));
+                threadOutputs.add(new BenchmarkMatrix[ generator.numOutputs() ]);
+            }
+        }
+    }
+
+    /**
+     * Creates the inputs using the specified seed.  They are read from the input cache if there is one.
+     */
+    private BenchmarkMatrix[] createInputs( long seed ) {
+        if( inputCacheDir == null )
+            return generator.createInputs(factory,new Random(seed),dimen);
+
+        InputMatrixCache cache = new InputMatrixCache(new File(inputCacheDir),inputCacheMaxMB*1024*1024);
+        return cache.createInputs(generator,factory,seed,dimen);
     }
 
     /**
@@ -120,43 +178,110 @@ public class RuntimeEvaluationTest extends EvaluationTest {
             return new RuntimeMeasurement(-1,-1);
         }
 
+        if( threads > 1 ) {
+            List<MatrixProcessorInterface> algs = new ArrayList<>();
+            algs.add(alg);
+            for (int i = 1; i < threads; i++) {
+                algs.add(createAlgorithm());
+            }
+            concurrent = new ConcurrentProcessor(algs,threadInputs,threadOutputs);
+        }
+
         // translate it to nanoseconds
         long goalDurationNS = this.minTestPeriodMS *1_000_000;
 
         // number of warm up trials it should shoot for
         int warmup = 4;
 
-        while( true ) {
-            // nano is more precise than the millisecond timer
-            long elapsedTimeNS = alg.process(inputs, outputs, numTrials);
+        // If possible watch the JIT to see when it's done instead of assuming a fixed number of warm up
+        // trials is enough
+        CompilationMonitor monitor = null;
+        if( compileQuietMS > 0 && CompilationMonitor.isSupported() )
+            monitor = new CompilationMonitor(compilationEvents);
+        // true once the JIT has been quiet long enough.  The next trial is used for the measurement
+        boolean steady = false;
+        long startNS = System.nanoTime();
+
+        // used to see if the garbage collector ran while the operation was being timed
+        GcMonitor gc = new GcMonitor();
+
+        // repeating the measurement can't avoid the garbage collector if the operation always allocates
+        int maxRetries = alwaysAllocates ? 0 : gcRetries;
 
-//            System.out.printf("SLAVE: elapsed_fraction=%4.2f warmup=%d\n",(elapsedTimeNS/(double)goalDurationNS),warmup);
+        // how long the next call is expected to take, for the master.  -1 if unknown
+        long expectedNS = expectedCallNS;
 
-            if( elapsedTimeNS > goalDurationNS*0.9 ) {
-                // If it took much longer than the goal just skip the warm up
-                if( elapsedTimeNS > goalDurationNS*30 || warmup <= 0 ) {
-                    return compileResults((double)numTrials/(elapsedTimeNS/1e9));
-                } else {
-                    warmup = Math.max(0,warmup - (int)(elapsedTimeNS/(goalDurationNS*0.9)));
+        try {
+            while( true ) {
+                boolean measuring = steady || (monitor == null && warmup <= 0);
+                SlaveHeartbeat.setPhase(measuring ? SlaveHeartbeat.Phase.MEASURE : SlaveHeartbeat.Phase.WARMUP);
+                SlaveHeartbeat.beginBatch(numTrials,expectedNS);
+
+                // nano is more precise than the millisecond timer
+                gc.start();
+                long elapsedTimeNS = processBatch(alg, numTrials);
+                gc.stop();
+                SlaveHeartbeat.endBatch();
+                boolean compiled = monitor != null && monitor.update();
+
+//                System.out.printf("SLAVE: elapsed_fraction=%4.2f warmup=%d\n",(elapsedTimeNS/(double)goalDurationNS),warmup);
+
+                if( elapsedTimeNS > goalDurationNS*0.9 ) {
+                    // If it took much longer than the goal just skip the warm up.  It's also too expensive to
+                    // repeat if the garbage collector ran
+                    if( elapsedTimeNS > goalDurationNS*30 ) {
+                        return compileResults(alg,numTrials,elapsedTimeNS,0,gc,monitor,startNS,compiled);
+                    } else if( monitor != null ) {
+                        // Give up waiting if the JIT never settles down but note that it was still active
+                        if( (steady && !compiled) || cycles >= MAX_CYCLES ) {
+                            return compileResults(alg,numTrials,elapsedTimeNS,maxRetries,gc,monitor,startNS,
+                                    compiled || !steady);
+                        }
+                        steady = monitor.getQuietMS() >= compileQuietMS;
+                    } else if( warmup <= 0 ) {
+                        return compileResults(alg,numTrials,elapsedTimeNS,maxRetries,gc,null,startNS,false);
+                    } else {
+                        warmup = Math.max(0,warmup - (int)(elapsedTimeNS/(goalDurationNS*0.9)));
+                    }
                 }
-            }
 
-            // use a linear model to estimate the number of trials needed. The JVM might be optimizing the code
-            // so this will be a bit chaotic in the beginning
-            long oldNumTrials = numTrials;
-                
-            numTrials = (long)Math.ceil(goalDurationNS * (double)numTrials / (double)elapsedTimeNS);
-            if( oldNumTrials > numTrials ) {
-                numTrials = oldNumTrials;
-            }
-            runGarbageCollector();
+                // use a linear model to estimate the number of trials needed. The JVM might be optimizing the code
+                // so this will be a bit chaotic in the beginning
+                long oldNumTrials = numTrials;
+
+                numTrials = (long)Math.ceil(goalDurationNS * (double)numTrials / (double)elapsedTimeNS);
+                if( oldNumTrials > numTrials ) {
+                    numTrials = oldNumTrials;
+                }
+                expectedNS = (long)(elapsedTimeNS*(numTrials/(double)oldNumTrials));
+                runGarbageCollector();
 
-            if( cycles++ > 20 ) {
-                throw new RuntimeException("Exceeded the opsPerSecondMax cycles");
+                if( cycles++ > MAX_CYCLES ) {
+                    throw new RuntimeException("Exceeded the opsPerSecondMax cycles");
+                }
+            }
+        } finally {
+            if( monitor != null )
+                monitor.close();
+            if( concurrent != null ) {
+                concurrent.shutdown();
+                concurrent = null;
             }
         }
     }
 
+    /**
+     * Runs the operation the specified number of times.  If multiple threads are being used then each thread
+     * runs the operation that many times.
+     *
+     * @return elapsed time in nanoseconds
+     */
+    private long processBatch( MatrixProcessorInterface alg , long numTrials ) {
+        if( concurrent == null )
+            return alg.process(inputs, outputs, numTrials);
+        return concurrent.process(numTrials);
+    }
+
     private void runGarbageCollector() {
         // try to get it to clean up some
         for( int i = 0; i < 5; i++ ) {
@@ -170,19 +295,97 @@ public class RuntimeEvaluationTest extends EvaluationTest {
     /**
      * Generates the results based upon the computed opsPerSecond and the expected output.
      */
-    private RuntimeMeasurement compileResults( double opsPerSecond )
+    private RuntimeMeasurement compileResults( MatrixProcessorInterface alg , long numTrials ,
+                                               long elapsedTimeNS , int maxRetries ,
+                                               GcMonitor gc , CompilationMonitor monitor ,
+                                               long startNS , boolean jitActive )
     {
+        // If the garbage collector ran while it was being timed then try again.  Libraries which create
+        // garbage inside their inner loop will always be contaminated
+        int retries = 0;
+        SlaveHeartbeat.setPhase(SlaveHeartbeat.Phase.MEASURE);
+        while( gc.collections > 0 && retries < maxRetries ) {
+            retries++;
+            runGarbageCollector();
+            SlaveHeartbeat.beginBatch(numTrials,elapsedTimeNS);
+            gc.start();
+            elapsedTimeNS = processBatch(alg, numTrials);
+            gc.stop();
+            SlaveHeartbeat.endBatch();
+            if( monitor != null && monitor.update() )
+                jitActive = true;
+        }
 
-        return new RuntimeMeasurement(opsPerSecond,Runtime.getRuntime().totalMemory());
+        // when run concurrently this is the combined throughput of all the threads
+        int numThreads = concurrent != null ? concurrent.getNumThreads() : 1;
+        double opsPerSecond = numThreads*(double)numTrials/(elapsedTimeNS/1e9);
+        RuntimeMeasurement m = new RuntimeMeasurement(opsPerSecond,Runtime.getRuntime().totalMemory());
+        m.threads = numThreads;
+
+        m.gcCount = gc.collections;
+        m.gcTimeMS = gc.collectionMS;
+        m.gcFraction = Math.min(1.0,gc.collectionMS/(elapsedTimeNS/1e6));
+        m.gcRetries = retries;
+        m.safepoints = gc.safepoints;
+        m.safepointTimeMS = gc.safepointMS;
+        if( gc.allocatedBytes >= 0 )
+            m.allocatedBytesPerOp = gc.allocatedBytes/((double)numThreads*numTrials);
+
+        if( monitor != null ) {
+            m.warmupMS = Math.max(0,(monitor.getLastActivityNS()-startNS)/1_000_000);
+            m.compileMS = monitor.getCompileMS();
+            m.jitActive = jitActive;
+        }
+
+        SlaveHeartbeat.setPhase(SlaveHeartbeat.Phase.EXTRA);
+        // latency is only meaningful for a single thread
+        if( recordLatency && concurrent == null ) {
+            m.latency = recordLatency(alg,numTrials,elapsedTimeNS/(double)numTrials);
+        }
+
+        // Only the counted run is inside the markers so that warm up and the JIT don't pollute the counters
+        if( PerfMarkers.isActive() ) {
+            runGarbageCollector();
+            SlaveHeartbeat.beginBatch(numTrials,elapsedTimeNS);
+            PerfMarkers.enable();
+            processBatch(alg, numTrials);
+            PerfMarkers.disable();
+            SlaveHeartbeat.endBatch();
+            m.perfOps = numThreads*numTrials;
+        }
+
+        return m;
     }
 
-    private MatrixProcessorInterface createAlgorithm() {
-        try {
-            Method m = factory.getClass().getMethod(nameAlgorithm);
-            return (MatrixProcessorInterface)m.invoke(factory);
-        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
-            throw new RuntimeException(e);
+    /**
+     * Records the latency of individual iterations for about as long as the measurement took.  Iterations are
+     * done in batches of increasing size since the overhead of timing each iteration can be much larger than
+     * the operation itself.
+     *
+     * @param callNS Measured time of a single call.  Used to tell the master how long each batch should take
+     */
+    private LatencyHistogram recordLatency( MatrixProcessorInterface alg , long numTrials , double callNS ) {
+        runGarbageCollector();
+
+        LatencyHistogram latency = new LatencyHistogram();
+        long goalDurationNS = this.minTestPeriodMS *1_000_000;
+        long startNS = System.nanoTime();
+        long batch = 1;
+        long remaining = numTrials;
+        while( remaining > 0 && System.nanoTime()-startNS < goalDurationNS ) {
+            long n = Math.min(batch,remaining);
+            SlaveHeartbeat.beginBatch(n,(long)(n*callNS));
+            // outputs aren't checked here and creating them would add garbage to the iterations being timed
+            alg.processLatency(inputs, null, n, latency);
+            SlaveHeartbeat.endBatch();
+            remaining -= n;
+            batch *= 2;
         }
+        return latency;
+    }
+
+    private MatrixProcessorInterface createAlgorithm() {
+        return track.createAlgorithm(factory,nameAlgorithm);
     }
 
     public String getClassFactory() {
@@ -201,6 +404,14 @@ public class RuntimeEvaluationTest extends EvaluationTest {
         this.nameAlgorithm = nameAlgorithm;
     }
 
+    public OperationTrack getTrack() {
+        return track;
+    }
+
+    public void setTrack(OperationTrack track) {
+        this.track = track;
+    }
+
     public int getDimen() {
         return dimen;
     }
@@ -225,6 +436,89 @@ public class RuntimeEvaluationTest extends EvaluationTest {
         this.minTestPeriodMS = minTestPeriodMS;
     }
 
+    public long getCompileQuietMS() {
+        return compileQuietMS;
+    }
+
+    public void setCompileQuietMS(long compileQuietMS) {
+        this.compileQuietMS = compileQuietMS;
+    }
+
+    public boolean isCompilationEvents() {
+        return compilationEvents;
+    }
+
+    public void setCompilationEvents(boolean compilationEvents) {
+        this.compilationEvents = compilationEvents;
+    }
+
+    public boolean isRecordLatency() {
+        return recordLatency;
+    }
+
+    public void setRecordLatency(boolean recordLatency) {
+        this.recordLatency = recordLatency;
+    }
+
+    public int getGcRetries() {
+        return gcRetries;
+    }
+
+    public void setGcRetries(int gcRetries) {
+        this.gcRetries = gcRetries;
+    }
+
+    public long getExpectedCallNS() {
+        return expectedCallNS;
+    }
+
+    public void setExpectedCallNS(long expectedCallNS) {
+        this.expectedCallNS = expectedCallNS;
+    }
+
+    public boolean isAlwaysAllocates() {
+        return alwaysAllocates;
+    }
+
+    public void setAlwaysAllocates(boolean alwaysAllocates) {
+        this.alwaysAllocates = alwaysAllocates;
+    }
+
+    /**
+     * Specifies the cache which input matrices are shared through
+     *
+     * @param directory Directory of the cache or null to not use a cache
+     * @param maxMB Maximum size of the cache in megabytes
+     */
+    public void setInputCache( String directory , long maxMB ) {
+        this.inputCacheDir = directory;
+        this.inputCacheMaxMB = maxMB;
+    }
+
+    public String getInputCacheDir() {
+        return inputCacheDir;
+    }
+
+    public void setInputCacheDir(String inputCacheDir) {
+        this.inputCacheDir = inputCacheDir;
+    }
+
+    public long getInputCacheMaxMB() {
+        return inputCacheMaxMB;
+    }
+
+    public void setInputCacheMaxMB(long inputCacheMaxMB) {
+        this.inputCacheMaxMB = inputCacheMaxMB;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
     public int getCompletedTrials() {
         return completedTrials;
     }
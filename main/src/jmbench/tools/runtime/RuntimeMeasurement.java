@@ -19,6 +19,7 @@
 
 package jmbench.tools.runtime;
 
+import jmbench.misc.PerfStat;
 import jmbench.tools.OutputError;
 import jmbench.tools.TestResults;
 
@@ -37,6 +38,44 @@ public class RuntimeMeasurement implements TestResults , Comparable<RuntimeMeasu
     // If output sanity checking is turned on then any errors that were detected are reported here
     public OutputError error;
 
+    // CPU cores the slave was restricted to, in taskset format.  null if it wasn't restricted
+    public String cores;
+    // Number of threads which ran the operation at the same time.  opsPerSec is their combined throughput
+    public int threads = 1;
+
+    // Time it took the JIT to reach steady state, i.e. the last time compilation activity was seen (ms).
+    // -1 if the JIT wasn't monitored
+    public long warmupMS = -1;
+    // Time the JIT spent compiling while the test ran (ms). -1 if the JIT wasn't monitored
+    public long compileMS = -1;
+    // true if the JIT never went quiet and the measurement was made while it was still active
+    public boolean jitActive;
+
+    // Number of garbage collections while the measurement was timed.  -1 if unknown
+    public long gcCount = -1;
+    // Time spent collecting garbage while the measurement was timed (ms). -1 if unknown
+    public long gcTimeMS = -1;
+    // Fraction of the measured time which was spent collecting garbage
+    public double gcFraction;
+    // Number of times the measurement was repeated because the garbage collector ran
+    public int gcRetries;
+    // Number of safepoints and time spent in them (ms) while the measurement was timed. -1 if unknown
+    public long safepoints = -1;
+    public long safepointTimeMS = -1;
+    // Bytes allocated by all threads for each operation while the measurement was timed.  -1 if unknown
+    public double allocatedBytesPerOp = -1;
+
+    // How long individual iterations took.  null if it wasn't recorded
+    public LatencyHistogram latency;
+
+    // Number of operations performed while hardware counters were enabled in the slave.  0 if not counted
+    public long perfOps;
+    // Hardware counters divided by the number of operations.  -1 if not counted
+    public double cyclesPerOp = -1;
+    public double instructionsPerOp = -1;
+    public double llcMissesPerOp = -1;
+    public double branchMissesPerOp = -1;
+
     public RuntimeMeasurement( double opsPerSec , long memoryUsed ) {
         this.opsPerSec = opsPerSec;
         this.memoryUsed = memoryUsed;
@@ -60,6 +99,158 @@ public class RuntimeMeasurement implements TestResults , Comparable<RuntimeMeasu
         return memoryUsed;
     }
 
+    public String getCores() {
+        return cores;
+    }
+
+    public void setCores(String cores) {
+        this.cores = cores;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public long getWarmupMS() {
+        return warmupMS;
+    }
+
+    public void setWarmupMS(long warmupMS) {
+        this.warmupMS = warmupMS;
+    }
+
+    public long getCompileMS() {
+        return compileMS;
+    }
+
+    public void setCompileMS(long compileMS) {
+        this.compileMS = compileMS;
+    }
+
+    public boolean isJitActive() {
+        return jitActive;
+    }
+
+    public void setJitActive(boolean jitActive) {
+        this.jitActive = jitActive;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public void setLatency(LatencyHistogram latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Converts the counter totals collected by perf into per operation values
+     */
+    public void setPerfCounters( PerfStat stat ) {
+        if( perfOps <= 0 )
+            return;
+        cyclesPerOp = perOp(stat.cycles);
+        instructionsPerOp = perOp(stat.instructions);
+        llcMissesPerOp = perOp(stat.llcMisses);
+        branchMissesPerOp = perOp(stat.branchMisses);
+    }
+
+    private double perOp( long total ) {
+        return total < 0 ? -1 : total/(double)perfOps;
+    }
+
+    /**
+     * Instructions per cycle.  -1 if not counted
+     */
+    public double getIpc() {
+        if( cyclesPerOp <= 0 || instructionsPerOp < 0 )
+            return -1;
+        return instructionsPerOp/cyclesPerOp;
+    }
+
+    public double getCyclesPerOp() {
+        return cyclesPerOp;
+    }
+
+    public double getInstructionsPerOp() {
+        return instructionsPerOp;
+    }
+
+    public double getLlcMissesPerOp() {
+        return llcMissesPerOp;
+    }
+
+    public double getBranchMissesPerOp() {
+        return branchMissesPerOp;
+    }
+
+    /**
+     * Returns true if the garbage collector ran while the measurement was being timed
+     */
+    public boolean isGcContaminated() {
+        return gcCount > 0;
+    }
+
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    public void setGcCount(long gcCount) {
+        this.gcCount = gcCount;
+    }
+
+    public long getGcTimeMS() {
+        return gcTimeMS;
+    }
+
+    public void setGcTimeMS(long gcTimeMS) {
+        this.gcTimeMS = gcTimeMS;
+    }
+
+    public double getGcFraction() {
+        return gcFraction;
+    }
+
+    public void setGcFraction(double gcFraction) {
+        this.gcFraction = gcFraction;
+    }
+
+    public int getGcRetries() {
+        return gcRetries;
+    }
+
+    public void setGcRetries(int gcRetries) {
+        this.gcRetries = gcRetries;
+    }
+
+    public long getSafepoints() {
+        return safepoints;
+    }
+
+    public void setSafepoints(long safepoints) {
+        this.safepoints = safepoints;
+    }
+
+    public long getSafepointTimeMS() {
+        return safepointTimeMS;
+    }
+
+    public void setSafepointTimeMS(long safepointTimeMS) {
+        this.safepointTimeMS = safepointTimeMS;
+    }
+
+    public double getAllocatedBytesPerOp() {
+        return allocatedBytesPerOp;
+    }
+
+    public void setAllocatedBytesPerOp(double allocatedBytesPerOp) {
+        this.allocatedBytesPerOp = allocatedBytesPerOp;
+    }
+
     public int compareTo( RuntimeMeasurement r ) {
         if( r.opsPerSec < opsPerSec )
             return 1;
@@ -41,6 +41,9 @@ public class RuntimeResults implements Serializable {
     // if true it finished computing all the results for this operation
     public boolean complete;
 
+    // Why a matrix size was skipped.  null if it wasn't skipped or the array is null if nothing was skipped
+    public String[] skipReasons;
+
     public RuntimeResults(String opName , String libraryName ,
                           int[] matDimen, RuntimeEvaluationMetrics[] metrics)
     {
@@ -85,6 +88,21 @@ public class RuntimeResults implements Serializable {
         this.metrics = metrics;
     }
 
+    /**
+     * Returns why the matrix size was skipped or null if it wasn't
+     */
+    public String getSkipReason( int index ) {
+        return skipReasons == null ? null : skipReasons[index];
+    }
+
+    public String[] getSkipReasons() {
+        return skipReasons;
+    }
+
+    public void setSkipReasons(String[] skipReasons) {
+        this.skipReasons = skipReasons;
+    }
+
     public boolean isComplete() {
         return complete;
     }
@@ -35,17 +35,18 @@ import java.util.*;
 public class ComparePlatformResults {
 
     // should it display results to the screen
-    private static boolean displayResults = true;
+    static boolean displayResults = true;
 
     // only plot results more than this size
-    private int minMatrixSize = 0;
+    int minMatrixSize = 0;
     // it will only plot results which are of this size or less
-    private int maxMatrixSize = 0;
+    int maxMatrixSize = 0;
 
     // which results it will plot
     List<Platform> platforms = new ArrayList<Platform>();
 
-    File outputDirectory = new File(".");
+    // where the plots are saved to
+    File outputDirectory = new File("plots");
 
     /**
      * Adds a new platform to compare.
@@ -229,8 +230,8 @@ public class ComparePlatformResults {
 
         PlotRuntimeResults.truncatePlotData(minMatrixSize,maxMatrixSize,plotData);
 
-        String fileNameRel = outputDirectory.getPath()+"/plots/relative/"+fileName;
-        String fileNameAbs = outputDirectory.getPath()+"/plots/absolute/"+fileName;
+        String fileNameRel = outputDirectory.getPath()+"/relative/"+fileName;
+        String fileNameAbs = outputDirectory.getPath()+"/absolute/"+fileName;
 
         RuntimeResultPlotter.Reference refType = RuntimeResultPlotter.Reference.MAX;
 
@@ -21,7 +21,9 @@ package jmbench.tools.runtime.evaluation;
 
 import jmbench.impl.LibraryDescription;
 import jmbench.tools.BenchmarkConstants;
+import jmbench.tools.runtime.FactoryRuntimeEvaluationCase;
 import jmbench.tools.runtime.LibraryRuntimeInfo;
+import jmbench.tools.runtime.RuntimeBenchmark;
 import jmbench.tools.runtime.RuntimeEvaluationMetrics;
 import jmbench.tools.runtime.RuntimeResults;
 import jmbench.tools.runtime.evaluation.RuntimeResultPlotter.LibraryPlotInfo;
@@ -39,6 +41,17 @@ import java.util.*;
  */
 public class PlotRuntimeResults {
 
+    // percentiles which latency is plotted at if latency histograms were recorded
+    public static final double[] LATENCY_PERCENTILES = {50,99,99.9,100};
+
+    // operations which move data into and out of a library's format.  Plotted but not part of the summary
+    public static final Set<String> CONVERSIONS = new HashSet<>(Arrays.asList(
+            "importRowMajor","exportRowMajor","importArray2D","wrapMatrix"));
+
+    // operations which create new matrices.  Plotted but not part of the summary
+    public static final Set<String> CREATIONS = new HashSet<>(Arrays.asList(
+            "createMatrix","createIdentity","copyMatrix"));
+
     File directory;
 
     // should it include native libraries while plotting results
@@ -84,7 +97,8 @@ public class PlotRuntimeResults {
             File level0 = new File(directory.getPath()+"/"+nameLevel0);
 
             if( level0.isDirectory() ) {
-                if( level0.getName().compareTo("plots") == 0 )
+                if( level0.getName().compareTo("plots") == 0 ||
+                        level0.getName().compareTo(RuntimeBenchmark.INPUT_CACHE_NAME) == 0 )
                     continue;
 
                 LibraryRuntimeInfo info = UtilXmlSerialization.deserializeXml(new File(level0, BenchmarkConstants.RUNTIME_INFO_NAME).getPath());
@@ -143,6 +157,7 @@ public class PlotRuntimeResults {
                                     Map<String, List> opMap , boolean weightedSummary,
                                     List<LibraryPlotInfo> descriptions ) {
         List<RuntimePlotData> allResults = new ArrayList<>();
+        List<RuntimePlotData> batchResults = new ArrayList<>();
 
         RuntimeResultPlotter.Reference refType = RuntimeResultPlotter.Reference.MAX;
 
@@ -150,7 +165,10 @@ public class PlotRuntimeResults {
             List<RuntimeResults> l = opMap.get(key);
 
             RuntimePlotData plotData = convertToPlotData(l,whichMetric,descriptions);
-            allResults.add( plotData );
+            if( isBatch(key) )
+                batchResults.add( plotData );
+            else if( isSummarized(key) )
+                allResults.add( plotData );
 
             truncatePlotData(minMatrixSize,maxMatrixSize,plotData);
 
@@ -162,10 +180,70 @@ public class PlotRuntimeResults {
             RuntimeResultPlotter.variabilityPlots(l,descriptions, fileNameVar,true,false);
             RuntimeResultPlotter.relativePlots(plotData, refType,null,fileNameRel,plotData.plotName,true,displayResults);
             RuntimeResultPlotter.absolutePlots(plotData, fileNameAbs,plotData.plotName,true,false);
+
+            for( double percentile : LATENCY_PERCENTILES ) {
+                String fileNameLatency = outputDirectory.getPath()+"/plots/latency/"+key+"_"+
+                        RuntimeResultPlotter.percentileName(percentile);
+                if( !RuntimeResultPlotter.latencyPlots(l,descriptions,percentile,fileNameLatency,true,false) )
+                    break;
+            }
+
+            String fileNameAlloc = outputDirectory.getPath()+"/plots/allocation/"+key;
+            RuntimeResultPlotter.allocationPlots(l,descriptions,fileNameAlloc,true,false);
+        }
+
+        for( String key : opMap.keySet() ) {
+            if( !key.endsWith(FactoryRuntimeEvaluationCase.FLOAT32_SUFFIX) )
+                continue;
+            String key64 = key.substring(0,key.length()-FactoryRuntimeEvaluationCase.FLOAT32_SUFFIX.length());
+            if( !opMap.containsKey(key64) )
+                continue;
+
+            String fileNamePrecision = outputDirectory.getPath()+"/plots/precision/"+key64;
+            RuntimeResultPlotter.precisionPlots(opMap.get(key64),opMap.get(key),whichMetric,descriptions,
+                    fileNamePrecision,true,false);
         }
 
         RuntimeResultPlotter.summaryPlots(allResults,refType,weightedSummary,outputDirectory.getPath()+"/plots",true,displayResults);
         RuntimeResultPlotter.summaryAreaPlot(allResults,refType,outputDirectory.getPath()+"/plots",true,displayResults);
+
+        // batched operations have their own sizes so they can't be combined with the other operations
+        if( !batchResults.isEmpty() ) {
+            RuntimeResultPlotter.summaryPlots(batchResults,"Summary of Batched Operations",refType,weightedSummary,
+                    outputDirectory.getPath()+"/plots/batch",true,displayResults);
+        }
+    }
+
+    /**
+     * Returns true if the operation is run on batches of small matrices
+     */
+    public static boolean isBatch( String key ) {
+        return key.startsWith("batch");
+    }
+
+    /**
+     * Returns true if the operation should be included in the summary of dense operations.  Operations are only
+     * combined in the summary if they have the same matrix sizes and if every library is expected to support them,
+     * otherwise libraries which don't would be penalized.
+     */
+    public static boolean isSummarized( String key ) {
+        // single precision operations are compared against double precision.  Including them in the
+        // summary would count the same operation twice
+        if( key.endsWith(FactoryRuntimeEvaluationCase.FLOAT32_SUFFIX) )
+            return false;
+
+        if( CONVERSIONS.contains(key) || CREATIONS.contains(key) )
+            return false;
+
+        // sparse operations have their own range of matrix sizes
+        if( key.startsWith("sparse") )
+            return false;
+
+        // only a few libraries support complex matrices.  The others would be scored as if they failed
+        if( key.startsWith("complex") )
+            return false;
+
+        return !isBatch(key);
     }
 
     /**
@@ -250,6 +328,89 @@ public class PlotRuntimeResults {
         return !(info.isNative() && !plotNativeLibraries);
     }
 
+    /**
+     * Plots the results from one library across all the JVM profiles and thread counts it was benchmarked with.
+     * Makes it easy to see which libraries are sensitive to the garbage collector or JIT settings.  Plots are
+     * saved to plots/&lt;library&gt; inside the results directory.
+     *
+     * @param library Name of the library's results directory
+     * @param whichMetric The metric which will be plotted. See {@link RuntimeEvaluationMetrics}.
+     */
+    public void plotAcrossProfiles( String library , int whichMetric ) {
+        List<File> runDirs = findRunDirectories(directory);
+        if( runDirs.size() == 1 && runDirs.get(0).equals(directory) )
+            throw new IllegalArgumentException("No JVM profiles or thread counts found in "+directory.getPath());
+
+        ComparePlatformResults compare = new ComparePlatformResults();
+        compare.minMatrixSize = minMatrixSize;
+        compare.maxMatrixSize = maxMatrixSize;
+        compare.outputDirectory = new File(directory,"plots/"+library);
+        ComparePlatformResults.displayResults = displayResults;
+
+        for( File dir : runDirs ) {
+            if( new File(dir,library).isDirectory() )
+                compare.addPlatform(dir.getPath(),library,directory.toPath().relativize(dir.toPath()).toString());
+        }
+
+        compare.plot(whichMetric);
+    }
+
+    /**
+     * Returns the directories inside of the results directory which contain results for a JVM profile
+     */
+    public static List<File> findProfileDirectories( File directory ) {
+        List<File> ret = new ArrayList<>();
+        File[] children = directory.listFiles();
+        if( children == null )
+            return ret;
+
+        for( File f : children ) {
+            if( new File(f,RuntimeBenchmark.PROFILE_NAME).isFile() )
+                ret.add(f);
+        }
+        Collections.sort(ret);
+        return ret;
+    }
+
+    /**
+     * Returns the directories inside of the results directory which contain the results for each thread count
+     * in the throughput benchmark
+     */
+    public static List<File> findThreadDirectories( File directory ) {
+        List<File> ret = new ArrayList<>();
+        File[] children = directory.listFiles();
+        if( children == null )
+            return ret;
+
+        for( File f : children ) {
+            if( f.getName().startsWith(RuntimeBenchmark.THREADS_PREFIX) &&
+                    new File(f,RuntimeBenchmark.CONFIG_NAME).isFile() )
+                ret.add(f);
+        }
+        Collections.sort(ret);
+        return ret;
+    }
+
+    /**
+     * Returns each directory which contains the results of one pass through the libraries.  That's one for
+     * every combination of thread count and JVM profile, or the results directory itself if neither were used.
+     */
+    public static List<File> findRunDirectories( File directory ) {
+        List<File> threadDirs = findThreadDirectories(directory);
+        if( threadDirs.isEmpty() )
+            threadDirs.add(directory);
+
+        List<File> ret = new ArrayList<>();
+        for( File dir : threadDirs ) {
+            List<File> profileDirs = findProfileDirectories(dir);
+            if( profileDirs.isEmpty() )
+                ret.add(dir);
+            else
+                ret.addAll(profileDirs);
+        }
+        return ret;
+    }
+
     /**
      * Returns the path to the most recently modified directory in results.
      */
@@ -286,10 +447,18 @@ public class PlotRuntimeResults {
         System.out.println();
         System.out.println("--PlotNative=<true|false>      : Turns plotting results from native libraries on and off.");
         System.out.println("--Metric=<?>                   : Changes the metric that is plotted.");
-        System.out.println("                               : MAX,MIN,STDEV,MEDIAN,MEAN");
+        System.out.println("                               : MAX,MIN,STDEV,MEDIAN,MEAN,WARMUP,IPC");
+        System.out.println("                               : WARMUP is the time the JIT took to reach steady state.");
+        System.out.println("                               : IPC is instructions per cycle, if hardware counters were collected.");
         System.out.println("--Display=<true|false>         : If true some results will be displayed.");
         System.out.println("--Size=min:max                 : Only plot data from matrix size min to max inclusive.");
         System.out.println("--WeightedSummary=<true|false> : Should the summary chart weight operations more if they take longer? Default: true");
+        System.out.println("--Library=<name>               : Plots the library across all the JVM profiles and thread counts it was");
+        System.out.println("                               : benchmarked with.");
+        System.out.println("                               : The name is the name of the library's results directory.");
+        System.out.println();
+        System.out.println("If the results were generated with JVM profiles or thread counts then each is plotted separately unless");
+        System.out.println("a library is specified.");
         System.out.println();
         System.out.println("The last argument is the directory that contains the results.  If this is not specified");
         System.out.println("then the most recently modified directory is used.");
@@ -307,6 +476,7 @@ public class PlotRuntimeResults {
         int minSize = 0;
 
         boolean weightedSummary = true;
+        String library = null;
 
         for( int i = 0; i < args.length; i++ ) {
             String splits[] = args[i].split("=");
@@ -336,6 +506,10 @@ public class PlotRuntimeResults {
                     metric = RuntimeEvaluationMetrics.METRIC_MEDIAN;
                 } else if( splits[1].compareToIgnoreCase("MEAN") == 0 ) {
                     metric = RuntimeEvaluationMetrics.METRIC_MEAN;
+                } else if( splits[1].compareToIgnoreCase("WARMUP") == 0 ) {
+                    metric = RuntimeEvaluationMetrics.METRIC_WARMUP;
+                } else if( splits[1].compareToIgnoreCase("IPC") == 0 ) {
+                    metric = RuntimeEvaluationMetrics.METRIC_IPC;
                 } else {
                     throw new RuntimeException("Unknown metric: "+splits[1]);
                 }
@@ -354,6 +528,10 @@ public class PlotRuntimeResults {
                 if( splits.length != 2 ) {failed = true; break;}
                 displayResults = Boolean.parseBoolean(splits[1]);
                 System.out.println("Display = "+displayResults);
+            } else if( flag.compareTo("Library") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                library = splits[1];
+                System.out.println("Library = "+library);
             } else {
                 System.out.println("Unknown flag: "+flag);
                 failed = true;
@@ -371,13 +549,27 @@ public class PlotRuntimeResults {
 
         System.out.println("Parsing "+inputDirectory);
 
-        PlotRuntimeResults p = new PlotRuntimeResults(inputDirectory);
+        List<String> directories = new ArrayList<>();
+        if( library == null ) {
+            for( File f : findRunDirectories(new File(inputDirectory)) ) {
+                directories.add(f.getPath());
+            }
+        } else {
+            directories.add(inputDirectory);
+        }
 
-        p.plotNativeLibraries = plotNative;
-        p.displayResults = displayResults;
-        p.minMatrixSize = minSize;
-        p.maxMatrixSize = maxSize;
-        p.weightedSummary = weightedSummary;
-        p.plot(metric);
+        for( String dir : directories ) {
+            PlotRuntimeResults p = new PlotRuntimeResults(dir);
+
+            p.plotNativeLibraries = plotNative;
+            p.displayResults = displayResults;
+            p.minMatrixSize = minSize;
+            p.maxMatrixSize = maxSize;
+            p.weightedSummary = weightedSummary;
+            if( library == null )
+                p.plot(metric);
+            else
+                p.plotAcrossProfiles(library,metric);
+        }
     }
 }
@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmbench.tools.runtime.evaluation;
+
+import jmbench.impl.LibraryDescription;
+import jmbench.plots.ScalingPlot;
+import jmbench.tools.runtime.JvmProfile;
+import jmbench.tools.runtime.RuntimeBenchmark;
+import jmbench.tools.runtime.RuntimeEvaluationMetrics;
+import jmbench.tools.runtime.RuntimeResults;
+import jmbench.tools.stability.UtilXmlSerialization;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.*;
+
+
+/**
+ * <p>
+ * Creates speedup and parallel efficiency plots from results generated by the scaling benchmark, where the
+ * runtime benchmark was repeated with the slaves restricted to different numbers of processors.  Speedup is
+ * the number of operations per second relative to the smallest number of processors and efficiency is the
+ * speedup divided by the increase in processors.  Plots are saved to plots/scaling inside the results directory.
+ * </p>
+ *
+ * <p>
+ * For each library and operation the matrix size at which using the most processors becomes faster is
+ * also found, i.e. where parallelism starts to pay off, and saved to breakeven.txt.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PlotScalingResults {
+
+    int plotWidth = 600;
+    int plotHeight = 400;
+
+    File directory;
+    boolean displayResults = false;
+
+    // the metric which is used to compute operations per second
+    int whichMetric = RuntimeEvaluationMetrics.METRIC_MAX;
+
+    public PlotScalingResults( String dir ) {
+        directory = new File(dir);
+
+        if( !directory.isDirectory() ) {
+            throw new IllegalArgumentException("Need to specify a directory.");
+        }
+    }
+
+    public void plot() {
+        // group together profiles which only differ by the number of processors
+        Map<String,List<ScalingRun>> groups = new TreeMap<>();
+        for( File dir : PlotRuntimeResults.findProfileDirectories(directory) ) {
+            JvmProfile profile = UtilXmlSerialization.deserializeXml(
+                    new File(dir,RuntimeBenchmark.PROFILE_NAME).getPath());
+            if( profile == null || profile.processors <= 0 )
+                continue;
+
+            String base = baseName(profile);
+            if( !groups.containsKey(base) )
+                groups.put(base,new ArrayList<ScalingRun>());
+            groups.get(base).add(new ScalingRun(profile.processors,dir));
+        }
+
+        if( groups.isEmpty() )
+            throw new IllegalArgumentException("No scaling results found in "+directory.getPath());
+
+        for( String base : groups.keySet() ) {
+            List<ScalingRun> runs = groups.get(base);
+            Collections.sort(runs,new Comparator<ScalingRun>() {
+                @Override
+                public int compare(ScalingRun o1, ScalingRun o2) {
+                    return Integer.compare(o1.processors,o2.processors);
+                }
+            });
+
+            File outputDir = new File(directory,base.isEmpty() ? "plots/scaling" : "plots/scaling/"+base);
+            plotGroup(runs,outputDir);
+        }
+    }
+
+    /**
+     * Name of the profile without the number of processors
+     */
+    private static String baseName( JvmProfile profile ) {
+        String name = profile.name;
+        String suffix = "Cores"+profile.processors;
+        if( name.endsWith(suffix) )
+            name = name.substring(0,name.length()-suffix.length());
+        if( name.endsWith("_") )
+            name = name.substring(0,name.length()-1);
+        return name;
+    }
+
+    private void plotGroup( List<ScalingRun> runs , File outputDir ) {
+        ScalingRun reference = runs.get(0);
+        ScalingRun largest = runs.get(runs.size()-1);
+
+        System.out.println("Scaling results in "+outputDir.getPath()+" relative to "+reference.processors+" processors");
+
+        List<String> breakEven = new ArrayList<>();
+
+        File[] libraryDirs = reference.directory.listFiles();
+        Arrays.sort(libraryDirs);
+        for( File libraryDir : libraryDirs ) {
+            if( !libraryDir.isDirectory() )
+                continue;
+
+            LibraryDescription desc = UtilXmlSerialization.deserializeXml(libraryDir.getPath()+".xml");
+            String libraryName = desc == null ? libraryDir.getName() : desc.info.getNamePlot();
+
+            String[] files = libraryDir.list();
+            Arrays.sort(files);
+            for( String fileName : files ) {
+                if( !fileName.endsWith(".csv") )
+                    continue;
+
+                String opFile = fileName.substring(0,fileName.length()-4);
+
+                RuntimeResults refResults = RuntimeResultsCsvIO.read(new File(libraryDir,fileName));
+                int[] sizes = refResults.matDimen;
+                double[] refOps = opsPerSecond(refResults,sizes);
+
+                String title = libraryName+" "+refResults.getOpName();
+                ScalingPlot speedupPlot = new ScalingPlot(title+" Speedup","Speedup",1);
+                ScalingPlot efficiencyPlot = new ScalingPlot(title+" Efficiency","Parallel Efficiency",1);
+
+                double[] largestSpeedup = null;
+                for( ScalingRun run : runs ) {
+                    File f = new File(run.directory,libraryDir.getName()+"/"+fileName);
+                    if( !f.exists() )
+                        continue;
+
+                    double[] ops = opsPerSecond(RuntimeResultsCsvIO.read(f),sizes);
+                    double[] speedup = new double[sizes.length];
+                    double[] efficiency = new double[sizes.length];
+                    for (int i = 0; i < sizes.length; i++) {
+                        speedup[i] = ops[i]/refOps[i];
+                        efficiency[i] = speedup[i]*reference.processors/run.processors;
+                    }
+
+                    String name = run.processors == 1 ? "1 core" : run.processors+" cores";
+                    speedupPlot.addResults(name,sizes,speedup);
+                    efficiencyPlot.addResults(name,sizes,efficiency);
+
+                    if( run == largest )
+                        largestSpeedup = speedup;
+                }
+
+                String outputName = outputDir.getPath()+"/"+libraryDir.getName()+"/"+opFile;
+                speedupPlot.savePDF(outputName+"_speedup.pdf",plotWidth,plotHeight);
+                efficiencyPlot.savePDF(outputName+"_efficiency.pdf",plotWidth,plotHeight);
+                if( displayResults )
+                    speedupPlot.displayWindow(plotWidth,plotHeight);
+
+                if( largestSpeedup != null && largest != reference ) {
+                    int size = findBreakEven(sizes,largestSpeedup);
+                    breakEven.add(String.format("%-20s %-20s %s",libraryDir.getName(),opFile,
+                            size < 0 ? "never" : Integer.toString(size)));
+                }
+            }
+        }
+
+        if( breakEven.isEmpty() )
+            return;
+
+        try {
+            PrintStream out = new PrintStream(new File(outputDir,"breakeven.txt"));
+            out.println("# Smallest matrix size where "+largest.processors+" processors are faster than "+
+                    reference.processors+" at that size and all larger sizes");
+            for( String line : breakEven ) {
+                out.println(line);
+                System.out.println(line);
+            }
+            out.close();
+        } catch (FileNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Finds the smallest matrix size where the speedup is more than one for it and all larger sizes.
+     * Sizes without results are skipped.
+     *
+     * @return The matrix size or -1 if there is no speedup at the largest size
+     */
+    public static int findBreakEven( int[] sizes , double[] speedup ) {
+        int best = -1;
+        for (int i = sizes.length-1; i >= 0; i--) {
+            if( Double.isNaN(speedup[i]) )
+                continue;
+            if( speedup[i] <= 1 )
+                break;
+            best = sizes[i];
+        }
+        return best;
+    }
+
+    /**
+     * Looks up the operations per second at each of the matrix sizes.  NaN if there are no results for a size.
+     */
+    private double[] opsPerSecond( RuntimeResults results , int[] sizes ) {
+        double[] ret = new double[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            ret[i] = Double.NaN;
+            for (int j = 0; j < results.matDimen.length; j++) {
+                RuntimeEvaluationMetrics m = results.getMetrics()[j];
+                if( results.matDimen[j] == sizes[i] && m != null )
+                    ret[i] = m.getMetric(whichMetric);
+            }
+        }
+        return ret;
+    }
+
+    private static class ScalingRun {
+        int processors;
+        File directory;
+
+        public ScalingRun(int processors, File directory) {
+            this.processors = processors;
+            this.directory = directory;
+        }
+    }
+
+    public static void printHelp() {
+        System.out.println("Creates speedup and parallel efficiency plots from the results of a runtime benchmark which was");
+        System.out.println("run with --Scaling.");
+        System.out.println();
+        System.out.println("--Metric=<?>                   : The metric used for operations per second.");
+        System.out.println("                               : MAX,MIN,MEDIAN,MEAN");
+        System.out.println("--Display=<true|false>         : If true the speedup plots will be displayed.");
+        System.out.println();
+        System.out.println("The last argument is the directory that contains the results.  If this is not specified");
+        System.out.println("then the most recently modified directory is used.");
+    }
+
+    public static void main( String args[] ) {
+        String inputDirectory = null;
+        int metric = RuntimeEvaluationMetrics.METRIC_MAX;
+        boolean displayResults = false;
+
+        boolean failed = false;
+
+        for( int i = 0; i < args.length; i++ ) {
+            String splits[] = args[i].split("=");
+
+            String flag = splits[0];
+
+            if( flag.length() < 2 || flag.charAt(0) != '-' || flag.charAt(1) != '-') {
+                inputDirectory = args[i];
+                break;
+            }
+
+            flag = flag.substring(2);
+
+            if( flag.compareTo("Metric") == 0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                if( splits[1].compareToIgnoreCase("MAX") == 0 ) {
+                    metric = RuntimeEvaluationMetrics.METRIC_MAX;
+                } else if( splits[1].compareToIgnoreCase("MIN") == 0 ) {
+                    metric = RuntimeEvaluationMetrics.METRIC_MIN;
+                } else if( splits[1].compareToIgnoreCase("MEDIAN") == 0 ) {
+                    metric = RuntimeEvaluationMetrics.METRIC_MEDIAN;
+                } else if( splits[1].compareToIgnoreCase("MEAN") == 0 ) {
+                    metric = RuntimeEvaluationMetrics.METRIC_MEAN;
+                } else {
+                    throw new RuntimeException("Unknown metric: "+splits[1]);
+                }
+            } else if( flag.compareTo("Display") ==0 ) {
+                if( splits.length != 2 ) {failed = true; break;}
+                displayResults = Boolean.parseBoolean(splits[1]);
+                System.out.println("Display = "+displayResults);
+            } else {
+                System.out.println("Unknown flag: "+flag);
+                failed = true;
+                break;
+            }
+        }
+
+        if( failed ) {
+            printHelp();
+            throw new RuntimeException("Parsing arguments failed");
+        }
+
+        if( inputDirectory == null )
+            inputDirectory = PlotRuntimeResults.findMostRecentDirectory();
+
+        System.out.println("Parsing "+inputDirectory);
+
+        PlotScalingResults p = new PlotScalingResults(inputDirectory);
+        p.whichMetric = metric;
+        p.displayResults = displayResults;
+        p.plot();
+    }
+}
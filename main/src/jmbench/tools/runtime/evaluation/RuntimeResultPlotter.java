@@ -23,7 +23,9 @@ import jmbench.impl.LibraryDescription;
 import jmbench.plots.OperationsVersusSizePlot;
 import jmbench.plots.OverallRelativeAreaPlot;
 import jmbench.plots.SummaryWhiskerPlot;
+import jmbench.tools.runtime.LatencyHistogram;
 import jmbench.tools.runtime.RuntimeEvaluationMetrics;
+import jmbench.tools.runtime.RuntimeMeasurement;
 import jmbench.tools.runtime.RuntimeResults;
 
 import java.util.*;
@@ -43,6 +45,15 @@ public class RuntimeResultPlotter {
                                      String outputDirectory ,
                                      boolean savePDF ,
                                      boolean showWindow ) {
+        summaryPlots(allResults,"Summary of Runtime Performance",referenceType,weighted,
+                outputDirectory,savePDF,showWindow);
+    }
+
+    public static void summaryPlots( List<RuntimePlotData> allResults , String title ,
+                                     Reference referenceType , boolean weighted ,
+                                     String outputDirectory ,
+                                     boolean savePDF ,
+                                     boolean showWindow ) {
 
         Map<String,List<OverallData>> overallResults = new HashMap<>();
 
@@ -110,7 +121,6 @@ public class RuntimeResultPlotter {
         // If set to one results will not be weighted
         int maxSamples = weighted ? 100 : 1;
 
-        String title = "Summary of Runtime Performance";
         String subtitle = weighted ? "Weighted by Operation Time" : null;
 
         SummaryWhiskerPlot plot = new SummaryWhiskerPlot(title,subtitle);
@@ -374,6 +384,237 @@ public class RuntimeResultPlotter {
             splot.displayWindow(600, 500);
     }
 
+    /**
+     * Plots the latency of a single iteration at the specified percentile against matrix size.  Only libraries
+     * which recorded latency histograms are included.
+     *
+     * @param percentile Percentile from 0 to 100.  100 is the maximum
+     * @return true if there was anything to plot
+     */
+    public static boolean latencyPlots( List<RuntimeResults> data ,
+                                        List<LibraryPlotInfo> libraryDescriptions ,
+                                        double percentile ,
+                                        String fileName ,
+                                        boolean savePDF ,
+                                        boolean showWindow )
+    {
+        String opName = data.get(0).getOpName();
+        OperationsVersusSizePlot splot = new OperationsVersusSizePlot(opName,percentileName(percentile)+" Latency (s)");
+
+        splot.setLogScale(true,true);
+
+        int numMatrixSizes = getNumMatrices(data);
+
+        int[] matDimen = new int[ numMatrixSizes ];
+        for( int i = 0; i < numMatrixSizes; i++ ){
+            matDimen[i] = getMatrixSize(data,i);
+        }
+
+        boolean found = false;
+        for( RuntimeResults ops : data ) {
+            RuntimeEvaluationMetrics[]metrics = ops.metrics;
+            int n = ops.getMatDimen().length;
+
+            double[] results = new double[ numMatrixSizes ];
+            boolean allInvalid = true;
+            for( int i = 0; i < numMatrixSizes; i++ ) {
+                LatencyHistogram h = i < n && metrics[i] != null ? metrics[i].combinedLatency() : null;
+                if( h != null && h.getTotal() > 0 ) {
+                    results[i] = h.getValueAtPercentile(percentile)/1e9;
+                    allInvalid = false;
+                } else {
+                    results[i] = Double.NaN;
+                }
+            }
+
+            if( allInvalid )
+                continue;
+            found = true;
+
+            int libraryIndex = findLibraryIndex(ops.getLibraryName(), libraryDescriptions);
+            LibraryDescription desc = libraryDescriptions.get(libraryIndex).desc;
+            splot.addResults(matDimen,results,desc.info.getNamePlot(),numMatrixSizes,libraryIndex);
+        }
+
+        if( !found )
+            return false;
+
+        if( savePDF )
+            splot.savePDF(fileName+".pdf",600,500);
+        if( showWindow )
+            splot.displayWindow(600, 500);
+        return true;
+    }
+
+    /**
+     * Plots the median number of bytes allocated each time the operation is called against matrix size.  Only
+     * libraries which recorded allocated memory are included.  Sizes where nothing was allocated aren't
+     * plotted since the y-axis is logarithmic.
+     *
+     * @return true if there was anything to plot
+     */
+    public static boolean allocationPlots( List<RuntimeResults> data ,
+                                           List<LibraryPlotInfo> libraryDescriptions ,
+                                           String fileName ,
+                                           boolean savePDF ,
+                                           boolean showWindow )
+    {
+        String opName = data.get(0).getOpName();
+        OperationsVersusSizePlot splot = new OperationsVersusSizePlot(opName,"Bytes Allocated Per Op");
+
+        splot.setLogScale(true,true);
+
+        int numMatrixSizes = getNumMatrices(data);
+
+        int[] matDimen = new int[ numMatrixSizes ];
+        for( int i = 0; i < numMatrixSizes; i++ ){
+            matDimen[i] = getMatrixSize(data,i);
+        }
+
+        boolean found = false;
+        for( RuntimeResults ops : data ) {
+            RuntimeEvaluationMetrics[]metrics = ops.metrics;
+            int n = ops.getMatDimen().length;
+
+            double[] results = new double[ numMatrixSizes ];
+            boolean allInvalid = true;
+            for( int i = 0; i < numMatrixSizes; i++ ) {
+                results[i] = Double.NaN;
+                if( i >= n || metrics[i] == null )
+                    continue;
+
+                List<Double> values = new ArrayList<>();
+                for( RuntimeMeasurement m : metrics[i].rawResults ) {
+                    if( m.allocatedBytesPerOp >= 0 )
+                        values.add(m.allocatedBytesPerOp);
+                }
+                if( values.isEmpty() )
+                    continue;
+                allInvalid = false;
+
+                Collections.sort(values);
+                double median = values.get(values.size()/2);
+                if( median > 0 )
+                    results[i] = median;
+            }
+
+            if( allInvalid )
+                continue;
+            found = true;
+
+            int libraryIndex = findLibraryIndex(ops.getLibraryName(), libraryDescriptions);
+            LibraryDescription desc = libraryDescriptions.get(libraryIndex).desc;
+            splot.addResults(matDimen,results,desc.info.getNamePlot(),numMatrixSizes,libraryIndex);
+        }
+
+        if( !found )
+            return false;
+
+        if( savePDF )
+            splot.savePDF(fileName+".pdf",600,500);
+        if( showWindow )
+            splot.displayWindow(600, 500);
+        return true;
+    }
+
+    /**
+     * Plots how many times faster the single precision version of an operation is than the double precision
+     * version against matrix size.  Only libraries which ran both versions are included.  Values above one
+     * mean single precision is faster.
+     *
+     * @param data64 Results from the double precision operation
+     * @param data32 Results from the single precision operation
+     * @param whichMetric The metric which the speedup is computed from. See {@link RuntimeEvaluationMetrics}.
+     * @return true if there was anything to plot
+     */
+    public static boolean precisionPlots( List<RuntimeResults> data64 ,
+                                          List<RuntimeResults> data32 ,
+                                          int whichMetric ,
+                                          List<LibraryPlotInfo> libraryDescriptions ,
+                                          String fileName ,
+                                          boolean savePDF ,
+                                          boolean showWindow )
+    {
+        String opName = data64.get(0).getOpName();
+        OperationsVersusSizePlot splot = new OperationsVersusSizePlot(opName,"Float32 Speedup");
+
+        splot.setLogScale(true,true);
+
+        int numMatrixSizes = getNumMatrices(data64);
+
+        int[] matDimen = new int[ numMatrixSizes ];
+        for( int i = 0; i < numMatrixSizes; i++ ){
+            matDimen[i] = getMatrixSize(data64,i);
+        }
+
+        boolean found = false;
+        for( RuntimeResults ops32 : data32 ) {
+            RuntimeResults ops64 = null;
+            for( RuntimeResults r : data64 ) {
+                if( r.getLibraryName().equals(ops32.getLibraryName()) )
+                    ops64 = r;
+            }
+            if( ops64 == null )
+                continue;
+
+            double[] results = new double[ numMatrixSizes ];
+            boolean allInvalid = true;
+            for( int i = 0; i < numMatrixSizes; i++ ) {
+                results[i] = Double.NaN;
+                RuntimeEvaluationMetrics m64 = findMetrics(ops64,matDimen[i]);
+                RuntimeEvaluationMetrics m32 = findMetrics(ops32,matDimen[i]);
+                if( m64 == null || m32 == null )
+                    continue;
+
+                double speedup = m32.getMetric(whichMetric)/m64.getMetric(whichMetric);
+                if( !Double.isNaN(speedup) && !Double.isInfinite(speedup) && speedup > 0 ) {
+                    results[i] = speedup;
+                    allInvalid = false;
+                }
+            }
+
+            if( allInvalid )
+                continue;
+            found = true;
+
+            int libraryIndex = findLibraryIndex(ops32.getLibraryName(), libraryDescriptions);
+            LibraryDescription desc = libraryDescriptions.get(libraryIndex).desc;
+            splot.addResults(matDimen,results,desc.info.getNamePlot(),numMatrixSizes,libraryIndex);
+        }
+
+        if( !found )
+            return false;
+
+        if( savePDF )
+            splot.savePDF(fileName+".pdf",600,500);
+        if( showWindow )
+            splot.displayWindow(600, 500);
+        return true;
+    }
+
+    /**
+     * Returns the metrics for the specified matrix size or null if it wasn't processed
+     */
+    private static RuntimeEvaluationMetrics findMetrics( RuntimeResults results , int matrixSize ) {
+        int[] sizes = results.getMatDimen();
+        for( int i = 0; i < sizes.length && i < results.metrics.length; i++ ) {
+            if( sizes[i] == matrixSize )
+                return results.metrics[i];
+        }
+        return null;
+    }
+
+    /**
+     * Short name for a percentile, e.g. p50, p99.9, or max
+     */
+    public static String percentileName( double percentile ) {
+        if( percentile >= 100 )
+            return "max";
+        if( percentile == Math.floor(percentile) )
+            return "p"+(int)percentile;
+        return "p"+percentile;
+    }
+
     public static void absolutePlots( RuntimePlotData data ,
                                       String fileName ,
                                       String opName,
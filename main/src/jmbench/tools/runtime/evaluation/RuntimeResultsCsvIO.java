@@ -19,6 +19,7 @@
 
 package jmbench.tools.runtime.evaluation;
 
+import jmbench.tools.runtime.LatencyHistogram;
 import jmbench.tools.runtime.RuntimeEvaluationMetrics;
 import jmbench.tools.runtime.RuntimeMeasurement;
 import jmbench.tools.runtime.RuntimeResults;
@@ -29,7 +30,9 @@ import java.util.List;
 
 /**
  * Converts {@link RuntimeResults} to and from a very simple CSV format.  Replaces the old XML format that kept on
- * getting screwed up each time refactoring was done.
+ * getting screwed up each time refactoring was done.  Each measurement is on its own line.  Ops/sec comes first
+ * and is followed by optional tab separated name=value columns.  A matrix size without results can have
+ * a column which says why it was skipped.
  *
  * @author Peter Abeles
  */
@@ -62,15 +65,22 @@ public class RuntimeResultsCsvIO {
                 ret.matDimen[i] = readInt(input);
 
 
-                int numResults = readInt(input);
+                // the number of results can be followed by the reason the size was skipped
+                String[] columns = readLine(input).split("\t");
+                int numResults = Integer.parseInt(columns[0]);
+                for( int j = 1; j < columns.length; j++ ) {
+                    if( columns[j].startsWith("skipped=") ) {
+                        if( ret.skipReasons == null )
+                            ret.skipReasons = new String[ret.matDimen.length];
+                        ret.skipReasons[i] = columns[j].substring("skipped=".length());
+                    }
+                }
                 if( numResults > 0 ) {
                     RuntimeEvaluationMetrics e = ret.metrics[i] = new RuntimeEvaluationMetrics();
                     e.rawResults = new ArrayList<>();
 
                     for( int j = 0; j < numResults; j++ ) {
-                        double opsPerSec = readDouble(input);
-
-                        e.rawResults.add(new RuntimeMeasurement(opsPerSec,0));
+                        e.rawResults.add(readMeasurement(input));
                     }
 
                     e.computeStatistics();
@@ -84,6 +94,60 @@ public class RuntimeResultsCsvIO {
     }
 
 
+    /**
+     * Reads a single measurement.  The first column is ops/sec and is followed by optional name=value columns.
+     * Files written before optional columns were added only have the first column.
+     */
+    private static RuntimeMeasurement readMeasurement( InputStream input ) throws IOException {
+        String[] columns = readLine(input).split("\t");
+
+        RuntimeMeasurement m = new RuntimeMeasurement(Double.parseDouble(columns[0]),0);
+
+        for( int i = 1; i < columns.length; i++ ) {
+            int split = columns[i].indexOf('=');
+            if( split < 0 )
+                throw new RuntimeException("Unexpected column "+columns[i]);
+            String name = columns[i].substring(0,split);
+            String value = columns[i].substring(split+1);
+
+            switch( name ) {
+                case "cores": m.cores = value; break;
+                case "threads": m.threads = Integer.parseInt(value); break;
+                case "warmup": m.warmupMS = Long.parseLong(value); break;
+                case "compile": m.compileMS = Long.parseLong(value); break;
+                case "jitActive": m.jitActive = Boolean.parseBoolean(value); break;
+                case "gc": m.gcCount = Long.parseLong(value); break;
+                case "gcTime": m.gcTimeMS = Long.parseLong(value); break;
+                case "gcFraction": m.gcFraction = Double.parseDouble(value); break;
+                case "gcRetries": m.gcRetries = Integer.parseInt(value); break;
+                case "safepoints": m.safepoints = Long.parseLong(value); break;
+                case "safepointTime": m.safepointTimeMS = Long.parseLong(value); break;
+                case "allocated": m.allocatedBytesPerOp = Double.parseDouble(value); break;
+                case "latency": m.latency = LatencyHistogram.decode(value); break;
+                case "cycles": m.cyclesPerOp = Double.parseDouble(value); break;
+                case "instructions": m.instructionsPerOp = Double.parseDouble(value); break;
+                case "llcMisses": m.llcMissesPerOp = Double.parseDouble(value); break;
+                case "branchMisses": m.branchMissesPerOp = Double.parseDouble(value); break;
+                default:
+                    // skip columns it doesn't know about
+            }
+        }
+
+        return m;
+    }
+
+    private static String readLine( InputStream input ) throws IOException {
+        char c = readEmptySapce(input);
+
+        StringBuilder ret = new StringBuilder();
+        while( c != '\n' && c != (char)-1 ) {
+            ret.append(c);
+            c = (char)input.read();
+        }
+
+        return ret.toString();
+    }
+
     private static String readString( InputStream input ) throws IOException {
         char c = readEmptySapce(input);
 
@@ -170,6 +234,7 @@ public class RuntimeResultsCsvIO {
             output.print('\t');
             if( results.metrics[i] == null ) {
                 output.print(-1);
+                writeColumn(output,"skipped",results.getSkipReason(i));
                 output.print('\n');
             } else {
                 List<RuntimeMeasurement> raw = results.metrics[i].rawResults;
@@ -177,6 +242,25 @@ public class RuntimeResultsCsvIO {
                 output.print('\n');
                 for (RuntimeMeasurement m : raw) {
                     output.print(m.getOpsPerSec());
+                    writeColumn(output,"cores",m.cores);
+                    writeColumn(output,"threads",m.threads > 1 ? m.threads : null);
+                    writeColumn(output,"warmup",m.warmupMS >= 0 ? m.warmupMS : null);
+                    writeColumn(output,"compile",m.compileMS >= 0 ? m.compileMS : null);
+                    writeColumn(output,"jitActive",m.jitActive ? true : null);
+                    if( m.gcCount >= 0 ) {
+                        writeColumn(output,"gc",m.gcCount);
+                        writeColumn(output,"gcTime",m.gcTimeMS);
+                        writeColumn(output,"gcFraction",m.gcFraction);
+                        writeColumn(output,"gcRetries",m.gcRetries);
+                    }
+                    writeColumn(output,"safepoints",m.safepoints >= 0 ? m.safepoints : null);
+                    writeColumn(output,"safepointTime",m.safepointTimeMS >= 0 ? m.safepointTimeMS : null);
+                    writeColumn(output,"allocated",m.allocatedBytesPerOp >= 0 ? m.allocatedBytesPerOp : null);
+                    writeColumn(output,"latency",m.latency != null ? m.latency.encode() : null);
+                    writeColumn(output,"cycles",m.cyclesPerOp >= 0 ? m.cyclesPerOp : null);
+                    writeColumn(output,"instructions",m.instructionsPerOp >= 0 ? m.instructionsPerOp : null);
+                    writeColumn(output,"llcMisses",m.llcMissesPerOp >= 0 ? m.llcMissesPerOp : null);
+                    writeColumn(output,"branchMisses",m.branchMissesPerOp >= 0 ? m.branchMissesPerOp : null);
                     output.print('\n');
                 }
             }
@@ -194,6 +278,18 @@ public class RuntimeResultsCsvIO {
         output.print('\n');
     }
 
+    /**
+     * Writes an optional column for a measurement.  Nothing is written if the value is null.
+     */
+    protected static void writeColumn( PrintStream output , String name , Object value ) {
+        if( value == null )
+            return;
+        output.print('\t');
+        output.print(name);
+        output.print('=');
+        output.print(value);
+    }
+
     protected static void out( PrintStream output , String text ) {
         output.print("\"");
         output.print(text);
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmbench.tools.runtime.generator;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.MatrixFactory;
+import jmbench.tools.runtime.InputOutputGenerator;
+
+import java.util.Random;
+
+
+/**
+ * <p>
+ * Creates inputs for a batch of small matrices.  The inputs from another generator are created 'count' times and
+ * placed one after the other, e.g. for multiplication the inputs are A0,B0,A1,B1,...  Batched operations process
+ * the next set of inputs in the batch each trial and wrap around at the end.  Since every trial works on different
+ * memory the data isn't identical and in the cache every time, like it would be in a real application.
+ * </p>
+ *
+ * <p>
+ * Because each trial is one set of inputs, operations per second is the number of matrices processed each second.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BatchGenerator implements InputOutputGenerator {
+
+    // generator for a single set of inputs
+    InputOutputGenerator single;
+    // number of input sets in the batch
+    int count;
+
+    public BatchGenerator(InputOutputGenerator single, int count) {
+        this.single = single;
+        this.count = count;
+    }
+
+    public BatchGenerator() {
+    }
+
+    @Override
+    public BenchmarkMatrix[] createInputs(MatrixFactory factory, Random rand,
+                                          int size) {
+        BenchmarkMatrix[] inputs = null;
+
+        for (int i = 0; i < count; i++) {
+            BenchmarkMatrix[] set = single.createInputs(factory,rand,size);
+            if( inputs == null )
+                inputs = new BenchmarkMatrix[set.length*count];
+            System.arraycopy(set,0,inputs,i*set.length,set.length);
+        }
+
+        return inputs;
+    }
+
+    /**
+     * Number of input sets in a batch created with this many inputs per set
+     */
+    public static int numSets( BenchmarkMatrix[] inputs , int inputsPerSet ) {
+        return inputs.length/inputsPerSet;
+    }
+
+    @Override
+    public int numOutputs() {
+        return single.numOutputs();
+    }
+
+    @Override
+    public long getRequiredMemory( int matrixSize ) {
+        return single.getRequiredMemory(matrixSize)*count;
+    }
+
+    public InputOutputGenerator getSingle() {
+        return single;
+    }
+
+    public void setSingle(InputOutputGenerator single) {
+        this.single = single;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+}
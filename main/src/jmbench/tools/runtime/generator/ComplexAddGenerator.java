@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.tools.runtime.generator;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.ComplexPerformanceFactory;
+
+import java.util.Random;
+
+
+/**
+ * Inputs are two square complex matrices A and B for C = A + B
+ *
+ * @author Peter Abeles
+ */
+public class ComplexAddGenerator extends ComplexGenerator {
+
+    @Override
+    protected BenchmarkMatrix[] createInputs(ComplexPerformanceFactory complex, Random rand, int size) {
+        BenchmarkMatrix[] inputs = new  BenchmarkMatrix[2];
+
+        inputs[0] = createRandom(complex,rand,size,size);
+        inputs[1] = createRandom(complex,rand,size,size);
+
+        return inputs;
+    }
+
+    @Override
+    public int numOutputs() {
+        return 1;
+    }
+
+    @Override
+    public long getRequiredMemory( int matrixSize ) {
+        return complexBytes(matrixSize)*8L;
+    }
+}
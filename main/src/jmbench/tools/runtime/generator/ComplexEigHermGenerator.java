@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.tools.runtime.generator;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.ComplexBenchmarkMatrix;
+import jmbench.interfaces.ComplexPerformanceFactory;
+
+import java.util.Random;
+
+import static jmbench.misc.RandomizeMatrices.hermitian;
+
+
+/**
+ * Input is a square Hermitian matrix.  Outputs are D and V.
+ *
+ * @author Peter Abeles
+ */
+public class ComplexEigHermGenerator extends ComplexGenerator {
+
+    @Override
+    protected BenchmarkMatrix[] createInputs(ComplexPerformanceFactory complex, Random rand, int size) {
+        ComplexBenchmarkMatrix A = complex.create(size,size);
+        hermitian(A,-1,1,rand);
+
+        return new BenchmarkMatrix[]{A};
+    }
+
+    @Override
+    public int numOutputs() {
+        return 2;
+    }
+
+    @Override
+    public long getRequiredMemory( int matrixSize ) {
+        return complexBytes(matrixSize)*8L;
+    }
+}
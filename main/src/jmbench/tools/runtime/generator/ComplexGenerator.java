@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.tools.runtime.generator;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.ComplexBenchmarkMatrix;
+import jmbench.interfaces.ComplexPerformanceFactory;
+import jmbench.interfaces.MatrixFactory;
+import jmbench.interfaces.RuntimePerformanceFactory;
+import jmbench.tools.runtime.InputOutputGenerator;
+
+import java.util.Random;
+
+import static jmbench.misc.RandomizeMatrices.randomizeComplex;
+
+
+/**
+ * <p>
+ * Base class for generators of inputs to complex operations.  Matrices are created with the library's
+ * {@link ComplexPerformanceFactory}.  If the library doesn't support complex matrices then no inputs are created.
+ * The operation will be null too and it's marked as not supported.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class ComplexGenerator implements InputOutputGenerator {
+
+    @Override
+    public BenchmarkMatrix[] createInputs(MatrixFactory factory, Random rand,
+                                          int size) {
+        ComplexPerformanceFactory complex = null;
+        if( factory instanceof RuntimePerformanceFactory )
+            complex = ((RuntimePerformanceFactory)factory).complex();
+
+        if( complex == null )
+            return new BenchmarkMatrix[0];
+
+        return createInputs(complex,rand,size);
+    }
+
+    /**
+     * Creates the inputs for a library which supports complex matrices
+     */
+    protected abstract BenchmarkMatrix[] createInputs( ComplexPerformanceFactory complex , Random rand , int size );
+
+    /**
+     * Creates a matrix with random real and imaginary parts
+     */
+    protected static ComplexBenchmarkMatrix createRandom( ComplexPerformanceFactory complex , Random rand ,
+                                                          int numRows , int numCols ) {
+        ComplexBenchmarkMatrix m = complex.create(numRows,numCols);
+        randomizeComplex(m,-1,1,rand);
+        return m;
+    }
+
+    /**
+     * Number of bytes needed to store a square complex matrix
+     */
+    protected static long complexBytes( int matrixSize ) {
+        return 16L*matrixSize*matrixSize;
+    }
+}
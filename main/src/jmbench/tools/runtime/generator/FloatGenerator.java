@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.tools.runtime.generator;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.FloatPerformanceFactory;
+import jmbench.interfaces.MatrixFactory;
+import jmbench.interfaces.RuntimePerformanceFactory;
+import jmbench.tools.runtime.InputOutputGenerator;
+
+import java.util.Random;
+
+
+/**
+ * <p>
+ * Creates single precision inputs for an operation by running its double precision generator with the library's
+ * {@link FloatPerformanceFactory}.  The inputs are the same matrices rounded to float, so the results can be
+ * directly compared against the double precision version of the operation.
+ * </p>
+ *
+ * <p>
+ * If the library doesn't support single precision then no inputs are created.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FloatGenerator implements InputOutputGenerator {
+
+    // generator for the double precision version of the operation
+    InputOutputGenerator generator;
+
+    public FloatGenerator(InputOutputGenerator generator) {
+        this.generator = generator;
+    }
+
+    public FloatGenerator() {
+    }
+
+    @Override
+    public BenchmarkMatrix[] createInputs(MatrixFactory factory, Random rand,
+                                          int size) {
+        FloatPerformanceFactory float32 = null;
+        if( factory instanceof RuntimePerformanceFactory )
+            float32 = ((RuntimePerformanceFactory)factory).float32();
+
+        if( float32 == null )
+            return new BenchmarkMatrix[0];
+
+        return generator.createInputs(float32,rand,size);
+    }
+
+    @Override
+    public int numOutputs() {
+        return generator.numOutputs();
+    }
+
+    @Override
+    public long getRequiredMemory( int matrixSize ) {
+        return generator.getRequiredMemory(matrixSize)/2;
+    }
+
+    public InputOutputGenerator getGenerator() {
+        return generator;
+    }
+
+    public void setGenerator(InputOutputGenerator generator) {
+        this.generator = generator;
+    }
+}
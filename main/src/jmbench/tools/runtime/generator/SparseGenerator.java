@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.tools.runtime.generator;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.MatrixFactory;
+import jmbench.interfaces.RuntimePerformanceFactory;
+import jmbench.interfaces.SparsePerformanceFactory;
+import jmbench.misc.RandomSparseMatrices;
+import jmbench.tools.runtime.InputOutputGenerator;
+
+import java.util.Random;
+
+import static jmbench.misc.RandomizeMatrices.randomize;
+
+
+/**
+ * <p>
+ * Base class for generators of inputs to sparse operations.  Sparse matrices are created using
+ * {@link RandomSparseMatrices} and converted into the library's format with its {@link SparsePerformanceFactory}.
+ * Dense vectors are created with the library's regular {@link MatrixFactory}.  The matrix size is the number of
+ * rows and columns in the square sparse matrix.
+ * </p>
+ *
+ * <p>
+ * If the library doesn't support sparse matrices then no inputs are created.  The operation will be null too
+ * and it's marked as not supported.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class SparseGenerator implements InputOutputGenerator {
+
+    // location of the non-zero elements
+    RandomSparseMatrices.Pattern pattern;
+    // approximate number of non-zero elements in each row
+    int nonZerosPerRow;
+
+    protected SparseGenerator(RandomSparseMatrices.Pattern pattern, int nonZerosPerRow) {
+        this.pattern = pattern;
+        this.nonZerosPerRow = nonZerosPerRow;
+    }
+
+    protected SparseGenerator() {
+    }
+
+    @Override
+    public BenchmarkMatrix[] createInputs(MatrixFactory factory, Random rand,
+                                          int size) {
+        SparsePerformanceFactory sparse = null;
+        if( factory instanceof RuntimePerformanceFactory )
+            sparse = ((RuntimePerformanceFactory)factory).sparse();
+
+        if( sparse == null )
+            return new BenchmarkMatrix[0];
+
+        return createInputs(sparse,factory,rand,size);
+    }
+
+    /**
+     * Creates the inputs for a library which supports sparse matrices
+     */
+    protected abstract BenchmarkMatrix[] createInputs( SparsePerformanceFactory sparse , MatrixFactory factory ,
+                                                       Random rand , int size );
+
+    /**
+     * Creates a random sparse matrix in the library's format
+     *
+     * @param symmetric If true it will be symmetric positive definite
+     */
+    protected BenchmarkMatrix createSparse( SparsePerformanceFactory sparse , Random rand ,
+                                            int size , boolean symmetric ) {
+        return sparse.convertToLib(RandomSparseMatrices.create(pattern,size,nonZerosPerRow,symmetric,rand));
+    }
+
+    /**
+     * Creates a random dense column vector in the library's format
+     */
+    protected static BenchmarkMatrix createVector( MatrixFactory factory , Random rand , int size ) {
+        BenchmarkMatrix v = factory.create(size,1);
+        randomize(v,-1,1,rand);
+        return v;
+    }
+
+    /**
+     * Approximate number of bytes needed to store a sparse matrix in CSR format
+     */
+    protected long sparseBytes( int matrixSize ) {
+        return 12L*matrixSize*nonZerosPerRow + 4L*matrixSize;
+    }
+
+    public RandomSparseMatrices.Pattern getPattern() {
+        return pattern;
+    }
+
+    public void setPattern(RandomSparseMatrices.Pattern pattern) {
+        this.pattern = pattern;
+    }
+
+    public int getNonZerosPerRow() {
+        return nonZerosPerRow;
+    }
+
+    public void setNonZerosPerRow(int nonZerosPerRow) {
+        this.nonZerosPerRow = nonZerosPerRow;
+    }
+}
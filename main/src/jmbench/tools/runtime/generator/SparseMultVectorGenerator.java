@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.tools.runtime.generator;
+
+import jmbench.interfaces.BenchmarkMatrix;
+import jmbench.interfaces.MatrixFactory;
+import jmbench.interfaces.SparsePerformanceFactory;
+import jmbench.misc.RandomSparseMatrices;
+
+import java.util.Random;
+
+
+/**
+ * Inputs are a sparse matrix A and a dense column vector x for y = A*x
+ *
+ * @author Peter Abeles
+ */
+public class SparseMultVectorGenerator extends SparseGenerator {
+
+    public SparseMultVectorGenerator(RandomSparseMatrices.Pattern pattern, int nonZerosPerRow) {
+        super(pattern, nonZerosPerRow);
+    }
+
+    public SparseMultVectorGenerator() {
+    }
+
+    @Override
+    protected BenchmarkMatrix[] createInputs(SparsePerformanceFactory sparse, MatrixFactory factory,
+                                             Random rand, int size) {
+        BenchmarkMatrix[] inputs = new  BenchmarkMatrix[2];
+
+        inputs[0] = createSparse(sparse,rand,size,false);
+        inputs[1] = createVector(factory,rand,size);
+
+        return inputs;
+    }
+
+    @Override
+    public int numOutputs() {
+        return 1;
+    }
+
+    @Override
+    public long getRequiredMemory( int matrixSize ) {
+        return sparseBytes(matrixSize)*2L + 8L*matrixSize*4L;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.matrix;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCsrMatrix {
+    @Test
+    public void fromTriplets() {
+        // out of order with a duplicate at (1,2)
+        int rows[] = new int[]{1,0,1,2,1};
+        int cols[] = new int[]{2,1,0,2,2};
+        double values[] = new double[]{1,2,3,4,5,99};
+
+        CsrMatrix A = CsrMatrix.fromTriplets(3,4,rows,cols,values,5);
+
+        assertEquals(4,A.getNonZeros());
+        assertArrayEquals(new int[]{0,1,3,4},A.rowPtr);
+        assertArrayEquals(new int[]{1,0,2,2},A.colIdx);
+        assertEquals(2,A.get(0,1),1e-8);
+        assertEquals(3,A.get(1,0),1e-8);
+        assertEquals(6,A.get(1,2),1e-8);
+        assertEquals(4,A.get(2,2),1e-8);
+        assertEquals(0,A.get(2,3),1e-8);
+    }
+
+    @Test
+    public void transpose() {
+        RowMajorMatrix dense = new RowMajorMatrix(3,4);
+        dense.set(0,3,1);
+        dense.set(1,0,2);
+        dense.set(1,3,3);
+        dense.set(2,1,4);
+
+        CsrMatrix A = CsrMatrix.fromRowMajor(dense);
+        CsrMatrix At = A.transpose();
+
+        assertEquals(4,At.numRows);
+        assertEquals(3,At.numCols);
+        assertEquals(A.getNonZeros(),At.getNonZeros());
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 4; col++) {
+                assertEquals(dense.get(row,col),At.get(col,row),1e-8);
+            }
+        }
+        // columns inside each row must be sorted
+        assertArrayEquals(new int[]{1,2,0,1},At.colIdx);
+
+        RowMajorMatrix found = At.transpose().toRowMajor();
+        assertArrayEquals(dense.data,found.data,1e-8);
+    }
+}
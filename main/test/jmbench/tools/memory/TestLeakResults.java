@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+
+package jmbench.tools.memory;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLeakResults {
+
+    // one sample a second for a bit less than a minute
+    int N = 50;
+    long MB = 1024*1024;
+    double threshold = MB;
+
+    @Test
+    public void steady() {
+        long[] heap = new long[N];
+        for (int i = 0; i < N; i++) {
+            heap[i] = 100*MB + (i%2)*MB/10;
+        }
+
+        LeakResults results = create(heap);
+        results.analyze(threshold);
+
+        assertEquals(0,results.heapSlope,MB/10);
+        assertFalse(results.heapLeak);
+        assertFalse(results.isLeaking());
+    }
+
+    @Test
+    public void linearGrowth() {
+        // 10 MB a minute
+        long[] heap = new long[N];
+        for (int i = 0; i < N; i++) {
+            heap[i] = 100*MB + i*10*MB/60;
+        }
+
+        LeakResults results = create(heap);
+        results.analyze(threshold);
+
+        assertEquals(10*MB,results.heapSlope,MB/10);
+        assertTrue(results.heapLeak);
+        assertTrue(results.isLeaking());
+    }
+
+    /**
+     * A cache fills up after the warm up but before the second half.  The line fit to everything after the
+     * warm up is steep but memory isn't growing at the end
+     */
+    @Test
+    public void cacheFillsThenPlateaus() {
+        long[] heap = new long[N];
+        for (int i = 0; i < N; i++) {
+            heap[i] = 100*MB + Math.min(i,25)*10*MB;
+        }
+
+        LeakResults results = create(heap);
+        results.analyze(threshold);
+
+        assertTrue(results.heapSlope > threshold);
+        assertFalse(results.heapLeak);
+        assertFalse(results.isLeaking());
+    }
+
+    /**
+     * Memory which grows during the warm up shouldn't be included
+     */
+    @Test
+    public void growthDuringWarmup() {
+        long[] heap = new long[N];
+        for (int i = 0; i < N; i++) {
+            heap[i] = 100*MB + Math.min(i,(int)(N*LeakResults.WARMUP_FRACTION))*10*MB;
+        }
+
+        LeakResults results = create(heap);
+        results.analyze(threshold);
+
+        assertEquals(0,results.heapSlope,1e-8);
+        assertFalse(results.heapLeak);
+    }
+
+    /**
+     * Each type of memory is analyzed on its own and types which weren't sampled are skipped
+     */
+    @Test
+    public void typesAreIndependent() {
+        long[] steady = new long[N];
+        long[] growing = new long[N];
+        for (int i = 0; i < N; i++) {
+            steady[i] = 100*MB;
+            growing[i] = 100*MB + i*10*MB/60;
+        }
+
+        LeakResults results = create(steady);
+        results.rssBytes = growing;
+        results.analyze(threshold);
+
+        assertFalse(results.heapLeak);
+        assertTrue(results.rssLeak);
+        assertTrue(Double.isNaN(results.nativeSlope));
+        assertFalse(results.nativeLeak);
+        assertTrue(results.isLeaking());
+    }
+
+    @Test
+    public void slope_skipsNegative() {
+        long[] time = new long[10];
+        long[] values = new long[10];
+        for (int i = 0; i < 10; i++) {
+            time[i] = i*60000;
+            values[i] = i%3 == 0 ? -1 : 5*i;
+        }
+
+        assertEquals(5,LeakResults.slope(time,values,0,10),1e-8);
+    }
+
+    @Test
+    public void slope_tooFewSamples() {
+        long[] time = new long[]{0,1000,2000,3000,4000};
+        long[] values = new long[]{1,2,-1,-1,5};
+
+        assertTrue(Double.isNaN(LeakResults.slope(time,values,0,5)));
+        assertTrue(Double.isNaN(LeakResults.slope(time,null,0,5)));
+    }
+
+    /**
+     * Too few samples to fit a line so nothing can be considered a leak
+     */
+    @Test
+    public void analyze_tooFewSamples() {
+        LeakResults results = create(new long[]{0,MB,2*MB});
+        results.analyze(threshold);
+
+        assertTrue(Double.isNaN(results.heapSlope));
+        assertFalse(results.isLeaking());
+    }
+
+    private static LeakResults create( long[] heap ) {
+        LeakResults results = new LeakResults();
+        results.timeMS = new long[heap.length];
+        for (int i = 0; i < heap.length; i++) {
+            results.timeMS[i] = i*1000;
+        }
+        results.heapBytes = heap;
+        return results;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.tools.runtime;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLatencyHistogram {
+    @Test
+    public void bucketBounds() {
+        for( long value : new long[]{0,1,7,8,9,15,16,100,1_000_000,123_456_789_000L,Long.MAX_VALUE} ) {
+            int bucket = LatencyHistogram.bucket(value);
+            assertTrue(LatencyHistogram.lowerBound(bucket) <= value);
+            assertTrue(LatencyHistogram.upperBound(bucket) >= value);
+        }
+        assertEquals(LatencyHistogram.TOTAL_BUCKETS-1,LatencyHistogram.bucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void percentiles() {
+        LatencyHistogram h = new LatencyHistogram();
+        for( int i = 1; i <= 1000; i++ ) {
+            h.record(i*1000);
+        }
+
+        assertEquals(1000,h.getTotal());
+        assertEquals(1000,h.getValueAtPercentile(0));
+        assertEquals(1_000_000,h.getValueAtPercentile(100));
+
+        // within the resolution of a bucket
+        long p50 = h.getValueAtPercentile(50);
+        assertTrue(p50 >= 500_000 && p50 <= 500_000*1.13);
+        long p99 = h.getValueAtPercentile(99);
+        assertTrue(p99 >= 990_000 && p99 <= 1_000_000);
+    }
+
+    @Test
+    public void encodeDecode() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(5);
+        h.record(5_000);
+        h.record(5_100);
+        h.record(80_000_000);
+
+        LatencyHistogram found = LatencyHistogram.decode(h.encode());
+        assertEquals(h.getTotal(),found.getTotal());
+        assertEquals(h.getMin(),found.getMin());
+        assertEquals(h.getMax(),found.getMax());
+        assertArrayEquals(h.counts,found.counts);
+    }
+}
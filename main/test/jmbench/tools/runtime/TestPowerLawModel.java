@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package jmbench.tools.runtime;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPowerLawModel {
+    @Test
+    public void fitCubic() {
+        PowerLawModel model = new PowerLawModel();
+        assertFalse(model.isValid());
+
+        for( int size : new int[]{10,20,40,80} ) {
+            model.add(size,0.5*Math.pow(size,3));
+        }
+
+        assertTrue(model.isValid());
+        assertEquals(3,model.getK(),1e-8);
+        assertEquals(0.5,model.getA(),1e-8);
+        assertEquals(0.5*Math.pow(160,3),model.predict(160),1e-3);
+    }
+
+    /**
+     * Only the most recent points should be used and the exponent is limited
+     */
+    @Test
+    public void recentPointsAndLimits() {
+        PowerLawModel model = new PowerLawModel();
+        model.add(10,1000);
+        model.add(20,1000);
+        model.add(40,1000);
+        assertEquals(0,model.getK(),1e-8);
+
+        model.add(80,8000);
+        assertTrue(model.getK() > 0);
+
+        model = new PowerLawModel();
+        model.add(10,1000);
+        model.add(20,500);
+        assertEquals(0,model.getK(),1e-8);
+
+        model = new PowerLawModel();
+        model.add(10,1);
+        model.add(20,1e6);
+        assertEquals(PowerLawModel.MAX_EXPONENT,model.getK(),1e-8);
+    }
+
+    @Test
+    public void invalidInput() {
+        PowerLawModel model = new PowerLawModel();
+        model.add(10,0);
+        model.add(20,Double.NaN);
+        model.add(10,5);
+        model.add(10,6);
+        assertFalse(model.isValid());
+    }
+}
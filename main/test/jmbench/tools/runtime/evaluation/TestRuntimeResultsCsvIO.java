@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2009-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of JMatrixBenchmark.
+ *
+ * JMatrixBenchmark is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * JMatrixBenchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JMatrixBenchmark.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package jmbench.tools.runtime.evaluation;
+
+import jmbench.tools.runtime.RuntimeEvaluationMetrics;
+import jmbench.tools.runtime.RuntimeMeasurement;
+import jmbench.tools.runtime.RuntimeResults;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRuntimeResultsCsvIO {
+    @Test
+    public void encodeDecode() {
+        List<RuntimeMeasurement> raw = new ArrayList<>();
+        raw.add(new RuntimeMeasurement(10.5,0));
+        raw.add(new RuntimeMeasurement(12.0,0));
+        raw.get(1).cores = "2,3";
+        raw.get(1).warmupMS = 1200;
+        raw.get(1).compileMS = 85;
+        raw.get(1).jitActive = true;
+        raw.get(1).gcCount = 3;
+        raw.get(1).gcTimeMS = 12;
+        raw.get(1).gcFraction = 0.25;
+        raw.get(1).gcRetries = 2;
+        raw.get(1).cyclesPerOp = 2000;
+        raw.get(1).instructionsPerOp = 3000;
+        raw.get(1).llcMissesPerOp = 1.5;
+        raw.get(1).branchMissesPerOp = 4;
+        raw.get(1).allocatedBytesPerOp = 800;
+
+        RuntimeEvaluationMetrics[] metrics = new RuntimeEvaluationMetrics[]{new RuntimeEvaluationMetrics(raw),null};
+        RuntimeResults original = new RuntimeResults("Mult c=a*b","EJML",new int[]{2,5},metrics);
+        original.complete = true;
+        original.skipReasons = new String[]{null,"predicted 2000000 ms per test at size 5"};
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        RuntimeResultsCsvIO.write(original,new PrintStream(bytes));
+
+        RuntimeResults found = RuntimeResultsCsvIO.read(new ByteArrayInputStream(bytes.toByteArray()));
+
+        assertEquals("EJML",found.libraryName);
+        assertEquals("Mult c=a*b",found.opName);
+        assertTrue(found.complete);
+        assertArrayEquals(new int[]{2,5},found.matDimen);
+        assertNull(found.metrics[1]);
+        assertNull(found.getSkipReason(0));
+        assertEquals("predicted 2000000 ms per test at size 5",found.getSkipReason(1));
+
+        List<RuntimeMeasurement> foundRaw = found.metrics[0].rawResults;
+        assertEquals(2,foundRaw.size());
+        assertEquals(10.5,foundRaw.get(0).opsPerSec,1e-8);
+        assertNull(foundRaw.get(0).cores);
+        assertEquals(12.0,foundRaw.get(1).opsPerSec,1e-8);
+        assertEquals("2,3",foundRaw.get(1).cores);
+        assertEquals(-1,foundRaw.get(0).warmupMS);
+        assertEquals(1200,foundRaw.get(1).warmupMS);
+        assertEquals(85,foundRaw.get(1).compileMS);
+        assertFalse(foundRaw.get(0).jitActive);
+        assertTrue(foundRaw.get(1).jitActive);
+        assertFalse(foundRaw.get(0).isGcContaminated());
+        assertEquals(-1,foundRaw.get(0).gcCount);
+        assertEquals(3,foundRaw.get(1).gcCount);
+        assertEquals(12,foundRaw.get(1).gcTimeMS);
+        assertEquals(0.25,foundRaw.get(1).gcFraction,1e-8);
+        assertEquals(2,foundRaw.get(1).gcRetries);
+        assertEquals(-1,foundRaw.get(0).getIpc(),1e-8);
+        assertEquals(1.5,foundRaw.get(1).getIpc(),1e-8);
+        assertEquals(1.5,foundRaw.get(1).llcMissesPerOp,1e-8);
+        assertEquals(4,foundRaw.get(1).branchMissesPerOp,1e-8);
+        assertEquals(-1,foundRaw.get(0).allocatedBytesPerOp,1e-8);
+        assertEquals(800,foundRaw.get(1).allocatedBytesPerOp,1e-8);
+    }
+
+    /**
+     * Files written before optional columns were added must still be readable
+     */
+    @Test
+    public void readOldFormat() {
+        String text = "\"EJML\"\t\"Add c=a+b\"\tfalse\t2\n2\t2\n100.0\n110.0\n5\t-1\n";
+
+        RuntimeResults found = RuntimeResultsCsvIO.read(new ByteArrayInputStream(text.getBytes()));
+
+        assertFalse(found.complete);
+        assertEquals(2,found.metrics[0].rawResults.size());
+        assertEquals(110.0,found.metrics[0].rawResults.get(1).opsPerSec,1e-8);
+        assertNull(found.metrics[1]);
+        assertNull(found.skipReasons);
+    }
+}